@@ -0,0 +1,152 @@
+package com.passmanager.benchmark;
+
+import com.passmanager.util.PasswordGeneratorUtil.PasswordStrength;
+import com.passmanager.util.PasswordStrengthAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el analizador de fortaleza de una pasada ({@link PasswordStrengthAnalyzer})
+ * con la evaluación anterior por expresiones regulares ({@link RegexStrength}).
+ *
+ * <p>El corpus es fijo (semilla constante) y mezcla contraseñas aleatorias, palabras
+ * de diccionario con sustituciones, recorridos de teclado y secuencias, como una
+ * bóveda real. Se ejecuta con el perfil {@code benchmark}:</p>
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordStrengthBenchmark {
+
+    private static final String[] WORDS = {
+        "password", "dragon", "sunshine", "football", "contrasena", "verano", "princesa", "keyguard"
+    };
+    private static final String[] PATTERNS = {
+        "qwerty", "asdfgh", "123456", "abcdef", "987654", "zxcvbn", "aaaa", "1111"
+    };
+    private static final String RANDOM_ALPHABET =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%^&*()-_=+";
+
+    /** Entradas de la bóveda simulada. */
+    @Param({"1000"})
+    private int vaultSize;
+
+    private final PasswordStrengthAnalyzer analyzer = new PasswordStrengthAnalyzer();
+    private String[] passwords;
+
+    @Setup
+    public void setUp() {
+        passwords = corpus(vaultSize, 42);
+    }
+
+    @Benchmark
+    public void regexSequential(Blackhole blackhole) {
+        for (String password : passwords) {
+            blackhole.consume(RegexStrength.evaluate(password));
+        }
+    }
+
+    @Benchmark
+    public void singlePassSequential(Blackhole blackhole) {
+        for (String password : passwords) {
+            blackhole.consume(analyzer.evaluateStrength(password));
+        }
+    }
+
+    @Benchmark
+    public long singlePassParallel() {
+        return Arrays.stream(passwords).parallel()
+                .map(analyzer::evaluateStrength)
+                .filter(strength -> strength.compareTo(PasswordStrength.MEDIUM) < 0)
+                .count();
+    }
+
+    /**
+     * Corpus reproducible: un tercio aleatorias, un tercio palabra con sustituciones y
+     * sufijo, un tercio patrón de teclado o secuencia con adornos.
+     */
+    static String[] corpus(int size, long seed) {
+        Random random = new Random(seed);
+        String[] result = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder sb = new StringBuilder();
+            switch (i % 3) {
+                case 0 -> {
+                    int length = 10 + random.nextInt(15);
+                    for (int j = 0; j < length; j++) {
+                        sb.append(RANDOM_ALPHABET.charAt(random.nextInt(RANDOM_ALPHABET.length())));
+                    }
+                }
+                case 1 -> {
+                    String word = WORDS[random.nextInt(WORDS.length)];
+                    sb.append(Character.toUpperCase(word.charAt(0)))
+                            .append(word.substring(1).replace('a', '@').replace('o', '0'))
+                            .append(random.nextInt(100));
+                }
+                default -> sb.append(PATTERNS[random.nextInt(PATTERNS.length)])
+                        .append('!')
+                        .append(1990 + random.nextInt(35));
+            }
+            result[i] = sb.toString();
+        }
+        return result;
+    }
+
+    /**
+     * Copia literal de {@code PasswordGeneratorUtil.evaluateStrength} antes del
+     * analizador de una pasada, como referencia.
+     */
+    static final class RegexStrength {
+
+        private RegexStrength() {
+        }
+
+        static PasswordStrength evaluate(String password) {
+            if (password == null || password.isEmpty()) {
+                return PasswordStrength.VERY_WEAK;
+            }
+
+            int score = 0;
+            int length = password.length();
+
+            if (length >= 8) score++;
+            if (length >= 12) score++;
+            if (length >= 16) score++;
+            if (length >= 20) score++;
+
+            if (password.matches(".*[a-z].*")) score++;
+            if (password.matches(".*[A-Z].*")) score++;
+            if (password.matches(".*[0-9].*")) score++;
+            if (password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{}|;:,.<>?].*")) score++;
+
+            if (password.matches(".*(.)\\1{2,}.*")) score--;
+            if (password.matches(".*(?:012|123|234|345|456|567|678|789|890).*")) score--;
+            if (password.matches(".*(?:abc|bcd|cde|def|efg|fgh|ghi|hij|ijk|jkl|klm|lmn|mno|nop|opq|pqr|qrs|rst|stu|tuv|uvw|vwx|wxy|xyz).*")) score--;
+
+            if (score <= 2) return PasswordStrength.VERY_WEAK;
+            if (score <= 4) return PasswordStrength.WEAK;
+            if (score <= 6) return PasswordStrength.MEDIUM;
+            if (score <= 8) return PasswordStrength.STRONG;
+            return PasswordStrength.VERY_STRONG;
+        }
+    }
+}
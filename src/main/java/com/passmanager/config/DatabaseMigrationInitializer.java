@@ -1,10 +1,12 @@
 package com.passmanager.config;
 
+import com.passmanager.service.AuditLogService;
 import com.passmanager.service.SchemaMigrationService;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 /**
@@ -25,6 +27,14 @@ import org.springframework.stereotype.Component;
  * <ul>
  *   <li><strong>v1:</strong> Schema inicial (usuarios, contraseñas, categorías)</li>
  *   <li><strong>v2:</strong> Jerarquía de cifrado triple-clave (Key A/B/C)</li>
+ *   <li><strong>v3:</strong> Conteos diarios de auditoría ({@code audit_daily_rollup}), con backfill</li>
+ *   <li><strong>v4:</strong> Índice {@code idx_history_entry_changed} para la retención del historial</li>
+ *   <li><strong>v5:</strong> Migraciones de datos en segundo plano ({@code data_migration_progress})</li>
+ *   <li><strong>v6:</strong> Clave de bóveda por usuario envuelta con la contraseña ({@code users.wrapped_vault_key})</li>
+ *   <li><strong>v7:</strong> Algoritmo de cifrado por bóveda y formato versionado ({@code users.cipher_algorithm})</li>
+ *   <li><strong>v8:</strong> Metadatos cifrados opcionales con índice ciego ({@code entry_search_tokens})</li>
+ *   <li><strong>v9:</strong> Índice de dominios de las entradas ({@code entry_domains}), con backfill</li>
+ *   <li><strong>v10:</strong> Política de retención de auditoría por usuario ({@code users.audit_max_age_days})</li>
  * </ul>
  *
  * <h2>Cómo agregar una nueva migración:</h2>
@@ -35,7 +45,7 @@ import org.springframework.stereotype.Component;
  * </ol>
  *
  * @see SchemaMigrationService
- * @see com.passmanager.service.impl.AuthServiceImpl#performKeyMigration
+ * @see com.passmanager.service.DataMigrationService
  */
 @Component
 @Order(100) // Ejecutar DESPUÉS de que Hibernate inicialice las tablas
@@ -44,9 +54,15 @@ public class DatabaseMigrationInitializer {
     private static final Logger log = LoggerFactory.getLogger(DatabaseMigrationInitializer.class);
 
     private final SchemaMigrationService schemaMigrationService;
+    private final AuditLogService auditLogService;
+    private final JdbcTemplate jdbcTemplate;
 
-    public DatabaseMigrationInitializer(SchemaMigrationService schemaMigrationService) {
+    public DatabaseMigrationInitializer(SchemaMigrationService schemaMigrationService,
+                                        AuditLogService auditLogService,
+                                        JdbcTemplate jdbcTemplate) {
         this.schemaMigrationService = schemaMigrationService;
+        this.auditLogService = auditLogService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @PostConstruct
@@ -59,13 +75,75 @@ public class DatabaseMigrationInitializer {
                 "Tablas iniciales: users, password_entries, categories, custom_fields, password_history");
 
         // Migración v2: Triple-key encryption hierarchy
-        // Esta migración es PER-USER: cada usuario se migra al hacer login por primera vez.
-        // El campo User.keyVersion rastrea el estado por usuario.
+        // Esta migración es PER-USER: se programa al hacer login por primera vez y los datos
+        // se re-cifran en segundo plano (v5). User.keyVersion rastrea el formato del hash.
         recordMigrationIfNeeded(2,
                 "Triple-key encryption hierarchy (Key A/B/C)",
                 "Per-user migration: re-encrypts passwords from Key A to Key B, adds HMAC tags with Key C. " +
-                "Triggered on first login for legacy users (keyVersion < 2). " +
-                "See AuthServiceImpl.performKeyMigration() for implementation.");
+                "Scheduled on first login for legacy users (keyVersion < 2) and run in the background. " +
+                "See KeyHierarchyDataMigration for implementation.");
+
+        // Migración v3: conteos diarios de auditoría
+        // Desde esta versión se mantienen al escribir cada lote; el backfill cubre el registro previo.
+        if (!schemaMigrationService.isMigrationApplied(3)) {
+            int rows = auditLogService.rebuildDailyRollups();
+            schemaMigrationService.recordMigration(3,
+                    "Daily audit rollups",
+                    "Backfill of audit_daily_rollup from audit_log (" + rows + " rows). " +
+                    "Kept up to date by AuditLogServiceImpl on every batch write.");
+        }
+
+        // Migración v4: índice (password_entry_id, changed_at) para la poda del historial
+        // IF NOT EXISTS: idempotente aunque la base se haya restaurado sin el índice.
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_history_entry_changed " +
+                "ON password_history (password_entry_id, changed_at)");
+        recordMigrationIfNeeded(4,
+                "Password history retention index",
+                "idx_history_entry_changed on password_history(password_entry_id, changed_at). " +
+                "Used by the set-based pruning in PasswordHistoryRepository.pruneEntry/pruneUserBatch.");
+
+        // Migración v5: migraciones de datos por lotes con punto de control por usuario
+        recordMigrationIfNeeded(5,
+                "Background data migrations",
+                "data_migration_progress: per-user cursor of chunked, idempotent data migrations. " +
+                "Run by DataMigrationServiceImpl after login; resumed after a crash or logout. " +
+                "First user: v2-key-hierarchy (re-encryption Key A → Key B).");
+
+        // Migración v6: clave de bóveda envuelta (PER-USER, al iniciar sesión, sin re-cifrar datos)
+        recordMigrationIfNeeded(6,
+                "Wrapped per-user vault key",
+                "users.wrapped_vault_key holds Key B + Key C wrapped under a key derived from Key A (keyVersion = 3). " +
+                "Existing users adopt their derived Key B/C as vault key on next login, so no data is re-encrypted. " +
+                "Master password changes and account recovery only re-wrap the vault key.");
+
+        // Migración v7: algoritmo AEAD por bóveda (PER-USER, re-cifrado en segundo plano al cambiarlo)
+        recordMigrationIfNeeded(7,
+                "Per-vault AEAD algorithm",
+                "users.cipher_algorithm selects AES-256-GCM or ChaCha20-Poly1305 for new writes (null = AES-GCM). " +
+                "New values carry a versioned header with the algorithm id; unversioned values stay readable as AES-GCM. " +
+                "Chosen on login from the startup benchmark; switching schedules CipherReencryptDataMigration.");
+
+        // Migración v8: metadatos cifrados (PER-USER, opcional, conversión en segundo plano)
+        recordMigrationIfNeeded(8,
+                "Encrypted entry metadata with blind index",
+                "users.metadata_encryption enables encryption of title, username, email, url and notes. " +
+                "password_entries.metadata_encrypted marks converted rows; entry_search_tokens holds HMAC blind-index " +
+                "tokens (whole values and word prefixes) indexed on (user_id, token). " +
+                "Toggling schedules MetadataEncryptionDataMigration.");
+
+        // Migración v9: índice de dominios (PER-USER, backfill en segundo plano)
+        recordMigrationIfNeeded(9,
+                "Entry domain index",
+                "entry_domains maps the registrable domain of each entry URL (public-suffix aware, as an HMAC " +
+                "blind-index token) to the entry, indexed on (user_id, domain_token). Maintained on create/update; " +
+                "EntryDomainDataMigration indexes existing entries once per user.");
+
+        // Migración v10: retención de auditoría por usuario (columnas nulas = valores por defecto)
+        recordMigrationIfNeeded(10,
+                "Per-user audit retention policy",
+                "users.audit_max_age_days and users.audit_max_rows hold the audit retention policy (null = 180 days / " +
+                "5000 rows). Archived events are written as one verified segment per batch and month " +
+                "(audit-YYYY-MM-<firstId>.jsonl.gz); legacy monthly files stay readable.");
 
         log.info("✓ Registro de migraciones completo. Versión actual: v{}",
                 schemaMigrationService.getCurrentVersion());
@@ -5,6 +5,9 @@ import com.passmanager.model.entity.AuditLog.ActionType;
 import com.passmanager.model.entity.AuditLog.ResultType;
 import com.passmanager.model.entity.User;
 import com.passmanager.service.AuditLogService;
+import com.passmanager.service.AuditLogService.AuditCursor;
+import com.passmanager.service.AuditLogService.AuditFilter;
+import com.passmanager.service.AuditLogService.AuditPage;
 import com.passmanager.service.UserService;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -16,10 +19,14 @@ import javafx.stage.Stage;
 import org.springframework.stereotype.Component;
 
 import java.net.URL;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.Set;
 
 @Component
 public class AuditLogController implements Initializable {
@@ -31,6 +38,8 @@ public class AuditLogController implements Initializable {
     @FXML private TableColumn<AuditLog, String> descriptionColumn;
     @FXML private TableColumn<AuditLog, String> ipAddressColumn;
     @FXML private ComboBox<String> filterComboBox;
+    @FXML private DatePicker fromDatePicker;
+    @FXML private DatePicker toDatePicker;
     @FXML private Label totalEntriesLabel;
     @FXML private Button closeBtn;
     @FXML private javafx.scene.control.Pagination pagination;
@@ -39,8 +48,14 @@ public class AuditLogController implements Initializable {
     private final UserService userService;
 
     private ObservableList<AuditLog> auditList = FXCollections.observableArrayList();
-    private List<AuditLog> allAuditLogs;
-    private List<AuditLog> filteredLogs; // Lista filtrada para la paginación
+    private AuditFilter currentFilter = AuditFilter.all();
+
+    /**
+     * Cursor de inicio de cada página ya visitada: el índice i guarda el cursor tras el
+     * que empieza la página i (null para la primera). Saltar hacia delante recorre las
+     * páginas intermedias; volver atrás reutiliza el cursor guardado.
+     */
+    private final List<AuditCursor> pageCursors = new ArrayList<>();
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
     private static final int ITEMS_PER_PAGE = 10;
@@ -109,6 +124,8 @@ public class AuditLogController implements Initializable {
         ));
         filterComboBox.setValue("Todas las acciones");
         filterComboBox.setOnAction(e -> applyFilter());
+        fromDatePicker.setOnAction(e -> applyFilter());
+        toDatePicker.setOnAction(e -> applyFilter());
     }
 
     private void setupPagination() {
@@ -119,75 +136,74 @@ public class AuditLogController implements Initializable {
     }
 
     private void loadAuditLogs() {
-        User currentUser = userService.getCurrentUser();
-        allAuditLogs = auditLogService.findByUser(currentUser);
-        filteredLogs = allAuditLogs; // Inicializar con todos los registros
         applyFilter();
     }
 
+    /**
+     * Construye el filtro y delega el filtrado, el conteo y la paginación en SQL.
+     */
     private void applyFilter() {
-        String filter = filterComboBox.getValue();
-
-        switch (filter) {
-            case "Solo inicios de sesión":
-                filteredLogs = allAuditLogs.stream()
-                    .filter(log -> log.getAction() == ActionType.LOGIN ||
-                                   log.getAction() == ActionType.LOGIN_FAILED ||
-                                   log.getAction() == ActionType.LOGOUT)
-                    .toList();
-                break;
-            case "Solo acciones en contraseñas":
-                filteredLogs = allAuditLogs.stream()
-                    .filter(log -> log.getAction() == ActionType.CREATE_ENTRY ||
-                                   log.getAction() == ActionType.UPDATE_ENTRY ||
-                                   log.getAction() == ActionType.DELETE_ENTRY ||
-                                   log.getAction() == ActionType.VIEW_PASSWORD ||
-                                   log.getAction() == ActionType.COPY_PASSWORD ||
-                                   log.getAction() == ActionType.REVEAL_PASSWORD)
-                    .toList();
-                break;
-            case "Solo exportaciones/importaciones":
-                filteredLogs = allAuditLogs.stream()
-                    .filter(log -> log.getAction() == ActionType.EXPORT_VAULT ||
-                                   log.getAction() == ActionType.IMPORT_VAULT ||
-                                   log.getAction() == ActionType.BACKUP_CREATED)
-                    .toList();
-                break;
-            case "Solo errores":
-                filteredLogs = allAuditLogs.stream()
-                    .filter(log -> log.getResult() == ResultType.FAILURE ||
-                                   log.getResult() == ResultType.BLOCKED)
-                    .toList();
-                break;
-            default:
-                filteredLogs = allAuditLogs;
-        }
+        Set<ActionType> actions = switch (filterComboBox.getValue()) {
+            case "Solo inicios de sesión" -> EnumSet.of(
+                    ActionType.LOGIN, ActionType.LOGIN_FAILED, ActionType.LOGOUT);
+            case "Solo acciones en contraseñas" -> EnumSet.of(
+                    ActionType.CREATE_ENTRY, ActionType.UPDATE_ENTRY, ActionType.DELETE_ENTRY,
+                    ActionType.VIEW_PASSWORD, ActionType.COPY_PASSWORD, ActionType.REVEAL_PASSWORD);
+            case "Solo exportaciones/importaciones" -> EnumSet.of(
+                    ActionType.EXPORT_VAULT, ActionType.IMPORT_VAULT, ActionType.BACKUP_CREATED);
+            default -> Set.of();
+        };
+        Set<ResultType> results = "Solo errores".equals(filterComboBox.getValue())
+                ? EnumSet.of(ResultType.FAILURE, ResultType.BLOCKED)
+                : Set.of();
+
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
+        currentFilter = new AuditFilter(
+                actions,
+                results,
+                fromDate != null ? fromDate.atStartOfDay() : null,
+                toDate != null ? toDate.atTime(LocalTime.MAX) : null);
+
+        long total = auditLogService.count(userService.getCurrentUser(), currentFilter);
+
+        pageCursors.clear();
+        pageCursors.add(null);
 
         // Actualizar paginación
-        int pageCount = (int) Math.ceil((double) filteredLogs.size() / ITEMS_PER_PAGE);
+        int pageCount = (int) Math.ceil((double) total / ITEMS_PER_PAGE);
         pagination.setPageCount(Math.max(1, pageCount));
         pagination.setCurrentPageIndex(0);
 
-        totalEntriesLabel.setText(filteredLogs.size() + " entradas");
+        totalEntriesLabel.setText(total + " entradas");
 
         // Mostrar primera página
         updatePage(0);
     }
 
     private void updatePage(int pageIndex) {
-        if (filteredLogs == null || filteredLogs.isEmpty()) {
-            auditList.clear();
-            return;
+        if (pageCursors.isEmpty()) {
+            return; // Filtro aún no aplicado
+        }
+        User currentUser = userService.getCurrentUser();
+
+        // Avanzar desde la última página conocida hasta la anterior a la solicitada
+        while (pageCursors.size() <= pageIndex) {
+            AuditPage skipped = auditLogService.findPage(
+                    currentUser, currentFilter, pageCursors.get(pageCursors.size() - 1), ITEMS_PER_PAGE);
+            if (!skipped.hasMore()) {
+                auditList.clear();
+                return;
+            }
+            pageCursors.add(skipped.getNext());
         }
 
-        int fromIndex = pageIndex * ITEMS_PER_PAGE;
-        int toIndex = Math.min(fromIndex + ITEMS_PER_PAGE, filteredLogs.size());
+        AuditPage page = auditLogService.findPage(
+                currentUser, currentFilter, pageCursors.get(pageIndex), ITEMS_PER_PAGE);
+        auditList.setAll(page.getItems());
 
-        if (fromIndex < filteredLogs.size()) {
-            List<AuditLog> pageItems = filteredLogs.subList(fromIndex, toIndex);
-            auditList.setAll(pageItems);
-        } else {
-            auditList.clear();
+        if (page.hasMore() && pageCursors.size() == pageIndex + 1) {
+            pageCursors.add(page.getNext());
         }
     }
 
@@ -216,6 +232,7 @@ public class AuditLogController implements Initializable {
             case DELETE_TAG -> "🗑️ Eliminar tag";
             case RECOVERY_KEY_GENERATED -> "🔑 Generar clave de recuperación";
             case RECOVERY_KEY_USED -> "🔄 Usar clave de recuperación";
+            case MASTER_PASSWORD_CHANGED -> "🔑 Cambiar contraseña maestra";
             case BREACH_CHECK_RUN -> "🔍 Verificar brechas";
             case PASSWORD_GENERATOR_USED -> "🎲 Generador de contraseñas usado";
             default -> action.name();
@@ -1,8 +1,15 @@
 package com.passmanager.controller;
 
 import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.service.BreachAuditService;
+import com.passmanager.service.BreachAuditService.StoredBreachResult;
 import com.passmanager.service.PasswordBreachService;
 import com.passmanager.service.PasswordEntryService;
+import com.passmanager.service.PasswordReuseService;
+import com.passmanager.service.PasswordSimilarityService;
+import com.passmanager.service.SecretValue;
+import com.passmanager.service.VaultSession;
+import com.passmanager.service.VaultSessionService;
 import com.passmanager.util.PasswordGeneratorUtil;
 import com.passmanager.util.PasswordGeneratorUtil.PasswordStrength;
 import javafx.application.Platform;
@@ -18,8 +25,8 @@ import javafx.stage.Stage;
 import org.springframework.stereotype.Component;
 
 import java.net.URL;
+import java.nio.CharBuffer;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Component
 @org.springframework.context.annotation.Scope("prototype")
@@ -52,6 +59,14 @@ public class BreachCheckController implements Initializable {
     @FXML private TableColumn<DuplicateResult, String> dupEmailColumn;
     @FXML private TableColumn<DuplicateResult, String> dupGroupColumn;
 
+    // ── Tabla: Similares ─────────────────────────────
+    @FXML private TableView<SimilarResult> similarTable;
+    @FXML private TableColumn<SimilarResult, String> simTitleColumn;
+    @FXML private TableColumn<SimilarResult, String> simUsernameColumn;
+    @FXML private TableColumn<SimilarResult, String> simEmailColumn;
+    @FXML private TableColumn<SimilarResult, String> simGroupColumn;
+    @FXML private TableColumn<SimilarResult, String> simSimilarityColumn;
+
     // ── Tabla: Débiles ───────────────────────────────
     @FXML private TableView<WeakResult> weakTable;
     @FXML private TableColumn<WeakResult, String> weakTitleColumn;
@@ -62,32 +77,47 @@ public class BreachCheckController implements Initializable {
     // ── Servicios ────────────────────────────────────
     private final PasswordEntryService passwordEntryService;
     private final PasswordBreachService passwordBreachService;
+    private final BreachAuditService breachAuditService;
+    private final PasswordReuseService passwordReuseService;
+    private final PasswordSimilarityService passwordSimilarityService;
     private final PasswordGeneratorUtil passwordGeneratorUtil;
+    private final VaultSessionService vaultSessionService;
 
     // ── Estado ───────────────────────────────────────
     private Stage dialogStage;
-    private Task<Void> breachTask;
+    private VaultHealthTask healthTask;
 
     private final ObservableList<BreachResult> breachResults = FXCollections.observableArrayList();
     private final ObservableList<DuplicateResult> duplicateResults = FXCollections.observableArrayList();
+    private final ObservableList<SimilarResult> similarResults = FXCollections.observableArrayList();
     private final ObservableList<WeakResult> weakResults = FXCollections.observableArrayList();
 
     public BreachCheckController(PasswordEntryService passwordEntryService,
                                  PasswordBreachService passwordBreachService,
-                                 PasswordGeneratorUtil passwordGeneratorUtil) {
+                                 BreachAuditService breachAuditService,
+                                 PasswordReuseService passwordReuseService,
+                                 PasswordSimilarityService passwordSimilarityService,
+                                 PasswordGeneratorUtil passwordGeneratorUtil,
+                                 VaultSessionService vaultSessionService) {
         this.passwordEntryService = passwordEntryService;
         this.passwordBreachService = passwordBreachService;
+        this.breachAuditService = breachAuditService;
+        this.passwordReuseService = passwordReuseService;
+        this.passwordSimilarityService = passwordSimilarityService;
         this.passwordGeneratorUtil = passwordGeneratorUtil;
+        this.vaultSessionService = vaultSessionService;
     }
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         breachTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         duplicatesTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        similarTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         weakTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         setupBreachTable();
         setupDuplicatesTable();
+        setupSimilarTable();
         setupWeakTable();
     }
 
@@ -170,8 +200,10 @@ public class BreachCheckController implements Initializable {
             return new SimpleStringProperty(e != null && !e.isEmpty() ? e : "—");
         });
 
-        dupGroupColumn.setCellValueFactory(data ->
-                new SimpleStringProperty("Grupo " + data.getValue().getGroup()));
+        dupGroupColumn.setCellValueFactory(data -> {
+            DuplicateResult r = data.getValue();
+            return new SimpleStringProperty("Grupo " + r.getGroup() + (r.isFromHistory() ? " (anterior)" : ""));
+        });
         dupGroupColumn.setStyle("-fx-alignment: CENTER;");
 
         // Filas coloreadas por grupo para agrupar visualmente
@@ -194,6 +226,31 @@ public class BreachCheckController implements Initializable {
         duplicatesTable.setItems(duplicateResults);
     }
 
+    private void setupSimilarTable() {
+        simTitleColumn.setCellValueFactory(data ->
+                new SimpleStringProperty(data.getValue().getEntry().getTitle()));
+
+        simUsernameColumn.setCellValueFactory(data -> {
+            String u = data.getValue().getEntry().getUsername();
+            return new SimpleStringProperty(u != null && !u.isEmpty() ? u : "—");
+        });
+
+        simEmailColumn.setCellValueFactory(data -> {
+            String e = data.getValue().getEntry().getEmail();
+            return new SimpleStringProperty(e != null && !e.isEmpty() ? e : "—");
+        });
+
+        simGroupColumn.setCellValueFactory(data ->
+                new SimpleStringProperty("Grupo " + data.getValue().getGroup()));
+        simGroupColumn.setStyle("-fx-alignment: CENTER;");
+
+        simSimilarityColumn.setCellValueFactory(data ->
+                new SimpleStringProperty(Math.round(data.getValue().getSimilarity() * 100) + "%"));
+        simSimilarityColumn.setStyle("-fx-alignment: CENTER;");
+
+        similarTable.setItems(similarResults);
+    }
+
     private void setupWeakTable() {
         weakTitleColumn.setCellValueFactory(data ->
                 new SimpleStringProperty(data.getValue().getEntry().getTitle()));
@@ -222,7 +279,7 @@ public class BreachCheckController implements Initializable {
         });
 
         weakLengthColumn.setCellValueFactory(data ->
-                new SimpleStringProperty(String.valueOf(data.getValue().getEntry().getPassword().length())));
+                new SimpleStringProperty(String.valueOf(data.getValue().getEntry().getSecret().length())));
         weakLengthColumn.setStyle("-fx-alignment: CENTER;");
 
         weakTable.setItems(weakResults);
@@ -235,147 +292,348 @@ public class BreachCheckController implements Initializable {
     public void setDialogStage(Stage dialogStage) {
         this.dialogStage = dialogStage;
         dialogStage.setOnCloseRequest(event -> {
-            if (breachTask != null && breachTask.isRunning()) {
-                breachTask.cancel();
+            if (healthTask != null && healthTask.isRunning()) {
+                healthTask.cancel();
             }
         });
     }
 
     /**
      * Punto de entrada llamado desde MainController tras abrir el diálogo.
-     * Ejecuta duplicados y débiles de forma inmediata (local),
-     * y lanza la verificación de brechas en segundo plano (API).
+     *
+     * <p>No bloquea el hilo de JavaFX: todo el análisis corre en un pipeline en segundo
+     * plano ({@link VaultHealthTask}) que publica los resultados parciales de cada etapa
+     * en cuanto termina, de modo que el diálogo se abre al instante sea cual sea el
+     * tamaño de la bóveda.</p>
      */
     public void startVerification() {
-        List<PasswordEntryDTO> allPasswords = passwordEntryService.findAll();
+        progressContainer.setVisible(true);
 
-        if (allPasswords.isEmpty()) {
-            progressContainer.setVisible(true);
-            progressLabel.setText("No hay contraseñas para analizar");
-            return;
-        }
+        healthTask = new VaultHealthTask(vaultSessionService.acquire());
 
-        totalLabel.setText(String.valueOf(allPasswords.size()));
+        progressBar.progressProperty().bind(healthTask.progressProperty());
+        progressLabel.textProperty().bind(healthTask.messageProperty());
 
-        // Análisis local — inmediato
-        analyzeDuplicates(allPasswords);
-        analyzeWeakPasswords(allPasswords);
+        healthTask.setOnSucceeded(e -> onHealthCheckComplete(healthTask.getValue()));
+        healthTask.setOnCancelled(e -> onHealthCheckComplete("Análisis cancelado"));
+        healthTask.setOnFailed(e -> onHealthCheckComplete("Error: " + healthTask.getException().getMessage()));
 
-        // Verificación de brechas — asíncrona (necesita API)
-        startBreachCheck(allPasswords);
+        Thread thread = new Thread(healthTask, "vault-health");
+        thread.setDaemon(true);
+        thread.start();
     }
 
-    private void analyzeDuplicates(List<PasswordEntryDTO> passwords) {
-        Map<String, List<PasswordEntryDTO>> groups = passwords.stream()
-                .filter(p -> p.getPassword() != null && !p.getPassword().isEmpty())
-                .collect(Collectors.groupingBy(PasswordEntryDTO::getPassword));
+    private void showStoredResults(Map<Long, StoredBreachResult> storedResults) {
+        for (StoredBreachResult stored : storedResults.values()) {
+            // DTO mínimo: la tabla de brechas solo muestra título y usuario
+            PasswordEntryDTO entry = PasswordEntryDTO.builder()
+                    .id(stored.getPasswordEntryId())
+                    .title(stored.getTitle())
+                    .username(stored.getUsername())
+                    .build();
+            PasswordBreachService.BreachCheckResult result = stored.toCheckResult();
+            breachResults.add(new BreachResult(
+                    entry, result.isBreached(), result.getOccurrences(), result.getSeverityLevel(), null));
+        }
+        if (!storedResults.isEmpty()) {
+            updateBreachedLabel();
+        }
+    }
 
+    /**
+     * Duplicadas y reutilizadas del historial, resueltas por huella en la base de datos:
+     * no descifra ni agrupa contraseñas en memoria.
+     */
+    private List<DuplicateResult> findDuplicates() {
+        List<DuplicateResult> duplicates = new ArrayList<>();
         int groupNumber = 1;
-        for (List<PasswordEntryDTO> group : groups.values()) {
-            if (group.size() > 1) {
-                int gn = groupNumber;
-                group.forEach(entry -> duplicateResults.add(new DuplicateResult(entry, gn)));
-                groupNumber++;
-            }
+        for (PasswordReuseService.ReuseGroup group : passwordReuseService.findReuseGroups()) {
+            int gn = groupNumber;
+            group.getCurrentEntries().forEach(entry -> duplicates.add(new DuplicateResult(entry, gn, false)));
+            group.getHistoryEntries().forEach(entry -> duplicates.add(new DuplicateResult(entry, gn, true)));
+            groupNumber++;
         }
+        return duplicates;
+    }
 
-        // Ordenar por grupo para que aparezcan juntas visualmente
-        duplicateResults.sort(Comparator.comparingInt(DuplicateResult::getGroup));
-        duplicatesLabel.setText(String.valueOf(duplicateResults.size()));
+    /**
+     * Variantes de una misma contraseña (MinHash + LSH), excluidas las idénticas.
+     */
+    private List<SimilarResult> findSimilarPasswords(List<PasswordEntryDTO> passwords) {
+        List<SimilarResult> similar = new ArrayList<>();
+        int groupNumber = 1;
+        for (PasswordSimilarityService.SimilarityCluster cluster :
+                passwordSimilarityService.findSimilarClusters(passwords, PasswordSimilarityService.DEFAULT_THRESHOLD)) {
+            int gn = groupNumber;
+            cluster.getEntries().forEach(entry -> similar.add(new SimilarResult(entry, gn, cluster.getSimilarity())));
+            groupNumber++;
+        }
+        return similar;
     }
 
-    private void analyzeWeakPasswords(List<PasswordEntryDTO> passwords) {
-        for (PasswordEntryDTO entry : passwords) {
-            if (entry.getPassword() == null || entry.getPassword().isEmpty()) continue;
+    /**
+     * El analizador es stateless: la bóveda se puntúa en paralelo y el orden
+     * de las entradas se conserva.
+     */
+    private List<WeakResult> findWeakPasswords(List<PasswordEntryDTO> passwords) {
+        return passwords.parallelStream()
+                .filter(entry -> entry.getSecret() != null && !entry.getSecret().isEmpty())
+                .map(entry -> new WeakResult(entry, evaluateStrength(entry.getSecret())))
+                .filter(result -> result.getStrength() == PasswordStrength.VERY_WEAK
+                        || result.getStrength() == PasswordStrength.WEAK)
+                .toList();
+    }
 
-            PasswordStrength strength = passwordGeneratorUtil.evaluateStrength(entry.getPassword());
-            if (strength == PasswordStrength.VERY_WEAK || strength == PasswordStrength.WEAK) {
-                weakResults.add(new WeakResult(entry, strength));
-            }
+    /**
+     * Puntúa sobre una copia en {@code char[]} que se pone a cero después.
+     */
+    private PasswordStrength evaluateStrength(SecretValue password) {
+        char[] chars = password.toCharArray();
+        try {
+            return passwordGeneratorUtil.evaluateStrength(CharBuffer.wrap(chars));
+        } finally {
+            Arrays.fill(chars, '\0');
         }
-        weakLabel.setText(String.valueOf(weakResults.size()));
     }
 
     // ═══════════════════════════════════════════════════
-    //  VERIFICACIÓN DE BRECHAS (asíncrona)
+    //  PIPELINE DE SALUD DE LA BÓVEDA (segundo plano)
     // ═══════════════════════════════════════════════════
 
-    private void startBreachCheck(List<PasswordEntryDTO> allPasswords) {
-        progressContainer.setVisible(true);
+    private enum HealthStage {
+        LOAD("Cargando resultados guardados"),
+        DECRYPT("Descifrando entradas"),
+        STRENGTH("Evaluando fortaleza"),
+        DUPLICATES("Buscando duplicadas y similares"),
+        BREACHES("Verificando brechas");
 
-        breachTask = new Task<>() {
-            @Override
-            protected Void call() throws Exception {
-                int total = allPasswords.size();
-                int processed = 0;
-                int breachedCount = 0;
+        private final String label;
 
-                for (PasswordEntryDTO entry : allPasswords) {
-                    if (isCancelled()) break;
+        HealthStage(String label) {
+            this.label = label;
+        }
+    }
 
-                    updateMessage("Verificando: " + entry.getTitle() + " (" + (processed + 1) + "/" + total + ")");
+    /**
+     * Pipeline por etapas: carga → descifrado → fortaleza → duplicadas → brechas.
+     *
+     * <p>El progreso global avanza una fracción por etapa y, dentro de cada una,
+     * según los elementos procesados. Cada etapa publica su resultado en las listas
+     * observables mediante {@code Platform.runLater} y comprueba la cancelación antes
+     * de continuar: al cerrar el diálogo se conservan los resultados ya mostrados.</p>
+     *
+     * <p>El valor devuelto es el mensaje final a mostrar.</p>
+     *
+     * <p>Trabaja con un préstamo de la sesión tomado al abrir el diálogo: si la
+     * aplicación se bloquea durante el análisis, la etapa en curso termina con esas
+     * claves y las siguientes ya no empiezan.</p>
+     */
+    private class VaultHealthTask extends Task<String> {
 
-                    try {
-                        PasswordBreachService.BreachCheckResult result =
-                                passwordBreachService.checkPassword(entry.getPassword());
+        private static final int DECRYPT_BATCH_SIZE = 100;
 
-                        BreachResult breachResult = new BreachResult(
-                                entry,
-                                result.isBreached(),
-                                result.getOccurrences(),
-                                result.getSeverityLevel(),
-                                null
-                        );
+        private final VaultSession.Lease lease;
+        private HealthStage stage = HealthStage.LOAD;
 
-                        Platform.runLater(() -> breachResults.add(breachResult));
+        VaultHealthTask(VaultSession.Lease lease) {
+            this.lease = lease;
+        }
 
-                        if (result.isBreached()) breachedCount++;
+        @Override
+        protected String call() throws Exception {
+            try (VaultSession.Lease bound = lease.bind()) {
+                return analyze();
+            }
+        }
 
-                        Thread.sleep(100); // respetar rate-limit de HIBP
+        /** Cancelado por el usuario o sesión bloqueada/cerrada. */
+        private boolean isStopped() {
+            return isCancelled() || !lease.getSession().isValid();
+        }
+
+        private String analyze() throws Exception {
+            // 1. Últimos resultados de brechas guardados — sin descifrar ni consultar la API
+            beginStage(HealthStage.LOAD);
+            Map<Long, StoredBreachResult> storedResults = breachAuditService.findStoredResults();
+            Platform.runLater(() -> showStoredResults(storedResults));
+            if (isStopped()) return null;
+
+            // 2. Entradas descifradas, por lotes de ids
+            beginStage(HealthStage.DECRYPT);
+            List<PasswordEntryDTO> allPasswords = decryptAll();
+            if (allPasswords == null) return null;
+            Platform.runLater(() -> totalLabel.setText(String.valueOf(allPasswords.size())));
+            if (allPasswords.isEmpty()) {
+                return "No hay contraseñas para analizar";
+            }
 
-                    } catch (PasswordBreachService.PasswordBreachCheckException e) {
-                        BreachResult errorResult = new BreachResult(
-                                entry, false, 0,
-                                PasswordBreachService.SeverityLevel.SAFE, e.getMessage());
-                        Platform.runLater(() -> breachResults.add(errorResult));
-                    }
+            // 3. Fortaleza
+            beginStage(HealthStage.STRENGTH);
+            List<WeakResult> weak = findWeakPasswords(allPasswords);
+            Platform.runLater(() -> {
+                weakResults.setAll(weak);
+                weakLabel.setText(String.valueOf(weak.size()));
+            });
+            if (isStopped()) return null;
+
+            // 4. Duplicadas (por huella) y similares (MinHash)
+            beginStage(HealthStage.DUPLICATES);
+            List<DuplicateResult> duplicates = findDuplicates();
+            long currentDuplicates = duplicates.stream().filter(r -> !r.isFromHistory()).count();
+            Platform.runLater(() -> {
+                duplicateResults.setAll(duplicates);
+                duplicatesLabel.setText(String.valueOf(currentDuplicates));
+            });
+            updateStageProgress(1, 2);
+            if (isStopped()) return null;
+
+            List<SimilarResult> similar = findSimilarPasswords(allPasswords);
+            Platform.runLater(() -> similarResults.setAll(similar));
+            if (isStopped()) return null;
+
+            // 5. Brechas — incremental, solo entradas nuevas, cambiadas o caducadas
+            beginStage(HealthStage.BREACHES);
+            return checkBreaches(allPasswords, storedResults);
+        }
 
-                    processed++;
-                    updateProgress(processed, total);
+        /**
+         * Descifra la bóveda en lotes de {@value #DECRYPT_BATCH_SIZE} entradas, con
+         * progreso por lote.
+         *
+         * @return Entradas ordenadas por título, o null si se detuvo
+         */
+        private List<PasswordEntryDTO> decryptAll() {
+            long total = passwordEntryService.count();
+            List<PasswordEntryDTO> decrypted = new ArrayList<>();
+            long afterId = 0;
+            List<Long> ids;
+            while (!(ids = passwordEntryService.findIdsAfter(afterId, DECRYPT_BATCH_SIZE)).isEmpty()) {
+                if (isStopped()) return null;
+                decrypted.addAll(passwordEntryService.findByIds(ids));
+                afterId = ids.get(ids.size() - 1);
+
+                long done = decrypted.size();
+                long expected = Math.max(total, done);
+                updateMessage(stagePrefix() + HealthStage.DECRYPT.label + " (" + done + "/" + expected + ")");
+                updateStageProgress(done, expected);
+            }
+            decrypted.sort(Comparator.comparing(PasswordEntryDTO::getTitle,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            return decrypted;
+        }
 
-                    final int count = breachedCount;
-                    Platform.runLater(() -> breachedLabel.setText(String.valueOf(count)));
+        private String checkBreaches(List<PasswordEntryDTO> allPasswords,
+                                     Map<Long, StoredBreachResult> storedResults) throws InterruptedException {
+            // Fase 1: detectar entradas pendientes (solo HMAC local)
+            List<PasswordEntryDTO> pending = new ArrayList<>();
+            Map<Long, String> fingerprints = new HashMap<>();
+            for (PasswordEntryDTO entry : allPasswords) {
+                if (entry.getSecret() == null || entry.getSecret().isEmpty()) continue;
+
+                String fingerprint = breachAuditService.fingerprint(entry.getSecret());
+                if (breachAuditService.isStale(storedResults.get(entry.getId()), fingerprint)) {
+                    pending.add(entry);
+                    fingerprints.put(entry.getId(), fingerprint);
                 }
-                return null;
             }
-        };
 
-        progressBar.progressProperty().bind(breachTask.progressProperty());
-        progressLabel.textProperty().bind(breachTask.messageProperty());
+            if (pending.isEmpty()) {
+                return "Análisis completo — resultados de brechas al día";
+            }
 
-        breachTask.setOnSucceeded(e -> onBreachCheckComplete());
-        breachTask.setOnCancelled(e -> onBreachCheckComplete());
-        breachTask.setOnFailed(e -> {
-            onBreachCheckComplete();
-            progressLabel.setText("Error: " + breachTask.getException().getMessage());
-        });
+            // Fase 2: consultar la API solo para las pendientes
+            int total = pending.size();
+            int processed = 0;
 
-        Thread thread = new Thread(breachTask);
-        thread.setDaemon(true);
-        thread.start();
+            for (PasswordEntryDTO entry : pending) {
+                if (isStopped()) return null;
+
+                updateMessage(stagePrefix() + "Verificando: " + entry.getTitle()
+                        + " (" + (processed + 1) + "/" + total + ")");
+
+                try {
+                    PasswordBreachService.BreachCheckResult result =
+                            passwordBreachService.checkPassword(entry.getSecret());
+
+                    breachAuditService.recordResult(
+                            entry.getId(), fingerprints.get(entry.getId()), result.getOccurrences());
+
+                    BreachResult breachResult = new BreachResult(
+                            entry,
+                            result.isBreached(),
+                            result.getOccurrences(),
+                            result.getSeverityLevel(),
+                            null
+                    );
+
+                    Platform.runLater(() -> upsertBreachResult(breachResult));
+
+                    Thread.sleep(100); // respetar rate-limit de HIBP
+
+                } catch (PasswordBreachService.PasswordBreachCheckException e) {
+                    BreachResult errorResult = new BreachResult(
+                            entry, false, 0,
+                            PasswordBreachService.SeverityLevel.SAFE, e.getMessage());
+                    Platform.runLater(() -> upsertBreachResult(errorResult));
+                }
+
+                processed++;
+                updateStageProgress(processed, total);
+            }
+            return "Análisis completo";
+        }
+
+        private void beginStage(HealthStage next) {
+            stage = next;
+            updateStageProgress(0, 1);
+            updateMessage(stagePrefix() + next.label + "...");
+        }
+
+        private void updateStageProgress(long done, long total) {
+            updateProgress(stage.ordinal() + (double) done / total, HealthStage.values().length);
+        }
+
+        private String stagePrefix() {
+            return "Etapa " + (stage.ordinal() + 1) + "/" + HealthStage.values().length + " · ";
+        }
+    }
+
+    /**
+     * Reemplaza el resultado de una entrada ya mostrada (guardado) o lo agrega si es nuevo.
+     * Un error de red no sustituye a un resultado guardado válido.
+     */
+    private void upsertBreachResult(BreachResult result) {
+        Long entryId = result.getEntry().getId();
+        for (int i = 0; i < breachResults.size(); i++) {
+            BreachResult existing = breachResults.get(i);
+            if (Objects.equals(existing.getEntry().getId(), entryId)) {
+                if (result.getError() == null || existing.getError() != null) {
+                    breachResults.set(i, result);
+                }
+                updateBreachedLabel();
+                return;
+            }
+        }
+        breachResults.add(result);
+        updateBreachedLabel();
+    }
+
+    private void updateBreachedLabel() {
+        long count = breachResults.stream().filter(BreachResult::isBreached).count();
+        breachedLabel.setText(String.valueOf(count));
     }
 
-    private void onBreachCheckComplete() {
+    private void onHealthCheckComplete(String message) {
         progressBar.progressProperty().unbind();
         progressLabel.textProperty().unbind();
         progressBar.setProgress(1.0);
-        progressLabel.setText("Análisis completo");
+        progressLabel.setText(message);
     }
 
     @FXML
     private void handleClose() {
-        if (breachTask != null && breachTask.isRunning()) {
-            breachTask.cancel();
+        if (healthTask != null && healthTask.isRunning()) {
+            healthTask.cancel();
         }
         dialogStage.close();
     }
@@ -410,14 +668,33 @@ public class BreachCheckController implements Initializable {
     public static class DuplicateResult {
         private final PasswordEntryDTO entry;
         private final int group;
+        private final boolean fromHistory;
+
+        public DuplicateResult(PasswordEntryDTO entry, int group, boolean fromHistory) {
+            this.entry = entry;
+            this.group = group;
+            this.fromHistory = fromHistory;
+        }
+
+        public PasswordEntryDTO getEntry() { return entry; }
+        public int getGroup()              { return group; }
+        public boolean isFromHistory()     { return fromHistory; }
+    }
+
+    public static class SimilarResult {
+        private final PasswordEntryDTO entry;
+        private final int group;
+        private final double similarity;
 
-        public DuplicateResult(PasswordEntryDTO entry, int group) {
+        public SimilarResult(PasswordEntryDTO entry, int group, double similarity) {
             this.entry = entry;
             this.group = group;
+            this.similarity = similarity;
         }
 
         public PasswordEntryDTO getEntry() { return entry; }
         public int getGroup()              { return group; }
+        public double getSimilarity()      { return similarity; }
     }
 
     public static class WeakResult {
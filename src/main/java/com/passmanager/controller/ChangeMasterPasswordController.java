@@ -0,0 +1,147 @@
+package com.passmanager.controller;
+
+import com.passmanager.service.AuthService;
+import com.passmanager.util.ClipboardUtil;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.PasswordField;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.springframework.stereotype.Component;
+
+/**
+ * Diálogo de cambio de contraseña maestra. Al terminar muestra la nueva recovery key.
+ */
+@Component
+@org.springframework.context.annotation.Scope("prototype")
+public class ChangeMasterPasswordController {
+
+    @FXML private VBox formBox;
+    @FXML private PasswordField currentPasswordField;
+    @FXML private PasswordField newPasswordField;
+    @FXML private PasswordField confirmPasswordField;
+    @FXML private VBox resultBox;
+    @FXML private TextField recoveryKeyField;
+    @FXML private Button copyButton;
+    @FXML private HBox progressBox;
+    @FXML private Label errorLabel;
+    @FXML private Button cancelBtn;
+    @FXML private Button saveBtn;
+
+    private final AuthService authService;
+    private final ClipboardUtil clipboardUtil;
+
+    private Stage dialogStage;
+    private boolean changed;
+
+    public ChangeMasterPasswordController(AuthService authService, ClipboardUtil clipboardUtil) {
+        this.authService = authService;
+        this.clipboardUtil = clipboardUtil;
+    }
+
+    public void setDialogStage(Stage dialogStage) {
+        this.dialogStage = dialogStage;
+    }
+
+    @FXML
+    private void handleSave() {
+        if (changed) {
+            dialogStage.close();
+            return;
+        }
+        hideError();
+
+        String currentPassword = currentPasswordField.getText();
+        String newPassword = newPasswordField.getText();
+
+        if (currentPassword.isEmpty()) {
+            showError("Ingresa tu contraseña actual");
+            return;
+        }
+        if (newPassword.length() < 8) {
+            showError("La nueva contraseña debe tener al menos 8 caracteres");
+            return;
+        }
+        if (!newPassword.equals(confirmPasswordField.getText())) {
+            showError("Las contraseñas no coinciden");
+            return;
+        }
+        if (newPassword.equals(currentPassword)) {
+            showError("La nueva contraseña debe ser distinta de la actual");
+            return;
+        }
+
+        // PBKDF2 varias veces: fuera del hilo de JavaFX
+        Task<AuthService.PasswordChangeResult> changeTask = new Task<>() {
+            @Override
+            protected AuthService.PasswordChangeResult call() {
+                return authService.changeMasterPassword(currentPassword, newPassword);
+            }
+        };
+
+        setBusy(true);
+        changeTask.setOnSucceeded(e -> {
+            setBusy(false);
+            showResult(changeTask.getValue().getRecoveryKey());
+        });
+        changeTask.setOnFailed(e -> {
+            setBusy(false);
+            showError(changeTask.getException().getMessage());
+        });
+
+        Thread thread = new Thread(changeTask, "change-master-password");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void handleCopy() {
+        clipboardUtil.copyToClipboard(recoveryKeyField.getText());
+        copyButton.setText("✓ Copiado");
+    }
+
+    @FXML
+    private void handleCancel() {
+        dialogStage.close();
+    }
+
+    private void showResult(String recoveryKey) {
+        changed = true;
+        currentPasswordField.clear();
+        newPasswordField.clear();
+        confirmPasswordField.clear();
+
+        formBox.setVisible(false);
+        formBox.setManaged(false);
+        recoveryKeyField.setText(recoveryKey);
+        resultBox.setVisible(true);
+        resultBox.setManaged(true);
+
+        cancelBtn.setVisible(false);
+        cancelBtn.setManaged(false);
+        saveBtn.setText("Cerrar");
+    }
+
+    private void setBusy(boolean busy) {
+        progressBox.setVisible(busy);
+        progressBox.setManaged(busy);
+        formBox.setDisable(busy);
+        saveBtn.setDisable(busy);
+        cancelBtn.setDisable(busy);
+    }
+
+    private void showError(String message) {
+        errorLabel.setText(message);
+        errorLabel.setVisible(true);
+        errorLabel.setManaged(true);
+    }
+
+    private void hideError() {
+        errorLabel.setVisible(false);
+        errorLabel.setManaged(false);
+    }
+}
@@ -6,6 +6,7 @@ import com.passmanager.service.AuthService;
 import com.passmanager.service.ThemeService;
 import com.passmanager.util.FxmlLoaderUtil;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
@@ -40,6 +41,8 @@ public class LoginController implements Initializable {
     @FXML private Button forgotPasswordButton;
     @FXML private Button togglePasswordButton;
     @FXML private Button toggleConfirmButton;
+    @FXML private HBox progressBox;
+    @FXML private Label progressLabel;
 
     private final AuthService authService;
     private final FxmlLoaderUtil fxmlLoaderUtil;
@@ -47,6 +50,7 @@ public class LoginController implements Initializable {
 
     private boolean isRegisterMode;
     private boolean hasUsers;
+    private LoginTask loginTask;
 
     public LoginController(AuthService authService,
                            FxmlLoaderUtil fxmlLoaderUtil, ThemeService themeService) {
@@ -141,6 +145,12 @@ public class LoginController implements Initializable {
 
     @FXML
     private void handleSubmit() {
+        // Durante el inicio de sesión el botón principal sirve para cancelarlo
+        if (loginTask != null && loginTask.isRunning()) {
+            loginTask.cancel();
+            return;
+        }
+
         hideError();
 
         if (isRegisterMode) {
@@ -211,22 +221,57 @@ public class LoginController implements Initializable {
             return;
         }
 
-        try {
-            if (authService.authenticate(username, password)) {
-                navigateToMain();
-            } else {
-                int remaining = authService.getRemainingLoginAttempts(username);
-                if (remaining > 0) {
-                    showError("Contraseña incorrecta. " + remaining + " intento(s) restante(s).");
-                } else {
-                    showError("Cuenta bloqueada por demasiados intentos fallidos.");
-                }
-                passwordField.clear();
-                passwordVisibleField.clear();
-            }
-        } catch (Exception e) {
-            showError(e.getMessage());
+        // PBKDF2 y la posible migración de claves se ejecutan fuera del hilo de JavaFX
+        loginTask = new LoginTask(username, password);
+        progressLabel.textProperty().bind(loginTask.messageProperty());
+        setBusy(true);
+
+        loginTask.setOnSucceeded(e -> onLoginFinished(username, loginTask.getValue()));
+        loginTask.setOnCancelled(e -> {
+            setBusy(false);
+            showError("Inicio de sesión cancelado");
+        });
+        loginTask.setOnFailed(e -> {
+            setBusy(false);
+            showError(loginTask.getException().getMessage());
+        });
+
+        Thread thread = new Thread(loginTask, "login");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void onLoginFinished(String username, boolean valid) {
+        setBusy(false);
+
+        if (valid) {
+            navigateToMain();
+            return;
+        }
+
+        int remaining = authService.getRemainingLoginAttempts(username);
+        if (remaining > 0) {
+            showError("Usuario o contraseña incorrectos. " + remaining + " intento(s) restante(s).");
+        } else {
+            showError("Cuenta bloqueada por demasiados intentos fallidos.");
         }
+        passwordField.clear();
+        passwordVisibleField.clear();
+    }
+
+    private void setBusy(boolean busy) {
+        if (busy) {
+            showElement(progressBox);
+        } else {
+            progressLabel.textProperty().unbind();
+            hideElement(progressBox);
+        }
+        submitButton.setText(busy ? "Cancelar" : "Entrar");
+        userCombo.setDisable(busy);
+        passwordField.setDisable(busy);
+        passwordVisibleField.setDisable(busy);
+        toggleModeButton.setDisable(busy);
+        forgotPasswordButton.setDisable(busy);
     }
 
     @FXML
@@ -375,4 +420,40 @@ public class LoginController implements Initializable {
     private String getConfirmPasswordValue() {
         return confirmPasswordField.isVisible() ? confirmPasswordField.getText() : confirmVisibleField.getText();
     }
+
+    /**
+     * Inicio de sesión en segundo plano: publica cada fase como mensaje y se
+     * puede cancelar entre fases.
+     */
+    private class LoginTask extends Task<Boolean> {
+
+        private final String username;
+        private final String password;
+
+        LoginTask(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        protected Boolean call() {
+            boolean valid = authService.authenticate(username, password, new AuthService.AuthProgress() {
+                @Override
+                public void onPhase(AuthService.AuthPhase phase) {
+                    updateMessage(phase.getDescription());
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return LoginTask.this.isCancelled();
+                }
+            });
+
+            // Cancelado justo después de la última comprobación: no dejar la sesión abierta
+            if (valid && isCancelled()) {
+                authService.logout();
+            }
+            return valid;
+        }
+    }
 }
@@ -2,10 +2,16 @@ package com.passmanager.controller;
 
 import com.passmanager.model.dto.CategoryDTO;
 import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.model.entity.Tag;
 import com.passmanager.service.AuthService;
 import com.passmanager.service.CategoryService;
+import com.passmanager.service.DataMigrationService;
+import com.passmanager.service.EntryFacetIndex;
 import com.passmanager.service.PasswordEntryService;
+import com.passmanager.service.SecretValue;
+import com.passmanager.service.TagService;
 import com.passmanager.service.ThemeService;
+import com.passmanager.service.VaultPreloadService;
 import com.passmanager.util.ClipboardUtil;
 import com.passmanager.util.DialogUtil;
 import com.passmanager.util.FxmlLoaderUtil;
@@ -19,6 +25,7 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.input.MouseButton;
+import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
@@ -28,8 +35,16 @@ import org.springframework.stereotype.Component;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Component
 public class MainController implements Initializable {
@@ -46,8 +61,11 @@ public class MainController implements Initializable {
     @FXML private VBox categoriesContainer;
     @FXML private Button allCategoriesBtn;
     @FXML private Button favoritesBtn;
+    @FXML private FlowPane tagFacetsContainer;
+    @FXML private ToggleButton tagMatchAllToggle;
     @FXML private Label currentUserLabel;
     @FXML private Label userInitialsLabel;
+    @FXML private Label userStatusLabel;
     @FXML private VBox sidebar;
     @FXML private Button toggleSidebarBtn;
     @FXML private ComboBox<ThemeService.Theme> themeSelector;
@@ -69,11 +87,25 @@ public class MainController implements Initializable {
     private final ThemeService themeService;
     private final com.passmanager.service.AuditLogService auditLogService;
     private final com.passmanager.service.UserService userService;
+    private final VaultPreloadService vaultPreloadService;
+    private final DataMigrationService dataMigrationService;
+    private final TagService tagService;
 
     private ObservableList<PasswordEntryDTO> passwordList = FXCollections.observableArrayList();
     private List<PasswordEntryDTO> allPasswords = new ArrayList<>();
     private Long selectedCategoryId = null;
+    private boolean favoritesOnly = false;
+
+    // Filtro por facetas: tags requeridos (Y/O según tagMatchAllToggle) y exclusiones
+    private final Set<Long> selectedTagIds = new LinkedHashSet<>();
+    private final Set<Long> excludedTagIds = new LinkedHashSet<>();
+    private final Set<Long> excludedCategoryIds = new LinkedHashSet<>();
+    private final Map<Long, ToggleButton> tagChips = new HashMap<>();
+    private final Map<Long, String> tagChipLabels = new HashMap<>();
+    private final Map<Long, Button> categoryButtons = new HashMap<>();
+    private final Map<Long, String> categoryButtonLabels = new HashMap<>();
     private boolean isLocked = false;
+    private Consumer<DataMigrationService.Progress> dataMigrationListener;
     private Stage primaryStage; // Almacenar referencia al stage principal
     private javafx.animation.Timeline lockTimerUpdater; // Timeline para actualizar contador visual
 
@@ -87,7 +119,10 @@ public class MainController implements Initializable {
                           com.passmanager.service.LockService lockService,
                           ThemeService themeService,
                           com.passmanager.service.AuditLogService auditLogService,
-                          com.passmanager.service.UserService userService) {
+                          com.passmanager.service.UserService userService,
+                          VaultPreloadService vaultPreloadService,
+                          DataMigrationService dataMigrationService,
+                          TagService tagService) {
         this.passwordEntryService = passwordEntryService;
         this.categoryService = categoryService;
         this.authService = authService;
@@ -99,6 +134,9 @@ public class MainController implements Initializable {
         this.themeService = themeService;
         this.auditLogService = auditLogService;
         this.userService = userService;
+        this.vaultPreloadService = vaultPreloadService;
+        this.dataMigrationService = dataMigrationService;
+        this.tagService = tagService;
     }
 
     @Override
@@ -106,11 +144,25 @@ public class MainController implements Initializable {
         loadCurrentUser();
         setupTable();
         setupPagination();
-        loadCategories();
-        loadPasswords();
+        loadTagFacets();
+
+        // Categorías y entradas precargadas durante el inicio de sesión, si las hay
+        VaultPreloadService.VaultSnapshot preloaded = vaultPreloadService.take().orElse(null);
+        boolean initialView = selectedCategoryId == null
+                && (searchField.getText() == null || searchField.getText().isEmpty());
+        if (preloaded != null && initialView) {
+            showCategories(preloaded.getCategories());
+            showPasswords(preloaded.getEntries(), false);
+            refreshFacetCounts();
+        } else {
+            loadCategories();
+            loadPasswords();
+        }
+
         setupInactivityMonitoring();
         setupLockMonitoring();
         setupThemeSelector();
+        setupDataMigrationProgress();
     }
 
     private void loadCurrentUser() {
@@ -218,7 +270,11 @@ public class MainController implements Initializable {
 
                 copyBtn.setOnAction(event -> {
                     PasswordEntryDTO entry = getTableView().getItems().get(getIndex());
-                    clipboardUtil.copyToClipboardWithAutoClear(entry.getPassword());
+                    if (entry.getSecret() != null) {
+                        clipboardUtil.copyToClipboardWithAutoClear(entry.getSecret());
+                    } else {
+                        clipboardUtil.copyToClipboardWithAutoClear(entry.getPassword());
+                    }
                     showNotification("Contraseña copiada (se borrará en " + clipboardUtil.getClearDelaySeconds() + "s)");
 
                     // Registrar copia de contraseña
@@ -261,8 +317,14 @@ public class MainController implements Initializable {
     }
 
     private void loadCategories() {
+        showCategories(categoryService.findAll());
+    }
+
+    private void showCategories(List<CategoryDTO> categories) {
         categoriesContainer.getChildren().clear();
-        List<CategoryDTO> categories = categoryService.findAll();
+        categoryButtons.clear();
+        categoryButtonLabels.clear();
+        excludedCategoryIds.retainAll(categories.stream().map(CategoryDTO::getId).collect(Collectors.toSet()));
 
         for (CategoryDTO category : categories) {
             // Contenedor HBox para la categoría con botón de eliminar
@@ -272,10 +334,17 @@ public class MainController implements Initializable {
 
             // Agregar icono a la categoría
             String icon = getCategoryIcon(category.getName());
-            String buttonText = icon + " " + category.getName() + " (" + category.getEntryCount() + ")";
+            String buttonLabel = icon + " " + category.getName();
+            String buttonText = buttonLabel + " (" + category.getEntryCount() + ")";
 
             Button categoryBtn = new Button(buttonText);
             categoryBtn.getStyleClass().addAll("category-item", "category-item-with-icon");
+            if (excludedCategoryIds.contains(category.getId())) {
+                categoryBtn.getStyleClass().add("category-item-excluded");
+            }
+            if (category.getId().equals(selectedCategoryId)) {
+                categoryBtn.getStyleClass().add("category-item-selected");
+            }
             categoryBtn.setMaxWidth(Double.MAX_VALUE);
             HBox.setHgrow(categoryBtn, javafx.scene.layout.Priority.ALWAYS);
             categoryBtn.setOnAction(e -> selectCategory(category.getId(), categoryBtn));
@@ -291,18 +360,112 @@ public class MainController implements Initializable {
             categoryRow.setOnMouseEntered(e -> deleteBtn.setVisible(true));
             categoryRow.setOnMouseExited(e -> deleteBtn.setVisible(false));
 
-            // Menú contextual para editar
+            // Menú contextual para editar y para excluir la categoría del listado
             ContextMenu contextMenu = new ContextMenu();
             MenuItem editItem = new MenuItem("Editar");
             editItem.setOnAction(e -> handleEditCategory(category));
-            contextMenu.getItems().add(editItem);
+            MenuItem excludeItem = new MenuItem();
+            excludeItem.setOnAction(e -> toggleCategoryExclusion(category.getId(), categoryBtn));
+            contextMenu.setOnShowing(e -> excludeItem.setText(
+                    excludedCategoryIds.contains(category.getId()) ? "Volver a incluir" : "Excluir de la lista"));
+            contextMenu.getItems().addAll(editItem, excludeItem);
             categoryBtn.setContextMenu(contextMenu);
 
+            categoryButtons.put(category.getId(), categoryBtn);
+            categoryButtonLabels.put(category.getId(), buttonLabel);
+
             categoryRow.getChildren().addAll(categoryBtn, deleteBtn);
             categoriesContainer.getChildren().add(categoryRow);
         }
     }
 
+    private void toggleCategoryExclusion(Long categoryId, Button categoryBtn) {
+        if (excludedCategoryIds.remove(categoryId)) {
+            categoryBtn.getStyleClass().remove("category-item-excluded");
+        } else {
+            excludedCategoryIds.add(categoryId);
+            categoryBtn.getStyleClass().add("category-item-excluded");
+            // Excluir la categoría seleccionada deja la lista vacía: volver a "Todas"
+            if (categoryId.equals(selectedCategoryId)) {
+                selectedCategoryId = null;
+                updateCategorySelection(allCategoriesBtn);
+            }
+        }
+        loadPasswords();
+    }
+
+    /**
+     * Carga los tags del usuario como chips del filtro. Se descartan de la selección
+     * los tags que ya no existen.
+     */
+    private void loadTagFacets() {
+        tagFacetsContainer.getChildren().clear();
+        tagChips.clear();
+        tagChipLabels.clear();
+
+        List<Tag> tags = tagService.findAllByUser(authService.getCurrentUser());
+        Set<Long> tagIds = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+        selectedTagIds.retainAll(tagIds);
+        excludedTagIds.retainAll(tagIds);
+
+        for (Tag tag : tags) {
+            Long tagId = tag.getId();
+            ToggleButton chip = new ToggleButton(tag.getName());
+            chip.getStyleClass().add("tag-chip");
+            if (tag.getColor() != null) {
+                chip.setStyle("-fx-border-color: " + tag.getColor() + ";");
+            }
+            chip.setSelected(selectedTagIds.contains(tagId));
+            if (excludedTagIds.contains(tagId)) {
+                chip.getStyleClass().add("tag-chip-excluded");
+            }
+            chip.setOnAction(e -> toggleTag(tagId, chip));
+
+            ContextMenu contextMenu = new ContextMenu();
+            MenuItem excludeItem = new MenuItem();
+            excludeItem.setOnAction(e -> toggleTagExclusion(tagId, chip));
+            contextMenu.setOnShowing(e -> excludeItem.setText(
+                    excludedTagIds.contains(tagId) ? "Volver a incluir" : "Excluir de la lista"));
+            contextMenu.getItems().add(excludeItem);
+            chip.setContextMenu(contextMenu);
+
+            tagChips.put(tagId, chip);
+            tagChipLabels.put(tagId, tag.getName());
+            tagFacetsContainer.getChildren().add(chip);
+        }
+    }
+
+    private void toggleTag(Long tagId, ToggleButton chip) {
+        if (chip.isSelected()) {
+            selectedTagIds.add(tagId);
+            excludedTagIds.remove(tagId);
+            chip.getStyleClass().remove("tag-chip-excluded");
+        } else {
+            selectedTagIds.remove(tagId);
+        }
+        loadPasswords();
+    }
+
+    private void toggleTagExclusion(Long tagId, ToggleButton chip) {
+        if (excludedTagIds.remove(tagId)) {
+            chip.getStyleClass().remove("tag-chip-excluded");
+        } else {
+            excludedTagIds.add(tagId);
+            selectedTagIds.remove(tagId);
+            chip.setSelected(false);
+            chip.getStyleClass().add("tag-chip-excluded");
+        }
+        loadPasswords();
+    }
+
+    @FXML
+    private void handleTagMatchModeChanged() {
+        tagMatchAllToggle.setText(tagMatchAllToggle.isSelected() ? "Y" : "O");
+        if (selectedTagIds.size() > 1) {
+            loadPasswords();
+        }
+    }
+
     /**
      * Obtiene un icono apropiado basado en el nombre de la categoría
      */
@@ -460,7 +623,9 @@ public class MainController implements Initializable {
         String search = searchField.getText();
         boolean isSearching = search != null && !search.isEmpty();
 
-        if (selectedCategoryId == null) {
+        if (hasFacetFilter()) {
+            entries = passwordEntryService.findByFilter(currentFilter(), isSearching ? search : null);
+        } else if (selectedCategoryId == null) {
             entries = isSearching
                     ? passwordEntryService.search(search)
                     : passwordEntryService.findAll();
@@ -470,7 +635,43 @@ public class MainController implements Initializable {
                     : passwordEntryService.findByCategory(selectedCategoryId);
         }
 
+        showPasswords(entries, isSearching);
+        refreshFacetCounts();
+    }
+
+    /**
+     * Filtro por facetas de la vista actual.
+     */
+    private EntryFacetIndex.Filter currentFilter() {
+        return new EntryFacetIndex.Filter(selectedTagIds, tagMatchAllToggle.isSelected(), excludedTagIds,
+                selectedCategoryId, excludedCategoryIds, favoritesOnly);
+    }
+
+    /**
+     * Si hay que filtrar con el índice de facetas; solo una categoría (o ninguna) se
+     * resuelve con las consultas de siempre.
+     */
+    private boolean hasFacetFilter() {
+        return favoritesOnly || !selectedTagIds.isEmpty()
+                || !excludedTagIds.isEmpty() || !excludedCategoryIds.isEmpty();
+    }
+
+    /**
+     * Actualiza los recuentos de los chips de tags y de las categorías con el filtro
+     * actual (sin el texto de búsqueda).
+     */
+    private void refreshFacetCounts() {
+        EntryFacetIndex.FacetCounts counts = passwordEntryService.countFacets(currentFilter());
+        tagChips.forEach((tagId, chip) ->
+                chip.setText(tagChipLabels.get(tagId) + " (" + counts.tag(tagId) + ")"));
+        categoryButtons.forEach((categoryId, button) ->
+                button.setText(categoryButtonLabels.get(categoryId) + " (" + counts.category(categoryId) + ")"));
+    }
+
+    private void showPasswords(List<PasswordEntryDTO> entries, boolean isSearching) {
+        List<PasswordEntryDTO> previous = allPasswords;
         allPasswords = entries;
+        wipeSecrets(previous, entries);
 
         // Actualizar indicador de resultados de búsqueda
         updateSearchResultsLabel(isSearching, entries.size());
@@ -489,6 +690,24 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Borra las contraseñas de una lista que se deja de mostrar: cada carga trae copias
+     * nuevas de la caché, y las anteriores no deben esperar al GC. Se respetan las DTO
+     * que sigan en la lista nueva.
+     */
+    private static void wipeSecrets(List<PasswordEntryDTO> outgoing, List<PasswordEntryDTO> kept) {
+        if (outgoing == null || outgoing == kept) {
+            return;
+        }
+        Set<PasswordEntryDTO> keep = Collections.newSetFromMap(new IdentityHashMap<>());
+        keep.addAll(kept);
+        for (PasswordEntryDTO entry : outgoing) {
+            if (entry.getSecret() != null && !keep.contains(entry)) {
+                entry.getSecret().wipe();
+            }
+        }
+    }
+
     /**
      * Actualiza el label que muestra los resultados de búsqueda.
      */
@@ -528,18 +747,21 @@ public class MainController implements Initializable {
     @FXML
     private void handleAllCategories() {
         selectedCategoryId = null;
+        favoritesOnly = false;
         updateCategorySelection(allCategoriesBtn);
         loadPasswords();
     }
 
     private void selectCategory(Long categoryId, Button button) {
         selectedCategoryId = categoryId;
+        favoritesOnly = false;
         updateCategorySelection(button);
         loadPasswords();
     }
 
     private void updateCategorySelection(Button selectedButton) {
         allCategoriesBtn.getStyleClass().remove("category-item-selected");
+        favoritesBtn.getStyleClass().remove("category-item-selected");
         categoriesContainer.getChildren().forEach(node -> {
             if (node instanceof HBox) {
                 // Las categorías ahora están en HBox, buscar el botón dentro
@@ -868,6 +1090,33 @@ public class MainController implements Initializable {
         }
     }
 
+    @FXML
+    private void handleChangeMasterPassword() {
+        try {
+            FXMLLoader loader = fxmlLoaderUtil.getLoader("/fxml/change-master-password.fxml");
+            Parent formView = loader.load();
+
+            ChangeMasterPasswordController controller = loader.getController();
+
+            Stage dialogStage = new Stage();
+            dialogStage.setTitle("Cambiar Contraseña Maestra");
+            dialogStage.initModality(Modality.APPLICATION_MODAL);
+            dialogStage.initOwner(passwordTable.getScene().getWindow());
+
+            Scene scene = new Scene(formView);
+            themeService.applyToScene(scene);
+            attachActivityListeners(scene);
+            dialogStage.setScene(scene);
+            dialogStage.setResizable(false);
+
+            controller.setDialogStage(dialogStage);
+            dialogStage.showAndWait();
+        } catch (Exception e) {
+            e.printStackTrace();
+            showError("Error", "No se pudo abrir el cambio de contraseña: " + e.getMessage());
+        }
+    }
+
     @FXML
     private void handleLogout() {
         boolean confirmed = dialogUtil.showConfirmDialog(
@@ -882,6 +1131,7 @@ public class MainController implements Initializable {
                 // Detener monitoreo de inactividad
                 inactivityService.stopMonitoring();
 
+                wipeSensitiveData();
                 authService.logout();
 
                 FXMLLoader loader = fxmlLoaderUtil.getLoader("/fxml/login.fxml");
@@ -952,6 +1202,7 @@ public class MainController implements Initializable {
                 alert.showAndWait();
 
                 // Cerrar sesión
+                wipeSensitiveData();
                 authService.logout();
 
                 // Navegar al login
@@ -1095,6 +1346,35 @@ public class MainController implements Initializable {
         });
     }
 
+    /**
+     * Muestra bajo el nombre de usuario el avance de las migraciones de datos en segundo plano.
+     */
+    private void setupDataMigrationProgress() {
+        dataMigrationService.getPendingProgress().stream()
+                .findFirst()
+                .ifPresent(this::showDataMigrationProgress);
+        removeDataMigrationListener();
+        dataMigrationListener = progress ->
+                javafx.application.Platform.runLater(() -> showDataMigrationProgress(progress));
+        dataMigrationService.addProgressListener(dataMigrationListener);
+    }
+
+    private void removeDataMigrationListener() {
+        if (dataMigrationListener != null) {
+            dataMigrationService.removeProgressListener(dataMigrationListener);
+            dataMigrationListener = null;
+        }
+    }
+
+    private void showDataMigrationProgress(DataMigrationService.Progress progress) {
+        if (progress.isCompleted()) {
+            userStatusLabel.setText("Sesión activa");
+        } else {
+            userStatusLabel.setText(String.format("%s… %d%%",
+                    progress.getDescription(), Math.round(progress.getFraction() * 100)));
+        }
+    }
+
     /**
      * Maneja el bloqueo de la aplicación.
      * Muestra pantalla de desbloqueo en lugar de cerrar sesión.
@@ -1185,6 +1465,7 @@ public class MainController implements Initializable {
                 lockService.stopMonitoring();
             }
 
+            wipeSensitiveData();
             authService.logout();
 
             FXMLLoader loader = fxmlLoaderUtil.getLoader("/fxml/login.fxml");
@@ -1244,28 +1525,11 @@ public class MainController implements Initializable {
 
     private void clearSensitiveData() {
         try {
-            // Limpiar tabla de contraseñas (usar setItems para evitar problemas con listas inmutables)
-            if (passwordTable != null) {
-                passwordTable.setItems(FXCollections.observableArrayList());
-            }
+            wipeSensitiveData();
 
-            // Limpiar listas en memoria
-            if (passwordList != null) {
-                try {
-                    passwordList.clear();
-                } catch (UnsupportedOperationException e) {
-                    // Si la lista es inmutable, crear una nueva
-                    passwordList = FXCollections.observableArrayList();
-                }
-            }
-            if (allPasswords != null) {
-                try {
-                    allPasswords.clear();
-                } catch (UnsupportedOperationException e) {
-                    // Si la lista es inmutable, crear una nueva
-                    allPasswords = new ArrayList<>();
-                }
-            }
+            // Invalidar la sesión: las claves se borran en cuanto los trabajos en
+            // segundo plano terminan su operación en curso
+            authService.lock();
 
             // Sugerir garbage collection (no garantizado pero ayuda)
             System.gc();
@@ -1276,37 +1540,54 @@ public class MainController implements Initializable {
         }
     }
 
-    @FXML
-    private void handleShowFavorites() {
-        selectedCategoryId = null;
-        // Limpiar selección de categorías
-        allCategoriesBtn.getStyleClass().remove("category-item-selected");
-        categoriesContainer.getChildren().forEach(node -> {
-            if (node instanceof HBox) {
-                ((HBox) node).getChildren().forEach(child -> {
-                    if (child instanceof Button) {
-                        child.getStyleClass().remove("category-item-selected");
-                    }
-                });
-            } else if (node instanceof Button) {
-                node.getStyleClass().remove("category-item-selected");
+    /**
+     * Vacía la tabla y las listas, el portapapeles y los secretos descifrados. Lo
+     * comparten el bloqueo y todas las formas de cerrar sesión.
+     */
+    private void wipeSensitiveData() {
+        // Persistir los eventos de auditoría pendientes antes de cerrar la sesión
+        auditLogService.flush();
+
+        // Limpiar tabla de contraseñas (usar setItems para evitar problemas con listas inmutables)
+        if (passwordTable != null) {
+            passwordTable.setItems(FXCollections.observableArrayList());
+        }
+
+        // Limpiar listas en memoria
+        if (passwordList != null) {
+            try {
+                passwordList.clear();
+            } catch (UnsupportedOperationException e) {
+                // Si la lista es inmutable, crear una nueva
+                passwordList = FXCollections.observableArrayList();
             }
-        });
-        favoritesBtn.getStyleClass().add("category-item-selected");
-        searchField.clear();
+        }
+        if (allPasswords != null) {
+            try {
+                allPasswords.clear();
+            } catch (UnsupportedOperationException e) {
+                // Si la lista es inmutable, crear una nueva
+                allPasswords = new ArrayList<>();
+            }
+        }
 
-        allPasswords = passwordEntryService.findFavorites();
+        // Vaciar el portapapeles si aún tiene la contraseña copiada y borrar los
+        // secretos descifrados que sigan vivos (diálogos, búsquedas, cachés)
+        clipboardUtil.clearNow();
+        SecretValue.wipeAll();
 
-        // Actualizar paginación
-        int pageCount = (int) Math.ceil((double) allPasswords.size() / ITEMS_PER_PAGE);
-        pagination.setPageCount(Math.max(1, pageCount));
+        // La vista se descarta: el servicio no debe seguir reteniéndola
+        removeDataMigrationListener();
+    }
 
-        int currentPage = pagination.getCurrentPageIndex();
-        if (currentPage == 0) {
-            createPage(0);
-        } else {
-            pagination.setCurrentPageIndex(0);
-        }
+    @FXML
+    private void handleShowFavorites() {
+        selectedCategoryId = null;
+        favoritesOnly = true;
+        updateCategorySelection(favoritesBtn);
+        searchField.clear();
+        // Se combina con los tags seleccionados
+        loadPasswords();
     }
 
     private void toggleFavorite(PasswordEntryDTO entry) {
@@ -1331,6 +1612,7 @@ public class MainController implements Initializable {
             stage.setScene(scene);
 
             stage.showAndWait();
+            loadTagFacets();
             loadPasswords();
         } catch (Exception e) {
             e.printStackTrace();
@@ -1338,6 +1620,33 @@ public class MainController implements Initializable {
         }
     }
 
+    @FXML
+    private void handleOpenSettings() {
+        try {
+            FXMLLoader loader = fxmlLoaderUtil.getLoader("/fxml/settings.fxml");
+            Parent root = loader.load();
+
+            SettingsController controller = loader.getController();
+
+            Stage dialogStage = new Stage();
+            dialogStage.setTitle("Ajustes de la Bóveda");
+            dialogStage.initModality(Modality.APPLICATION_MODAL);
+            dialogStage.initOwner(passwordTable.getScene().getWindow());
+
+            Scene scene = new Scene(root);
+            themeService.applyToScene(scene);
+            attachActivityListeners(scene);
+            dialogStage.setScene(scene);
+            dialogStage.setResizable(false);
+
+            controller.setDialogStage(dialogStage);
+            dialogStage.showAndWait();
+        } catch (Exception e) {
+            e.printStackTrace();
+            dialogUtil.showErrorDialog(passwordTable.getScene().getWindow(), "Error", "No se pudieron abrir los ajustes: " + e.getMessage());
+        }
+    }
+
     @FXML
     private void handleViewAuditLog() {
         try {
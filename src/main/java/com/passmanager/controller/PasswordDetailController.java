@@ -1,6 +1,7 @@
 package com.passmanager.controller;
 
 import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.service.SecretValue;
 import com.passmanager.util.ClipboardUtil;
 import com.passmanager.util.ToastUtil;
 import javafx.animation.PauseTransition;
@@ -201,7 +202,9 @@ public class PasswordDetailController implements Initializable {
         }
 
         if (passwordVisible) {
-            passwordLabel.setText(entry.getPassword());
+            // Se descifra del buffer solo mientras está visible; al ocultarlo el texto se suelta
+            SecretValue secret = entry.getSecret();
+            passwordLabel.setText(secret != null && !secret.isWiped() ? secret.reveal() : entry.getPassword());
             togglePasswordBtn.setText("🔒");
 
             // Mostrar notificación de seguridad
@@ -241,16 +244,21 @@ public class PasswordDetailController implements Initializable {
 
     @FXML
     private void handleCopyPassword() {
-        if (entry.getPassword() != null) {
+        SecretValue secret = entry.getSecret();
+        if (secret != null && !secret.isWiped()) {
+            clipboardUtil.copyToClipboardWithAutoClear(secret);
+        } else if (entry.getPassword() != null) {
             clipboardUtil.copyToClipboardWithAutoClear(entry.getPassword());
-
-            // Mostrar notificación estilo Bitwarden/1Password
-            int clearDelaySeconds = clipboardUtil.getClearDelaySeconds();
-            toastUtil.showSuccess(
-                dialogStage.getOwner(),
-                "📋 Contraseña copiada (se borrará en " + clearDelaySeconds + "s)"
-            );
+        } else {
+            return;
         }
+
+        // Mostrar notificación estilo Bitwarden/1Password
+        int clearDelaySeconds = clipboardUtil.getClearDelaySeconds();
+        toastUtil.showSuccess(
+            dialogStage.getOwner(),
+            "📋 Contraseña copiada (se borrará en " + clearDelaySeconds + "s)"
+        );
     }
 
     @FXML
@@ -6,6 +6,7 @@ import com.passmanager.service.CategoryService;
 import com.passmanager.service.PasswordEntryService;
 import com.passmanager.service.PasswordBreachService;
 import com.passmanager.service.PasswordGeneratorService;
+import com.passmanager.service.SecretValue;
 import com.passmanager.util.FxmlLoaderUtil;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -133,7 +134,9 @@ public class PasswordFormController implements Initializable {
             titleField.setText(entry.getTitle());
             usernameField.setText(entry.getUsername());
             emailField.setText(entry.getEmail());
-            passwordField.setText(entry.getPassword());
+            // El campo de edición necesita el texto: se revela solo al abrir el formulario
+            SecretValue secret = entry.getSecret();
+            passwordField.setText(secret != null && !secret.isWiped() ? secret.reveal() : entry.getPassword());
             urlField.setText(entry.getUrl());
             notesField.setText(entry.getNotes());
 
@@ -151,7 +154,7 @@ public class PasswordFormController implements Initializable {
                 }
             }
 
-            updateStrength(entry.getPassword());
+            updateStrength(passwordField.getText());
         }
     }
 
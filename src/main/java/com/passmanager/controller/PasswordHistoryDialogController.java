@@ -2,6 +2,8 @@ package com.passmanager.controller;
 
 import com.passmanager.model.dto.PasswordEntryDTO;
 import com.passmanager.model.dto.PasswordHistoryDTO;
+import com.passmanager.service.EntryVersionService;
+import com.passmanager.service.EntryVersionService.VersionSummary;
 import com.passmanager.service.PasswordHistoryService;
 import com.passmanager.util.ClipboardUtil;
 import javafx.beans.property.SimpleStringProperty;
@@ -14,6 +16,7 @@ import javafx.stage.Stage;
 import org.springframework.stereotype.Component;
 
 import java.net.URL;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ResourceBundle;
 
@@ -24,6 +27,9 @@ import java.util.ResourceBundle;
  * - Fecha de cambio
  * - Contraseña oculta por defecto
  * - Botones para copiar y mostrar cada versión
+ *
+ * En la pestaña "Versiones" lista el historial completo de la entrada (todos los
+ * campos) con los campos que cambiaron en cada versión, y permite ver cualquiera.
  */
 @Component
 @org.springframework.context.annotation.Scope("prototype")
@@ -33,17 +39,27 @@ public class PasswordHistoryDialogController implements Initializable {
     @FXML private TableColumn<PasswordHistoryDTO, String> passwordColumn;
     @FXML private TableColumn<PasswordHistoryDTO, String> dateColumn;
     @FXML private TableColumn<PasswordHistoryDTO, Void> actionsColumn;
+    @FXML private TableView<VersionSummary> versionsTable;
+    @FXML private TableColumn<VersionSummary, String> versionNumberColumn;
+    @FXML private TableColumn<VersionSummary, String> versionDateColumn;
+    @FXML private TableColumn<VersionSummary, String> versionChangesColumn;
+    @FXML private TableColumn<VersionSummary, Void> versionActionsColumn;
     @FXML private Label titleLabel;
     @FXML private Label countLabel;
 
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
     private final PasswordHistoryService historyService;
+    private final EntryVersionService entryVersionService;
     private final ClipboardUtil clipboardUtil;
     private Stage dialogStage;
     private PasswordEntryDTO passwordEntry;
 
     public PasswordHistoryDialogController(PasswordHistoryService historyService,
+                                          EntryVersionService entryVersionService,
                                           ClipboardUtil clipboardUtil) {
         this.historyService = historyService;
+        this.entryVersionService = entryVersionService;
         this.clipboardUtil = clipboardUtil;
     }
 
@@ -100,6 +116,42 @@ public class PasswordHistoryDialogController implements Initializable {
             }
         });
         actionsColumn.setPrefWidth(150);
+
+        setupVersionsTable();
+    }
+
+    private void setupVersionsTable() {
+        versionNumberColumn.setCellValueFactory(data ->
+                new SimpleStringProperty("v" + data.getValue().getVersionNumber()));
+        versionNumberColumn.setPrefWidth(70);
+
+        versionDateColumn.setCellValueFactory(data ->
+                new SimpleStringProperty(data.getValue().getCreatedAt().format(DATE_FORMATTER)));
+        versionDateColumn.setPrefWidth(160);
+
+        versionChangesColumn.setCellValueFactory(data -> {
+            List<String> changed = data.getValue().getChangedFields();
+            return new SimpleStringProperty(changed.isEmpty() ? "Versión inicial" : String.join(", ", changed));
+        });
+        versionChangesColumn.setPrefWidth(260);
+
+        versionActionsColumn.setCellFactory(param -> new TableCell<>() {
+            private final Button viewBtn = new Button("👁 Ver");
+
+            {
+                viewBtn.getStyleClass().add("button-copy");
+                viewBtn.setOnAction(e ->
+                        showVersion(getTableView().getItems().get(getIndex())));
+            }
+
+            @Override
+            protected void updateItem(Void item, boolean empty) {
+                super.updateItem(item, empty);
+                setGraphic(empty ? null : viewBtn);
+                setAlignment(Pos.CENTER);
+            }
+        });
+        versionActionsColumn.setPrefWidth(110);
     }
 
     public void setDialogStage(Stage dialogStage) {
@@ -120,6 +172,38 @@ public class PasswordHistoryDialogController implements Initializable {
             ? "No hay versiones anteriores"
             : history.size() + " versión(es) anterior(es)";
         countLabel.setText(countText);
+
+        versionsTable.getItems().setAll(entryVersionService.getVersions(passwordEntry.getId()));
+    }
+
+    private void showVersion(VersionSummary summary) {
+        PasswordEntryDTO version = entryVersionService.getVersion(
+                passwordEntry.getId(), summary.getVersionNumber());
+
+        StringBuilder content = new StringBuilder();
+        appendLine(content, "Título", version.getTitle());
+        appendLine(content, "Usuario", version.getUsername());
+        appendLine(content, "Email", version.getEmail());
+        appendLine(content, "Contraseña", version.getPassword());
+        appendLine(content, "URL", version.getUrl());
+        appendLine(content, "Categoría", version.getCategoryName());
+        for (PasswordEntryDTO.CustomFieldDTO field : version.getCustomFields()) {
+            appendLine(content, field.getFieldName(), field.getFieldValue());
+        }
+        appendLine(content, "Notas", version.getNotes());
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Versión " + summary.getVersionNumber());
+        alert.setHeaderText("Versión del " + summary.getCreatedAt().format(DATE_FORMATTER));
+        alert.setContentText(content.toString());
+        alert.initOwner(dialogStage);
+        alert.showAndWait();
+    }
+
+    private void appendLine(StringBuilder content, String label, String value) {
+        if (value != null && !value.isEmpty()) {
+            content.append(label).append(": ").append(value).append('\n');
+        }
     }
 
     @FXML
@@ -0,0 +1,192 @@
+package com.passmanager.controller;
+
+import com.passmanager.service.AuditRetentionService;
+import com.passmanager.service.DataMigrationService;
+import com.passmanager.service.PasswordEntryService;
+import com.passmanager.service.PasswordHistoryService;
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Diálogo de ajustes de la bóveda: políticas de retención del registro de auditoría y
+ * del historial de contraseñas, y cifrado de los metadatos de las entradas.
+ *
+ * <p>Al cambiar el cifrado de metadatos el diálogo sigue abierto y muestra el avance
+ * de la conversión en segundo plano ({@link DataMigrationService}).</p>
+ */
+@Component
+@org.springframework.context.annotation.Scope("prototype")
+public class SettingsController {
+
+    private static final int AUDIT_MIN_AGE_DAYS = 7;
+    private static final int AUDIT_MAX_AGE_DAYS = 3650;
+    private static final int AUDIT_MIN_ROWS = 100;
+    private static final int AUDIT_MAX_ROWS = 1_000_000;
+    private static final int AUDIT_ROWS_STEP = 100;
+    private static final int HISTORY_MAX_VERSIONS = 100;
+    private static final int HISTORY_MAX_AGE_DAYS = 3650;
+    private static final int HISTORY_DEFAULT_AGE_DAYS = 365;
+
+    @FXML private Spinner<Integer> auditMaxAgeSpinner;
+    @FXML private Spinner<Integer> auditMaxRowsSpinner;
+    @FXML private Spinner<Integer> historyMaxVersionsSpinner;
+    @FXML private CheckBox historyAgeLimitCheck;
+    @FXML private Spinner<Integer> historyMaxAgeSpinner;
+    @FXML private CheckBox metadataEncryptionCheck;
+    @FXML private VBox formBox;
+    @FXML private VBox migrationBox;
+    @FXML private Label migrationLabel;
+    @FXML private ProgressBar migrationProgress;
+    @FXML private Label errorLabel;
+    @FXML private Button cancelBtn;
+    @FXML private Button saveBtn;
+
+    private final AuditRetentionService auditRetentionService;
+    private final PasswordHistoryService passwordHistoryService;
+    private final PasswordEntryService passwordEntryService;
+    private final DataMigrationService dataMigrationService;
+
+    private final Consumer<DataMigrationService.Progress> progressListener =
+            progress -> Platform.runLater(() -> showMigrationProgress(progress));
+
+    private Stage dialogStage;
+    private boolean saved;
+
+    public SettingsController(AuditRetentionService auditRetentionService,
+                              PasswordHistoryService passwordHistoryService,
+                              PasswordEntryService passwordEntryService,
+                              DataMigrationService dataMigrationService) {
+        this.auditRetentionService = auditRetentionService;
+        this.passwordHistoryService = passwordHistoryService;
+        this.passwordEntryService = passwordEntryService;
+        this.dataMigrationService = dataMigrationService;
+    }
+
+    @FXML
+    private void initialize() {
+        auditMaxAgeSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+                AUDIT_MIN_AGE_DAYS, AUDIT_MAX_AGE_DAYS, auditRetentionService.getMaxAgeDays()));
+        auditMaxRowsSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+                AUDIT_MIN_ROWS, AUDIT_MAX_ROWS, auditRetentionService.getMaxRowsPerUser(), AUDIT_ROWS_STEP));
+
+        Integer historyMaxAgeDays = passwordHistoryService.getMaxAgeDays();
+        historyMaxVersionsSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+                1, HISTORY_MAX_VERSIONS, passwordHistoryService.getMaxVersions()));
+        historyMaxAgeSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+                1, HISTORY_MAX_AGE_DAYS, historyMaxAgeDays != null ? historyMaxAgeDays : HISTORY_DEFAULT_AGE_DAYS));
+        historyAgeLimitCheck.setSelected(historyMaxAgeDays != null);
+        historyMaxAgeSpinner.disableProperty().bind(historyAgeLimitCheck.selectedProperty().not());
+
+        metadataEncryptionCheck.setSelected(passwordEntryService.isMetadataEncryptionEnabled());
+    }
+
+    public void setDialogStage(Stage dialogStage) {
+        this.dialogStage = dialogStage;
+
+        // Una conversión de una sesión anterior puede seguir en curso
+        List<DataMigrationService.Progress> pending = dataMigrationService.getPendingProgress();
+        if (!pending.isEmpty()) {
+            showMigrationProgress(pending.get(0));
+        }
+        dataMigrationService.addProgressListener(progressListener);
+        dialogStage.setOnHidden(e -> dataMigrationService.removeProgressListener(progressListener));
+    }
+
+    @FXML
+    private void handleSave() {
+        if (saved) {
+            dialogStage.close();
+            return;
+        }
+        hideError();
+        try {
+            auditRetentionService.setPolicy(spinnerValue(auditMaxAgeSpinner), spinnerValue(auditMaxRowsSpinner));
+            passwordHistoryService.setRetentionPolicy(spinnerValue(historyMaxVersionsSpinner),
+                    historyAgeLimitCheck.isSelected() ? spinnerValue(historyMaxAgeSpinner) : null);
+        } catch (IllegalArgumentException e) {
+            showError(e.getMessage());
+            return;
+        }
+
+        boolean encrypt = metadataEncryptionCheck.isSelected();
+        if (encrypt == passwordEntryService.isMetadataEncryptionEnabled()) {
+            dialogStage.close();
+            return;
+        }
+
+        // Se queda abierto mostrando el avance de la conversión
+        passwordEntryService.setMetadataEncryption(encrypt);
+        saved = true;
+        formBox.setDisable(true);
+        cancelBtn.setVisible(false);
+        cancelBtn.setManaged(false);
+        saveBtn.setText("Cerrar");
+        migrationLabel.setText(encrypt ? "Cifrando los datos de las entradas…" : "Descifrando los datos de las entradas…");
+        migrationProgress.setProgress(0);
+        showElement(migrationBox);
+    }
+
+    @FXML
+    private void handleCancel() {
+        dialogStage.close();
+    }
+
+    private void showMigrationProgress(DataMigrationService.Progress progress) {
+        showElement(migrationBox);
+        if (!progress.isCompleted()) {
+            migrationLabel.setText(String.format("%s… %d%%",
+                    progress.getDescription(), Math.round(progress.getFraction() * 100)));
+            migrationProgress.setProgress(progress.getFraction());
+            return;
+        }
+        // Puede quedar otra migración detrás en la cola
+        List<DataMigrationService.Progress> pending = dataMigrationService.getPendingProgress();
+        if (pending.isEmpty()) {
+            migrationLabel.setText("✓ Conversión completada");
+            migrationProgress.setProgress(1);
+        } else {
+            showMigrationProgress(pending.get(0));
+        }
+    }
+
+    /**
+     * Valor del spinner incluyendo lo escrito sin confirmar con Enter.
+     */
+    private static int spinnerValue(Spinner<Integer> spinner) {
+        String text = spinner.getEditor().getText().trim();
+        try {
+            spinner.getValueFactory().setValue(Integer.parseInt(text));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido: " + text);
+        }
+        return spinner.getValue();
+    }
+
+    private void showError(String message) {
+        errorLabel.setText(message);
+        errorLabel.setVisible(true);
+        errorLabel.setManaged(true);
+    }
+
+    private void showElement(VBox element) {
+        element.setVisible(true);
+        element.setManaged(true);
+    }
+
+    private void hideError() {
+        errorLabel.setVisible(false);
+        errorLabel.setManaged(false);
+    }
+}
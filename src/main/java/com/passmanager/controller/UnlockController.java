@@ -1,8 +1,10 @@
 package com.passmanager.controller;
 
 import com.passmanager.service.AuthService;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.input.KeyCode;
@@ -38,6 +40,7 @@ public class UnlockController implements Initializable {
     @FXML private Label usernameLabel;
     @FXML private Label lockedTimeLabel;
     @FXML private Label errorLabel;
+    @FXML private Button unlockButton;
 
     private final AuthService authService;
     private Stage dialogStage;
@@ -55,7 +58,9 @@ public class UnlockController implements Initializable {
         // Configurar Enter para desbloquear
         passwordField.setOnKeyPressed(event -> {
             if (event.getCode() == KeyCode.ENTER) {
-                handleUnlock();
+                if (!unlockButton.isDisabled()) {
+                    handleUnlock();
+                }
             }
         });
 
@@ -102,32 +107,53 @@ public class UnlockController implements Initializable {
             return;
         }
 
-        // Validar contraseña del usuario actual (sin hacer re-autenticación completa)
-        try {
-            boolean isValid = authService.verifyCurrentUserPassword(password);
+        // Verificar la contraseña y reabrir la sesión con las claves (el bloqueo las invalidó).
+        // PBKDF2 se ejecuta fuera del hilo de JavaFX para no congelar la ventana.
+        Task<Boolean> verifyTask = new Task<>() {
+            @Override
+            protected Boolean call() {
+                return authService.unlock(password);
+            }
+        };
 
-            if (isValid) {
-                // Contraseña correcta - desbloquear
-                clearError();
-                passwordField.clear();
+        setBusy(true);
+        verifyTask.setOnSucceeded(e -> {
+            setBusy(false);
+            onVerified(verifyTask.getValue());
+        });
+        verifyTask.setOnFailed(e -> {
+            setBusy(false);
+            showError("Error al desbloquear: " + verifyTask.getException().getMessage());
+            verifyTask.getException().printStackTrace();
+        });
 
-                // Ejecutar callback de éxito (MainController restaura la vista)
-                if (onUnlockSuccess != null) {
-                    javafx.application.Platform.runLater(onUnlockSuccess);
-                }
-            } else {
-                // Contraseña incorrecta
-                showError("Contraseña incorrecta");
-                passwordField.clear();
-                passwordField.requestFocus();
+        Thread thread = new Thread(verifyTask, "unlock");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void onVerified(boolean isValid) {
+        if (isValid) {
+            // Contraseña correcta - desbloquear
+            clearError();
+            passwordField.clear();
+
+            // Ejecutar callback de éxito (MainController restaura la vista)
+            if (onUnlockSuccess != null) {
+                javafx.application.Platform.runLater(onUnlockSuccess);
             }
-        } catch (Exception e) {
-            showError("Error al desbloquear: " + e.getMessage());
-            e.printStackTrace();
+        } else {
+            // Contraseña incorrecta
+            showError("Contraseña incorrecta");
+            passwordField.clear();
+            passwordField.requestFocus();
         }
+    }
 
-        // Limpiar contraseña de memoria
-        password = null;
+    private void setBusy(boolean busy) {
+        passwordField.setDisable(busy);
+        unlockButton.setDisable(busy);
+        unlockButton.setText(busy ? "Verificando..." : "Desbloquear");
     }
 
     @FXML
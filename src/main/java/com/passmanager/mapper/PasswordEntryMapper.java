@@ -5,13 +5,19 @@ import com.passmanager.model.entity.Category;
 import com.passmanager.model.entity.CustomField;
 import com.passmanager.model.entity.PasswordEntry;
 import com.passmanager.repository.CategoryRepository;
+import com.passmanager.service.DecryptedEntryCache;
+import com.passmanager.service.DecryptedEntryCache.Decrypted;
 import com.passmanager.service.EncryptionService;
+import com.passmanager.service.EntryMetadataService;
+import com.passmanager.service.EntryMetadataService.Metadata;
+import com.passmanager.service.SecretValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 public class PasswordEntryMapper {
@@ -21,11 +27,17 @@ public class PasswordEntryMapper {
 
     private final EncryptionService encryptionService;
     private final CategoryRepository categoryRepository;
+    private final EntryMetadataService entryMetadataService;
+    private final DecryptedEntryCache decryptedEntryCache;
 
     public PasswordEntryMapper(EncryptionService encryptionService,
-                               CategoryRepository categoryRepository) {
+                               CategoryRepository categoryRepository,
+                               EntryMetadataService entryMetadataService,
+                               DecryptedEntryCache decryptedEntryCache) {
         this.encryptionService = encryptionService;
         this.categoryRepository = categoryRepository;
+        this.entryMetadataService = entryMetadataService;
+        this.decryptedEntryCache = decryptedEntryCache;
     }
 
     public PasswordEntryDTO toDTO(PasswordEntry entry) {
@@ -33,7 +45,8 @@ public class PasswordEntryMapper {
     }
 
     public PasswordEntryDTO toDTO(PasswordEntry entry, boolean includeCustomFields) {
-        String decryptedPassword = decryptAndVerify(entry);
+        Decrypted decrypted = decrypt(entry);
+        Metadata metadata = decrypted.getMetadata();
 
         List<PasswordEntryDTO.CustomFieldDTO> customFieldDTOs = new ArrayList<>();
         if (includeCustomFields && entry.getCustomFields() != null) {
@@ -51,12 +64,12 @@ public class PasswordEntryMapper {
 
         return PasswordEntryDTO.builder()
                 .id(entry.getId())
-                .title(entry.getTitle())
-                .username(entry.getUsername())
-                .email(entry.getEmail())
-                .password(decryptedPassword)
-                .url(entry.getUrl())
-                .notes(entry.getNotes())
+                .title(metadata.getTitle())
+                .username(metadata.getUsername())
+                .email(metadata.getEmail())
+                .secret(decrypted.getPassword())
+                .url(metadata.getUrl())
+                .notes(metadata.getNotes())
                 .categoryId(entry.getCategory() != null ? entry.getCategory().getId() : null)
                 .categoryName(entry.getCategory() != null ? entry.getCategory().getName() : null)
                 .favorite(entry.getFavorite())
@@ -69,9 +82,7 @@ public class PasswordEntryMapper {
     }
 
     public void updateEntityFromDTO(PasswordEntry entry, PasswordEntryDTO dto) {
-        entry.setTitle(dto.getTitle());
-        entry.setUsername(dto.getUsername());
-        entry.setEmail(dto.getEmail());
+        entryMetadataService.write(entry, Metadata.of(dto));
 
         // Actualizar contraseña y fecha de último cambio si cambió la contraseña
         String oldEncryptedPassword = entry.getPassword();
@@ -80,11 +91,10 @@ public class PasswordEntryMapper {
         if (oldEncryptedPassword == null || !oldEncryptedPassword.equals(newEncryptedPassword)) {
             entry.setPassword(newEncryptedPassword);
             entry.setHmacTag(encryptionService.sign(newEncryptedPassword));
+            entry.setPasswordFingerprint(encryptionService.fingerprint(dto.getPassword()));
             entry.setPasswordLastChanged(java.time.LocalDateTime.now());
         }
 
-        entry.setUrl(dto.getUrl());
-        entry.setNotes(dto.getNotes());
         entry.setFavorite(dto.getFavorite());
 
         if (dto.getCategoryId() != null) {
@@ -122,22 +132,65 @@ public class PasswordEntryMapper {
                 .build();
     }
 
+    /**
+     * Contraseña y metadatos en claro, de la caché de la sesión si la entrada no ha
+     * cambiado. Los errores se marcan con {@value #DECRYPTION_ERROR} y no se guardan
+     * en la caché, para reintentarlos en la siguiente lectura.
+     */
+    private Decrypted decrypt(PasswordEntry entry) {
+        if (entry.getId() != null) {
+            Optional<Decrypted> cached = decryptedEntryCache.get(entry.getId(), entry.getUpdatedAt());
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+
+        SecretValue password = decryptAndVerify(entry);
+        Metadata metadata = readMetadata(entry);
+        if (password != null && metadata != null) {
+            Decrypted decrypted = new Decrypted(password, metadata);
+            if (entry.getId() != null) {
+                decryptedEntryCache.put(entry.getId(), entry.getUpdatedAt(), decrypted);
+            }
+            return decrypted;
+        }
+        return new Decrypted(
+                password != null ? password : SecretValue.of(DECRYPTION_ERROR),
+                metadata != null ? metadata : new Metadata(DECRYPTION_ERROR, null, null, null, null));
+    }
+
     /**
      * Descifra la contraseña de una entrada verificando primero la firma HMAC (Key C).
      * Si hmacTag es nulo (datos pre-migración) se descifra sin verificar firma.
+     *
+     * @return null si la firma no es válida o no se puede descifrar
      */
-    private String decryptAndVerify(PasswordEntry entry) {
+    private SecretValue decryptAndVerify(PasswordEntry entry) {
         try {
             if (entry.getHmacTag() != null) {
                 if (!encryptionService.verifySignature(entry.getPassword(), entry.getHmacTag())) {
                     log.warn("Firma HMAC inválida para entrada id={}", entry.getId());
-                    return DECRYPTION_ERROR;
+                    return null;
                 }
             }
-            return encryptionService.decrypt(entry.getPassword());
+            return encryptionService.decryptSecret(entry.getPassword());
         } catch (Exception e) {
             log.warn("Error al desencriptar entrada id={}: {}", entry.getId(), e.getMessage());
-            return DECRYPTION_ERROR;
+            return null;
+        }
+    }
+
+    /**
+     * Metadatos en claro.
+     *
+     * @return null si están cifrados y no se pueden descifrar
+     */
+    private Metadata readMetadata(PasswordEntry entry) {
+        try {
+            return entryMetadataService.read(entry);
+        } catch (Exception e) {
+            log.warn("Error al desencriptar metadatos de entrada id={}: {}", entry.getId(), e.getMessage());
+            return null;
         }
     }
 
@@ -129,7 +129,7 @@ public class BackupDTO {
 
         /**
          * Algoritmo de cifrado usado.
-         * Valor: "AES-256-GCM"
+         * Valores: "AES-256-GCM" o "ChaCha20-Poly1305" (si falta, AES-256-GCM)
          */
         private String cipher;
     }
@@ -163,7 +163,7 @@ public class BackupDTO {
 
         // Campos cifrados (solo la contraseña)
         /**
-         * Contraseña cifrada con AES-256-GCM (Base64).
+         * Contraseña cifrada con el algoritmo de crypto.cipher (Base64).
          * Se descifra usando: crypto.salt + contraseña de backup + este IV.
          */
         private String encryptedPassword;
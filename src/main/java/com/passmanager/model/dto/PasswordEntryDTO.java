@@ -1,9 +1,12 @@
 package com.passmanager.model.dto;
 
+import com.passmanager.service.SecretValue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -19,7 +22,18 @@ public class PasswordEntryDTO {
     private String title;
     private String username;
     private String email;
+    /**
+     * Contraseña que llega de un formulario o de una importación. Las entradas leídas de
+     * la bóveda la traen en {@link #secret}, no aquí.
+     */
     private String password;
+    /**
+     * Contraseña descifrada de una entrada leída de la bóveda, fuera del heap.
+     * Se borra al bloquear; {@link #password} queda para la que llega de un formulario.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private SecretValue secret;
     private String url;
     private String notes;
     private Long categoryId;
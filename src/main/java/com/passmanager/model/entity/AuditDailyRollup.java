@@ -0,0 +1,54 @@
+package com.passmanager.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Conteo diario materializado de eventos de auditoría por usuario, acción y resultado.
+ *
+ * <p>Se actualiza en la misma transacción en que se escriben los eventos
+ * ({@code AuditLogServiceImpl}), así que siempre coincide con {@code audit_log}.
+ * Las estadísticas de actividad se calculan sumando como mucho una fila por
+ * día/acción/resultado en lugar de recorrer el registro, y sobreviven al archivado
+ * de registros antiguos.</p>
+ */
+@Entity
+@Table(name = "audit_daily_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rollup_user_day_action_result",
+            columnNames = {"user_id", "day", "action", "result"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * Día en formato ISO ({@code yyyy-MM-dd}), igual que el prefijo de
+     * {@code audit_log.timestamp}: ordena lexicográficamente.
+     */
+    @Column(name = "day", nullable = false, length = 10)
+    private String day;
+
+    @Column(name = "action", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private AuditLog.ActionType action;
+
+    @Column(name = "result", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private AuditLog.ResultType result;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+}
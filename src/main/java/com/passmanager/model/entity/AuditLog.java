@@ -127,6 +127,7 @@ public class AuditLog {
         BACKUP_CREATED,
         RECOVERY_KEY_GENERATED,
         RECOVERY_KEY_USED,
+        MASTER_PASSWORD_CHANGED,
         TOTP_ENABLED,
         TOTP_DISABLED,
         TOTP_VERIFIED,
@@ -0,0 +1,62 @@
+package com.passmanager.model.entity;
+
+import com.passmanager.config.LocalDateTimeConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Último resultado conocido de la verificación de brechas (HIBP) para una entrada.
+ *
+ * <p>Permite que el dashboard de seguridad se abra mostrando los resultados
+ * guardados y que solo se vuelvan a consultar las entradas cuya contraseña
+ * cambió o cuyo resultado ya caducó.</p>
+ *
+ * <p>La contraseña nunca se almacena: solo una huella HMAC con clave derivada
+ * de la sesión ({@code EncryptionService.fingerprint}), suficiente para saber
+ * si la contraseña cambió desde la última verificación.</p>
+ */
+@Entity
+@Table(name = "breach_check_results", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"password_entry_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BreachCheckRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Entrada verificada. Una fila por entrada.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "password_entry_id", nullable = false)
+    private PasswordEntry passwordEntry;
+
+    /**
+     * Huella HMAC-SHA256 (Base64) de la contraseña verificada.
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String passwordFingerprint;
+
+    /**
+     * Número de apariciones en brechas conocidas (0 = segura).
+     */
+    @Column(nullable = false)
+    private Integer occurrences;
+
+    /**
+     * Momento de la última consulta a la API.
+     */
+    @Convert(converter = LocalDateTimeConverter.class)
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private LocalDateTime checkedAt;
+}
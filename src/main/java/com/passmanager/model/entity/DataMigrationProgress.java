@@ -0,0 +1,77 @@
+package com.passmanager.model.entity;
+
+import com.passmanager.config.LocalDateTimeConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Punto de control de una migración de datos en segundo plano para un usuario.
+ *
+ * <p>{@code lastUnitId} (id de la última unidad migrada) se actualiza en la misma
+ * transacción que el lote, así que tras un cierre inesperado la migración continúa
+ * justo después del último lote confirmado.</p>
+ */
+@Entity
+@Table(name = "data_migration_progress", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_data_migration_user", columnNames = {"migration_id", "user_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataMigrationProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "migration_id", nullable = false, length = 64)
+    private String migrationId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "last_unit_id", nullable = false)
+    @Builder.Default
+    private Long lastUnitId = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long processed = 0L;
+
+    /**
+     * Unidades pendientes al programar la migración; solo para mostrar el progreso.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long total = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean completed = false;
+
+    @Convert(converter = LocalDateTimeConverter.class)
+    @Column(name = "created_at", nullable = false, columnDefinition = "TEXT")
+    private LocalDateTime createdAt;
+
+    @Convert(converter = LocalDateTimeConverter.class)
+    @Column(name = "updated_at", nullable = false, columnDefinition = "TEXT")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,50 @@
+package com.passmanager.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila del índice de dominios: el dominio registrable de la URL de una entrada.
+ *
+ * <p>Buscar las credenciales de un sitio es normalizar su host y leer el índice
+ * {@code (user_id, domain_token)}, sin recorrer la columna {@code url}.</p>
+ *
+ * <p>El dominio se guarda como token de índice ciego ({@code EncryptionService.blindIndex}),
+ * no en claro: así el índice no revela los sitios de las entradas con los metadatos
+ * cifrados, y no hay que rehacerlo al cambiar esa opción.</p>
+ */
+@Entity
+@Table(name = "entry_domains", indexes = {
+    @Index(name = "idx_entry_domain_user_token", columnList = "user_id,domain_token"),
+    @Index(name = "idx_entry_domain_entry", columnList = "password_entry_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntryDomain {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Propietario, duplicado de la entrada para que la búsqueda no necesite JOIN.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "password_entry_id", nullable = false)
+    private PasswordEntry passwordEntry;
+
+    /**
+     * HMAC del dominio registrable, truncado a 128 bits, en Base64.
+     */
+    @Column(name = "domain_token", nullable = false, length = 32)
+    private String domainToken;
+}
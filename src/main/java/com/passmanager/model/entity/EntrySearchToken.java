@@ -0,0 +1,51 @@
+package com.passmanager.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token del índice ciego de una entrada con los metadatos cifrados.
+ *
+ * <p>Cada token es el HMAC ({@code EncryptionService.blindIndex}) de un valor
+ * normalizado de la entrada: el valor completo de un campo o un prefijo de una de sus
+ * palabras. Buscar es calcular los tokens de la consulta y compararlos por igualdad
+ * con el índice {@code (user_id, token)}, sin descifrar ni recorrer la tabla.</p>
+ *
+ * <p>Los tokens no revelan el texto, pero sí qué entradas comparten un valor o un
+ * prefijo.</p>
+ */
+@Entity
+@Table(name = "entry_search_tokens", indexes = {
+    @Index(name = "idx_search_token_user_token", columnList = "user_id,token"),
+    @Index(name = "idx_search_token_entry", columnList = "password_entry_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntrySearchToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Propietario, duplicado de la entrada para que la búsqueda no necesite JOIN.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "password_entry_id", nullable = false)
+    private PasswordEntry passwordEntry;
+
+    /**
+     * HMAC-SHA256 truncado a 128 bits, en Base64.
+     */
+    @Column(nullable = false, length = 32)
+    private String token;
+}
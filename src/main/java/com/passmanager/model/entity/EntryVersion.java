@@ -0,0 +1,67 @@
+package com.passmanager.model.entity;
+
+import com.passmanager.config.LocalDateTimeConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión completa de una entrada (todos sus campos, no solo la contraseña).
+ *
+ * <p>Cada versión es una instantánea completa o un delta contra la versión anterior,
+ * cifrados con Key B. Cada {@code EntryVersionService.SNAPSHOT_INTERVAL} versiones se
+ * guarda una instantánea, así que reconstruir cualquier versión aplica como mucho ese
+ * número de deltas.</p>
+ */
+@Entity
+@Table(name = "entry_versions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_entry_version_number",
+            columnNames = {"password_entry_id", "version_number"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntryVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "password_entry_id", nullable = false)
+    private PasswordEntry passwordEntry;
+
+    /**
+     * Número de versión dentro de la entrada, empezando en 1.
+     */
+    @Column(name = "version_number", nullable = false)
+    private Integer versionNumber;
+
+    /**
+     * {@code true} si {@link #payload} contiene todos los campos; {@code false} si es un delta.
+     */
+    @Column(nullable = false)
+    private Boolean snapshot;
+
+    /**
+     * Instantánea o delta en JSON, cifrado con AES-256-GCM (Base64).
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Convert(converter = LocalDateTimeConverter.class)
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.passmanager.model.entity;
+
+import com.passmanager.config.LocalDateTimeConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado persistente de limitación de intentos de inicio de sesión por nombre de usuario.
+ *
+ * <p>El nombre se guarda como hash SHA-256: lo que se escribe en el campo de usuario
+ * (a veces la propia contraseña por error) no queda en claro en la base de datos.
+ * La tabla está acotada: las filas sin actividad reciente se eliminan y, por encima
+ * del máximo, se descartan las menos recientes que no tienen bloqueos.</p>
+ */
+@Entity
+@Table(name = "login_throttle", indexes = {
+    @Index(name = "idx_login_throttle_updated", columnList = "updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoginThrottle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "username_hash", nullable = false, unique = true, length = 64)
+    private String usernameHash;
+
+    /**
+     * Instantes (epoch en segundos, separados por comas) de los fallos dentro de la ventana deslizante.
+     */
+    @Column(name = "failure_times", columnDefinition = "TEXT")
+    private String failureTimes;
+
+    /**
+     * Bloqueos consecutivos sin un inicio de sesión correcto: determina la duración del siguiente.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer strikes = 0;
+
+    @Convert(converter = LocalDateTimeConverter.class)
+    @Column(name = "blocked_until", columnDefinition = "TEXT")
+    private LocalDateTime blockedUntil;
+
+    @Convert(converter = LocalDateTimeConverter.class)
+    @Column(name = "updated_at", nullable = false, columnDefinition = "TEXT")
+    private LocalDateTime updatedAt;
+}
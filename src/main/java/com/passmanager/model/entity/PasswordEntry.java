@@ -12,7 +12,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "password_entries")
+@Table(name = "password_entries", indexes = {
+    @Index(name = "idx_entry_user_fingerprint", columnList = "user_id,password_fingerprint")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,10 +43,26 @@ public class PasswordEntry {
     @Column(columnDefinition = "TEXT")
     private String hmacTag;
 
+    /**
+     * Huella HMAC-SHA256 de la contraseña en texto plano (subclave de Key C).
+     * Permite detectar contraseñas reutilizadas con un GROUP BY indexado, sin descifrar.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String passwordFingerprint;
+
     @Column
     @Builder.Default
     private Boolean favorite = false;
 
+    /**
+     * true si title, username, email, url y notes están cifrados (con sus tokens en
+     * {@link #searchTokens}). Lo decide {@code User.metadataEncryption}; cada entrada
+     * lleva el suyo porque la conversión se hace por lotes en segundo plano.
+     */
+    @Column
+    @Builder.Default
+    private Boolean metadataEncrypted = false;
+
     @Convert(converter = LocalDateTimeConverter.class)
     @Column(columnDefinition = "TEXT")
     private LocalDateTime passwordLastChanged;
@@ -66,6 +84,27 @@ public class PasswordEntry {
     @Builder.Default
     private List<PasswordHistory> passwordHistory = new ArrayList<>();
 
+    @OneToMany(mappedBy = "passwordEntry", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OrderBy("versionNumber ASC")
+    @Builder.Default
+    private List<EntryVersion> entryVersions = new ArrayList<>();
+
+    @OneToMany(mappedBy = "passwordEntry", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Builder.Default
+    private List<BreachCheckRecord> breachChecks = new ArrayList<>();
+
+    @OneToMany(mappedBy = "passwordEntry", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Builder.Default
+    private List<EntrySearchToken> searchTokens = new ArrayList<>();
+
+    /**
+     * Índice de dominios: el dominio registrable de {@link #url}. Lo mantiene
+     * {@code EntryDomainService} al guardar la entrada.
+     */
+    @OneToMany(mappedBy = "passwordEntry", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Builder.Default
+    private List<EntryDomain> domains = new ArrayList<>();
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "password_entry_tags",
@@ -21,7 +21,9 @@ import java.time.LocalDateTime;
  * - Ordenado por fecha descendente (más reciente primero)
  */
 @Entity
-@Table(name = "password_history")
+@Table(name = "password_history", indexes = {
+    @Index(name = "idx_history_fingerprint", columnList = "password_fingerprint")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +49,14 @@ public class PasswordHistory {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String password;
 
+    /**
+     * Huella HMAC-SHA256 de la contraseña antigua (misma clave que
+     * {@link PasswordEntry#getPasswordFingerprint()}), para detectar
+     * reutilización de contraseñas anteriores sin descifrarlas.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String passwordFingerprint;
+
     /**
      * Fecha y hora en que se cambió la contraseña.
      * Automáticamente establecida al crear el registro.
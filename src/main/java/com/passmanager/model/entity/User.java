@@ -1,6 +1,7 @@
 package com.passmanager.model.entity;
 
 import com.passmanager.config.LocalDateTimeConverter;
+import com.passmanager.service.CipherAlgorithm;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -38,9 +39,36 @@ public class User {
     @Column(columnDefinition = "TEXT")
     private String encryptedMasterPassword;
 
+    /**
+     * Esquema de claves: null/1 legacy, 2 claves derivadas de la contraseña,
+     * 3 clave de bóveda envuelta ({@link #wrappedVaultKey}).
+     */
     @Column
     private Integer keyVersion;
 
+    /**
+     * Clave de bóveda (Key B + Key C) envuelta con una clave derivada de la contraseña
+     * maestra. Cambiar la contraseña solo reescribe este valor.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String wrappedVaultKey;
+
+    /**
+     * Algoritmo con el que se cifran los datos nuevos de la bóveda. Si es null, AES-GCM
+     * (bóvedas anteriores a la elección). Al cambiarlo, {@code CipherReencryptDataMigration}
+     * re-cifra los valores existentes en segundo plano.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private CipherAlgorithm cipherAlgorithm;
+
+    /**
+     * Si es true, los metadatos de las entradas (título, usuario, email, URL y notas) se
+     * guardan cifrados y se buscan con un índice ciego. Null/false: en claro.
+     */
+    @Column
+    private Boolean metadataEncryption;
+
     /**
      * Secret TOTP cifrado para autenticación de dos factores (2FA).
      * Si es null, 2FA no está habilitado para este usuario.
@@ -49,6 +77,34 @@ public class User {
     @Column(columnDefinition = "TEXT")
     private String totpSecret;
 
+    /**
+     * Política de retención del historial de contraseñas: versiones anteriores que se
+     * conservan por entrada. Si es null se usa el valor por defecto (10).
+     */
+    @Column
+    private Integer historyMaxVersions;
+
+    /**
+     * Antigüedad máxima (días) de las versiones del historial. Si es null no se
+     * eliminan versiones por antigüedad.
+     */
+    @Column
+    private Integer historyMaxAgeDays;
+
+    /**
+     * Política de retención del registro de auditoría: días que un evento permanece en
+     * la tabla antes de archivarse. Si es null se usa el valor por defecto (180).
+     */
+    @Column
+    private Integer auditMaxAgeDays;
+
+    /**
+     * Filas máximas del registro de auditoría en la tabla; las más antiguas se archivan.
+     * Si es null se usa el valor por defecto (5000).
+     */
+    @Column
+    private Integer auditMaxRows;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<PasswordEntry> passwordEntries = new ArrayList<>();
@@ -0,0 +1,67 @@
+package com.passmanager.repository;
+
+import com.passmanager.model.entity.AuditDailyRollup;
+import com.passmanager.model.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuditDailyRollupRepository extends JpaRepository<AuditDailyRollup, Long> {
+
+    /**
+     * Suma {@code delta} al contador del día, creándolo si no existe (UPSERT de SQLite
+     * sobre {@code uk_rollup_user_day_action_result}).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO audit_daily_rollup (user_id, day, action, result, event_count) " +
+                   "VALUES (:userId, :day, :action, :result, :delta) " +
+                   "ON CONFLICT (user_id, day, action, result) " +
+                   "DO UPDATE SET event_count = event_count + excluded.event_count",
+           nativeQuery = true)
+    void increment(@Param("userId") Long userId,
+                   @Param("day") String day,
+                   @Param("action") String action,
+                   @Param("result") String result,
+                   @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "DELETE FROM audit_daily_rollup", nativeQuery = true)
+    void deleteAllRollups();
+
+    /**
+     * Reconstruye los contadores a partir de {@code audit_log}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO audit_daily_rollup (user_id, day, action, result, event_count) " +
+                   "SELECT user_id, substr(timestamp, 1, 10), action, COALESCE(result, 'SUCCESS'), COUNT(*) " +
+                   "FROM audit_log " +
+                   "GROUP BY user_id, substr(timestamp, 1, 10), action, COALESCE(result, 'SUCCESS')",
+           nativeQuery = true)
+    int backfillFromAuditLog();
+
+    /**
+     * @return Filas {@code [día, total]} ordenadas por día
+     */
+    @Query("SELECT r.day, SUM(r.eventCount) FROM AuditDailyRollup r " +
+           "WHERE r.user = :user AND r.day >= :fromDay GROUP BY r.day ORDER BY r.day ASC")
+    List<Object[]> sumByDay(@Param("user") User user, @Param("fromDay") String fromDay);
+
+    /**
+     * @return Filas {@code [acción, total]} de mayor a menor
+     */
+    @Query("SELECT r.action, SUM(r.eventCount) FROM AuditDailyRollup r " +
+           "WHERE r.user = :user AND r.day >= :fromDay GROUP BY r.action ORDER BY SUM(r.eventCount) DESC")
+    List<Object[]> sumByAction(@Param("user") User user, @Param("fromDay") String fromDay);
+
+    /**
+     * @return Filas {@code [resultado, total]}
+     */
+    @Query("SELECT r.result, SUM(r.eventCount) FROM AuditDailyRollup r " +
+           "WHERE r.user = :user AND r.day >= :fromDay GROUP BY r.result")
+    List<Object[]> sumByResult(@Param("user") User user, @Param("fromDay") String fromDay);
+}
@@ -2,12 +2,16 @@ package com.passmanager.repository;
 
 import com.passmanager.model.entity.AuditLog;
 import com.passmanager.model.entity.AuditLog.ActionType;
+import com.passmanager.model.entity.AuditLog.ResultType;
 import com.passmanager.model.entity.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,4 +25,65 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             User user, LocalDateTime start, LocalDateTime end);
 
     long countByUserAndTimestampAfter(User user, LocalDateTime since);
+
+    long countByUser(User user);
+
+    long countByUserAndTimestampBetween(User user, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Página filtrada, en orden (timestamp, id) descendente, que empieza justo después
+     * del cursor. Recorre el índice {@code idx_audit_user_timestamp}: en SQLite cada
+     * entrada de índice incluye el rowid ({@code id}), así que el desempate por id
+     * no requiere otro índice. La cota {@code timestamp <= :cursorTimestamp} repite la
+     * condición del cursor de forma que SQLite pueda usarla como límite del rango del
+     * índice (el OR por sí solo no lo es); el OR solo desempata dentro de ese rango.
+     * Con {@code allActions}/{@code allResults} se ignora la colección correspondiente
+     * (debe ser no vacía igualmente).
+     */
+    @Query("SELECT a FROM AuditLog a WHERE a.user = :user " +
+           "AND (:allActions = true OR a.action IN :actions) " +
+           "AND (:allResults = true OR a.result IN :results) " +
+           "AND a.timestamp >= :from AND a.timestamp <= :to " +
+           "AND a.timestamp <= :cursorTimestamp " +
+           "AND (a.timestamp < :cursorTimestamp OR (a.timestamp = :cursorTimestamp AND a.id < :cursorId)) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageAfter(@Param("user") User user,
+                                 @Param("allActions") boolean allActions,
+                                 @Param("actions") Collection<ActionType> actions,
+                                 @Param("allResults") boolean allResults,
+                                 @Param("results") Collection<ResultType> results,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("cursorTimestamp") LocalDateTime cursorTimestamp,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.user = :user " +
+           "AND (:allActions = true OR a.action IN :actions) " +
+           "AND (:allResults = true OR a.result IN :results) " +
+           "AND a.timestamp >= :from AND a.timestamp <= :to")
+    long countFiltered(@Param("user") User user,
+                       @Param("allActions") boolean allActions,
+                       @Param("actions") Collection<ActionType> actions,
+                       @Param("allResults") boolean allResults,
+                       @Param("results") Collection<ResultType> results,
+                       @Param("from") LocalDateTime from,
+                       @Param("to") LocalDateTime to);
+
+    /**
+     * Registros más antiguos primero, para archivar por lotes.
+     */
+    @Query("SELECT a FROM AuditLog a WHERE a.user = :user AND a.timestamp < :cutoff ORDER BY a.timestamp ASC, a.id ASC")
+    List<AuditLog> findOldestBefore(@Param("user") User user,
+                                    @Param("cutoff") LocalDateTime cutoff,
+                                    Pageable pageable);
+
+    List<AuditLog> findByUserOrderByTimestampAscIdAsc(User user, Pageable pageable);
+
+    /**
+     * Ids que siguen en la tabla, para descartar del visor los eventos archivados
+     * cuyo borrado no llegó a completarse.
+     */
+    @Query("SELECT a.id FROM AuditLog a WHERE a.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,25 @@
+package com.passmanager.repository;
+
+import com.passmanager.model.entity.BreachCheckRecord;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BreachCheckRecordRepository extends JpaRepository<BreachCheckRecord, Long> {
+
+    /**
+     * Resultados guardados de todas las entradas del usuario, con la entrada
+     * ya cargada para mostrar título y usuario sin consultas adicionales.
+     */
+    @Query("SELECT b FROM BreachCheckRecord b JOIN FETCH b.passwordEntry p WHERE p.user = :user ORDER BY p.title ASC")
+    List<BreachCheckRecord> findByUserWithEntry(@Param("user") User user);
+
+    Optional<BreachCheckRecord> findByPasswordEntry(PasswordEntry passwordEntry);
+}
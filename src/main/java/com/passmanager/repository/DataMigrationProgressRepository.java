@@ -0,0 +1,17 @@
+package com.passmanager.repository;
+
+import com.passmanager.model.entity.DataMigrationProgress;
+import com.passmanager.model.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DataMigrationProgressRepository extends JpaRepository<DataMigrationProgress, Long> {
+
+    Optional<DataMigrationProgress> findByMigrationIdAndUser(String migrationId, User user);
+
+    List<DataMigrationProgress> findByUserIdAndCompletedFalseOrderByIdAsc(Long userId);
+}
@@ -0,0 +1,20 @@
+package com.passmanager.repository;
+
+import com.passmanager.model.entity.EntryDomain;
+import com.passmanager.model.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EntryDomainRepository extends JpaRepository<EntryDomain, Long> {
+
+    /**
+     * Entradas del usuario con ese dominio; una búsqueda en el índice {@code (user_id, domain_token)}.
+     */
+    @Query("SELECT d.passwordEntry.id FROM EntryDomain d WHERE d.user = :user AND d.domainToken = :token")
+    List<Long> findEntryIds(@Param("user") User user, @Param("token") String token);
+}
@@ -0,0 +1,25 @@
+package com.passmanager.repository;
+
+import com.passmanager.model.entity.EntrySearchToken;
+import com.passmanager.model.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EntrySearchTokenRepository extends JpaRepository<EntrySearchToken, Long> {
+
+    /**
+     * Entradas del usuario que tienen todos los tokens indicados (búsqueda ciega).
+     * Se resuelve con el índice {@code (user_id, token)}: una búsqueda por token.
+     */
+    @Query("SELECT t.passwordEntry.id FROM EntrySearchToken t WHERE t.user = :user AND t.token IN :tokens " +
+            "GROUP BY t.passwordEntry.id HAVING COUNT(DISTINCT t.token) = :required")
+    List<Long> findEntryIdsWithAllTokens(@Param("user") User user,
+                                         @Param("tokens") Collection<String> tokens,
+                                         @Param("required") long required);
+}
@@ -0,0 +1,31 @@
+package com.passmanager.repository;
+
+import com.passmanager.model.entity.EntryVersion;
+import com.passmanager.model.entity.PasswordEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio de versiones completas de entradas.
+ * Todas las consultas usan el índice único (password_entry_id, version_number).
+ */
+@Repository
+public interface EntryVersionRepository extends JpaRepository<EntryVersion, Long> {
+
+    Optional<EntryVersion> findTopByPasswordEntryOrderByVersionNumberDesc(PasswordEntry passwordEntry);
+
+    /**
+     * Instantánea más reciente en o antes de la versión indicada: punto de partida
+     * para reconstruirla.
+     */
+    Optional<EntryVersion> findTopByPasswordEntryAndSnapshotTrueAndVersionNumberLessThanEqualOrderByVersionNumberDesc(
+            PasswordEntry passwordEntry, Integer versionNumber);
+
+    List<EntryVersion> findByPasswordEntryAndVersionNumberBetweenOrderByVersionNumberAsc(
+            PasswordEntry passwordEntry, Integer from, Integer to);
+
+    List<EntryVersion> findByPasswordEntryOrderByVersionNumberAsc(PasswordEntry passwordEntry);
+}
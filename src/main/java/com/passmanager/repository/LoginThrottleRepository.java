@@ -0,0 +1,40 @@
+package com.passmanager.repository;
+
+import com.passmanager.model.entity.LoginThrottle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LoginThrottleRepository extends JpaRepository<LoginThrottle, Long> {
+
+    Optional<LoginThrottle> findByUsernameHash(String usernameHash);
+
+    @Modifying
+    @Query("DELETE FROM LoginThrottle t WHERE t.usernameHash = :usernameHash")
+    int deleteByUsernameHash(@Param("usernameHash") String usernameHash);
+
+    /**
+     * Elimina las filas sin actividad desde {@code cutoff} (ventana y bloqueos ya vencidos).
+     */
+    @Modifying
+    @Query("DELETE FROM LoginThrottle t WHERE t.updatedAt < :cutoff")
+    int deleteStale(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * IDs de las filas desalojables con actividad más antigua, para recortar la tabla a
+     * su tamaño máximo. Nunca devuelve filas con un bloqueo vigente ni con bloqueos
+     * consecutivos: si no, inundar la tabla con nombres inventados levantaría el bloqueo
+     * de un usuario real.
+     */
+    @Query("SELECT t.id FROM LoginThrottle t WHERE COALESCE(t.strikes, 0) = 0 " +
+            "AND (t.blockedUntil IS NULL OR t.blockedUntil <= :now) ORDER BY t.updatedAt ASC")
+    List<Long> findEvictableIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
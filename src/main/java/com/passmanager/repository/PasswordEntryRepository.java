@@ -4,12 +4,14 @@ import com.passmanager.model.entity.Category;
 import com.passmanager.model.entity.PasswordEntry;
 import com.passmanager.model.entity.Tag;
 import com.passmanager.model.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +22,8 @@ public interface PasswordEntryRepository extends JpaRepository<PasswordEntry, Lo
 
     List<PasswordEntry> findByUserAndCategoryId(User user, Long categoryId);
 
-    @Query("SELECT p FROM PasswordEntry p WHERE p.user = :user AND " +
+    // Búsqueda en claro: las entradas con metadatos cifrados se buscan por su índice ciego
+    @Query("SELECT p FROM PasswordEntry p WHERE p.user = :user AND COALESCE(p.metadataEncrypted, false) = false AND " +
             "(LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(p.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(p.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -29,6 +32,7 @@ public interface PasswordEntryRepository extends JpaRepository<PasswordEntry, Lo
     List<PasswordEntry> searchByUser(@Param("user") User user, @Param("search") String search);
 
     @Query("SELECT p FROM PasswordEntry p WHERE p.user = :user AND p.category.id = :categoryId AND " +
+            "COALESCE(p.metadataEncrypted, false) = false AND " +
             "(LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(p.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(p.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -43,8 +47,23 @@ public interface PasswordEntryRepository extends JpaRepository<PasswordEntry, Lo
 
     Optional<PasswordEntry> findByIdAndUser(Long id, User user);
 
+    List<PasswordEntry> findByUserAndIdIn(User user, Collection<Long> ids);
+
     long countByCategoryAndUser(Category category, User user);
 
+    long countByUser(User user);
+
+    // Recorrido por lotes en orden de id (migraciones de datos)
+    @Query("SELECT p.id FROM PasswordEntry p WHERE p.user = :user AND p.id > :afterId ORDER BY p.id ASC")
+    List<Long> findIdsByUserAfter(@Param("user") User user, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Índice de facetas (EntryFacetIndex): solo ids, sin cargar ni descifrar entradas
+    @Query("SELECT p.id, c.id, p.favorite FROM PasswordEntry p LEFT JOIN p.category c WHERE p.user = :user")
+    List<Object[]> findFacetRowsByUser(@Param("user") User user);
+
+    @Query("SELECT p.id, t.id FROM PasswordEntry p JOIN p.tags t WHERE p.user = :user")
+    List<Object[]> findTagAssignmentsByUser(@Param("user") User user);
+
     void deleteByIdAndUser(Long id, User user);
 
     // Favoritos
@@ -57,4 +76,16 @@ public interface PasswordEntryRepository extends JpaRepository<PasswordEntry, Lo
     // Contraseñas antiguas
     @Query("SELECT p FROM PasswordEntry p WHERE p.user = :user AND p.passwordLastChanged < :threshold ORDER BY p.passwordLastChanged ASC")
     List<PasswordEntry> findByUserAndPasswordLastChangedBefore(@Param("user") User user, @Param("threshold") LocalDateTime threshold);
+
+    // Huellas de contraseña (detección de reutilización sin descifrar)
+    @Query("SELECT p.passwordFingerprint FROM PasswordEntry p WHERE p.user = :user AND p.passwordFingerprint IS NOT NULL " +
+            "GROUP BY p.passwordFingerprint HAVING COUNT(p) > 1")
+    List<String> findDuplicateFingerprints(@Param("user") User user);
+
+    @Query("SELECT DISTINCT p.passwordFingerprint FROM PasswordEntry p, PasswordHistory h " +
+            "WHERE p.user = :user AND h.passwordEntry.user = :user AND h.passwordEntry <> p " +
+            "AND h.passwordFingerprint = p.passwordFingerprint")
+    List<String> findFingerprintsReusedFromHistory(@Param("user") User user);
+
+    List<PasswordEntry> findByUserAndPasswordFingerprintInOrderByTitleAsc(User user, Collection<String> fingerprints);
 }
@@ -2,9 +2,15 @@ package com.passmanager.repository;
 
 import com.passmanager.model.entity.PasswordEntry;
 import com.passmanager.model.entity.PasswordHistory;
+import com.passmanager.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +22,8 @@ import java.util.Optional;
  * - Contar versiones almacenadas
  * - Obtener la versión más antigüa (para limpieza)
  * - Eliminar todo el historial de una entrada
+ * - Aplicar la política de retención con un único DELETE por entrada o por lote
+ *   (índice {@code idx_history_entry_changed} sobre (password_entry_id, changed_at))
  */
 @Repository
 public interface PasswordHistoryRepository extends JpaRepository<PasswordHistory, Long> {
@@ -54,4 +62,53 @@ public interface PasswordHistoryRepository extends JpaRepository<PasswordHistory
      * @param passwordEntry Entrada cuyo historial se quiere eliminar
      */
     void deleteByPasswordEntry(PasswordEntry passwordEntry);
+
+    /**
+     * Obtiene los registros de historial del usuario cuya huella está en el conjunto dado,
+     * con la entrada ya cargada. Usado para detectar reutilización de contraseñas antiguas.
+     *
+     * @param user Usuario propietario
+     * @param fingerprints Huellas buscadas
+     * @return Registros de historial coincidentes
+     */
+    @Query("SELECT h FROM PasswordHistory h JOIN FETCH h.passwordEntry p " +
+            "WHERE p.user = :user AND h.passwordFingerprint IN :fingerprints")
+    List<PasswordHistory> findByUserAndFingerprintIn(@Param("user") User user,
+                                                      @Param("fingerprints") Collection<String> fingerprints);
+
+    /**
+     * Elimina en una sola sentencia las versiones de una entrada que exceden la política:
+     * las que quedan fuera de las {@code keep} más recientes o son anteriores a {@code cutoff}.
+     *
+     * @return Número de registros eliminados
+     */
+    @Modifying
+    @Query(value = "DELETE FROM password_history WHERE password_entry_id = :entryId AND (" +
+            "changed_at < :cutoff OR id NOT IN (" +
+            "SELECT id FROM password_history WHERE password_entry_id = :entryId " +
+            "ORDER BY changed_at DESC, id DESC LIMIT :keep))",
+            nativeQuery = true)
+    int pruneEntry(@Param("entryId") Long entryId,
+                   @Param("keep") int keep,
+                   @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Elimina como máximo {@code batchSize} versiones de todas las entradas de un usuario
+     * que exceden la política. Se repite hasta que devuelve menos que {@code batchSize}.
+     *
+     * @return Número de registros eliminados
+     */
+    @Modifying
+    @Query(value = "DELETE FROM password_history WHERE id IN (" +
+            "SELECT id FROM (" +
+            "SELECT h.id AS id, h.changed_at AS changed_at, ROW_NUMBER() OVER (" +
+            "PARTITION BY h.password_entry_id ORDER BY h.changed_at DESC, h.id DESC) AS version " +
+            "FROM password_history h JOIN password_entries p ON p.id = h.password_entry_id " +
+            "WHERE p.user_id = :userId) " +
+            "WHERE version > :keep OR changed_at < :cutoff LIMIT :batchSize)",
+            nativeQuery = true)
+    int pruneUserBatch(@Param("userId") Long userId,
+                       @Param("keep") int keep,
+                       @Param("cutoff") LocalDateTime cutoff,
+                       @Param("batchSize") int batchSize);
 }
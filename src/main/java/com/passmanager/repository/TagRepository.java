@@ -13,6 +13,8 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     List<Tag> findByUserOrderByNameAsc(User user);
 
+    Optional<Tag> findByIdAndUser(Long id, User user);
+
     Optional<Tag> findByNameAndUser(String name, User user);
 
     boolean existsByNameAndUser(String name, User user);
@@ -5,8 +5,10 @@ import com.passmanager.model.entity.AuditLog.ActionType;
 import com.passmanager.model.entity.AuditLog.ResultType;
 import com.passmanager.model.entity.User;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 public interface AuditLogService {
 
@@ -16,6 +18,12 @@ public interface AuditLogService {
 
     void log(User user, ActionType action, String description, String ipAddress, ResultType result);
 
+    /**
+     * Escribe de inmediato los eventos pendientes en cola.
+     * Se llama al bloquear, al cerrar sesión y al apagar la aplicación.
+     */
+    void flush();
+
     List<AuditLog> findByUser(User user);
 
     List<AuditLog> findByUserAndAction(User user, ActionType action);
@@ -23,4 +31,138 @@ public interface AuditLogService {
     List<AuditLog> findByUserAndDateRange(User user, LocalDateTime start, LocalDateTime end);
 
     long countRecentActivity(User user, LocalDateTime since);
+
+    /**
+     * Página de registros filtrada en SQL y paginada por cursor sobre (timestamp, id),
+     * del más reciente al más antiguo. El coste por página no depende de su posición.
+     *
+     * @param after Cursor de la página anterior ({@link AuditPage#getNext()}), o null para la primera
+     */
+    AuditPage findPage(User user, AuditFilter filter, AuditCursor after, int pageSize);
+
+    /**
+     * Número de registros que cumplen el filtro.
+     */
+    long count(User user, AuditFilter filter);
+
+    // Estadísticas (desde los conteos diarios materializados, O(días))
+
+    /**
+     * Actividad diaria de los últimos {@code days} días, incluido hoy (días sin eventos con 0).
+     */
+    List<DailyActivity> getDailyActivity(User user, int days);
+
+    /**
+     * Proporción de eventos FAILURE o BLOCKED en los últimos {@code days} días (0 si no hay eventos).
+     */
+    double getFailureRate(User user, int days);
+
+    /**
+     * Acciones más frecuentes de los últimos {@code days} días.
+     */
+    List<ActionCount> getTopActions(User user, int days, int limit);
+
+    /**
+     * Reconstruye los conteos diarios a partir de {@code audit_log} (backfill).
+     * Los registros ya archivados por la retención no se vuelven a contar.
+     *
+     * @return Filas de conteo generadas
+     */
+    int rebuildDailyRollups();
+
+    /**
+     * Eventos de un día.
+     */
+    class DailyActivity {
+        private final LocalDate day;
+        private final long count;
+
+        public DailyActivity(LocalDate day, long count) {
+            this.day = day;
+            this.count = count;
+        }
+
+        public LocalDate getDay() { return day; }
+        public long getCount()    { return count; }
+    }
+
+    /**
+     * Total de eventos de una acción.
+     */
+    class ActionCount {
+        private final ActionType action;
+        private final long count;
+
+        public ActionCount(ActionType action, long count) {
+            this.action = action;
+            this.count = count;
+        }
+
+        public ActionType getAction() { return action; }
+        public long getCount()        { return count; }
+    }
+
+    /**
+     * Filtro de consulta. Conjuntos vacíos y fechas null significan "sin restricción".
+     */
+    class AuditFilter {
+        private final Set<ActionType> actions;
+        private final Set<ResultType> results;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        public AuditFilter(Set<ActionType> actions, Set<ResultType> results, LocalDateTime from, LocalDateTime to) {
+            this.actions = actions != null ? actions : Set.of();
+            this.results = results != null ? results : Set.of();
+            this.from = from;
+            this.to = to;
+        }
+
+        public static AuditFilter all() {
+            return new AuditFilter(Set.of(), Set.of(), null, null);
+        }
+
+        public Set<ActionType> getActions() { return actions; }
+        public Set<ResultType> getResults() { return results; }
+        public LocalDateTime getFrom()      { return from; }
+        public LocalDateTime getTo()        { return to; }
+    }
+
+    /**
+     * Posición del último registro de una página.
+     */
+    class AuditCursor {
+        private final LocalDateTime timestamp;
+        private final Long id;
+
+        public AuditCursor(LocalDateTime timestamp, Long id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+
+        public LocalDateTime getTimestamp() { return timestamp; }
+        public Long getId()                 { return id; }
+    }
+
+    /**
+     * Página de resultados.
+     */
+    class AuditPage {
+        private final List<AuditLog> items;
+        private final AuditCursor next;
+
+        public AuditPage(List<AuditLog> items, AuditCursor next) {
+            this.items = items;
+            this.next = next;
+        }
+
+        public List<AuditLog> getItems() { return items; }
+
+        /**
+         * @return Cursor para pedir la página siguiente, o null si es la última
+         */
+        public AuditCursor getNext() { return next; }
+
+        public boolean hasMore() { return next != null; }
+    }
 }
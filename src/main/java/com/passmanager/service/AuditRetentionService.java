@@ -0,0 +1,81 @@
+package com.passmanager.service;
+
+import com.passmanager.model.entity.AuditLog;
+import com.passmanager.model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio de retención del registro de auditoría.
+ *
+ * <p>Mantiene pequeña la tabla {@code audit_log} (y caliente el índice
+ * {@code idx_audit_user_timestamp}) moviendo los registros antiguos a archivos
+ * comprimidos:</p>
+ * <ul>
+ *   <li>Política por antigüedad (días) y por número máximo de filas, guardada por usuario</li>
+ *   <li>Un archivo {@code audit-AAAA-MM.jsonl.gz} por mes, al que se fusiona cada lote:
+ *       un archivo dañado no afecta a los demás meses</li>
+ *   <li>Las filas solo se borran después de releer el archivo y comprobar que
+ *       contiene el lote completo</li>
+ *   <li>Borrado incremental en lotes pequeños, cada uno en su propia transacción,
+ *       para no bloquear SQLite mientras la interfaz escribe</li>
+ *   <li>Los archivos siguen siendo consultables con {@link #findArchived}; el visor
+ *       de auditoría los muestra a continuación de la tabla ({@link #findArchivedPage})
+ *       y solo abre los meses que necesita</li>
+ * </ul>
+ */
+public interface AuditRetentionService {
+
+    /**
+     * Configura la política de retención del usuario actual.
+     *
+     * @param maxAgeDays Días que un registro permanece en la tabla
+     * @param maxRowsPerUser Filas máximas del usuario en la tabla
+     * @throws IllegalArgumentException si algún valor está fuera de rango
+     */
+    void setPolicy(int maxAgeDays, int maxRowsPerUser);
+
+    /**
+     * @return Días de retención del usuario actual (o el valor por defecto)
+     */
+    int getMaxAgeDays();
+
+    /**
+     * @return Filas máximas del usuario actual (o el valor por defecto)
+     */
+    int getMaxRowsPerUser();
+
+    /**
+     * Aplica la política de cada usuario. Se ejecuta periódicamente en segundo plano.
+     *
+     * @return Número de registros archivados
+     */
+    int applyRetention();
+
+    /**
+     * Consulta los registros archivados de un usuario en un rango de fechas. Omite los
+     * que siguen en la tabla (archivado interrumpido antes del borrado).
+     *
+     * @param start Inicio del rango (null = sin límite)
+     * @param end Fin del rango (null = sin límite)
+     * @return Registros (no gestionados por JPA), del más reciente al más antiguo
+     */
+    List<AuditLog> findArchived(User user, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Página de registros archivados que siguen al cursor, en el orden del visor. Lee
+     * los meses del cursor hacia atrás y se detiene al completar la página.
+     *
+     * @param after Último registro mostrado (null = desde el más reciente)
+     * @param limit Registros como máximo
+     */
+    List<AuditLog> findArchivedPage(User user, AuditLogService.AuditFilter filter,
+                                    AuditLogService.AuditCursor after, int limit);
+
+    /**
+     * Número de registros archivados que cumplen el filtro. Se cachea por usuario y
+     * filtro hasta el siguiente lote archivado.
+     */
+    long countArchived(User user, AuditLogService.AuditFilter filter);
+}
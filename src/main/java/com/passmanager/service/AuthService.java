@@ -22,6 +22,20 @@ public interface AuthService {
 
     boolean authenticate(String username, String password);
 
+    /**
+     * Inicia sesión informando de cada fase y permitiendo cancelarla. Pensado para
+     * ejecutarse fuera del hilo de JavaFX (PBKDF2 y la migración de claves tardan).
+     *
+     * <p>Las entradas y categorías se precargan en cuanto la clave está derivada
+     * ({@link VaultPreloadService}); la fase {@link AuthPhase#LOAD} espera a que terminen.</p>
+     *
+     * @param progress Receptor de fases; se consulta entre fases para cancelar
+     * @return true si la contraseña es correcta y la sesión quedó abierta; false si el
+     *         usuario no existe o la contraseña es incorrecta (ambos cuentan como intento fallido)
+     * @throws java.util.concurrent.CancellationException si se canceló; no queda sesión abierta
+     */
+    boolean authenticate(String username, String password, AuthProgress progress);
+
     /**
      * Recupera el acceso a la cuenta usando una recovery key.
      *
@@ -32,15 +46,42 @@ public interface AuthService {
      */
     boolean recoverAccount(String username, String recoveryKey, String newPassword);
 
+    /**
+     * Cambia la contraseña maestra del usuario actual. Solo vuelve a envolver la clave
+     * de bóveda: no re-cifra ninguna entrada.
+     *
+     * <p>La recovery key anterior protege la contraseña antigua, así que se genera una nueva.</p>
+     *
+     * @param currentPassword Contraseña maestra actual
+     * @param newPassword Nueva contraseña maestra
+     * @return Resultado con la nueva recovery key
+     */
+    PasswordChangeResult changeMasterPassword(String currentPassword, String newPassword);
+
     void logout();
 
+    /**
+     * Bloquea la aplicación: invalida la sesión (las claves se borran en cuanto los
+     * trabajos en segundo plano devuelven su préstamo) y recuerda el usuario para
+     * {@link #unlock(String)}.
+     */
+    void lock();
+
+    /**
+     * Desbloquea la aplicación con la contraseña maestra del usuario bloqueado,
+     * abriendo una sesión nueva. Pensado para ejecutarse fuera del hilo de JavaFX.
+     *
+     * @return true si la contraseña es correcta y la sesión quedó abierta
+     */
+    boolean unlock(String password);
+
     boolean isAuthenticated();
 
     User getCurrentUser();
 
     /**
      * Verifica la contraseña del usuario actual sin hacer logout/login.
-     * Útil para desbloquear la aplicación sin perder el estado de autenticación.
+     * Útil para confirmar operaciones sensibles sin perder el estado de autenticación.
      *
      * @param password Contraseña a verificar
      * @return true si la contraseña es correcta
@@ -53,6 +94,41 @@ public interface AuthService {
 
     long getBlockTimeRemainingSeconds(String username);
 
+    /**
+     * Fases del inicio de sesión, en orden.
+     */
+    enum AuthPhase {
+        VERIFY("Verificando contraseña..."),
+        DERIVE("Derivando claves..."),
+        MIGRATE("Actualizando datos..."),
+        LOAD("Cargando bóveda...");
+
+        private final String description;
+
+        AuthPhase(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * Seguimiento y cancelación de un inicio de sesión.
+     */
+    interface AuthProgress {
+
+        AuthProgress NONE = new AuthProgress() { };
+
+        default void onPhase(AuthPhase phase) {
+        }
+
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+
     /**
      * Resultado de la creación de usuario que incluye el usuario y la recovery key.
      */
@@ -67,4 +143,19 @@ public interface AuthService {
             return recoveryKey;
         }
     }
+
+    /**
+     * Resultado del cambio de contraseña maestra con la nueva recovery key.
+     */
+    class PasswordChangeResult {
+        private final String recoveryKey;
+
+        public PasswordChangeResult(String recoveryKey) {
+            this.recoveryKey = recoveryKey;
+        }
+
+        public String getRecoveryKey() {
+            return recoveryKey;
+        }
+    }
 }
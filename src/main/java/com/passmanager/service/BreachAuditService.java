@@ -0,0 +1,86 @@
+package com.passmanager.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Servicio que persiste el último resultado de verificación de brechas por entrada.
+ *
+ * <p>Hace incremental la auditoría del dashboard de seguridad:</p>
+ * <ul>
+ *   <li>Al abrir el diálogo se muestran los resultados guardados sin consultar la API</li>
+ *   <li>Solo se re-verifican las entradas cuya contraseña cambió (huella distinta)
+ *       o cuyo resultado es más antiguo que el TTL</li>
+ * </ul>
+ *
+ * <p>La contraseña nunca se guarda; solo su huella HMAC
+ * ({@link EncryptionService#fingerprint(String)}).</p>
+ */
+public interface BreachAuditService {
+
+    /**
+     * Obtiene los resultados guardados del usuario actual, indexados por id de entrada.
+     */
+    Map<Long, StoredBreachResult> findStoredResults();
+
+    /**
+     * Calcula la huella de una contraseña en texto plano.
+     */
+    String fingerprint(String password);
+
+    /**
+     * Huella de una contraseña de la bóveda, sin crear un {@code String}. Coincide con
+     * {@link #fingerprint(String)} del mismo texto.
+     */
+    String fingerprint(SecretValue password);
+
+    /**
+     * Indica si una entrada debe volver a verificarse.
+     *
+     * @param stored Resultado guardado (puede ser null si nunca se verificó)
+     * @param fingerprint Huella actual de la contraseña
+     * @return true si no hay resultado, la contraseña cambió o el resultado caducó
+     */
+    boolean isStale(StoredBreachResult stored, String fingerprint);
+
+    /**
+     * Guarda (o reemplaza) el resultado de verificación de una entrada del usuario actual.
+     *
+     * @return Resultado persistido
+     */
+    StoredBreachResult recordResult(Long passwordEntryId, String fingerprint, int occurrences);
+
+    /**
+     * Resultado guardado de una verificación, con los datos mínimos para mostrarlo
+     * sin descifrar la entrada.
+     */
+    class StoredBreachResult {
+        private final Long passwordEntryId;
+        private final String title;
+        private final String username;
+        private final String fingerprint;
+        private final int occurrences;
+        private final LocalDateTime checkedAt;
+
+        public StoredBreachResult(Long passwordEntryId, String title, String username,
+                                  String fingerprint, int occurrences, LocalDateTime checkedAt) {
+            this.passwordEntryId = passwordEntryId;
+            this.title = title;
+            this.username = username;
+            this.fingerprint = fingerprint;
+            this.occurrences = occurrences;
+            this.checkedAt = checkedAt;
+        }
+
+        public Long getPasswordEntryId()   { return passwordEntryId; }
+        public String getTitle()           { return title; }
+        public String getUsername()        { return username; }
+        public String getFingerprint()     { return fingerprint; }
+        public int getOccurrences()        { return occurrences; }
+        public LocalDateTime getCheckedAt() { return checkedAt; }
+
+        public PasswordBreachService.BreachCheckResult toCheckResult() {
+            return new PasswordBreachService.BreachCheckResult(occurrences > 0, occurrences);
+        }
+    }
+}
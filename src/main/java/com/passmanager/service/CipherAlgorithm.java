@@ -0,0 +1,124 @@
+package com.passmanager.service;
+
+import com.passmanager.exception.EncryptionException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.spec.AlgorithmParameterSpec;
+
+/**
+ * Algoritmos AEAD para los datos de la bóveda y los backups. Ambos usan claves de
+ * 256 bits, nonces de 96 bits y etiquetas de 128 bits, así que comparten formato y
+ * secuencias de nonces ({@link GcmNonceSequence}).
+ *
+ * <p>AES-GCM es el más rápido con instrucciones AES en el procesador; sin ellas,
+ * ChaCha20-Poly1305 suele ganar con holgura. {@link CipherSelectionService} mide los
+ * dos al arrancar.</p>
+ *
+ * <p>El {@link #getId() id} se guarda en la cabecera de cada valor cifrado y el
+ * {@link #getLabel() nombre} en los backups: no se pueden cambiar.</p>
+ */
+public enum CipherAlgorithm {
+
+    AES_GCM(1, "AES-256-GCM", "AES/GCM/NoPadding", "AES"),
+    CHACHA20_POLY1305(2, "ChaCha20-Poly1305", "ChaCha20-Poly1305", "ChaCha20");
+
+    public static final int KEY_LENGTH = 32;
+    public static final int TAG_BITS = 128;
+
+    private final int id;
+    private final String label;
+    private final String transformation;
+    private final String keyAlgorithm;
+
+    CipherAlgorithm(int id, String label, String transformation, String keyAlgorithm) {
+        this.id = id;
+        this.label = label;
+        this.transformation = transformation;
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @param aad Datos autenticados sin cifrar (puede ser null)
+     * @return Texto cifrado seguido de la etiqueta
+     */
+    public byte[] encrypt(byte[] key, byte[] nonce, byte[] aad, byte[] plainText) {
+        try {
+            return init(Cipher.ENCRYPT_MODE, key, nonce, aad).doFinal(plainText);
+        } catch (Exception e) {
+            throw new EncryptionException("Error al encriptar con " + label, e);
+        }
+    }
+
+    /**
+     * @throws EncryptionException si la clave, el nonce o los datos autenticados no
+     *         corresponden o el texto fue alterado
+     */
+    public byte[] decrypt(byte[] key, byte[] nonce, byte[] aad, byte[] cipherText) {
+        try {
+            return init(Cipher.DECRYPT_MODE, key, nonce, aad).doFinal(cipherText);
+        } catch (Exception e) {
+            throw new EncryptionException("Error al desencriptar con " + label, e);
+        }
+    }
+
+    private Cipher init(int mode, byte[] key, byte[] nonce, byte[] aad) throws Exception {
+        Cipher cipher = Cipher.getInstance(transformation);
+        cipher.init(mode, new SecretKeySpec(key, keyAlgorithm), parameters(nonce));
+        if (aad != null) {
+            cipher.updateAAD(aad);
+        }
+        return cipher;
+    }
+
+    private AlgorithmParameterSpec parameters(byte[] nonce) {
+        return this == AES_GCM
+                ? new GCMParameterSpec(TAG_BITS, nonce)
+                : new IvParameterSpec(nonce);   // ChaCha20-Poly1305: etiqueta fija de 128 bits
+    }
+
+    /**
+     * @return El algoritmo indicado, o AES-GCM si es null (valores y usuarios anteriores a la elección)
+     */
+    public static CipherAlgorithm orDefault(CipherAlgorithm algorithm) {
+        return algorithm != null ? algorithm : AES_GCM;
+    }
+
+    /**
+     * @throws EncryptionException si el id no corresponde a ningún algoritmo
+     */
+    public static CipherAlgorithm fromId(int id) {
+        for (CipherAlgorithm algorithm : values()) {
+            if (algorithm.id == id) {
+                return algorithm;
+            }
+        }
+        throw new EncryptionException("Algoritmo de cifrado desconocido: " + id);
+    }
+
+    /**
+     * @return El algoritmo con ese nombre; AES-GCM si es null (backups anteriores)
+     * @throws EncryptionException si el nombre no corresponde a ningún algoritmo
+     */
+    public static CipherAlgorithm fromLabel(String label) {
+        if (label == null) {
+            return AES_GCM;
+        }
+        for (CipherAlgorithm algorithm : values()) {
+            if (algorithm.label.equalsIgnoreCase(label)) {
+                return algorithm;
+            }
+        }
+        throw new EncryptionException("Algoritmo de cifrado no soportado: " + label);
+    }
+}
@@ -0,0 +1,36 @@
+package com.passmanager.service;
+
+import java.util.Map;
+
+/**
+ * Elige el algoritmo AEAD ({@link CipherAlgorithm}) más rápido en este equipo.
+ *
+ * <p>Al arrancar mide en segundo plano el cifrado de valores del tamaño de una
+ * entrada con cada algoritmo, tras un calentamiento para que el JIT compile (y, con
+ * AES-NI, use) las rutas rápidas. Hasta que la medición termina no se recomienda
+ * ningún cambio: las bóvedas sin algoritmo fijado siguen con AES-GCM, el formato de
+ * los datos existentes, y se eligen cuando haya mediciones.</p>
+ */
+public interface CipherSelectionService {
+
+    /**
+     * @return El algoritmo más rápido medido, o AES-GCM si la medición no ha terminado
+     */
+    CipherAlgorithm getPreferred();
+
+    /**
+     * Algoritmo para una bóveda que ahora usa {@code current}. Solo propone cambiar
+     * si el otro es claramente más rápido: cambiar obliga a re-cifrar la bóveda, y dos
+     * mediciones parecidas no deben alternar el algoritmo en cada inicio de sesión.
+     *
+     * @param current Algoritmo actual de la bóveda (null = nunca elegido)
+     * @return El algoritmo recomendado, o {@code current} (que puede ser null) si la
+     *         medición no ha terminado
+     */
+    CipherAlgorithm recommend(CipherAlgorithm current);
+
+    /**
+     * @return Cifrados por segundo de cada algoritmo, vacío si la medición no ha terminado
+     */
+    Map<CipherAlgorithm, Double> getThroughput();
+}
@@ -0,0 +1,41 @@
+package com.passmanager.service;
+
+import com.passmanager.model.entity.User;
+
+import java.util.List;
+
+/**
+ * Migración de datos por usuario que {@link DataMigrationService} ejecuta por lotes
+ * en segundo plano.
+ *
+ * <p>Las unidades de trabajo se identifican por ids crecientes (normalmente el id de
+ * una entrada). Cada unidad debe ser idempotente: si un lote se revierte o se repite
+ * tras un cierre inesperado, volver a migrar una unidad no puede dañar los datos.
+ * Mientras la migración no termina conviven datos en ambos formatos, así que las
+ * lecturas tienen que aceptar los dos.</p>
+ */
+public interface DataMigration {
+
+    /**
+     * Identificador estable; es la clave del punto de control en {@code data_migration_progress}.
+     */
+    String getId();
+
+    String getDescription();
+
+    /**
+     * @return Unidades totales del usuario, para mostrar el progreso
+     */
+    long countUnits(User user);
+
+    /**
+     * @return Como mucho {@code limit} ids de unidad mayores que {@code afterId}, en orden creciente
+     */
+    List<Long> findUnitsAfter(User user, long afterId, int limit);
+
+    /**
+     * Migra un lote de unidades. Se llama dentro de la transacción del lote, con la
+     * sesión del usuario abierta (claves derivadas).
+     */
+    void migrateUnits(User user, List<Long> unitIds);
+}
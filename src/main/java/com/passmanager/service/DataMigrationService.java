@@ -0,0 +1,95 @@
+package com.passmanager.service;
+
+import com.passmanager.model.entity.User;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta migraciones de datos ({@link DataMigration}) por lotes en un hilo de fondo
+ * mientras la sesión del usuario está abierta.
+ *
+ * <p>El inicio de sesión solo programa la migración; los datos se convierten después
+ * en lotes pequeños, cada uno en su propia transacción junto con el punto de control.
+ * Así el tamaño de la bóveda no afecta al inicio de sesión, y una migración
+ * interrumpida (cierre de sesión, cierre de la aplicación) continúa en el siguiente.</p>
+ */
+public interface DataMigrationService {
+
+    /**
+     * Registra una migración pendiente para el usuario (en la transacción del llamador).
+     * No hace nada si ya estaba programada o terminada.
+     */
+    void schedule(String migrationId, User user);
+
+    /**
+     * Vuelve a programar una migración desde el principio, esté terminada o
+     * en curso (por ejemplo, porque cambió su objetivo). Antes espera al lote en curso
+     * del hilo de fondo, para que no sobrescriba el punto de control.
+     */
+    void restart(String migrationId, User user);
+
+    /**
+     * Arranca el hilo de fondo con las migraciones pendientes del usuario actual.
+     * No hace nada si ya está en marcha o no hay nada pendiente.
+     */
+    void resume();
+
+    /**
+     * Ejecuta en el hilo llamador las migraciones pendientes del usuario actual, tras
+     * esperar al hilo de fondo si estaba en marcha.
+     *
+     * @throws IllegalStateException si alguna no termina; los lotes confirmados se conservan
+     */
+    void runPendingNow();
+
+    /**
+     * Detiene el hilo de fondo tras el lote en curso y quita el listener (al cerrar sesión).
+     */
+    void stop();
+
+    /**
+     * @return Migraciones pendientes del usuario actual
+     */
+    List<Progress> getPendingProgress();
+
+    /**
+     * Recibe el progreso tras cada lote, en el hilo de fondo. Quien lo registra debe
+     * quitarlo con {@link #removeProgressListener} al cerrar su vista; {@link #stop()} quita todos.
+     */
+    void addProgressListener(Consumer<Progress> listener);
+
+    void removeProgressListener(Consumer<Progress> listener);
+
+    class Progress {
+        private final String migrationId;
+        private final String description;
+        private final long processed;
+        private final long total;
+        private final boolean completed;
+
+        public Progress(String migrationId, String description, long processed, long total, boolean completed) {
+            this.migrationId = migrationId;
+            this.description = description;
+            this.processed = processed;
+            this.total = total;
+            this.completed = completed;
+        }
+
+        public String getMigrationId()  { return migrationId; }
+        public String getDescription()  { return description; }
+        public long getProcessed()      { return processed; }
+        public long getTotal()          { return total; }
+        public boolean isCompleted()    { return completed; }
+
+        /**
+         * @return Fracción completada entre 0 y 1
+         */
+        public double getFraction() {
+            if (completed || total == 0) {
+                return 1.0;
+            }
+            return Math.min(1.0, (double) processed / total);
+        }
+    }
+}
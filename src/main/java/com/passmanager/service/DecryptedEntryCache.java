@@ -0,0 +1,57 @@
+package com.passmanager.service;
+
+import com.passmanager.service.EntryMetadataService.Metadata;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Caché de la sesión con los valores descifrados de las entradas (contraseña y
+ * metadatos), para que navegar por la lista no vuelva a descifrar lo mismo.
+ *
+ * <p>La clave es el id de la entrada y su {@code updatedAt}: una entrada modificada
+ * deja de coincidir aunque nadie la invalide. Acotada en tamaño y en tiempo sin uso;
+ * las contraseñas que salen de ella se borran. Se vacía al bloquear y al cerrar sesión.</p>
+ *
+ * <p>Solo guarda lo que cuesta descifrar: categoría, etiquetas y favorito se leen
+ * siempre de la entidad, porque cambian sin tocar {@code updatedAt}.</p>
+ */
+public interface DecryptedEntryCache {
+
+    /**
+     * @return Los valores de la entrada si están en la caché y siguen vigentes. La
+     *         contraseña es una copia propia del llamante
+     */
+    Optional<Decrypted> get(Long entryId, LocalDateTime updatedAt);
+
+    /**
+     * Guarda una copia de los valores; el llamante conserva los suyos.
+     */
+    void put(Long entryId, LocalDateTime updatedAt, Decrypted decrypted);
+
+    /**
+     * Descarta una entrada (creada, modificada o eliminada).
+     */
+    void invalidate(Long entryId);
+
+    /**
+     * Descarta y borra todo (al bloquear o cerrar sesión).
+     */
+    void clear();
+
+    /**
+     * Valores descifrados de una entrada.
+     */
+    final class Decrypted {
+        private final SecretValue password;
+        private final Metadata metadata;
+
+        public Decrypted(SecretValue password, Metadata metadata) {
+            this.password = password;
+            this.metadata = metadata;
+        }
+
+        public SecretValue getPassword() { return password; }
+        public Metadata getMetadata()    { return metadata; }
+    }
+}
@@ -3,12 +3,21 @@ package com.passmanager.service;
 /**
  * Servicio de cifrado con jerarquía de claves triple.
  *
- * Todas las claves se derivan de la contraseña maestra mediante una única
- * llamada a PBKDF2 con salida de 768 bits, dividida en tres bloques:
+ * Key A se deriva de la contraseña maestra con PBKDF2; Key B y Key C forman la
+ * clave de bóveda:
  *
  *   Key A [bytes 0-31]  — Autenticación de bóveda (hash almacenado = SHA-256(Key A))
- *   Key B [bytes 32-63] — Cifrado AES-256-GCM de contraseñas
+ *   Key B [bytes 32-63] — Cifrado AEAD de contraseñas ({@link CipherAlgorithm})
  *   Key C [bytes 64-95] — Firma HMAC-SHA256 de integridad
+ *
+ * Esquema v2: Key B y Key C son los bloques siguientes de la misma salida PBKDF2
+ * de 768 bits. Esquema v3: la clave de bóveda es independiente y se guarda en
+ * {@code User.wrappedVaultKey} envuelta con una clave derivada de Key A, así que
+ * cambiar la contraseña solo vuelve a envolver esos 64 bytes.
+ *
+ * Las claves no se guardan aquí: los métodos que abren una sesión devuelven un
+ * {@link KeyContext} que se registra en {@link VaultSessionService}, y las operaciones
+ * sin contexto explícito (cifrar, descifrar, firmar) usan las de la sesión actual.
  */
 public interface EncryptionService {
 
@@ -23,19 +32,53 @@ public interface EncryptionService {
     /** Verifica contra un hash v1 legacy (PBKDF2 raw 256-bit = Key A sin SHA-256). */
     boolean verifyPasswordLegacy(String password, String salt, String storedHash);
 
-    /** Deriva las tres claves de sesión (Key A, Key B, Key C). */
-    void deriveKey(String masterPassword, String salt);
+    /**
+     * Desenvuelve una clave de bóveda (esquema v3).
+     *
+     * @throws com.passmanager.exception.EncryptionException si la contraseña no desenvuelve la clave
+     */
+    KeyContext unlockVault(String masterPassword, String salt, String wrappedVaultKey);
+
+    /** Clave de bóveda nueva y aleatoria (usuarios nuevos). */
+    KeyContext generateVaultKey(String masterPassword, String salt);
 
-    void clearKey();
+    /**
+     * Envuelve la clave de bóveda de {@code keys} (Key B + Key C) con la contraseña indicada.
+     *
+     * @return Valor para {@code User.wrappedVaultKey}
+     */
+    String wrapVaultKey(KeyContext keys, String masterPassword, String salt);
 
-    boolean isKeyDerived();
+    /**
+     * Deriva las tres claves de la contraseña (esquemas v1 y v2, y re-cifrado de unas
+     * claves a otras).
+     */
+    KeyContext deriveContext(String masterPassword, String salt);
 
-    /** Cifra con Key B (AES-256-GCM). */
+    /**
+     * Claves del préstamo asociado al hilo actual ({@link VaultSession.Lease#bind()}).
+     * Sirven para repartir trabajo entre hilos propios mientras el préstamo sigue abierto.
+     *
+     * @throws com.passmanager.exception.EncryptionException si el hilo no tiene un préstamo asociado
+     */
+    KeyContext currentContext();
+
+    /** Cifra con Key B y el algoritmo de la bóveda, en el formato versionado. */
     String encrypt(String plainText);
 
-    /** Descifra con Key B (AES-256-GCM). */
+    /**
+     * Descifra con Key B y el algoritmo que indica la cabecera del valor. Acepta
+     * también valores sin cabecera (AES-GCM) y v1 (Key A) pendientes de las
+     * migraciones en segundo plano.
+     */
     String decrypt(String encryptedText);
 
+    /**
+     * Como {@link #decrypt}, pero el texto en claro queda fuera del heap en un
+     * {@link SecretValue} borrable en lugar de en un {@code String}.
+     */
+    SecretValue decryptSecret(String encryptedText);
+
     /** Descifra con Key A — para datos cifrados con el esquema legacy (v1). */
     String decryptLegacy(String encryptedText);
 
@@ -47,4 +90,72 @@ public interface EncryptionService {
 
     /** Verifica una firma HMAC-SHA256 generada con Key C. */
     boolean verifySignature(String data, String signature);
+
+    /**
+     * Huella HMAC-SHA256 de un texto plano con una subclave de Key C.
+     * Determinista por sesión: permite comparar contraseñas sin guardarlas.
+     */
+    String fingerprint(String plainText);
+
+    /**
+     * Huella de un secreto descifrado, sin crear un {@code String}. Coincide con
+     * {@link #fingerprint(String)} del mismo texto.
+     */
+    String fingerprint(SecretValue plainText);
+
+    /**
+     * Token de índice ciego: HMAC-SHA256 truncado a 128 bits con otra subclave de Key C.
+     * Determinista por bóveda, para buscar metadatos cifrados por igualdad.
+     */
+    String blindIndex(String token);
+
+    /**
+     * Claves derivadas inmutables. Se pueden usar desde varios hilos a la vez y no
+     * cambian aunque la sesión cambie de claves. Las de una sesión las borra
+     * {@link VaultSession} al devolverse el último préstamo.
+     */
+    interface KeyContext {
+
+        /**
+         * Cifra con Key B y {@link #getAlgorithm()}; el nonce sale de la secuencia
+         * propia del contexto.
+         */
+        String encrypt(String plainText);
+
+        /**
+         * Descifra con el algoritmo de la cabecera del valor, aceptando también valores
+         * sin cabecera y v1 (Key A).
+         */
+        String decrypt(String encryptedText);
+
+        /** Como {@link #decrypt}, a un {@link SecretValue}. */
+        SecretValue decryptSecret(String encryptedText);
+
+        /** Algoritmo con el que cifra {@link #encrypt}. */
+        CipherAlgorithm getAlgorithm();
+
+        /**
+         * Las mismas claves cifrando con otro algoritmo (null = AES-GCM). Comparten
+         * material: destruir una destruye las dos.
+         */
+        KeyContext withAlgorithm(CipherAlgorithm algorithm);
+
+        /**
+         * @return true si el valor no está cifrado con {@link #getAlgorithm()} y la
+         *         migración de algoritmo debe re-cifrarlo
+         */
+        boolean needsReencryption(String encryptedText);
+
+        /** HMAC-SHA256 con Key C, en Base64. */
+        String sign(String data);
+
+        /** Huella con la subclave de Key C. */
+        String fingerprint(String plainText);
+
+        /** Token de índice ciego con su subclave de Key C. */
+        String blindIndex(String token);
+
+        /** Sobrescribe las claves en memoria. Después cualquier operación falla. */
+        void destroy();
+    }
 }
@@ -0,0 +1,32 @@
+package com.passmanager.service;
+
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.User;
+
+import java.util.List;
+
+/**
+ * Índice de dominios de las entradas: del dominio registrable de un sitio a las
+ * entradas cuya URL lo tiene ({@code accounts.google.com} y {@code mail.google.com}
+ * comparten {@code google.com}).
+ *
+ * <p>Es la base del autocompletado y de cualquier integración local que pregunte
+ * "¿qué credenciales tengo para este sitio?": la respuesta es una búsqueda por
+ * igualdad en un índice, sea cual sea el tamaño de la bóveda.</p>
+ */
+public interface EntryDomainService {
+
+    /**
+     * Deja en la entrada el dominio de {@code url} (ninguno si no tiene host),
+     * conservando la fila si no cambia. Se llama al crear o modificar la entrada.
+     *
+     * @param url URL en claro de la entrada (la entidad puede tenerla cifrada)
+     */
+    void index(PasswordEntry entry, String url);
+
+    /**
+     * @param hostOrUrl Host o URL del sitio, con o sin esquema
+     * @return Ids de las entradas del usuario con el mismo dominio registrable
+     */
+    List<Long> findEntryIds(User user, String hostOrUrl);
+}
@@ -0,0 +1,135 @@
+package com.passmanager.service;
+
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice en memoria de las facetas de las entradas del usuario de la sesión: un
+ * bitmap comprimido ({@link com.passmanager.util.RoaringBitmap}) de ids por tag, por
+ * categoría y de favoritas.
+ *
+ * <p>Filtrar por varios tags a la vez (Y / O), excluir tags o categorías y contar
+ * cuántas entradas quedarían con cada faceta son operaciones entre bitmaps, sin
+ * consultar la base de datos. Solo contiene ids, nada descifrado.</p>
+ *
+ * <p>Se construye al iniciar sesión o desbloquear (dos consultas sobre la bóveda) y
+ * lo mantienen las escrituras al confirmarse su transacción. Se vacía al bloquear y
+ * al cerrar sesión; una consulta con el índice vacío o de otro usuario lo reconstruye.</p>
+ */
+public interface EntryFacetIndex {
+
+    /**
+     * Construye el índice del usuario, sustituyendo el anterior.
+     */
+    void rebuild(User user);
+
+    void clear();
+
+    /**
+     * @return Ids de las entradas del usuario que cumplen el filtro, en orden creciente
+     */
+    List<Long> findIds(User user, Filter filter);
+
+    /**
+     * Cuántas entradas quedarían con cada faceta añadida al filtro.
+     *
+     * <ul>
+     *   <li>Tags y favoritas: sobre el resultado del filtro</li>
+     *   <li>Categorías: sobre el resultado del filtro sin su categoría, para que el
+     *       recuento de las demás no sea cero al elegir una</li>
+     * </ul>
+     */
+    FacetCounts countFacets(User user, Filter filter);
+
+    // Mantenimiento (se aplican al confirmarse la transacción en curso)
+
+    /** Categoría, favorito y tags de una entrada creada o modificada. */
+    void onEntrySaved(PasswordEntry entry);
+
+    void onEntryDeleted(Long entryId);
+
+    void onTagAdded(Long entryId, Long tagId);
+
+    void onTagRemoved(Long entryId, Long tagId);
+
+    void onTagDeleted(Long tagId);
+
+    /** Las entradas de la categoría quedan sin categoría. */
+    void onCategoryDeleted(Long categoryId);
+
+    /**
+     * Filtro por facetas. Los conjuntos vacíos no filtran.
+     */
+    final class Filter {
+        private final Set<Long> tagIds;
+        private final boolean matchAllTags;
+        private final Set<Long> excludedTagIds;
+        private final Long categoryId;
+        private final Set<Long> excludedCategoryIds;
+        private final boolean favoritesOnly;
+
+        /**
+         * @param tagIds Tags requeridos
+         * @param matchAllTags true = la entrada debe tener todos (Y); false = alguno (O)
+         * @param excludedTagIds Tags que la entrada no puede tener
+         * @param categoryId Categoría requerida, o null
+         * @param excludedCategoryIds Categorías excluidas
+         * @param favoritesOnly Solo favoritas
+         */
+        public Filter(Set<Long> tagIds, boolean matchAllTags, Set<Long> excludedTagIds,
+                      Long categoryId, Set<Long> excludedCategoryIds, boolean favoritesOnly) {
+            this.tagIds = Set.copyOf(tagIds);
+            this.matchAllTags = matchAllTags;
+            this.excludedTagIds = Set.copyOf(excludedTagIds);
+            this.categoryId = categoryId;
+            this.excludedCategoryIds = Set.copyOf(excludedCategoryIds);
+            this.favoritesOnly = favoritesOnly;
+        }
+
+        public static Filter tag(Long tagId) {
+            return new Filter(Set.of(tagId), true, Set.of(), null, Set.of(), false);
+        }
+
+        /** El mismo filtro sin categoría requerida. */
+        public Filter withoutCategory() {
+            return new Filter(tagIds, matchAllTags, excludedTagIds, null, excludedCategoryIds, favoritesOnly);
+        }
+
+        public Set<Long> getTagIds()              { return tagIds; }
+        public boolean isMatchAllTags()           { return matchAllTags; }
+        public Set<Long> getExcludedTagIds()      { return excludedTagIds; }
+        public Long getCategoryId()               { return categoryId; }
+        public Set<Long> getExcludedCategoryIds() { return excludedCategoryIds; }
+        public boolean isFavoritesOnly()          { return favoritesOnly; }
+    }
+
+    /**
+     * Recuentos por faceta. Las facetas sin entradas no aparecen en los mapas.
+     */
+    final class FacetCounts {
+        private final int total;
+        private final int favorites;
+        private final Map<Long, Integer> byTag;
+        private final Map<Long, Integer> byCategory;
+
+        public FacetCounts(int total, int favorites, Map<Long, Integer> byTag, Map<Long, Integer> byCategory) {
+            this.total = total;
+            this.favorites = favorites;
+            this.byTag = byTag;
+            this.byCategory = byCategory;
+        }
+
+        /** Entradas que cumplen el filtro. */
+        public int getTotal()                     { return total; }
+        public int getFavorites()                 { return favorites; }
+        public Map<Long, Integer> getByTag()      { return byTag; }
+        public Map<Long, Integer> getByCategory() { return byCategory; }
+
+        public int tag(Long tagId)                { return byTag.getOrDefault(tagId, 0); }
+        public int category(Long categoryId)      { return byCategory.getOrDefault(categoryId, 0); }
+    }
+}
@@ -0,0 +1,95 @@
+package com.passmanager.service;
+
+import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.User;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Metadatos de las entradas (título, usuario, email, URL y notas), en claro o cifrados
+ * según {@code User.metadataEncryption}.
+ *
+ * <p>En claro se buscan con {@code LIKE} como siempre. Cifrados, cada entrada guarda
+ * un índice ciego ({@code EntrySearchToken}): HMAC del valor completo de cada campo y
+ * de los prefijos de cada palabra. La búsqueda calcula los tokens de la consulta y
+ * los compara por igualdad en un índice, así que no descifra ni recorre las entradas;
+ * a cambio, busca por inicio de palabra y no por cualquier subcadena.</p>
+ */
+public interface EntryMetadataService {
+
+    /**
+     * @return true si el usuario guarda los metadatos cifrados
+     */
+    boolean isEncryptionEnabled(User user);
+
+    /**
+     * Metadatos en claro de una entrada, descifrándolos si hace falta.
+     *
+     * @throws com.passmanager.exception.EncryptionException si no se pueden descifrar
+     */
+    Metadata read(PasswordEntry entry);
+
+    /**
+     * Guarda los metadatos en la entrada según la preferencia de su usuario,
+     * actualizando el índice ciego si van cifrados.
+     */
+    void write(PasswordEntry entry, Metadata metadata);
+
+    /**
+     * Pasa la entrada al formato indicado si no lo está ya (migración en segundo plano).
+     *
+     * @return true si cambió
+     */
+    boolean convert(PasswordEntry entry, boolean encrypted);
+
+    /**
+     * Ids de las entradas con metadatos cifrados cuyo índice contiene todos los tokens
+     * de la consulta. Pueden sobrar entradas (prefijos truncados): hay que comprobarlas
+     * con {@link #matches} una vez descifradas.
+     */
+    List<Long> findEncryptedCandidates(User user, String query);
+
+    /**
+     * @return true si cada palabra de la consulta empieza alguna palabra de los
+     *         metadatos, o la consulta coincide con un campo completo
+     */
+    boolean matches(PasswordEntryDTO entry, String query);
+
+    /**
+     * Metadatos de una entrada en claro.
+     */
+    final class Metadata {
+        private final String title;
+        private final String username;
+        private final String email;
+        private final String url;
+        private final String notes;
+
+        public Metadata(String title, String username, String email, String url, String notes) {
+            this.title = title;
+            this.username = username;
+            this.email = email;
+            this.url = url;
+            this.notes = notes;
+        }
+
+        public static Metadata of(PasswordEntryDTO dto) {
+            return new Metadata(dto.getTitle(), dto.getUsername(), dto.getEmail(), dto.getUrl(), dto.getNotes());
+        }
+
+        public String getTitle()    { return title; }
+        public String getUsername() { return username; }
+        public String getEmail()    { return email; }
+        public String getUrl()      { return url; }
+        public String getNotes()    { return notes; }
+
+        /**
+         * @return Los cinco campos, en orden (pueden ser null)
+         */
+        public List<String> values() {
+            return Arrays.asList(title, username, email, url, notes);
+        }
+    }
+}
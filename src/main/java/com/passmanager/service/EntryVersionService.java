@@ -0,0 +1,84 @@
+package com.passmanager.service;
+
+import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.model.entity.PasswordEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio de historial de versiones completas de las entradas.
+ *
+ * <p>A diferencia de {@link PasswordHistoryService}, que solo guarda contraseñas
+ * anteriores, aquí se versionan todos los campos de contenido (título, usuario,
+ * email, contraseña, URL, notas, categoría y campos personalizados):</p>
+ * <ul>
+ *   <li>Cada edición se guarda como un delta cifrado con solo los campos que cambian;
+ *       los textos se codifican como prefijo y sufijo comunes más el fragmento nuevo,
+ *       así el almacenamiento crece con el tamaño de la edición y no de la entrada</li>
+ *   <li>Cada {@value #SNAPSHOT_INTERVAL} versiones se guarda una instantánea completa,
+ *       que acota el número de deltas a aplicar para reconstruir una versión</li>
+ *   <li>Favoritos y etiquetas no forman parte del contenido versionado</li>
+ * </ul>
+ */
+public interface EntryVersionService {
+
+    int SNAPSHOT_INTERVAL = 10;
+
+    /**
+     * Registra la versión inicial de una entrada recién creada.
+     *
+     * @param entry Entrada ya persistida
+     * @param state Estado en texto plano de la entrada
+     */
+    void recordCreated(PasswordEntry entry, PasswordEntryDTO state);
+
+    /**
+     * Registra una edición. Si la entrada aún no tiene versiones (creada antes de
+     * existir el versionado), guarda primero {@code before} como versión inicial.
+     * No guarda nada si el contenido no cambia.
+     *
+     * @param entry Entrada editada
+     * @param before Estado en texto plano antes de la edición
+     * @param after Estado en texto plano después de la edición
+     */
+    void recordUpdate(PasswordEntry entry, PasswordEntryDTO before, PasswordEntryDTO after);
+
+    /**
+     * Lista las versiones de una entrada del usuario actual con los campos que
+     * cambiaron en cada una.
+     *
+     * @param passwordEntryId ID de la entrada
+     * @return Versiones de la más reciente a la más antigua
+     * @throws com.passmanager.exception.ResourceNotFoundException si la entrada no existe
+     */
+    List<VersionSummary> getVersions(Long passwordEntryId);
+
+    /**
+     * Reconstruye una versión concreta partiendo de la instantánea más cercana.
+     *
+     * @return Estado de la entrada en esa versión (sin id, etiquetas ni favorito)
+     * @throws com.passmanager.exception.ResourceNotFoundException si la entrada o la versión no existen
+     */
+    PasswordEntryDTO getVersion(Long passwordEntryId, int versionNumber);
+
+    class VersionSummary {
+        private final int versionNumber;
+        private final LocalDateTime createdAt;
+        private final boolean snapshot;
+        private final List<String> changedFields;
+
+        public VersionSummary(int versionNumber, LocalDateTime createdAt, boolean snapshot,
+                              List<String> changedFields) {
+            this.versionNumber = versionNumber;
+            this.createdAt = createdAt;
+            this.snapshot = snapshot;
+            this.changedFields = changedFields;
+        }
+
+        public int getVersionNumber()          { return versionNumber; }
+        public LocalDateTime getCreatedAt()    { return createdAt; }
+        public boolean isSnapshot()            { return snapshot; }
+        public List<String> getChangedFields() { return changedFields; }
+    }
+}
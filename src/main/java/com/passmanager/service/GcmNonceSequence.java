@@ -0,0 +1,63 @@
+package com.passmanager.service;
+
+import com.passmanager.exception.EncryptionException;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+
+/**
+ * Nonces de 96 bits para AES-GCM con construcción determinista (NIST SP 800-38D, 8.2.1):
+ * prefijo aleatorio de 64 bits + contador de 32 bits.
+ *
+ * <p>Cada secuencia pertenece a una única clave. Dentro de ella ningún nonce se
+ * repite por construcción, sin consultar el generador aleatorio en cada cifrado. El
+ * prefijo aleatorio separa secuencias distintas sobre la misma clave (por ejemplo,
+ * dos sesiones con la misma clave de bóveda).</p>
+ *
+ * <p>Límite de uso: {@value #MAX_INVOCATIONS} cifrados, el rango del contador. Al
+ * alcanzarlo la secuencia se niega a dar más nonces en lugar de repetir uno; una
+ * sesión nueva empieza con otro prefijo.</p>
+ */
+public final class GcmNonceSequence {
+
+    public static final int NONCE_LENGTH = 12;
+    public static final long MAX_INVOCATIONS = 1L << 32;
+
+    private final long prefix;
+    private long invocations;
+
+    public GcmNonceSequence(SecureRandom random) {
+        this.prefix = random.nextLong();
+    }
+
+    /**
+     * @throws EncryptionException si la secuencia agotó su límite de uso
+     */
+    public byte[] next() {
+        long counter;
+        synchronized (this) {
+            if (invocations >= MAX_INVOCATIONS) {
+                throw new EncryptionException("Límite de cifrados por clave alcanzado. Vuelve a iniciar sesión");
+            }
+            counter = invocations++;
+        }
+        return ByteBuffer.allocate(NONCE_LENGTH)
+                .putLong(prefix)
+                .putInt((int) counter)
+                .array();
+    }
+
+    /**
+     * @return Nonces entregados hasta ahora
+     */
+    public synchronized long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return Nonces que quedan antes del límite de uso
+     */
+    public synchronized long getRemaining() {
+        return MAX_INVOCATIONS - invocations;
+    }
+}
@@ -0,0 +1,32 @@
+package com.passmanager.service;
+
+import java.security.SecureRandom;
+
+/**
+ * Aleatoriedad de la aplicación: sales, claves y nonces salen de un único DRBG
+ * compartido, sembrado una vez al arrancar.
+ *
+ * <p>Crear un {@code SecureRandom} por llamada obliga a sembrarlo cada vez, y en
+ * Linux las siembras compiten entre sí durante las importaciones y exportaciones
+ * masivas. Los caminos de alto volumen (cifrado con la clave de la sesión, entradas
+ * de un backup) usan además una {@link GcmNonceSequence} por clave y no consultan
+ * el generador en cada cifrado.</p>
+ */
+public interface NonceService {
+
+    /**
+     * @return El generador compartido (seguro entre hilos)
+     */
+    SecureRandom getRandom();
+
+    /**
+     * @return {@code length} bytes aleatorios del generador compartido
+     */
+    byte[] randomBytes(int length);
+
+    /**
+     * Secuencia de nonces nueva para una clave. Hay que usar una por clave y no
+     * compartirla entre claves.
+     */
+    GcmNonceSequence newGcmSequence();
+}
@@ -45,6 +45,12 @@ public interface PasswordBreachService {
      */
     BreachCheckResult checkPassword(String password) throws PasswordBreachCheckException;
 
+    /**
+     * Como {@link #checkPassword(String)}, para una contraseña de la bóveda: se hashea
+     * desde el buffer sin crear un {@code String}.
+     */
+    BreachCheckResult checkPassword(SecretValue password) throws PasswordBreachCheckException;
+
     /**
      * Resultado de la verificación de una contraseña contra la base de datos de brechas.
      */
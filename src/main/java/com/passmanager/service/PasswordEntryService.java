@@ -1,6 +1,8 @@
 package com.passmanager.service;
 
 import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.service.EntryFacetIndex.Filter;
+import com.passmanager.service.EntryFacetIndex.FacetCounts;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,6 +11,20 @@ public interface PasswordEntryService {
 
     List<PasswordEntryDTO> findAll();
 
+    // Recorrido por lotes (análisis de la bóveda en segundo plano)
+    long count();
+
+    /**
+     * @return Como mucho {@code limit} ids de entradas del usuario actual mayores que
+     *         {@code afterId}, en orden creciente
+     */
+    List<Long> findIdsAfter(long afterId, int limit);
+
+    /**
+     * Entradas del usuario actual con esos ids, descifradas y ordenadas por título.
+     */
+    List<PasswordEntryDTO> findByIds(List<Long> ids);
+
     List<PasswordEntryDTO> findByCategory(Long categoryId);
 
     List<PasswordEntryDTO> search(String query);
@@ -35,6 +51,40 @@ public interface PasswordEntryService {
 
     void removeTagFromEntry(Long entryId, Long tagId);
 
+    /**
+     * Entradas del usuario actual para un sitio: las que tienen el mismo dominio
+     * registrable ({@code login.example.co.uk} encuentra {@code https://www.example.co.uk}).
+     * Usa el índice de dominios, no recorre las URLs.
+     *
+     * @param host Host o URL del sitio
+     */
+    List<PasswordEntryDTO> findByDomain(String host);
+
+    // Filtro por facetas (tags Y/O, exclusiones, categoría, favoritas)
+
+    /**
+     * Entradas del usuario actual que cumplen el filtro, resuelto con el índice de
+     * facetas en memoria, ordenadas por título.
+     *
+     * @param query Texto a buscar además, o null
+     */
+    List<PasswordEntryDTO> findByFilter(Filter filter, String query);
+
+    /**
+     * Recuentos de cada tag, categoría y favoritas con el filtro aplicado.
+     */
+    FacetCounts countFacets(Filter filter);
+
     // Contraseñas antiguas (para warnings)
     List<PasswordEntryDTO> findOldPasswords(int daysThreshold);
+
+    // Cifrado de metadatos (título, usuario, email, URL y notas)
+    boolean isMetadataEncryptionEnabled();
+
+    /**
+     * Activa o desactiva el cifrado de metadatos del usuario actual. Las entradas
+     * nuevas y editadas usan el formato nuevo al momento; las existentes se convierten
+     * por lotes en segundo plano.
+     */
+    void setMetadataEncryption(boolean enabled);
 }
@@ -11,7 +11,9 @@ import java.util.List;
  * Funcionalidades principales:
  * - Guardar versiones antiguas cuando se actualiza una contraseña
  * - Recuperar historial completo de una entrada
- * - Limpieza automática de versiones antiguas (mantener solo últimas 10)
+ * - Limpieza automática de versiones antiguas según la política del usuario
+ *   (número de versiones y/o antigüedad; por defecto las últimas 10)
+ * - Poda periódica de toda la bóveda en segundo plano, por lotes
  * - Eliminar historial cuando se elimina una entrada
  */
 public interface PasswordHistoryService {
@@ -34,4 +36,31 @@ public interface PasswordHistoryService {
      * @throws com.passmanager.exception.ResourceNotFoundException si la entrada no existe
      */
     List<PasswordHistoryDTO> getHistory(Long passwordEntryId);
+
+    /**
+     * Configura la política de retención del historial del usuario actual.
+     *
+     * @param maxVersions Versiones a conservar por entrada (null = valor por defecto)
+     * @param maxAgeDays Antigüedad máxima en días (null = sin límite)
+     * @throws IllegalArgumentException si algún valor está fuera de rango
+     */
+    void setRetentionPolicy(Integer maxVersions, Integer maxAgeDays);
+
+    /**
+     * @return Versiones que se conservan por entrada para el usuario actual
+     */
+    int getMaxVersions();
+
+    /**
+     * @return Antigüedad máxima en días del usuario actual, o null si no se limita
+     */
+    Integer getMaxAgeDays();
+
+    /**
+     * Aplica la política de retención de cada usuario a toda su bóveda, en lotes acotados.
+     * Lo ejecuta periódicamente un job en segundo plano.
+     *
+     * @return Número de versiones eliminadas
+     */
+    int pruneAll();
 }
@@ -0,0 +1,52 @@
+package com.passmanager.service;
+
+import com.passmanager.model.dto.PasswordEntryDTO;
+
+import java.util.List;
+
+/**
+ * Servicio de detección de contraseñas reutilizadas basado en huellas HMAC.
+ *
+ * <p>Cada {@code PasswordEntry} y {@code PasswordHistory} guarda la huella de su
+ * contraseña al escribirse ({@link EncryptionService#fingerprint(String)}), con
+ * un índice sobre la columna. La detección de duplicados y de reutilización de
+ * contraseñas anteriores se resuelve con consultas {@code GROUP BY}/join
+ * indexadas, sin descifrar ninguna contraseña ni mantenerlas en memoria.</p>
+ */
+public interface PasswordReuseService {
+
+    /**
+     * Obtiene los grupos de entradas que comparten contraseña entre sí o con
+     * una contraseña anterior del historial, para el usuario actual.
+     *
+     * @return Grupos ordenados, con DTOs sin contraseña (solo datos de presentación)
+     */
+    List<ReuseGroup> findReuseGroups();
+
+    /**
+     * Grupo de entradas con la misma contraseña.
+     */
+    class ReuseGroup {
+        private final List<PasswordEntryDTO> currentEntries;
+        private final List<PasswordEntryDTO> historyEntries;
+
+        public ReuseGroup(List<PasswordEntryDTO> currentEntries, List<PasswordEntryDTO> historyEntries) {
+            this.currentEntries = currentEntries;
+            this.historyEntries = historyEntries;
+        }
+
+        /**
+         * @return Entradas cuya contraseña actual es la compartida
+         */
+        public List<PasswordEntryDTO> getCurrentEntries() {
+            return currentEntries;
+        }
+
+        /**
+         * @return Entradas que usaron esa contraseña en el pasado (historial)
+         */
+        public List<PasswordEntryDTO> getHistoryEntries() {
+            return historyEntries;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.passmanager.service;
+
+import com.passmanager.model.dto.PasswordEntryDTO;
+
+import java.util.List;
+
+/**
+ * Servicio de detección de contraseñas casi idénticas ({@code Summer2023!} / {@code Summer2024!}).
+ *
+ * <p>Complementa a {@link PasswordReuseService}, que solo detecta coincidencias exactas.
+ * Cada contraseña se resume en una firma MinHash sobre sus bigramas de caracteres y
+ * las firmas se agrupan con LSH (bandas), de modo que solo se comparan los pares
+ * candidatos: el coste es casi lineal en el tamaño de la bóveda en lugar de O(n²).</p>
+ *
+ * <p>Todo el estado intermedio (caracteres, firmas, cubetas) se sobrescribe al terminar.</p>
+ */
+public interface PasswordSimilarityService {
+
+    /**
+     * Similitud de Jaccard estimada por defecto a partir de la cual dos contraseñas
+     * se consideran variantes.
+     */
+    double DEFAULT_THRESHOLD = 0.6;
+
+    /**
+     * Agrupa las entradas cuyas contraseñas son similares entre sí.
+     *
+     * @param entries Entradas descifradas
+     * @param threshold Similitud mínima (0-1, exclusivo de 0)
+     * @return Grupos de al menos dos entradas con contraseñas distintas, con DTOs sin contraseña
+     */
+    List<SimilarityCluster> findSimilarClusters(List<PasswordEntryDTO> entries, double threshold);
+
+    /**
+     * Grupo de entradas con contraseñas similares.
+     */
+    class SimilarityCluster {
+        private final List<PasswordEntryDTO> entries;
+        private final double similarity;
+
+        public SimilarityCluster(List<PasswordEntryDTO> entries, double similarity) {
+            this.entries = entries;
+            this.similarity = similarity;
+        }
+
+        public List<PasswordEntryDTO> getEntries() { return entries; }
+
+        /**
+         * @return Mayor similitud estimada entre dos miembros del grupo
+         */
+        public double getSimilarity() { return similarity; }
+    }
+}
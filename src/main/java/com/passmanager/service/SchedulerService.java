@@ -0,0 +1,55 @@
+package com.passmanager.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Planificador único de plazos de la aplicación (bloqueo automático, cierre de
+ * sesión por inactividad, limpieza del portapapeles y caducidad de la caché de
+ * entradas descifradas).
+ *
+ * <p>Un solo hilo y una rueda de tiempo (hashed timing wheel): programar y cancelar
+ * son O(1) y el hilo solo despierta en el vencimiento más próximo, nunca mientras
+ * no haya plazos pendientes.</p>
+ *
+ * <p>Los plazos de inactividad no se reprograman con cada evento del usuario: el
+ * llamador solo escribe la marca de tiempo de su última actividad (un campo
+ * {@code volatile}) y el plazo se vuelve a armar de forma perezosa cuando vence
+ * y comprueba que hubo actividad desde entonces.</p>
+ *
+ * <p>Las acciones se ejecutan en el hilo del planificador y deben ser breves; el
+ * trabajo de interfaz debe delegarse con {@code Platform.runLater}.</p>
+ */
+public interface SchedulerService {
+
+    long TICK_MILLIS = 100;
+
+    /**
+     * Ejecuta una acción una vez tras el retardo indicado.
+     *
+     * @param delayMillis Retardo en milisegundos (resolución de {@value #TICK_MILLIS} ms)
+     * @param action Acción a ejecutar
+     * @return Plazo cancelable
+     */
+    Deadline schedule(long delayMillis, Runnable action);
+
+    /**
+     * Ejecuta una acción cuando pasan {@code idleMillis} sin actividad, una vez por
+     * periodo de inactividad, hasta que se cancela el plazo.
+     *
+     * @param lastActivityMillis Marca de tiempo ({@link System#currentTimeMillis()}) de la última actividad
+     * @param idleMillis Tiempo de inactividad; se lee en cada vencimiento, así que admite cambios en caliente
+     * @param action Acción a ejecutar
+     * @return Plazo cancelable
+     */
+    Deadline scheduleOnIdle(LongSupplier lastActivityMillis, LongSupplier idleMillis, Runnable action);
+
+    /**
+     * Plazo programado.
+     */
+    interface Deadline {
+
+        void cancel();
+
+        boolean isCancelled();
+    }
+}
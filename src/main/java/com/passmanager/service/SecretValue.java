@@ -0,0 +1,225 @@
+package com.passmanager.service;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Valor secreto descifrado (una contraseña) guardado fuera del heap y borrable.
+ *
+ * <p>Los caracteres viven en un buffer directo que no mueve el recolector ni copia
+ * al compactar, y que {@link #wipe()} pone a cero. Un {@code String} es inmutable:
+ * una vez creado solo desaparece cuando el GC quiere, y mientras tanto puede quedar
+ * en cualquier volcado de memoria. Aquí solo se crea un {@code String} al mostrar o
+ * copiar el valor ({@link #reveal()}), y su vida es la de ese uso.</p>
+ *
+ * <ul>
+ *   <li>Al descifrar, los bytes UTF-8 se decodifican directamente al buffer y se
+ *       ponen a cero; no pasan por un {@code String} intermedio</li>
+ *   <li>{@link #wipeAll()} borra todos los valores vivos: se llama al bloquear la bóveda</li>
+ *   <li>Un valor que se pierde sin borrar lo pone a cero un {@link Cleaner} cuando el
+ *       GC lo recoge</li>
+ * </ul>
+ */
+public final class SecretValue {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /** Valores no borrados; débil para no retener los que ya nadie usa. */
+    private static final Set<SecretValue> LIVE =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final Buffer buffer;
+    private final Cleaner.Cleanable cleanable;
+
+    private SecretValue(CharBuffer chars) {
+        this.buffer = new Buffer(chars);
+        this.cleanable = CLEANER.register(this, buffer);
+        LIVE.add(this);
+    }
+
+    /**
+     * Decodifica texto UTF-8 y pone a cero el array recibido.
+     */
+    public static SecretValue fromUtf8(byte[] utf8) {
+        try {
+            // UTF-8 nunca produce más caracteres que bytes
+            CharBuffer chars = allocate(utf8.length);
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            decoder.decode(ByteBuffer.wrap(utf8), chars, true);
+            decoder.flush(chars);
+            chars.flip();
+            return new SecretValue(chars);
+        } finally {
+            Arrays.fill(utf8, (byte) 0);
+        }
+    }
+
+    /**
+     * Copia un texto que ya está en el heap (formularios, importaciones).
+     */
+    public static SecretValue of(CharSequence text) {
+        CharBuffer chars = allocate(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            chars.put(text.charAt(i));
+        }
+        chars.flip();
+        return new SecretValue(chars);
+    }
+
+    /**
+     * Borra todos los valores vivos.
+     *
+     * @return Cuántos se borraron
+     */
+    public static int wipeAll() {
+        List<SecretValue> live;
+        synchronized (LIVE) {
+            live = new ArrayList<>(LIVE);
+        }
+        for (SecretValue value : live) {
+            value.wipe();
+        }
+        return live.size();
+    }
+
+    /**
+     * Texto en claro, para mostrarlo o copiarlo. Cada llamada crea un {@code String}
+     * nuevo: hay que pedirlo justo antes de usarlo y no guardarlo.
+     *
+     * @throws IllegalStateException si el valor ya se borró
+     */
+    public String reveal() {
+        synchronized (buffer) {
+            return buffer.live().duplicate().toString();
+        }
+    }
+
+    /**
+     * Copia en un array que el llamante debe poner a cero al terminar.
+     *
+     * @throws IllegalStateException si el valor ya se borró
+     */
+    public char[] toCharArray() {
+        synchronized (buffer) {
+            CharBuffer chars = buffer.live().duplicate();
+            char[] copy = new char[chars.remaining()];
+            chars.get(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * Copia en UTF-8 en un array que el llamante debe poner a cero al terminar. Los
+     * caracteres intermedios se ponen a cero.
+     *
+     * @throws IllegalStateException si el valor ya se borró
+     */
+    public byte[] toUtf8() {
+        char[] chars = toCharArray();
+        try {
+            ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(chars));
+            byte[] utf8 = new byte[encoded.remaining()];
+            encoded.get(utf8);
+            Arrays.fill(encoded.array(), (byte) 0);
+            return utf8;
+        } finally {
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    /**
+     * Otro valor con el mismo contenido y vida propia.
+     *
+     * @throws IllegalStateException si el valor ya se borró
+     */
+    public SecretValue copy() {
+        synchronized (buffer) {
+            return of(buffer.live().duplicate());
+        }
+    }
+
+    /**
+     * @return true si el texto coincide; false también si el valor ya se borró
+     */
+    public boolean contentEquals(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        synchronized (buffer) {
+            return !buffer.wiped && buffer.chars.duplicate().equals(CharBuffer.wrap(text));
+        }
+    }
+
+    public int length() {
+        synchronized (buffer) {
+            return buffer.wiped ? 0 : buffer.chars.remaining();
+        }
+    }
+
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    public boolean isWiped() {
+        synchronized (buffer) {
+            return buffer.wiped;
+        }
+    }
+
+    /**
+     * Pone el buffer a cero. Idempotente.
+     */
+    public void wipe() {
+        cleanable.clean();
+        LIVE.remove(this);
+    }
+
+    @Override
+    public String toString() {
+        return isWiped() ? "SecretValue[borrado]" : "SecretValue[***]";
+    }
+
+    private static CharBuffer allocate(int length) {
+        return ByteBuffer.allocateDirect(length * Character.BYTES).asCharBuffer();
+    }
+
+    /**
+     * Estado compartido con el {@link Cleaner}: no puede referenciar al {@link SecretValue}.
+     */
+    private static final class Buffer implements Runnable {
+        private final CharBuffer chars;
+        private boolean wiped;
+
+        Buffer(CharBuffer chars) {
+            this.chars = chars;
+        }
+
+        CharBuffer live() {
+            if (wiped) {
+                throw new IllegalStateException("El valor secreto ya se borró");
+            }
+            return chars;
+        }
+
+        @Override
+        public synchronized void run() {
+            for (int i = 0; i < chars.capacity(); i++) {
+                chars.put(i, '\0');
+            }
+            chars.limit(0);
+            wiped = true;
+        }
+    }
+}
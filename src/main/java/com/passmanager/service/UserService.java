@@ -12,11 +12,11 @@ public interface UserService {
 
     Optional<User> findByUsername(String username);
 
+    /**
+     * @return El usuario de la sesión actual ({@link VaultSessionService#current()})
+     * @throws IllegalStateException si no hay sesión abierta
+     */
     User getCurrentUser();
 
-    void setCurrentUser(User user);
-
-    void clearCurrentUser();
-
     boolean hasCurrentUser();
 }
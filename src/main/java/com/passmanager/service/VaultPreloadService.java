@@ -0,0 +1,56 @@
+package com.passmanager.service;
+
+import com.passmanager.model.dto.CategoryDTO;
+import com.passmanager.model.dto.PasswordEntryDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Precarga en segundo plano de las categorías y entradas del usuario actual.
+ *
+ * <p>El inicio de sesión la arranca en cuanto la clave está derivada, en paralelo
+ * con el resto de pasos, y la ventana principal consume el resultado al abrirse
+ * en lugar de consultar la base de datos en el hilo de JavaFX.</p>
+ */
+public interface VaultPreloadService {
+
+    /**
+     * Empieza la precarga para el usuario actual, descartando cualquier precarga anterior.
+     */
+    void start();
+
+    /**
+     * @return true si hay una precarga en curso o terminada pendiente de consumir
+     */
+    boolean isStarted();
+
+    /**
+     * Espera a que termine la precarga en curso, como mucho {@code timeoutMillis}.
+     * Los errores no se propagan: en ese caso {@link #take()} no devuelve nada.
+     */
+    void awaitCompletion(long timeoutMillis);
+
+    /**
+     * Devuelve la precarga si ya terminó correctamente y la descarta (solo se usa una vez).
+     */
+    Optional<VaultSnapshot> take();
+
+    /**
+     * Descarta la precarga (al cerrar sesión o cancelar el inicio de sesión).
+     */
+    void clear();
+
+    class VaultSnapshot {
+        private final List<CategoryDTO> categories;
+        private final List<PasswordEntryDTO> entries;
+
+        public VaultSnapshot(List<CategoryDTO> categories, List<PasswordEntryDTO> entries) {
+            this.categories = categories;
+            this.entries = entries;
+        }
+
+        public List<CategoryDTO> getCategories()    { return categories; }
+        public List<PasswordEntryDTO> getEntries()  { return entries; }
+    }
+}
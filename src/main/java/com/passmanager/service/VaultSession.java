@@ -0,0 +1,130 @@
+package com.passmanager.service;
+
+import com.passmanager.model.entity.User;
+import com.passmanager.service.EncryptionService.KeyContext;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sesión de bóveda abierta: el usuario y sus claves. Inmutable; abrir otra sesión
+ * (inicio de sesión, cambio de contraseña, desbloqueo) crea una instancia nueva.
+ *
+ * <p>Contador de referencias: la sesión cuenta como una mientras está vigente y cada
+ * {@link Lease} como otra. Al invalidarla (bloqueo o cierre de sesión) ya no se
+ * pueden pedir préstamos, y las claves se borran al devolver el último. Un trabajo
+ * en segundo plano que tomó su préstamo antes termina la operación en curso con
+ * claves válidas y comprueba {@link #isValid()} para detenerse.</p>
+ */
+public final class VaultSession {
+
+    /** Préstamo asociado al hilo por {@link Lease#bind()}. */
+    private static final ThreadLocal<Lease> BOUND = new ThreadLocal<>();
+
+    private final User user;
+    private final KeyContext keys;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicBoolean valid = new AtomicBoolean(true);
+
+    public VaultSession(User user, KeyContext keys) {
+        this.user = user;
+        this.keys = keys;
+    }
+
+    public User getUser()      { return user; }
+    public Long getUserId()    { return user.getId(); }
+    public boolean isValid()   { return valid.get(); }
+
+    /**
+     * Toma un préstamo de las claves. Hay que cerrarlo, normalmente con try-with-resources.
+     *
+     * @throws IllegalStateException si la sesión ya se invalidó
+     */
+    public Lease acquire() {
+        while (true) {
+            int current = references.get();
+            if (current == 0 || !valid.get()) {
+                throw new IllegalStateException("La sesión de la bóveda está cerrada");
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return new Lease();
+            }
+        }
+    }
+
+    /**
+     * Invalida la sesión. Solo tiene efecto la primera vez; las claves se borran en
+     * cuanto no quede ningún préstamo abierto.
+     */
+    public void invalidate() {
+        if (valid.compareAndSet(true, false)) {
+            release();
+        }
+    }
+
+    /**
+     * @return El préstamo asociado al hilo actual con {@link Lease#bind()}, si lo hay
+     */
+    public static Optional<Lease> boundLease() {
+        return Optional.ofNullable(BOUND.get());
+    }
+
+    private void release() {
+        if (references.decrementAndGet() == 0) {
+            keys.destroy();
+        }
+    }
+
+    /**
+     * Préstamo de las claves de una sesión. Mientras está abierto las claves no se
+     * borran, aunque la sesión se invalide.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private Lease previous;
+        private Thread boundThread;
+
+        private Lease() {
+        }
+
+        public VaultSession getSession() { return VaultSession.this; }
+        public KeyContext getKeys()      { return keys; }
+
+        /**
+         * Asocia el préstamo al hilo actual hasta {@link #close()}: los servicios que
+         * trabajan con el usuario actual ({@code UserService}, {@code EncryptionService})
+         * usan esta sesión en lugar de la vigente. Para hilos de fondo que reciben un
+         * préstamo tomado por quien los lanzó.
+         *
+         * @return Este mismo préstamo, para usarlo en el try-with-resources
+         */
+        public Lease bind() {
+            if (boundThread != null) {
+                throw new IllegalStateException("El préstamo ya está asociado a un hilo");
+            }
+            previous = BOUND.get();
+            boundThread = Thread.currentThread();
+            BOUND.set(this);
+            return this;
+        }
+
+        /**
+         * Devuelve el préstamo. Se puede llamar más de una vez.
+         */
+        @Override
+        public void close() {
+            if (boundThread == Thread.currentThread() && BOUND.get() == this) {
+                if (previous != null) {
+                    BOUND.set(previous);
+                } else {
+                    BOUND.remove();
+                }
+            }
+            if (closed.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.passmanager.service;
+
+import com.passmanager.model.entity.User;
+import com.passmanager.service.EncryptionService.KeyContext;
+
+import java.util.Optional;
+
+/**
+ * Sesión de bóveda vigente ({@link VaultSession}).
+ *
+ * <p>Es la única fuente del usuario actual y de las claves: {@code UserService} y
+ * {@code EncryptionService} la consultan en cada operación. Abrir, sustituir e
+ * invalidar la sesión son operaciones atómicas.</p>
+ *
+ * <p>Los trabajos en segundo plano toman un préstamo con {@link #acquire()} en el
+ * hilo que los lanza y lo asocian a su propio hilo con {@link VaultSession.Lease#bind()}.
+ * Así trabajan siempre con la sesión en la que empezaron, aunque se bloquee la
+ * aplicación o cambie el usuario mientras tanto.</p>
+ */
+public interface VaultSessionService {
+
+    /**
+     * Abre una sesión nueva e invalida la anterior, si la había.
+     */
+    VaultSession open(User user, KeyContext keys);
+
+    /**
+     * Sustituye la sesión {@code expected} por una nueva solo si sigue siendo la vigente.
+     * Si no (se bloqueó o se cerró mientras tanto), borra las claves nuevas.
+     *
+     * @return true si la sesión nueva quedó abierta
+     */
+    boolean replace(VaultSession expected, User user, KeyContext keys);
+
+    /**
+     * @return La sesión asociada al hilo actual o, si no hay, la vigente
+     */
+    Optional<VaultSession> current();
+
+    /**
+     * Préstamo de la sesión actual ({@link #current()}).
+     *
+     * @throws IllegalStateException si no hay sesión abierta
+     */
+    VaultSession.Lease acquire();
+
+    /**
+     * Invalida la sesión vigente (bloqueo o cierre de sesión). Los préstamos abiertos
+     * conservan las claves hasta que se devuelven.
+     */
+    void invalidate();
+
+    /**
+     * @return true si hay una sesión vigente
+     */
+    boolean isOpen();
+}
@@ -4,48 +4,142 @@ import com.passmanager.model.entity.AuditLog;
 import com.passmanager.model.entity.AuditLog.ActionType;
 import com.passmanager.model.entity.AuditLog.ResultType;
 import com.passmanager.model.entity.User;
+import com.passmanager.repository.AuditDailyRollupRepository;
 import com.passmanager.repository.AuditLogRepository;
 import com.passmanager.service.AuditLogService;
+import com.passmanager.service.AuditRetentionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Implementación del registro de auditoría con escritura asíncrona por lotes.
+ *
+ * <h2>Flujo</h2>
+ * <ul>
+ *   <li>{@code log(...)} solo encola el evento (cola lock-free) y vuelve: las operaciones
+ *       CRUD ya no pagan el INSERT ni el fsync de SQLite</li>
+ *   <li>Un hilo escritor vacía la cola en lotes de {@link #BATCH_SIZE} en una sola
+ *       transacción, cada {@link #FLUSH_INTERVAL_MS} ms o en cuanto se acumula un lote</li>
+ *   <li>La cola admite {@link #QUEUE_CAPACITY} eventos; los permisos se liberan al
+ *       confirmarse la escritura. Si está llena, quien registra espera al escritor
+ *       (back-pressure) y, si este no responde, escribe su evento de forma síncrona:
+ *       nunca se descarta un evento</li>
+ *   <li>{@link #flush()} escribe lo pendiente de forma síncrona: al bloquear, al cerrar
+ *       sesión, al apagar y antes de cada consulta</li>
+ *   <li>Cada lote actualiza también {@code audit_daily_rollup} en la misma transacción,
+ *       de modo que las estadísticas no recorren el registro</li>
+ *   <li>Las consultas del visor continúan en los archivos de {@link AuditRetentionService}
+ *       cuando se agota la tabla: los eventos archivados son siempre los más antiguos</li>
+ * </ul>
+ */
 @Service
 public class AuditLogServiceImpl implements AuditLogService {
 
     private static final Logger log = LoggerFactory.getLogger(AuditLogServiceImpl.class);
 
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 64;
+    private static final long FLUSH_INTERVAL_MS = 500;
+    private static final long OFFER_TIMEOUT_MS = 2000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    // Límites para filtros sin fecha y cursor inicial (el formato TEXT ordena lexicográficamente)
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditDailyRollupRepository rollupRepository;
+    private final AuditRetentionService auditRetentionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Queue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore capacity = new Semaphore(QUEUE_CAPACITY);
+    private final Object writeLock = new Object();
+
+    /**
+     * Lote que falló al escribirse; se reintenta antes que la cola. Protegido por {@link #writeLock}.
+     */
+    private List<AuditLog> retryBatch = new ArrayList<>();
 
-    public AuditLogServiceImpl(AuditLogRepository auditLogRepository) {
+    /**
+     * Eventos de {@link #retryBatch} que no tienen permiso de la cola (escrituras síncronas
+     * fallidas): no se liberan al confirmarse. Protegido por {@link #writeLock}.
+     */
+    private int retryWithoutPermit;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLogServiceImpl(AuditLogRepository auditLogRepository,
+                               AuditDailyRollupRepository rollupRepository,
+                               AuditRetentionService auditRetentionService,
+                               PlatformTransactionManager transactionManager) {
         this.auditLogRepository = auditLogRepository;
+        this.rollupRepository = rollupRepository;
+        this.auditRetentionService = auditRetentionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("Escritor de auditoría detenido");
     }
 
     @Override
-    @Transactional
     public void log(User user, ActionType action, String description, ResultType result) {
         log(user, action, description, null, null, result);
     }
 
     @Override
-    @Transactional
     public void log(User user, ActionType action, String description, Long passwordEntryId, ResultType result) {
         log(user, action, description, passwordEntryId, null, result);
     }
 
     @Override
-    @Transactional
     public void log(User user, ActionType action, String description, String ipAddress, ResultType result) {
         log(user, action, description, null, ipAddress, result);
     }
 
-    @Transactional
     private void log(User user, ActionType action, String description, Long passwordEntryId, String ipAddress, ResultType result) {
         AuditLog auditLog = AuditLog.builder()
                 .user(user)
@@ -57,14 +151,22 @@ public class AuditLogServiceImpl implements AuditLogService {
                 .result(result)
                 .build();
 
-        auditLogRepository.save(auditLog);
+        enqueue(auditLog);
 
         log.debug("Audit log: user={}, action={}, result={}",
                 user.getUsername(), action, result);
     }
 
+    @Override
+    public void flush() {
+        synchronized (writeLock) {
+            writePending();
+        }
+    }
+
     @Override
     public List<AuditLog> findByUser(User user) {
+        flush();
         // Limitar a los últimos 50 registros
         Pageable pageable = PageRequest.of(0, 50);
         return auditLogRepository.findByUserOrderByTimestampDesc(user, pageable);
@@ -72,16 +174,259 @@ public class AuditLogServiceImpl implements AuditLogService {
 
     @Override
     public List<AuditLog> findByUserAndAction(User user, ActionType action) {
+        flush();
         return auditLogRepository.findByUserAndActionOrderByTimestampDesc(user, action);
     }
 
     @Override
     public List<AuditLog> findByUserAndDateRange(User user, LocalDateTime start, LocalDateTime end) {
-        return auditLogRepository.findByUserAndTimestampBetweenOrderByTimestampDesc(user, start, end);
+        flush();
+        List<AuditLog> rows = new ArrayList<>(
+                auditLogRepository.findByUserAndTimestampBetweenOrderByTimestampDesc(user, start, end));
+        rows.addAll(auditRetentionService.findArchived(user, start, end));
+        return rows;
     }
 
+    /**
+     * Días completos desde los conteos diarios; solo el día parcial de {@code since}
+     * se cuenta sobre el registro (rango acotado del índice).
+     */
     @Override
     public long countRecentActivity(User user, LocalDateTime since) {
-        return auditLogRepository.countByUserAndTimestampAfter(user, since);
+        flush();
+        LocalDate sinceDay = since.toLocalDate();
+        long partialDay = auditLogRepository.countByUserAndTimestampBetween(
+                user, since, sinceDay.atTime(LocalTime.MAX));
+        long fullDays = rollupRepository.sumByDay(user, sinceDay.plusDays(1).toString()).stream()
+                .mapToLong(row -> ((Number) row[1]).longValue())
+                .sum();
+        return partialDay + fullDays;
+    }
+
+    @Override
+    public AuditPage findPage(User user, AuditFilter filter, AuditCursor after, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Tamaño de página inválido: " + pageSize);
+        }
+        flush();
+
+        LocalDateTime cursorTimestamp = after != null ? after.getTimestamp() : MAX_TIMESTAMP;
+        Long cursorId = after != null ? after.getId() : Long.MAX_VALUE;
+
+        // Se pide un registro de más para saber si hay página siguiente
+        List<AuditLog> rows = auditLogRepository.findPageAfter(
+                user,
+                filter.getActions().isEmpty(), actionsOrAll(filter),
+                filter.getResults().isEmpty(), resultsOrAll(filter),
+                fromOrMin(filter), toOrMax(filter),
+                cursorTimestamp, cursorId,
+                PageRequest.of(0, pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            // La tabla se agotó: la página continúa con los eventos archivados
+            rows = new ArrayList<>(rows);
+            rows.addAll(auditRetentionService.findArchivedPage(user, filter, after, pageSize + 1 - rows.size()));
+        }
+        if (rows.size() <= pageSize) {
+            return new AuditPage(rows, null);
+        }
+        List<AuditLog> items = rows.subList(0, pageSize);
+        AuditLog last = items.get(pageSize - 1);
+        return new AuditPage(items, new AuditCursor(last.getTimestamp(), last.getId()));
+    }
+
+    @Override
+    public long count(User user, AuditFilter filter) {
+        flush();
+        long live = auditLogRepository.countFiltered(
+                user,
+                filter.getActions().isEmpty(), actionsOrAll(filter),
+                filter.getResults().isEmpty(), resultsOrAll(filter),
+                fromOrMin(filter), toOrMax(filter));
+        return live + auditRetentionService.countArchived(user, filter);
+    }
+
+    @Override
+    public List<DailyActivity> getDailyActivity(User user, int days) {
+        LocalDate fromDay = firstDay(days);
+        flush();
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByDay(user, fromDay.toString())) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+
+        List<DailyActivity> activity = new ArrayList<>(days);
+        for (LocalDate day = fromDay; !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+            activity.add(new DailyActivity(day, counts.getOrDefault(day.toString(), 0L)));
+        }
+        return activity;
+    }
+
+    @Override
+    public double getFailureRate(User user, int days) {
+        LocalDate fromDay = firstDay(days);
+        flush();
+
+        long total = 0;
+        long failures = 0;
+        for (Object[] row : rollupRepository.sumByResult(user, fromDay.toString())) {
+            long count = ((Number) row[1]).longValue();
+            total += count;
+            if (row[0] != ResultType.SUCCESS) {
+                failures += count;
+            }
+        }
+        return total == 0 ? 0 : (double) failures / total;
+    }
+
+    @Override
+    public List<ActionCount> getTopActions(User user, int days, int limit) {
+        LocalDate fromDay = firstDay(days);
+        flush();
+
+        return rollupRepository.sumByAction(user, fromDay.toString()).stream()
+                .limit(limit)
+                .map(row -> new ActionCount((ActionType) row[0], ((Number) row[1]).longValue()))
+                .toList();
+    }
+
+    @Override
+    public int rebuildDailyRollups() {
+        synchronized (writeLock) {
+            // Con la cola vacía y el escritor bloqueado, nada se cuenta dos veces
+            writePending();
+            Integer rows = transactionTemplate.execute(status -> {
+                rollupRepository.deleteAllRollups();
+                return rollupRepository.backfillFromAuditLog();
+            });
+            log.info("Conteos diarios de auditoría reconstruidos: {} filas", rows);
+            return Objects.requireNonNullElse(rows, 0);
+        }
+    }
+
+    private static LocalDate firstDay(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("El número de días debe ser positivo");
+        }
+        return LocalDate.now().minusDays(days - 1L);
+    }
+
+    private static Set<ActionType> actionsOrAll(AuditFilter filter) {
+        return filter.getActions().isEmpty() ? EnumSet.allOf(ActionType.class) : filter.getActions();
+    }
+
+    private static Set<ResultType> resultsOrAll(AuditFilter filter) {
+        return filter.getResults().isEmpty() ? EnumSet.allOf(ResultType.class) : filter.getResults();
+    }
+
+    private static LocalDateTime fromOrMin(AuditFilter filter) {
+        return filter.getFrom() != null ? filter.getFrom() : MIN_TIMESTAMP;
+    }
+
+    private static LocalDateTime toOrMax(AuditFilter filter) {
+        return filter.getTo() != null ? filter.getTo() : MAX_TIMESTAMP;
+    }
+
+    // ---------------------------------------------------------------
+    // Cola y escritor
+    // ---------------------------------------------------------------
+
+    private void enqueue(AuditLog auditLog) {
+        if (!capacity.tryAcquire()) {
+            // Cola llena: despertar al escritor y esperar hueco
+            LockSupport.unpark(writer);
+            boolean acquired = false;
+            try {
+                acquired = capacity.tryAcquire(OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!acquired) {
+                log.warn("Cola de auditoría llena; escribiendo evento de forma síncrona");
+                synchronized (writeLock) {
+                    if (!writeBatch(List.of(auditLog))) {
+                        // Se reintenta con el lote fallido en la próxima escritura
+                        retryBatch.add(auditLog);
+                        retryWithoutPermit++;
+                    }
+                }
+                return;
+            }
+        }
+
+        queue.offer(auditLog);
+
+        if (QUEUE_CAPACITY - capacity.availablePermits() >= BATCH_SIZE) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void runWriter() {
+        while (running) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS));
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Error en el escritor de auditoría: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Escribe el lote fallido y después la cola, lote a lote. Requiere {@link #writeLock}.
+     */
+    private void writePending() {
+        if (!retryBatch.isEmpty()) {
+            if (!writeBatch(retryBatch)) {
+                return;
+            }
+            capacity.release(retryBatch.size() - retryWithoutPermit);
+            retryBatch = new ArrayList<>();
+            retryWithoutPermit = 0;
+        }
+
+        while (!queue.isEmpty()) {
+            List<AuditLog> batch = new ArrayList<>(BATCH_SIZE);
+            AuditLog next;
+            while (batch.size() < BATCH_SIZE && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (!writeBatch(batch)) {
+                retryBatch = batch;
+                return;
+            }
+            capacity.release(batch.size());
+        }
+    }
+
+    /**
+     * Agrupa el lote por (usuario, día, acción, resultado) y suma cada grupo con un UPSERT.
+     */
+    private void incrementRollups(List<AuditLog> batch) {
+        Map<List<Object>, Long> deltas = new HashMap<>();
+        for (AuditLog auditLog : batch) {
+            ResultType result = auditLog.getResult() != null ? auditLog.getResult() : ResultType.SUCCESS;
+            List<Object> key = List.of(auditLog.getUser().getId(), auditLog.getTimestamp().toLocalDate().toString(),
+                    auditLog.getAction().name(), result.name());
+            deltas.merge(key, 1L, Long::sum);
+        }
+        deltas.forEach((key, delta) -> rollupRepository.increment(
+                (Long) key.get(0), (String) key.get(1), (String) key.get(2), (String) key.get(3), delta));
+    }
+
+    private boolean writeBatch(List<AuditLog> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                auditLogRepository.saveAll(batch);
+                incrementRollups(batch);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            // El rollback puede dejar ids asignados en memoria; se reintentan como nuevos
+            batch.forEach(auditLog -> auditLog.setId(null));
+            log.error("No se pudo escribir un lote de {} eventos de auditoría: {}", batch.size(), e.getMessage());
+            return false;
+        }
     }
 }
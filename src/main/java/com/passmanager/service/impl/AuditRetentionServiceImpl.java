@@ -0,0 +1,621 @@
+package com.passmanager.service.impl;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.passmanager.config.AppConfig;
+import com.passmanager.model.entity.AuditLog;
+import com.passmanager.model.entity.AuditLog.ActionType;
+import com.passmanager.model.entity.AuditLog.ResultType;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.AuditLogRepository;
+import com.passmanager.repository.UserRepository;
+import com.passmanager.service.AuditLogService.AuditCursor;
+import com.passmanager.service.AuditLogService.AuditFilter;
+import com.passmanager.service.AuditRetentionService;
+import com.passmanager.service.SchedulerService;
+import com.passmanager.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementación de la retención de auditoría con un archivo JSONL comprimido por mes.
+ *
+ * <p>Cada lote se fusiona con el archivo de su mes: el contenido anterior más los
+ * eventos nuevos se escribe en un temporal, se sincroniza a disco, se relee entero y,
+ * solo si contiene todos los ids, se renombra sobre el archivo del mes y el lote se
+ * borra de la tabla. Si el proceso se interrumpe antes del borrado, el lote se vuelve
+ * a archivar en la siguiente ejecución: la fusión descarta los ids que ya estaban y la
+ * consulta descarta los que siguen en la tabla.</p>
+ *
+ * <p>La ejecución diaria se programa en el {@link SchedulerService} compartido; el
+ * archivado corre en un hilo propio para no ocupar el hilo del planificador.</p>
+ */
+@Service
+public class AuditRetentionServiceImpl implements AuditRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditRetentionServiceImpl.class);
+
+    private static final int DEFAULT_MAX_AGE_DAYS = 180;
+    private static final int DEFAULT_MAX_ROWS_PER_USER = 5_000;
+    private static final int MIN_AGE_DAYS = 7;
+    private static final int MIN_ROWS_PER_USER = 100;
+
+    private static final int DELETE_BATCH_SIZE = 200;
+    private static final long PAUSE_BETWEEN_BATCHES_MS = 50;
+    private static final long INITIAL_DELAY_MINUTES = 1;
+    private static final long RUN_INTERVAL_HOURS = 24;
+
+    private static final String ARCHIVE_FOLDER = "audit-archive";
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".jsonl.gz";
+    private static final String SEGMENT_GLOB = SEGMENT_PREFIX + "[0-9][0-9][0-9][0-9]-[0-9][0-9]" + SEGMENT_SUFFIX;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int EXISTING_IDS_BATCH_SIZE = 500;
+    private static final int MAX_CACHED_COUNTS = 64;
+    private static final Comparator<AuditLog> NEWEST_FIRST =
+            Comparator.comparing(AuditLog::getTimestamp).thenComparing(AuditLog::getId).reversed();
+
+    private final AuditLogRepository auditLogRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final SchedulerService schedulerService;
+    private final TransactionTemplate transactionTemplate;
+    private final Gson gson = new Gson();
+
+    private volatile boolean running;
+    private volatile SchedulerService.Deadline nextRun;
+
+    /**
+     * Cambia con cada lote archivado; invalida {@link #archivedCounts}.
+     */
+    private final AtomicLong archiveVersion = new AtomicLong();
+
+    /**
+     * Recuentos de archivados por (usuario, filtro): {versión, recuento}.
+     */
+    private final Map<List<Object>, long[]> archivedCounts = new ConcurrentHashMap<>();
+
+    public AuditRetentionServiceImpl(AuditLogRepository auditLogRepository,
+                                     UserRepository userRepository,
+                                     UserService userService,
+                                     SchedulerService schedulerService,
+                                     PlatformTransactionManager transactionManager) {
+        this.auditLogRepository = auditLogRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.schedulerService = schedulerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        scheduleNextRun(TimeUnit.MINUTES.toMillis(INITIAL_DELAY_MINUTES));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        SchedulerService.Deadline deadline = nextRun;
+        if (deadline != null) {
+            deadline.cancel();
+        }
+    }
+
+    @Override
+    public void setPolicy(int maxAgeDays, int maxRowsPerUser) {
+        if (maxAgeDays < MIN_AGE_DAYS) {
+            throw new IllegalArgumentException("La antigüedad mínima es de " + MIN_AGE_DAYS + " días");
+        }
+        if (maxRowsPerUser < MIN_ROWS_PER_USER) {
+            throw new IllegalArgumentException("El mínimo de filas por usuario es " + MIN_ROWS_PER_USER);
+        }
+
+        User user = userService.getCurrentUser();
+        user.setAuditMaxAgeDays(maxAgeDays);
+        user.setAuditMaxRows(maxRowsPerUser);
+        userRepository.save(user);
+    }
+
+    @Override
+    public int getMaxAgeDays() {
+        return maxAgeDays(userService.getCurrentUser());
+    }
+
+    @Override
+    public int getMaxRowsPerUser() {
+        return maxRowsPerUser(userService.getCurrentUser());
+    }
+
+    @Override
+    public synchronized int applyRetention() {
+        int archived = 0;
+        for (User user : userRepository.findAll()) {
+            deleteTemporaryFiles(user);
+            archived += archiveByAge(user);
+            archived += archiveByCount(user);
+        }
+        if (archived > 0) {
+            log.info("Retención de auditoría: {} registros archivados", archived);
+        }
+        return archived;
+    }
+
+    @Override
+    public List<AuditLog> findArchived(User user, LocalDateTime start, LocalDateTime end) {
+        List<AuditLog> results = new ArrayList<>();
+        for (Path segment : segmentsNewestFirst(user, start, end)) {
+            results.addAll(readMonth(user, segment, auditLog -> inRange(auditLog, start, end)));
+        }
+        return withoutLiveRows(results);
+    }
+
+    @Override
+    public List<AuditLog> findArchivedPage(User user, AuditFilter filter, AuditCursor after, int limit) {
+        LocalDateTime end = filter.getTo();
+        if (after != null && (end == null || after.getTimestamp().isBefore(end))) {
+            end = after.getTimestamp();
+        }
+        Predicate<AuditLog> wanted = auditLog -> matches(filter, auditLog) && isAfter(auditLog, after);
+
+        // Los meses son disjuntos en el tiempo: al completar la página no hace falta leer más
+        List<AuditLog> page = new ArrayList<>(limit);
+        for (Path segment : segmentsNewestFirst(user, filter.getFrom(), end)) {
+            List<AuditLog> candidates = readMonth(user, segment, wanted);
+            for (int i = 0; i < candidates.size() && page.size() < limit; i += limit) {
+                for (AuditLog auditLog : withoutLiveRows(candidates.subList(i, Math.min(i + limit, candidates.size())))) {
+                    if (page.size() == limit) {
+                        break;
+                    }
+                    page.add(auditLog);
+                }
+            }
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public long countArchived(User user, AuditFilter filter) {
+        List<Object> key = Arrays.asList(user.getId(), Set.copyOf(filter.getActions()),
+                Set.copyOf(filter.getResults()), filter.getFrom(), filter.getTo());
+        long version = archiveVersion.get();
+        long[] cached = archivedCounts.get(key);
+        if (cached != null && cached[0] == version) {
+            return cached[1];
+        }
+
+        long count = 0;
+        for (Path segment : segmentsNewestFirst(user, filter.getFrom(), filter.getTo())) {
+            count += withoutLiveRows(readMonth(user, segment, auditLog -> matches(filter, auditLog))).size();
+        }
+        if (archivedCounts.size() >= MAX_CACHED_COUNTS) {
+            archivedCounts.clear();
+        }
+        archivedCounts.put(key, new long[]{version, count});
+        return count;
+    }
+
+    // ---------------------------------------------------------------
+    // Programación
+    // ---------------------------------------------------------------
+
+    private void scheduleNextRun(long delayMillis) {
+        if (!running) {
+            return;
+        }
+        nextRun = schedulerService.schedule(delayMillis, () -> {
+            Thread worker = new Thread(this::runScheduled, "audit-retention");
+            worker.setDaemon(true);
+            worker.start();
+        });
+    }
+
+    private void runScheduled() {
+        try {
+            applyRetention();
+        } catch (RuntimeException e) {
+            log.error("Error aplicando la retención de auditoría: {}", e.getMessage());
+        } finally {
+            scheduleNextRun(TimeUnit.HOURS.toMillis(RUN_INTERVAL_HOURS));
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Archivado por lotes
+    // ---------------------------------------------------------------
+
+    private int archiveByAge(User user) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays(user));
+        int archived = 0;
+        while (true) {
+            List<AuditLog> batch = auditLogRepository.findOldestBefore(
+                    user, cutoff, PageRequest.of(0, DELETE_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return archived;
+            }
+            archiveAndDelete(user, batch);
+            archived += batch.size();
+            pause();
+        }
+    }
+
+    private int archiveByCount(User user) {
+        long excess = auditLogRepository.countByUser(user) - maxRowsPerUser(user);
+        int archived = 0;
+        while (excess > 0) {
+            int size = (int) Math.min(excess, DELETE_BATCH_SIZE);
+            List<AuditLog> batch = auditLogRepository.findByUserOrderByTimestampAscIdAsc(
+                    user, PageRequest.of(0, size));
+            if (batch.isEmpty()) {
+                break;
+            }
+            archiveAndDelete(user, batch);
+            archived += batch.size();
+            excess -= batch.size();
+            pause();
+        }
+        return archived;
+    }
+
+    private void archiveAndDelete(User user, List<AuditLog> batch) {
+        Map<YearMonth, List<AuditLog>> byMonth = new TreeMap<>();
+        for (AuditLog auditLog : batch) {
+            byMonth.computeIfAbsent(YearMonth.from(auditLog.getTimestamp()), k -> new ArrayList<>()).add(auditLog);
+        }
+        for (Map.Entry<YearMonth, List<AuditLog>> month : byMonth.entrySet()) {
+            mergeIntoSegment(segmentFile(user, month.getKey()), month.getValue());
+        }
+
+        // Solo se borra lo que ya se ha releído del disco
+        List<Long> ids = batch.stream().map(AuditLog::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> auditLogRepository.deleteAllByIdInBatch(ids));
+        // Los recuentos cacheados ya no valen
+        archiveVersion.incrementAndGet();
+    }
+
+    /**
+     * Añade los eventos al archivo del mes. El resultado se escribe en un temporal
+     * sincronizado y se relee antes de renombrarlo: el archivo del mes nunca queda a
+     * medio escribir ni pierde lo que ya tenía.
+     *
+     * @throws IllegalStateException si el archivo actual está dañado o la relectura
+     *         no coincide; el lote se queda en la tabla
+     */
+    private void mergeIntoSegment(Path segment, List<AuditLog> events) {
+        Map<Long, ArchivedEvent> merged = new LinkedHashMap<>();
+        if (Files.exists(segment)) {
+            try {
+                readSegment(segment).forEach(event -> merged.put(event.id, event));
+            } catch (IOException | JsonParseException e) {
+                throw new IllegalStateException("El archivo de auditoría " + segment.getFileName()
+                        + " está dañado; no se archivan más registros de ese mes", e);
+            }
+        }
+        // Un lote ya archivado en una ejecución interrumpida no se duplica
+        events.forEach(auditLog -> merged.putIfAbsent(auditLog.getId(), ArchivedEvent.from(auditLog)));
+
+        Path temp = segment.resolveSibling(segment.getFileName() + TEMP_SUFFIX);
+        writeSegment(temp, merged.values());
+        verifySegment(temp, merged.keySet());
+        try {
+            Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("No se pudo escribir el archivo de auditoría " + segment, e);
+        }
+    }
+
+    private void writeSegment(Path temp, Collection<ArchivedEvent> events) {
+        try {
+            Path directory = temp.getParent();
+            if (!Files.exists(directory)) {
+                Files.createDirectories(directory);
+                setRestrictivePermissions(directory, "rwx------");
+            }
+
+            FileOutputStream out = new FileOutputStream(temp.toFile());
+            GZIPOutputStream gzip = new GZIPOutputStream(out);
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8))) {
+                for (ArchivedEvent event : events) {
+                    writer.write(gson.toJson(event));
+                    writer.newLine();
+                }
+                writer.flush();
+                gzip.finish();
+                out.getFD().sync();
+            }
+            setRestrictivePermissions(temp, "rw-------");
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("No se pudo escribir el archivo de auditoría " + temp, e);
+        }
+    }
+
+    /**
+     * Relee el temporal de forma estricta. Si falta algún id, se elimina y el lote se
+     * queda en la tabla para el siguiente intento.
+     */
+    private void verifySegment(Path temp, Set<Long> expected) {
+        try {
+            Set<Long> found = new HashSet<>();
+            for (ArchivedEvent event : readSegment(temp)) {
+                found.add(event.id);
+            }
+            if (found.containsAll(expected)) {
+                return;
+            }
+        } catch (IOException | JsonParseException e) {
+            log.warn("No se pudo releer el archivo de auditoría {}: {}", temp.getFileName(), e.getMessage());
+        }
+        deleteQuietly(temp);
+        throw new IllegalStateException("El archivo de auditoría " + temp.getFileName()
+                + " no contiene el lote completo; no se borran los registros");
+    }
+
+    private List<ArchivedEvent> readSegment(Path segment) throws IOException {
+        List<ArchivedEvent> events = new ArrayList<>();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(segment));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    events.add(gson.fromJson(line, ArchivedEvent.class));
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Eventos de un mes que cumplen la condición, del más reciente al más antiguo.
+     */
+    private List<AuditLog> readMonth(User user, Path segment, Predicate<AuditLog> wanted) {
+        List<AuditLog> events = new ArrayList<>();
+        for (ArchivedEvent event : readSegmentLenient(segment)) {
+            AuditLog auditLog = event.toAuditLog(user, LocalDateTime.parse(event.timestamp));
+            if (wanted.test(auditLog)) {
+                events.add(auditLog);
+            }
+        }
+        events.sort(NEWEST_FIRST);
+        return events;
+    }
+
+    /**
+     * Descarta los eventos archivados cuyo lote no llegó a borrarse de la tabla
+     * (interrupción entre el archivado y el borrado): ya se muestran desde la tabla.
+     */
+    private List<AuditLog> withoutLiveRows(List<AuditLog> archived) {
+        Set<Long> live = new HashSet<>();
+        for (int i = 0; i < archived.size(); i += EXISTING_IDS_BATCH_SIZE) {
+            List<Long> ids = archived.subList(i, Math.min(i + EXISTING_IDS_BATCH_SIZE, archived.size())).stream()
+                    .map(AuditLog::getId)
+                    .toList();
+            live.addAll(auditLogRepository.findExistingIds(ids));
+        }
+        if (live.isEmpty()) {
+            return archived;
+        }
+        return archived.stream().filter(auditLog -> !live.contains(auditLog.getId())).toList();
+    }
+
+    private static boolean matches(AuditFilter filter, AuditLog auditLog) {
+        return (filter.getActions().isEmpty() || filter.getActions().contains(auditLog.getAction()))
+                && (filter.getResults().isEmpty() || filter.getResults().contains(auditLog.getResult()))
+                && inRange(auditLog, filter.getFrom(), filter.getTo());
+    }
+
+    private static boolean inRange(AuditLog auditLog, LocalDateTime start, LocalDateTime end) {
+        return (start == null || !auditLog.getTimestamp().isBefore(start))
+                && (end == null || !auditLog.getTimestamp().isAfter(end));
+    }
+
+    /**
+     * Si el evento va detrás del cursor en el orden del visor: (timestamp, id) descendente.
+     */
+    private static boolean isAfter(AuditLog auditLog, AuditCursor cursor) {
+        if (cursor == null) {
+            return true;
+        }
+        return auditLog.getTimestamp().isBefore(cursor.getTimestamp())
+                || (auditLog.getTimestamp().equals(cursor.getTimestamp()) && auditLog.getId() < cursor.getId());
+    }
+
+    /**
+     * Lectura para consultas: un segmento dañado se omite sin afectar a los demás.
+     */
+    private List<ArchivedEvent> readSegmentLenient(Path segment) {
+        try {
+            return readSegment(segment);
+        } catch (IOException | JsonParseException e) {
+            log.warn("Archivo de auditoría ilegible {}: {}", segment.getFileName(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Helpers privados
+    // ---------------------------------------------------------------
+
+    private int maxAgeDays(User user) {
+        return user.getAuditMaxAgeDays() != null ? user.getAuditMaxAgeDays() : DEFAULT_MAX_AGE_DAYS;
+    }
+
+    private int maxRowsPerUser(User user) {
+        return user.getAuditMaxRows() != null ? user.getAuditMaxRows() : DEFAULT_MAX_ROWS_PER_USER;
+    }
+
+    private Path userArchiveDirectory(User user) {
+        return Paths.get(System.getProperty("user.home"), AppConfig.DB_FOLDER, ARCHIVE_FOLDER,
+                "user-" + user.getId());
+    }
+
+    private Path segmentFile(User user, YearMonth month) {
+        return userArchiveDirectory(user).resolve(SEGMENT_PREFIX + month + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Archivos mensuales que pueden tener eventos en el rango, del mes más reciente al
+     * más antiguo. El mes del nombre acota sus fechas: los demás no se abren.
+     */
+    private List<Path> segmentsNewestFirst(User user, LocalDateTime start, LocalDateTime end) {
+        YearMonth first = start != null ? YearMonth.from(start) : null;
+        YearMonth last = end != null ? YearMonth.from(end) : null;
+        Map<YearMonth, Path> byMonth = new TreeMap<>(Comparator.reverseOrder());
+        for (Path segment : listSegments(user)) {
+            YearMonth month = segmentMonth(segment);
+            if (month != null && (first == null || !month.isBefore(first)) && (last == null || !month.isAfter(last))) {
+                byMonth.put(month, segment);
+            }
+        }
+        return new ArrayList<>(byMonth.values());
+    }
+
+    /**
+     * Archivos mensuales del usuario ({@code audit-AAAA-MM.jsonl.gz}).
+     */
+    private List<Path> listSegments(User user) {
+        Path directory = userArchiveDirectory(user);
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+            stream.forEach(segments::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo listar el archivo de auditoría " + directory, e);
+        }
+        return segments;
+    }
+
+    private static YearMonth segmentMonth(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return YearMonth.parse(name.substring(SEGMENT_PREFIX.length(), SEGMENT_PREFIX.length() + 7));
+        } catch (IndexOutOfBoundsException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Temporales de una ejecución interrumpida: su lote sigue en la tabla.
+     */
+    private void deleteTemporaryFiles(User user) {
+        Path directory = userArchiveDirectory(user);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + TEMP_SUFFIX)) {
+            stream.forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.debug("No se pudieron limpiar temporales en {}", directory);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {}: {}", path.getFileName(), e.getMessage());
+        }
+    }
+
+    private void setRestrictivePermissions(Path path, String permissions) {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(permissions));
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("No se pudieron establecer permisos POSIX para {}", path);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(PAUSE_BETWEEN_BATCHES_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Línea de un segmento (JSON).
+     */
+    private static class ArchivedEvent {
+        private Long id;
+        private String timestamp;
+        private String action;
+        private String result;
+        private String description;
+        private Long passwordEntryId;
+        private String ipAddress;
+
+        static ArchivedEvent from(AuditLog auditLog) {
+            ArchivedEvent event = new ArchivedEvent();
+            event.id = auditLog.getId();
+            event.timestamp = auditLog.getTimestamp().toString();
+            event.action = auditLog.getAction().name();
+            event.result = auditLog.getResult() != null ? auditLog.getResult().name() : null;
+            event.description = auditLog.getDescription();
+            event.passwordEntryId = auditLog.getPasswordEntryId();
+            event.ipAddress = auditLog.getIpAddress();
+            return event;
+        }
+
+        AuditLog toAuditLog(User user, LocalDateTime parsedTimestamp) {
+            return AuditLog.builder()
+                    .id(id)
+                    .user(user)
+                    .timestamp(parsedTimestamp)
+                    .action(ActionType.valueOf(action))
+                    .result(result != null ? ResultType.valueOf(result) : null)
+                    .description(description)
+                    .passwordEntryId(passwordEntryId)
+                    .ipAddress(ipAddress)
+                    .build();
+        }
+    }
+}
@@ -2,49 +2,88 @@ package com.passmanager.service.impl;
 
 import com.passmanager.exception.AuthenticationException;
 import com.passmanager.model.dto.UserDTO;
-import com.passmanager.model.entity.CustomField;
-import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.AuditLog;
 import com.passmanager.model.entity.User;
-import com.passmanager.repository.PasswordEntryRepository;
 import com.passmanager.repository.UserRepository;
 import com.passmanager.service.AuthService;
+import com.passmanager.service.CipherAlgorithm;
+import com.passmanager.service.CipherSelectionService;
+import com.passmanager.service.DataMigrationService;
+import com.passmanager.service.DecryptedEntryCache;
+import com.passmanager.service.EntryFacetIndex;
 import com.passmanager.service.EncryptionService;
+import com.passmanager.service.EncryptionService.KeyContext;
 import com.passmanager.service.LoginAttemptService;
 import com.passmanager.service.RecoveryKeyService;
 import com.passmanager.service.UserService;
+import com.passmanager.service.VaultPreloadService;
+import com.passmanager.service.VaultSession;
+import com.passmanager.service.VaultSessionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
 
 @Service
 public class AuthServiceImpl implements AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthServiceImpl.class);
+
+    /**
+     * Espera máxima a la precarga en la fase LOAD; si no termina, la ventana principal consulta por su cuenta.
+     */
+    private static final long PRELOAD_TIMEOUT_MS = 10_000;
+
     private final UserRepository userRepository;
-    private final PasswordEntryRepository passwordEntryRepository;
     private final UserService userService;
     private final EncryptionService encryptionService;
     private final LoginAttemptService loginAttemptService;
     private final RecoveryKeyService recoveryKeyService;
     private final com.passmanager.service.AuditLogService auditLogService;
+    private final VaultPreloadService vaultPreloadService;
+    private final DataMigrationService dataMigrationService;
+    private final VaultSessionService vaultSessionService;
+    private final CipherSelectionService cipherSelectionService;
+    private final DecryptedEntryCache decryptedEntryCache;
+    private final EntryFacetIndex entryFacetIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Usuario de la sesión bloqueada, mientras la aplicación está bloqueada. */
+    private volatile User lockedUser;
 
     public AuthServiceImpl(UserRepository userRepository,
-                           PasswordEntryRepository passwordEntryRepository,
                            UserService userService,
                            EncryptionService encryptionService,
                            LoginAttemptService loginAttemptService,
                            RecoveryKeyService recoveryKeyService,
-                           com.passmanager.service.AuditLogService auditLogService) {
+                           com.passmanager.service.AuditLogService auditLogService,
+                           VaultPreloadService vaultPreloadService,
+                           DataMigrationService dataMigrationService,
+                           VaultSessionService vaultSessionService,
+                           CipherSelectionService cipherSelectionService,
+                           DecryptedEntryCache decryptedEntryCache,
+                           EntryFacetIndex entryFacetIndex,
+                           PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
-        this.passwordEntryRepository = passwordEntryRepository;
         this.userService = userService;
         this.encryptionService = encryptionService;
         this.loginAttemptService = loginAttemptService;
         this.recoveryKeyService = recoveryKeyService;
         this.auditLogService = auditLogService;
+        this.vaultPreloadService = vaultPreloadService;
+        this.dataMigrationService = dataMigrationService;
+        this.vaultSessionService = vaultSessionService;
+        this.cipherSelectionService = cipherSelectionService;
+        this.decryptedEntryCache = decryptedEntryCache;
+        this.entryFacetIndex = entryFacetIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -71,31 +110,67 @@ public class AuthServiceImpl implements AuthService {
         String salt = encryptionService.generateSalt();
         String hash = encryptionService.hashPassword(password, salt);
 
-        // Generar recovery key
-        String recoveryKey = recoveryKeyService.generateRecoveryKey();
-        String recoveryKeyHash = recoveryKeyService.hashRecoveryKey(recoveryKey);
-        String encryptedMasterPassword = recoveryKeyService.encryptMasterPassword(password, recoveryKey);
-
-        User user = User.builder()
-                .username(username)
-                .passwordHash(hash)
-                .salt(salt)
-                .recoveryKeyHash(recoveryKeyHash)
-                .encryptedMasterPassword(encryptedMasterPassword)
-                .keyVersion(2)
-                .build();
-
-        user = userRepository.save(user);
+        // Clave de bóveda aleatoria, envuelta con la contraseña, con el algoritmo más rápido
+        // medido; sin medición queda sin fijar (AES-GCM) y se elige al iniciar sesión
+        CipherAlgorithm cipherAlgorithm = cipherSelectionService.recommend(null);
+        KeyContext keys = encryptionService.generateVaultKey(password, salt).withAlgorithm(cipherAlgorithm);
+        String recoveryKey;
+        User user;
+        try {
+            String wrappedVaultKey = encryptionService.wrapVaultKey(keys, password, salt);
+
+            // Generar recovery key
+            recoveryKey = recoveryKeyService.generateRecoveryKey();
+            String recoveryKeyHash = recoveryKeyService.hashRecoveryKey(recoveryKey);
+            String encryptedMasterPassword = recoveryKeyService.encryptMasterPassword(password, recoveryKey);
+
+            user = userRepository.save(User.builder()
+                    .username(username)
+                    .passwordHash(hash)
+                    .salt(salt)
+                    .recoveryKeyHash(recoveryKeyHash)
+                    .encryptedMasterPassword(encryptedMasterPassword)
+                    .wrappedVaultKey(wrappedVaultKey)
+                    .keyVersion(3)
+                    .cipherAlgorithm(cipherAlgorithm)
+                    .build());
+        } catch (RuntimeException e) {
+            keys.destroy();
+            throw e;
+        }
 
-        encryptionService.deriveKey(password, salt);
-        userService.setCurrentUser(user);
+        vaultSessionService.open(user, keys);
 
         return new UserCreationResult(recoveryKey);
     }
 
     @Override
-    @Transactional
     public boolean authenticate(String username, String password) {
+        return authenticate(username, password, AuthProgress.NONE);
+    }
+
+    @Override
+    public boolean authenticate(String username, String password, AuthProgress progress) {
+        Boolean valid = transactionTemplate.execute(status -> openSession(username, password, progress));
+        if (!Boolean.TRUE.equals(valid)) {
+            return false;
+        }
+
+        progress.onPhase(AuthPhase.LOAD);
+        vaultPreloadService.awaitCompletion(PRELOAD_TIMEOUT_MS);
+        entryFacetIndex.rebuild(userService.getCurrentUser());
+        abortIfCancelled(progress);
+
+        // Migraciones de datos pendientes (programadas ahora o interrumpidas en otra sesión)
+        dataMigrationService.resume();
+        return true;
+    }
+
+    /**
+     * Verifica la contraseña y abre la sesión (fases VERIFY, DERIVE y MIGRATE),
+     * en una única transacción.
+     */
+    private boolean openSession(String username, String password, AuthProgress progress) {
         if (loginAttemptService.isBlocked(username)) {
             long remainingSeconds = loginAttemptService.getBlockTimeRemainingSeconds(username);
             long remainingMinutes = (remainingSeconds / 60) + 1;
@@ -104,26 +179,56 @@ public class AuthServiceImpl implements AuthService {
             );
         }
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new AuthenticationException("Usuario no encontrado"));
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            // Cuenta para el bloqueo y responde igual que una contraseña incorrecta:
+            // el resultado no revela qué usuarios existen
+            loginAttemptService.loginFailed(username);
+            return false;
+        }
 
         boolean isLegacy = user.getKeyVersion() == null || user.getKeyVersion() < 2;
 
+        progress.onPhase(AuthPhase.VERIFY);
         boolean valid = isLegacy
                 ? encryptionService.verifyPasswordLegacy(password, user.getSalt(), user.getPasswordHash())
                 : encryptionService.verifyPassword(password, user.getSalt(), user.getPasswordHash());
 
         if (valid) {
             loginAttemptService.loginSucceeded(username);
-            encryptionService.deriveKey(password, user.getSalt());
+            abortIfCancelled(progress);
 
+            progress.onPhase(AuthPhase.DERIVE);
+            boolean cipherChanged = selectCipher(user);
+            VaultSession session = vaultSessionService.open(user, openVault(user, password));
+            abortIfCancelled(progress);
+
+            // Con la clave derivada, la bóveda se precarga en paralelo con el resto
+            vaultPreloadService.start();
+
+            progress.onPhase(AuthPhase.MIGRATE);
             if (isLegacy) {
                 performKeyMigration(user, password);
             }
+            if (user.getKeyVersion() < 3) {
+                try (VaultSession.Lease lease = session.acquire()) {
+                    adoptVaultKey(user, lease.getKeys(), password);
+                }
+            }
+            if (cipherChanged) {
+                dataMigrationService.restart(CipherReencryptDataMigration.ID, user);
+            }
+
+            // Huellas de contraseña para datos anteriores a la columna, por lotes tras las
+            // migraciones ya programadas (no hace nada si ya se programó)
+            dataMigrationService.schedule(PasswordFingerprintDataMigration.ID, user);
+
+            // Índice de dominios de las entradas anteriores a él (no hace nada si ya se programó)
+            dataMigrationService.schedule(EntryDomainDataMigration.ID, user);
 
             user.setLastLoginAt(LocalDateTime.now());
             userRepository.save(user);
-            userService.setCurrentUser(user);
+            abortIfCancelled(progress);
 
             // Registrar login exitoso
             auditLogService.log(user,
@@ -144,31 +249,15 @@ public class AuthServiceImpl implements AuthService {
     }
 
     /**
-     * Migración v1 → v2: re-cifra todas las contraseñas del usuario de Key A a Key B,
-     * calcula hmacTag con Key C, y actualiza el hash almacenado al formato v2.
-     * Se ejecuta una sola vez al primer login tras el upgrade.
+     * Migración v1 → v2: actualiza el hash almacenado al formato v2 y programa el
+     * re-cifrado de los datos ({@link KeyHierarchyDataMigration}), que se hace por lotes
+     * en segundo plano. El coste del inicio de sesión no depende del tamaño de la bóveda.
+     *
+     * <p>Desde aquí {@code keyVersion = 2} indica el formato del hash; el estado de los
+     * datos lo lleva {@code data_migration_progress}.</p>
      */
     private void performKeyMigration(User user, String password) {
-        List<PasswordEntry> entries = passwordEntryRepository.findByUserOrderByTitleAsc(user);
-
-        for (PasswordEntry entry : entries) {
-            // Re-cifrar contraseña principal: Key A → Key B
-            entry.setPassword(encryptionService.migrateEncrypted(entry.getPassword()));
-            entry.setHmacTag(encryptionService.sign(entry.getPassword()));
-
-            // Re-cifrar historial de contraseñas
-            for (var history : entry.getPasswordHistory()) {
-                history.setPassword(encryptionService.migrateEncrypted(history.getPassword()));
-            }
-
-            // Re-cifrar campos personalizados sensibles
-            for (CustomField field : entry.getCustomFields()) {
-                if (field.isSensitive()) {
-                    field.setFieldValue(encryptionService.migrateEncrypted(field.getFieldValue()));
-                }
-            }
-        }
-        passwordEntryRepository.saveAll(entries);
+        dataMigrationService.schedule(KeyHierarchyDataMigration.ID, user);
 
         // Actualizar hash a formato v2 (SHA-256 de Key A) y marcar versión
         user.setPasswordHash(encryptionService.hashPassword(password, user.getSalt()));
@@ -176,8 +265,53 @@ public class AuthServiceImpl implements AuthService {
         userRepository.save(user);
     }
 
+    /**
+     * Migración v2 → v3: las Key B y Key C derivadas pasan a ser la clave de bóveda y
+     * se guardan envueltas con la contraseña. Los datos no cambian; tiempo constante.
+     */
+    private void adoptVaultKey(User user, KeyContext keys, String password) {
+        user.setWrappedVaultKey(encryptionService.wrapVaultKey(keys, password, user.getSalt()));
+        user.setKeyVersion(3);
+        userRepository.save(user);
+    }
+
+    /**
+     * Claves del usuario según su esquema y con el algoritmo de su bóveda, para abrir
+     * la sesión con ellas.
+     */
+    private KeyContext openVault(User user, String password) {
+        KeyContext keys = user.getKeyVersion() != null && user.getKeyVersion() >= 3
+                ? encryptionService.unlockVault(password, user.getSalt(), user.getWrappedVaultKey())
+                : encryptionService.deriveContext(password, user.getSalt());
+        return keys.withAlgorithm(user.getCipherAlgorithm());
+    }
+
+    /**
+     * Algoritmo de cifrado de la bóveda según la medición de arranque. La primera vez
+     * se fija el más rápido; después solo cambia si el otro es claramente más rápido.
+     *
+     * @return true si cambió y hay que re-cifrar la bóveda ({@link CipherReencryptDataMigration})
+     */
+    private boolean selectCipher(User user) {
+        CipherAlgorithm current = CipherAlgorithm.orDefault(user.getCipherAlgorithm());
+        CipherAlgorithm selected = cipherSelectionService.recommend(user.getCipherAlgorithm());
+        if (selected == user.getCipherAlgorithm()) {
+            return false;
+        }
+        user.setCipherAlgorithm(selected);
+        if (selected == current) {
+            return false;   // Bóveda sin algoritmo fijado, que ya era AES-GCM
+        }
+        log.info("Algoritmo de cifrado de la bóveda del usuario id={}: {} → {}",
+                user.getId(), current.getLabel(), selected.getLabel());
+        return true;
+    }
+
+    /**
+     * Recupera la cuenta con la recovery key. Como el cambio de contraseña, solo vuelve
+     * a envolver la clave de bóveda, en una única transacción.
+     */
     @Override
-    @Transactional
     public boolean recoverAccount(String username, String recoveryKey, String newPassword) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new AuthenticationException("Usuario no encontrado"));
@@ -194,90 +328,163 @@ public class AuthServiceImpl implements AuthService {
             throw new AuthenticationException("La nueva contraseña debe tener al menos 8 caracteres");
         }
 
-        // Descifrar contraseña maestra original para re-cifrar las entradas
+        // Descifrar contraseña maestra original para abrir la bóveda
         String originalMasterPassword = recoveryKeyService.decryptMasterPassword(
                 user.getEncryptedMasterPassword(), recoveryKey);
 
-        // --- Fase 1: derivar claves antiguas y descifrar todo en memoria ---
-        boolean wasLegacy = user.getKeyVersion() == null || user.getKeyVersion() < 2;
-        encryptionService.deriveKey(originalMasterPassword, user.getSalt());
-
-        List<PasswordEntry> entries = passwordEntryRepository.findByUserOrderByTitleAsc(user);
-        Map<Long, String> entryPasswords    = new HashMap<>();
-        Map<Long, String> historyPasswords  = new HashMap<>();
-        Map<Long, String> sensitiveFields   = new HashMap<>();
-
-        for (PasswordEntry entry : entries) {
-            entryPasswords.put(entry.getId(),
-                    wasLegacy ? encryptionService.decryptLegacy(entry.getPassword())
-                              : encryptionService.decrypt(entry.getPassword()));
-
-            for (var history : entry.getPasswordHistory()) {
-                historyPasswords.put(history.getId(),
-                        wasLegacy ? encryptionService.decryptLegacy(history.getPassword())
-                                  : encryptionService.decrypt(history.getPassword()));
+        VaultSession session = vaultSessionService.open(user, openVault(user, originalMasterPassword));
+        try {
+            if (user.getKeyVersion() == null || user.getKeyVersion() < 2) {
+                transactionTemplate.executeWithoutResult(status ->
+                        dataMigrationService.schedule(KeyHierarchyDataMigration.ID, user));
             }
 
-            for (CustomField field : entry.getCustomFields()) {
-                if (field.isSensitive()) {
-                    sensitiveFields.put(field.getId(),
-                            wasLegacy ? encryptionService.decryptLegacy(field.getFieldValue())
-                                      : encryptionService.decrypt(field.getFieldValue()));
-                }
+            Rewrapped result = rewrapVaultKey(session, newPassword, AuditLog.ActionType.RECOVERY_KEY_USED,
+                    "Cuenta recuperada con la recovery key");
+            result.user.setLastLoginAt(LocalDateTime.now());
+            if (!vaultSessionService.replace(session, userRepository.save(result.user), result.keys)) {
+                throw new AuthenticationException("La sesión se cerró durante la recuperación. Inicia sesión con la nueva contraseña");
             }
+        } catch (RuntimeException e) {
+            // No dejar una sesión a medias
+            vaultSessionService.invalidate();
+            throw e;
         }
 
-        // --- Fase 2: derivar claves nuevas y re-cifrar ---
-        String newSalt = encryptionService.generateSalt();
-        encryptionService.deriveKey(newPassword, newSalt);
+        loginAttemptService.loginSucceeded(username);
 
-        for (PasswordEntry entry : entries) {
-            entry.setPassword(encryptionService.encrypt(entryPasswords.get(entry.getId())));
-            entry.setHmacTag(encryptionService.sign(entry.getPassword()));
+        return true;
+    }
 
-            for (var history : entry.getPasswordHistory()) {
-                history.setPassword(encryptionService.encrypt(historyPasswords.get(history.getId())));
-            }
+    @Override
+    public PasswordChangeResult changeMasterPassword(String currentPassword, String newPassword) {
+        VaultSession session = vaultSessionService.current()
+                .orElseThrow(() -> new AuthenticationException("No hay un usuario autenticado"));
+        if (!encryptionService.verifyPassword(currentPassword, session.getUser().getSalt(),
+                session.getUser().getPasswordHash())) {
+            throw new AuthenticationException("La contraseña actual no es correcta");
+        }
 
-            for (CustomField field : entry.getCustomFields()) {
-                if (field.isSensitive()) {
-                    field.setFieldValue(encryptionService.encrypt(sensitiveFields.get(field.getId())));
-                }
-            }
+        if (newPassword.length() < 8) {
+            throw new AuthenticationException("La nueva contraseña debe tener al menos 8 caracteres");
         }
-        passwordEntryRepository.saveAll(entries);
 
-        // --- Fase 3: actualizar usuario ---
-        String newRecoveryKey = recoveryKeyService.generateRecoveryKey();
+        Rewrapped result = rewrapVaultKey(session, newPassword,
+                AuditLog.ActionType.MASTER_PASSWORD_CHANGED, "Contraseña maestra cambiada");
+        // Si se bloqueó entretanto, el cambio ya está guardado y el desbloqueo usará la contraseña nueva
+        vaultSessionService.replace(session, result.user, result.keys);
 
-        user.setPasswordHash(encryptionService.hashPassword(newPassword, newSalt));
-        user.setSalt(newSalt);
-        user.setKeyVersion(2);
-        user.setRecoveryKeyHash(recoveryKeyService.hashRecoveryKey(newRecoveryKey));
-        user.setEncryptedMasterPassword(recoveryKeyService.encryptMasterPassword(newPassword, newRecoveryKey));
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        return new PasswordChangeResult(result.recoveryKey);
+    }
 
-        userService.setCurrentUser(user);
-        loginAttemptService.loginSucceeded(username);
+    /**
+     * Envuelve la clave de bóveda de la sesión con una contraseña nueva (salt, hash y
+     * recovery key nuevos) y devuelve las claves para reabrir la sesión con ella.
+     *
+     * <p>Antes termina las migraciones de datos pendientes: los valores v1 aún sin
+     * migrar solo se descifran con la Key A de la contraseña anterior.</p>
+     */
+    private Rewrapped rewrapVaultKey(VaultSession session, String newPassword,
+                                     AuditLog.ActionType action, String description) {
+        dataMigrationService.runPendingNow();
 
-        return true;
+        String newSalt = encryptionService.generateSalt();
+        String newRecoveryKey = recoveryKeyService.generateRecoveryKey();
+
+        try (VaultSession.Lease lease = session.acquire()) {
+            User updated = transactionTemplate.execute(status -> {
+                User managed = userRepository.findById(session.getUserId())
+                        .orElseThrow(() -> new AuthenticationException("Usuario no encontrado"));
+
+                managed.setPasswordHash(encryptionService.hashPassword(newPassword, newSalt));
+                managed.setSalt(newSalt);
+                managed.setWrappedVaultKey(encryptionService.wrapVaultKey(lease.getKeys(), newPassword, newSalt));
+                managed.setKeyVersion(3);
+                managed.setRecoveryKeyHash(recoveryKeyService.hashRecoveryKey(newRecoveryKey));
+                managed.setEncryptedMasterPassword(recoveryKeyService.encryptMasterPassword(newPassword, newRecoveryKey));
+                managed = userRepository.save(managed);
+
+                auditLogService.log(managed, action, description, AuditLog.ResultType.SUCCESS);
+                return managed;
+            });
+
+            // Mismas claves que tras un inicio de sesión con la contraseña nueva
+            KeyContext keys = encryptionService.unlockVault(newPassword, newSalt, updated.getWrappedVaultKey())
+                    .withAlgorithm(lease.getKeys().getAlgorithm());
+            return new Rewrapped(updated, newRecoveryKey, keys);
+        }
+    }
+
+    /**
+     * Si el inicio de sesión se canceló, deshace la sesión a medio abrir.
+     * La excepción revierte además la transacción de {@link #openSession}.
+     */
+    private void abortIfCancelled(AuthProgress progress) {
+        if (progress.isCancelled()) {
+            vaultPreloadService.clear();
+            decryptedEntryCache.clear();
+            entryFacetIndex.clear();
+            vaultSessionService.invalidate();
+            throw new CancellationException("Inicio de sesión cancelado");
+        }
     }
 
     @Override
     public void logout() {
-        encryptionService.clearKey();
-        userService.clearCurrentUser();
+        dataMigrationService.stop();
+        vaultPreloadService.clear();
+        decryptedEntryCache.clear();
+        entryFacetIndex.clear();
+        auditLogService.flush();
+        lockedUser = null;
+        vaultSessionService.invalidate();
+    }
+
+    @Override
+    public void lock() {
+        Optional<VaultSession> session = vaultSessionService.current();
+        if (session.isEmpty()) {
+            return;
+        }
+        lockedUser = session.get().getUser();
+        vaultPreloadService.clear();
+        decryptedEntryCache.clear();
+        entryFacetIndex.clear();
+        vaultSessionService.invalidate();
+    }
+
+    @Override
+    public boolean unlock(String password) {
+        User locked = lockedUser;
+        if (locked == null) {
+            throw new AuthenticationException("La aplicación no está bloqueada");
+        }
+
+        // Releer el usuario: la contraseña pudo cambiar mientras estaba bloqueada
+        User user = userRepository.findById(locked.getId())
+                .orElseThrow(() -> new AuthenticationException("Usuario no encontrado"));
+        if (!encryptionService.verifyPassword(password, user.getSalt(), user.getPasswordHash())) {
+            return false;
+        }
+
+        vaultSessionService.open(user, openVault(user, password));
+        lockedUser = null;
+        entryFacetIndex.rebuild(user);
+
+        // Las migraciones de datos se detuvieron al invalidar la sesión
+        dataMigrationService.resume();
+        return true;
     }
 
     @Override
     public boolean isAuthenticated() {
-        return encryptionService.isKeyDerived() && userService.hasCurrentUser();
+        return vaultSessionService.isOpen();
     }
 
     @Override
     public User getCurrentUser() {
-        return userService.getCurrentUser();
+        User locked = lockedUser;
+        return locked != null ? locked : userService.getCurrentUser();
     }
 
     @Override
@@ -310,4 +517,16 @@ public class AuthServiceImpl implements AuthService {
     public long getBlockTimeRemainingSeconds(String username) {
         return loginAttemptService.getBlockTimeRemainingSeconds(username);
     }
+
+    private static final class Rewrapped {
+        private final User user;
+        private final String recoveryKey;
+        private final KeyContext keys;
+
+        Rewrapped(User user, String recoveryKey, KeyContext keys) {
+            this.user = user;
+            this.recoveryKey = recoveryKey;
+            this.keys = keys;
+        }
+    }
 }
@@ -3,33 +3,33 @@ package com.passmanager.service.impl;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
+import com.passmanager.exception.EncryptionException;
 import com.passmanager.model.dto.BackupDTO;
 import com.passmanager.model.dto.CategoryDTO;
 import com.passmanager.model.dto.PasswordEntryDTO;
 import com.passmanager.service.BackupService;
 import com.passmanager.service.CategoryService;
+import com.passmanager.service.CipherAlgorithm;
+import com.passmanager.service.CipherSelectionService;
+import com.passmanager.service.GcmNonceSequence;
+import com.passmanager.service.NonceService;
 import com.passmanager.service.PasswordEntryService;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
-import javax.crypto.spec.SecretKeySpec;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
 import java.security.spec.KeySpec;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
- * Implementación del servicio de backup con cifrado AES-256-GCM.
+ * Implementación del servicio de backup con cifrado AEAD (AES-256-GCM o ChaCha20-Poly1305).
  * Versión 1.1 con salt global y UUIDs.
  *
  * <h2>Cambios en v1.1</h2>
@@ -42,7 +42,8 @@ import java.util.*;
  * - Salt global: 16 bytes aleatorios para todo el backup
  * - IV único: 12 bytes aleatorios por entrada
  * - Clave derivada: PBKDF2-SHA256, 100,000 iteraciones
- * - Cifrado: AES-256-GCM con autenticación integrada
+ * - Cifrado: el AEAD más rápido en el equipo que exporta ({@link CipherSelectionService}),
+ *   indicado en {@code crypto.cipher}; sin ese campo, AES-256-GCM
  *
  * @author KeyGuard Team
  */
@@ -50,9 +51,6 @@ import java.util.*;
 public class BackupServiceImpl implements BackupService {
 
     // Constantes de cifrado
-    private static final String ALGORITHM = "AES/GCM/NoPadding";
-    private static final int GCM_TAG_LENGTH = 128; // bits
-    private static final int GCM_IV_LENGTH = 12; // bytes (96 bits)
     private static final int SALT_LENGTH = 16; // bytes (128 bits)
     private static final int KEY_LENGTH = 256; // bits
     private static final int PBKDF2_ITERATIONS = 100_000;
@@ -63,12 +61,18 @@ public class BackupServiceImpl implements BackupService {
 
     private final PasswordEntryService passwordEntryService;
     private final CategoryService categoryService;
+    private final NonceService nonceService;
+    private final CipherSelectionService cipherSelectionService;
     private final Gson gson;
 
     public BackupServiceImpl(PasswordEntryService passwordEntryService,
-                             CategoryService categoryService) {
+                             CategoryService categoryService,
+                             NonceService nonceService,
+                             CipherSelectionService cipherSelectionService) {
         this.passwordEntryService = passwordEntryService;
         this.categoryService = categoryService;
+        this.nonceService = nonceService;
+        this.cipherSelectionService = cipherSelectionService;
 
         this.gson = new GsonBuilder()
                 .setPrettyPrinting()
@@ -96,10 +100,14 @@ public class BackupServiceImpl implements BackupService {
             }
 
             // PASO 2: Generar salt GLOBAL para todo el backup
-            byte[] globalSalt = generateRandomBytes(SALT_LENGTH);
+            byte[] globalSalt = nonceService.randomBytes(SALT_LENGTH);
 
             // PASO 3: Derivar clave UNA SOLA VEZ con el salt global
-            SecretKey globalKey = deriveKey(backupPassword, globalSalt);
+            byte[] globalKey = deriveKey(backupPassword, globalSalt);
+            CipherAlgorithm cipher = cipherSelectionService.getPreferred();
+
+            // Nonces de la clave global: prefijo aleatorio + contador, únicos por construcción
+            GcmNonceSequence nonces = nonceService.newGcmSequence();
 
             // PASO 4: Cifrar cada entrada con la clave global + IV único
             List<BackupDTO.BackupEntryDTO> backupEntries = new ArrayList<>();
@@ -121,15 +129,17 @@ public class BackupServiceImpl implements BackupService {
                 // Generar UUID único para esta entrada
                 String entryUuid = UUID.randomUUID().toString();
 
-                // Generar IV único para esta entrada
-                byte[] entryIv = generateRandomBytes(GCM_IV_LENGTH);
+                // IV único para esta entrada
+                byte[] entryIv = nonces.next();
 
-                // Cifrar contraseña con clave global + IV único
-                byte[] encryptedPassword = encrypt(
-                        entry.getPassword().getBytes(StandardCharsets.UTF_8),
-                        globalKey,
-                        entryIv
-                );
+                // Cifrar contraseña con clave global + IV único; el texto en claro no pasa por un String
+                byte[] plainPassword = entry.getSecret().toUtf8();
+                byte[] encryptedPassword;
+                try {
+                    encryptedPassword = cipher.encrypt(globalKey, entryIv, null, plainPassword);
+                } finally {
+                    Arrays.fill(plainPassword, (byte) 0);
+                }
 
                 // Crear entrada de backup
                 BackupDTO.BackupEntryDTO backupEntry = BackupDTO.BackupEntryDTO.builder()
@@ -153,7 +163,7 @@ public class BackupServiceImpl implements BackupService {
                     .kdf("PBKDF2-SHA256")
                     .iterations(PBKDF2_ITERATIONS)
                     .salt(Base64.getEncoder().encodeToString(globalSalt))
-                    .cipher("AES-256-GCM")
+                    .cipher(cipher.getLabel())
                     .build();
 
             // PASO 6: Crear DTO de backup completo
@@ -242,7 +252,8 @@ public class BackupServiceImpl implements BackupService {
             }
 
             // Derivar clave según la versión del backup
-            SecretKey key;
+            byte[] key;
+            CipherAlgorithm cipher = cipherOf(backup);
             boolean isV1_1 = backup.getVersion().equals("1.1");
 
             if (isV1_1) {
@@ -273,7 +284,7 @@ public class BackupServiceImpl implements BackupService {
                             // v1.1: Usar clave global + IV de la entrada
                             byte[] entryIv = Base64.getDecoder().decode(backupEntry.getIv());
                             byte[] encryptedPassword = Base64.getDecoder().decode(backupEntry.getEncryptedPassword());
-                            byte[] decryptedBytes = decrypt(encryptedPassword, key, entryIv);
+                            byte[] decryptedBytes = cipher.decrypt(key, entryIv, null, encryptedPassword);
                             decryptedPassword = new String(decryptedBytes, StandardCharsets.UTF_8);
                         } else {
                             // v1.0: Salt por entrada (compatibilidad)
@@ -351,6 +362,7 @@ public class BackupServiceImpl implements BackupService {
             // Validar contraseña intentando descifrar la primera entrada
             BackupDTO.BackupEntryDTO firstEntry = backup.getEntries().get(0);
             boolean isV1_1 = "1.1".equals(backup.getVersion());
+            CipherAlgorithm cipher = cipherOf(backup);
 
             try {
                 if (isV1_1) {
@@ -359,8 +371,8 @@ public class BackupServiceImpl implements BackupService {
                     byte[] entryIv = Base64.getDecoder().decode(firstEntry.getIv());
                     byte[] encryptedPassword = Base64.getDecoder().decode(firstEntry.getEncryptedPassword());
 
-                    SecretKey key = deriveKey(backupPassword, globalSalt);
-                    decrypt(encryptedPassword, key, entryIv);
+                    byte[] key = deriveKey(backupPassword, globalSalt);
+                    cipher.decrypt(key, entryIv, null, encryptedPassword);
                 } else {
                     // v1.0: No soportado en validación
                     throw new BackupException("Formato v1.0 no soportado. Re-exporte con versión actual.");
@@ -400,18 +412,21 @@ public class BackupServiceImpl implements BackupService {
     }
 
     /**
-     * Genera bytes aleatorios criptográficamente seguros.
+     * Algoritmo de las entradas del backup, según {@code crypto.cipher}.
      */
-    private byte[] generateRandomBytes(int length) {
-        byte[] bytes = new byte[length];
-        new SecureRandom().nextBytes(bytes);
-        return bytes;
+    private CipherAlgorithm cipherOf(BackupDTO backup) throws BackupException {
+        String label = backup.getCrypto() != null ? backup.getCrypto().getCipher() : null;
+        try {
+            return CipherAlgorithm.fromLabel(label);
+        } catch (EncryptionException e) {
+            throw new BackupException("Algoritmo de cifrado del backup no soportado: " + label);
+        }
     }
 
     /**
      * Deriva una clave de cifrado desde una contraseña usando PBKDF2.
      */
-    private SecretKey deriveKey(String password, byte[] salt) throws Exception {
+    private byte[] deriveKey(String password, byte[] salt) throws Exception {
         KeySpec spec = new PBEKeySpec(
                 password.toCharArray(),
                 salt,
@@ -420,29 +435,7 @@ public class BackupServiceImpl implements BackupService {
         );
 
         SecretKeyFactory factory = SecretKeyFactory.getInstance(PBKDF2_ALGORITHM);
-        byte[] keyBytes = factory.generateSecret(spec).getEncoded();
-
-        return new SecretKeySpec(keyBytes, "AES");
-    }
-
-    /**
-     * Cifra datos usando AES-256-GCM.
-     */
-    private byte[] encrypt(byte[] data, SecretKey key, byte[] iv) throws Exception {
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-        cipher.init(Cipher.ENCRYPT_MODE, key, spec);
-        return cipher.doFinal(data);
-    }
-
-    /**
-     * Descifra datos usando AES-256-GCM.
-     */
-    private byte[] decrypt(byte[] encryptedData, SecretKey key, byte[] iv) throws Exception {
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-        cipher.init(Cipher.DECRYPT_MODE, key, spec);
-        return cipher.doFinal(encryptedData);
+        return factory.generateSecret(spec).getEncoded();
     }
 
     /**
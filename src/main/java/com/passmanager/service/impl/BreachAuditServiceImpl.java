@@ -0,0 +1,109 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.exception.ResourceNotFoundException;
+import com.passmanager.model.entity.BreachCheckRecord;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.repository.BreachCheckRecordRepository;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.service.BreachAuditService;
+import com.passmanager.service.EncryptionService;
+import com.passmanager.service.EntryMetadataService;
+import com.passmanager.service.SecretValue;
+import com.passmanager.service.UserService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Implementación del almacenamiento incremental de resultados de brechas.
+ *
+ * <p>Un resultado se considera vigente durante {@link #RESULT_TTL_DAYS} días
+ * mientras la huella de la contraseña no cambie. HIBP solo crece, así que un
+ * resultado "segura" antiguo puede dejar de serlo: por eso caduca.</p>
+ */
+@Service
+public class BreachAuditServiceImpl implements BreachAuditService {
+
+    /**
+     * Días tras los cuales un resultado guardado se vuelve a verificar.
+     */
+    private static final long RESULT_TTL_DAYS = 7;
+
+    private final BreachCheckRecordRepository breachCheckRecordRepository;
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final EncryptionService encryptionService;
+    private final UserService userService;
+    private final EntryMetadataService entryMetadataService;
+
+    public BreachAuditServiceImpl(BreachCheckRecordRepository breachCheckRecordRepository,
+                                  PasswordEntryRepository passwordEntryRepository,
+                                  EncryptionService encryptionService,
+                                  UserService userService,
+                                  EntryMetadataService entryMetadataService) {
+        this.breachCheckRecordRepository = breachCheckRecordRepository;
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.encryptionService = encryptionService;
+        this.userService = userService;
+        this.entryMetadataService = entryMetadataService;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, StoredBreachResult> findStoredResults() {
+        Map<Long, StoredBreachResult> results = new LinkedHashMap<>();
+        for (BreachCheckRecord record : breachCheckRecordRepository.findByUserWithEntry(userService.getCurrentUser())) {
+            StoredBreachResult stored = toStoredResult(record);
+            results.put(stored.getPasswordEntryId(), stored);
+        }
+        return results;
+    }
+
+    @Override
+    public String fingerprint(String password) {
+        return encryptionService.fingerprint(password);
+    }
+
+    @Override
+    public String fingerprint(SecretValue password) {
+        return encryptionService.fingerprint(password);
+    }
+
+    @Override
+    public boolean isStale(StoredBreachResult stored, String fingerprint) {
+        if (stored == null || !stored.getFingerprint().equals(fingerprint)) {
+            return true;
+        }
+        return stored.getCheckedAt().isBefore(LocalDateTime.now().minusDays(RESULT_TTL_DAYS));
+    }
+
+    @Override
+    @Transactional
+    public StoredBreachResult recordResult(Long passwordEntryId, String fingerprint, int occurrences) {
+        PasswordEntry entry = passwordEntryRepository.findByIdAndUser(passwordEntryId, userService.getCurrentUser())
+                .orElseThrow(() -> new ResourceNotFoundException("PasswordEntry", passwordEntryId));
+
+        BreachCheckRecord record = breachCheckRecordRepository.findByPasswordEntry(entry)
+                .orElseGet(() -> BreachCheckRecord.builder().passwordEntry(entry).build());
+
+        record.setPasswordFingerprint(fingerprint);
+        record.setOccurrences(occurrences);
+        record.setCheckedAt(LocalDateTime.now());
+
+        return toStoredResult(breachCheckRecordRepository.save(record));
+    }
+
+    private StoredBreachResult toStoredResult(BreachCheckRecord record) {
+        PasswordEntry entry = record.getPasswordEntry();
+        EntryMetadataService.Metadata metadata = entryMetadataService.read(entry);
+        return new StoredBreachResult(
+                entry.getId(),
+                metadata.getTitle(),
+                metadata.getUsername(),
+                record.getPasswordFingerprint(),
+                record.getOccurrences(),
+                record.getCheckedAt());
+    }
+}
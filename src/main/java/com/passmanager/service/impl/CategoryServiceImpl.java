@@ -7,6 +7,7 @@ import com.passmanager.model.entity.Category;
 import com.passmanager.model.entity.User;
 import com.passmanager.repository.CategoryRepository;
 import com.passmanager.service.CategoryService;
+import com.passmanager.service.EntryFacetIndex;
 import com.passmanager.service.UserService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,13 +20,16 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
     private final UserService userService;
+    private final EntryFacetIndex entryFacetIndex;
 
     public CategoryServiceImpl(CategoryRepository categoryRepository,
                                CategoryMapper categoryMapper,
-                               UserService userService) {
+                               UserService userService,
+                               EntryFacetIndex entryFacetIndex) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
         this.userService = userService;
+        this.entryFacetIndex = entryFacetIndex;
     }
 
     private User getCurrentUser() {
@@ -73,6 +77,7 @@ public class CategoryServiceImpl implements CategoryService {
     @Transactional
     public void delete(Long id) {
         categoryRepository.deleteByIdAndUser(id, getCurrentUser());
+        entryFacetIndex.onCategoryDeleted(id);
     }
 
     @Override
@@ -0,0 +1,170 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.exception.EncryptionException;
+import com.passmanager.model.entity.CustomField;
+import com.passmanager.model.entity.EntryVersion;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.PasswordHistory;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.service.CipherAlgorithm;
+import com.passmanager.service.DataMigration;
+import com.passmanager.service.EncryptionService;
+import com.passmanager.service.EncryptionService.KeyContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Re-cifra la bóveda al algoritmo elegido para ella ({@link User#getCipherAlgorithm()}):
+ * contraseña, historial, campos sensibles, metadatos cifrados y versiones de cada
+ * entrada, y el secret TOTP.
+ *
+ * <p>Las claves no cambian, solo el algoritmo: cada valor se descifra con el de su
+ * cabecera y se cifra con el de la sesión. La unidad de trabajo es una entrada y es
+ * idempotente: los valores que ya están en el algoritmo de la sesión se dejan como
+ * están. Hasta que termina, la bóveda tiene valores en los dos formatos y
+ * {@link EncryptionService#decrypt} los lee todos.</p>
+ */
+@Component
+public class CipherReencryptDataMigration implements DataMigration {
+
+    public static final String ID = "cipher-reencrypt";
+
+    private static final Logger log = LoggerFactory.getLogger(CipherReencryptDataMigration.class);
+
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final EncryptionService encryptionService;
+
+    public CipherReencryptDataMigration(PasswordEntryRepository passwordEntryRepository,
+                                        EncryptionService encryptionService) {
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.encryptionService = encryptionService;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Cambiando el algoritmo de cifrado de la bóveda";
+    }
+
+    @Override
+    public long countUnits(User user) {
+        return passwordEntryRepository.countByUser(user);
+    }
+
+    @Override
+    public List<Long> findUnitsAfter(User user, long afterId, int limit) {
+        return passwordEntryRepository.findIdsByUserAfter(user, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void migrateUnits(User user, List<Long> unitIds) {
+        KeyContext keys = encryptionService.currentContext();
+        if (keys.getAlgorithm() != CipherAlgorithm.orDefault(user.getCipherAlgorithm())) {
+            // La bóveda cambió de algoritmo después de abrir esta sesión: lo hará la siguiente
+            throw new IllegalStateException("El algoritmo de la sesión no es el de la bóveda");
+        }
+
+        List<PasswordEntry> entries = passwordEntryRepository.findAllById(unitIds).stream()
+                .filter(entry -> Objects.equals(entry.getUser().getId(), user.getId()))
+                .toList();
+
+        for (PasswordEntry entry : entries) {
+            String password = reencrypt(keys, entry.getPassword(), "entrada", entry.getId());
+            if (password != null) {
+                // La firma cubre el texto cifrado
+                entry.setPassword(password);
+                entry.setHmacTag(keys.sign(password));
+            }
+
+            for (PasswordHistory history : entry.getPasswordHistory()) {
+                String value = reencrypt(keys, history.getPassword(), "historial", history.getId());
+                if (value != null) {
+                    history.setPassword(value);
+                }
+            }
+
+            for (CustomField field : entry.getCustomFields()) {
+                if (field.isSensitive()) {
+                    String value = reencrypt(keys, field.getFieldValue(), "campo", field.getId());
+                    if (value != null) {
+                        field.setFieldValue(value);
+                    }
+                }
+            }
+
+            if (Boolean.TRUE.equals(entry.getMetadataEncrypted())) {
+                reencryptMetadata(keys, entry);
+            }
+
+            for (EntryVersion version : entry.getEntryVersions()) {
+                String value = reencrypt(keys, version.getPayload(), "versión", version.getId());
+                if (value != null) {
+                    version.setPayload(value);
+                }
+            }
+        }
+        passwordEntryRepository.saveAll(entries);
+
+        // Un solo valor por usuario: se comprueba en cada lote, no cuesta nada si ya está
+        String totpSecret = reencrypt(keys, user.getTotpSecret(), "TOTP del usuario", user.getId());
+        if (totpSecret != null) {
+            user.setTotpSecret(totpSecret);
+        }
+    }
+
+    /**
+     * Metadatos cifrados; el índice ciego no depende del algoritmo y no cambia.
+     */
+    private static void reencryptMetadata(KeyContext keys, PasswordEntry entry) {
+        Long id = entry.getId();
+        String title = reencrypt(keys, entry.getTitle(), "título", id);
+        if (title != null) {
+            entry.setTitle(title);
+        }
+        String username = reencrypt(keys, entry.getUsername(), "usuario", id);
+        if (username != null) {
+            entry.setUsername(username);
+        }
+        String email = reencrypt(keys, entry.getEmail(), "email", id);
+        if (email != null) {
+            entry.setEmail(email);
+        }
+        String url = reencrypt(keys, entry.getUrl(), "URL", id);
+        if (url != null) {
+            entry.setUrl(url);
+        }
+        String notes = reencrypt(keys, entry.getNotes(), "notas", id);
+        if (notes != null) {
+            entry.setNotes(notes);
+        }
+    }
+
+    /**
+     * @return El valor cifrado con el algoritmo de la sesión, o {@code null} si ya lo
+     *         estaba o no se puede leer (se deja intacto para no bloquear la migración)
+     */
+    private static String reencrypt(KeyContext keys, String ciphertext, String kind, Long id) {
+        if (ciphertext == null) {
+            return null;
+        }
+        try {
+            if (!keys.needsReencryption(ciphertext)) {
+                return null;
+            }
+            return keys.encrypt(keys.decrypt(ciphertext));
+        } catch (EncryptionException e) {
+            log.warn("Valor ilegible en {} id={}; se deja sin re-cifrar", kind, id);
+            return null;
+        }
+    }
+}
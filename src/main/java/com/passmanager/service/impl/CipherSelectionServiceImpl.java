@@ -0,0 +1,134 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.service.CipherAlgorithm;
+import com.passmanager.service.CipherSelectionService;
+import com.passmanager.service.GcmNonceSequence;
+import com.passmanager.service.NonceService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Micro-benchmark de arranque en un hilo de fondo de baja prioridad.
+ *
+ * <ul>
+ *   <li>Carga: valores de {@value #PAYLOAD_BYTES} bytes, el tamaño típico de una
+ *       contraseña o un campo cifrado (el coste por valor domina, no el volumen)</li>
+ *   <li>Calentamiento de {@value #WARMUP_ITERATIONS} cifrados por algoritmo antes de medir</li>
+ *   <li>{@value #ROUNDS} rondas alternas de {@value #ROUND_MILLIS} ms; cuenta la mejor de
+ *       cada algoritmo, la menos afectada por el resto del arranque</li>
+ * </ul>
+ */
+@Service
+public class CipherSelectionServiceImpl implements CipherSelectionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CipherSelectionServiceImpl.class);
+
+    private static final int PAYLOAD_BYTES = 256;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ROUNDS = 3;
+    private static final long ROUND_MILLIS = 100;
+
+    /** Ventaja mínima del otro algoritmo para cambiar el de una bóveda existente. */
+    private static final double SWITCH_FACTOR = 1.5;
+
+    private final NonceService nonceService;
+
+    private volatile Map<CipherAlgorithm, Double> throughput = Map.of();
+
+    public CipherSelectionServiceImpl(NonceService nonceService) {
+        this.nonceService = nonceService;
+    }
+
+    @PostConstruct
+    public void init() {
+        Thread thread = new Thread(this::benchmark, "cipher-benchmark");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    @Override
+    public CipherAlgorithm getPreferred() {
+        Map<CipherAlgorithm, Double> measured = throughput;
+        CipherAlgorithm preferred = CipherAlgorithm.AES_GCM;
+        for (Map.Entry<CipherAlgorithm, Double> entry : measured.entrySet()) {
+            if (entry.getValue() > measured.get(preferred)) {
+                preferred = entry.getKey();
+            }
+        }
+        return preferred;
+    }
+
+    @Override
+    public CipherAlgorithm recommend(CipherAlgorithm current) {
+        Map<CipherAlgorithm, Double> measured = throughput;
+        if (measured.isEmpty()) {
+            // Sin medición no se fija nada: se elegirá en un inicio de sesión posterior
+            return current;
+        }
+        CipherAlgorithm preferred = getPreferred();
+        if (current == null || preferred == current) {
+            return preferred;
+        }
+        return measured.get(preferred) >= measured.get(current) * SWITCH_FACTOR ? preferred : current;
+    }
+
+    @Override
+    public Map<CipherAlgorithm, Double> getThroughput() {
+        return throughput;
+    }
+
+    // ---------------------------------------------------------------
+    // Medición
+    // ---------------------------------------------------------------
+
+    private void benchmark() {
+        byte[] key = nonceService.randomBytes(CipherAlgorithm.KEY_LENGTH);
+        byte[] payload = nonceService.randomBytes(PAYLOAD_BYTES);
+        GcmNonceSequence nonces = nonceService.newGcmSequence();
+
+        Map<CipherAlgorithm, Double> best = new EnumMap<>(CipherAlgorithm.class);
+        try {
+            for (CipherAlgorithm algorithm : CipherAlgorithm.values()) {
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    algorithm.encrypt(key, nonces.next(), null, payload);
+                }
+            }
+            for (int round = 0; round < ROUNDS; round++) {
+                for (CipherAlgorithm algorithm : CipherAlgorithm.values()) {
+                    best.merge(algorithm, measure(algorithm, key, payload, nonces), Math::max);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Algoritmo no disponible en este JDK: se mantiene AES-GCM
+            log.warn("No se pudo medir el rendimiento de los cifrados: {}", e.getMessage());
+            return;
+        }
+
+        throughput = Collections.unmodifiableMap(best);
+        log.info("Rendimiento de cifrado (valores de {} bytes): {} → preferido {}",
+                PAYLOAD_BYTES, best, getPreferred().getLabel());
+    }
+
+    /**
+     * @return Cifrados por segundo durante {@value #ROUND_MILLIS} ms
+     */
+    private static double measure(CipherAlgorithm algorithm, byte[] key, byte[] payload, GcmNonceSequence nonces) {
+        long start = System.nanoTime();
+        long deadline = start + ROUND_MILLIS * 1_000_000;
+        long operations = 0;
+        long now;
+        do {
+            algorithm.encrypt(key, nonces.next(), null, payload);
+            operations++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return operations * 1e9 / (now - start);
+    }
+}
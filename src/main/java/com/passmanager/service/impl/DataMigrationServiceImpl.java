@@ -0,0 +1,319 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.model.entity.DataMigrationProgress;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.DataMigrationProgressRepository;
+import com.passmanager.service.DataMigration;
+import com.passmanager.service.DataMigrationService;
+import com.passmanager.service.UserService;
+import com.passmanager.service.VaultSession;
+import com.passmanager.service.VaultSessionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta las migraciones de datos pendientes del usuario actual en un único hilo de fondo.
+ *
+ * <ul>
+ *   <li>Cada lote de {@value #CHUNK_SIZE} unidades se migra en su propia transacción,
+ *       junto con el avance del cursor: o se confirman ambos o ninguno</li>
+ *   <li>Entre lotes se hace una pausa para que las escrituras de la interfaz no esperen
+ *       (SQLite admite un solo escritor)</li>
+ *   <li>Si un lote falla, se revierte y el hilo se detiene; se reintenta en el siguiente inicio de sesión</li>
+ *   <li>El hilo trabaja con un préstamo de la sesión que lo arrancó ({@link VaultSession.Lease}):
+ *       al bloquear o cerrar sesión termina el lote en curso con esas claves y se detiene</li>
+ * </ul>
+ */
+@Service
+public class DataMigrationServiceImpl implements DataMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataMigrationServiceImpl.class);
+
+    private static final int CHUNK_SIZE = 50;
+    private static final long PAUSE_BETWEEN_CHUNKS_MS = 100;
+
+    private final Map<String, DataMigration> migrations = new LinkedHashMap<>();
+    private final DataMigrationProgressRepository progressRepository;
+    private final UserService userService;
+    private final VaultSessionService vaultSessionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private ExecutorService executor;
+    private Future<?> running;
+    private VaultSession runningSession;
+    private volatile Long activeUserId;
+    private final List<Consumer<Progress>> progressListeners = new CopyOnWriteArrayList<>();
+
+    public DataMigrationServiceImpl(List<DataMigration> migrations,
+                                    DataMigrationProgressRepository progressRepository,
+                                    UserService userService,
+                                    VaultSessionService vaultSessionService,
+                                    PlatformTransactionManager transactionManager) {
+        migrations.forEach(migration -> this.migrations.put(migration.getId(), migration));
+        this.progressRepository = progressRepository;
+        this.userService = userService;
+        this.vaultSessionService = vaultSessionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-migration");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        activeUserId = null;
+        executor.shutdownNow();
+    }
+
+    @Override
+    @Transactional
+    public void schedule(String migrationId, User user) {
+        DataMigration migration = requireMigration(migrationId);
+        if (progressRepository.findByMigrationIdAndUser(migrationId, user).isPresent()) {
+            return;
+        }
+
+        progressRepository.save(DataMigrationProgress.builder()
+                .migrationId(migrationId)
+                .user(user)
+                .total(migration.countUnits(user))
+                .build());
+        log.info("Migración de datos '{}' programada para el usuario id={}", migrationId, user.getId());
+    }
+
+    @Override
+    public void restart(String migrationId, User user) {
+        awaitBackgroundWorker();
+        transactionTemplate.executeWithoutResult(status -> {
+            DataMigration migration = requireMigration(migrationId);
+            DataMigrationProgress row = progressRepository.findByMigrationIdAndUser(migrationId, user)
+                    .orElseGet(() -> DataMigrationProgress.builder().migrationId(migrationId).user(user).build());
+            row.setLastUnitId(0L);
+            row.setProcessed(0L);
+            row.setTotal(migration.countUnits(user));
+            row.setCompleted(false);
+            progressRepository.save(row);
+        });
+        log.info("Migración de datos '{}' reiniciada para el usuario id={}", migrationId, user.getId());
+    }
+
+    @Override
+    public synchronized void resume() {
+        if (!vaultSessionService.isOpen()) {
+            return;
+        }
+        // Un hilo de una sesión ya invalidada está terminando su lote: el nuevo espera en la cola
+        if (running != null && !running.isDone() && runningSession.isValid()) {
+            return;
+        }
+
+        VaultSession.Lease lease = vaultSessionService.acquire();
+        Long userId = lease.getSession().getUserId();
+        activeUserId = userId;
+        runningSession = lease.getSession();
+        running = executor.submit(() -> {
+            try (VaultSession.Lease bound = lease.bind()) {
+                runPending(userId);
+            }
+        });
+    }
+
+    @Override
+    public void runPendingNow() {
+        try (VaultSession.Lease lease = vaultSessionService.acquire().bind()) {
+            Long userId = lease.getSession().getUserId();
+            awaitBackgroundWorker();
+
+            activeUserId = userId;
+            List<Long> pending = findPending(userId);
+            for (Long progressId : pending) {
+                if (!run(progressId, userId, false)) {
+                    throw new IllegalStateException("No se pudieron completar las migraciones de datos pendientes");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        activeUserId = null;
+        progressListeners.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Progress> getPendingProgress() {
+        if (!userService.hasCurrentUser()) {
+            return List.of();
+        }
+        return progressRepository.findByUserIdAndCompletedFalseOrderByIdAsc(userService.getCurrentUser().getId())
+                .stream()
+                .map(this::toProgress)
+                .toList();
+    }
+
+    @Override
+    public void addProgressListener(Consumer<Progress> listener) {
+        progressListeners.add(listener);
+    }
+
+    @Override
+    public void removeProgressListener(Consumer<Progress> listener) {
+        progressListeners.remove(listener);
+    }
+
+    // ---------------------------------------------------------------
+    // Hilo de fondo
+    // ---------------------------------------------------------------
+
+    private void runPending(Long userId) {
+        for (Long progressId : findPending(userId)) {
+            if (!run(progressId, userId, true)) {
+                return;
+            }
+        }
+    }
+
+    private List<Long> findPending(Long userId) {
+        return transactionTemplate.execute(status ->
+                progressRepository.findByUserIdAndCompletedFalseOrderByIdAsc(userId).stream()
+                        .map(DataMigrationProgress::getId)
+                        .toList());
+    }
+
+    /**
+     * Detiene el hilo de fondo y espera a que termine su lote en curso.
+     */
+    private void awaitBackgroundWorker() {
+        Future<?> current;
+        synchronized (this) {
+            activeUserId = null;
+            current = running;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando a las migraciones de datos", e);
+        } catch (Exception e) {
+            // El propio hilo ya registró el error; el lote fallido se revirtió
+        }
+    }
+
+    /**
+     * @param background true en el hilo de fondo: pausa entre lotes para no acaparar la base de datos
+     * @return true si la migración terminó; false si se detuvo (cierre de sesión o error)
+     */
+    private boolean run(Long progressId, Long userId, boolean background) {
+        while (isSessionActive(userId)) {
+            Progress progress;
+            try {
+                progress = transactionTemplate.execute(status -> migrateChunk(progressId));
+            } catch (Exception e) {
+                if (isSessionActive(userId)) {
+                    log.warn("Migración de datos interrumpida, se reintentará en el próximo inicio de sesión: {}",
+                            e.getMessage());
+                }
+                return false;
+            }
+
+            notifyListener(progress);
+            if (progress.isCompleted()) {
+                log.info("✓ Migración de datos '{}' completada ({} unidades)",
+                        progress.getMigrationId(), progress.getProcessed());
+                return true;
+            }
+
+            if (!background) {
+                continue;
+            }
+            try {
+                Thread.sleep(PAUSE_BETWEEN_CHUNKS_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private Progress migrateChunk(Long progressId) {
+        DataMigrationProgress row = progressRepository.findById(progressId)
+                .orElseThrow(() -> new IllegalStateException("Progreso de migración no encontrado: " + progressId));
+        DataMigration migration = requireMigration(row.getMigrationId());
+
+        User user = row.getUser();
+        List<Long> units = migration.findUnitsAfter(user, row.getLastUnitId(), CHUNK_SIZE);
+        if (units.isEmpty()) {
+            row.setCompleted(true);
+        } else {
+            migration.migrateUnits(user, units);
+            row.setLastUnitId(units.get(units.size() - 1));
+            row.setProcessed(row.getProcessed() + units.size());
+        }
+        progressRepository.save(row);
+        return toProgress(row);
+    }
+
+    private DataMigration requireMigration(String migrationId) {
+        DataMigration migration = migrations.get(migrationId);
+        if (migration == null) {
+            throw new IllegalArgumentException("Migración de datos desconocida: " + migrationId);
+        }
+        return migration;
+    }
+
+    private boolean isSessionActive(Long userId) {
+        return userId.equals(activeUserId)
+                && vaultSessionService.current()
+                        .filter(VaultSession::isValid)
+                        .map(session -> userId.equals(session.getUserId()))
+                        .orElse(false);
+    }
+
+    private void notifyListener(Progress progress) {
+        for (Consumer<Progress> listener : progressListeners) {
+            notify(listener, progress);
+        }
+    }
+
+    private void notify(Consumer<Progress> listener, Progress progress) {
+        try {
+            listener.accept(progress);
+        } catch (Exception e) {
+            log.debug("Error notificando el progreso de migración: {}", e.getMessage());
+        }
+    }
+
+    private Progress toProgress(DataMigrationProgress row) {
+        DataMigration migration = migrations.get(row.getMigrationId());
+        String description = migration != null ? migration.getDescription() : row.getMigrationId();
+        // Las entradas creadas durante la migración pueden superar el total inicial
+        long total = Math.max(row.getTotal(), row.getProcessed());
+        return new Progress(row.getMigrationId(), description, row.getProcessed(), total, row.getCompleted());
+    }
+}
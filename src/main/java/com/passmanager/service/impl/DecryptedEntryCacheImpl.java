@@ -0,0 +1,154 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.service.DecryptedEntryCache;
+import com.passmanager.service.SchedulerService;
+import com.passmanager.service.SecretValue;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * LRU por acceso con caducidad por tiempo sin uso.
+ *
+ * <ul>
+ *   <li>Como mucho {@value #MAX_ENTRIES} entradas: las menos usadas salen primero</li>
+ *   <li>Una entrada que no se lee en {@value #IDLE_TTL_MINUTES} minutos caduca. En un
+ *       LRU por acceso las más antiguas están al principio, así que cada operación
+ *       solo recorre las que caducan</li>
+ *   <li>Si la caché entera pasa ese tiempo sin uso, un plazo del {@link SchedulerService}
+ *       la vacía: las contraseñas no esperan al siguiente acceso para borrarse. El plazo
+ *       se arma con la primera entrada y se cancela al vaciarla, así que una caché
+ *       vacía no despierta al planificador</li>
+ *   <li>Cada contraseña que sale (expulsada, caducada, invalidada o vaciada) se borra.
+ *       La caché guarda copias propias, así que no borra las de las DTO en pantalla</li>
+ * </ul>
+ */
+@Service
+public class DecryptedEntryCacheImpl implements DecryptedEntryCache {
+
+    private static final int MAX_ENTRIES = 500;
+    private static final long IDLE_TTL_MINUTES = 5;
+    private static final long IDLE_TTL_MILLIS = IDLE_TTL_MINUTES * 60 * 1000;
+
+    private final SchedulerService schedulerService;
+
+    private final LinkedHashMap<Long, CachedEntry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedEntry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                eldest.getValue().wipe();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+    /** Plazo de inactividad; null mientras la caché está vacía. */
+    private SchedulerService.Deadline idleDeadline;
+
+    public DecryptedEntryCacheImpl(SchedulerService schedulerService) {
+        this.schedulerService = schedulerService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clear();
+    }
+
+    @Override
+    public synchronized Optional<Decrypted> get(Long entryId, LocalDateTime updatedAt) {
+        long now = touch();
+        CachedEntry cached = entries.get(entryId);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (Objects.equals(cached.updatedAt, updatedAt)) {
+            try {
+                SecretValue password = cached.decrypted.getPassword().copy();
+                cached.lastAccessMillis = now;
+                return Optional.of(new Decrypted(password, cached.decrypted.getMetadata()));
+            } catch (IllegalStateException e) {
+                // Borrada por SecretValue.wipeAll al bloquear
+            }
+        }
+        // Entrada modificada desde que se guardó, o ya borrada
+        entries.remove(entryId);
+        cached.wipe();
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void put(Long entryId, LocalDateTime updatedAt, Decrypted decrypted) {
+        long now = touch();
+        CachedEntry cached = new CachedEntry(updatedAt,
+                new Decrypted(decrypted.getPassword().copy(), decrypted.getMetadata()), now);
+        CachedEntry previous = entries.put(entryId, cached);
+        if (previous != null) {
+            previous.wipe();
+        }
+        if (idleDeadline == null) {
+            idleDeadline = schedulerService.scheduleOnIdle(() -> lastAccessMillis, () -> IDLE_TTL_MILLIS, this::clear);
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(Long entryId) {
+        CachedEntry cached = entries.remove(entryId);
+        if (cached != null) {
+            cached.wipe();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.values().forEach(CachedEntry::wipe);
+        entries.clear();
+        if (idleDeadline != null) {
+            idleDeadline.cancel();
+            idleDeadline = null;
+        }
+    }
+
+    /**
+     * Registra el acceso y descarta las entradas caducadas.
+     *
+     * @return Instante actual
+     */
+    private long touch() {
+        long now = System.currentTimeMillis();
+        lastAccessMillis = now;
+        Iterator<CachedEntry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            CachedEntry cached = it.next();
+            if (now - cached.lastAccessMillis < IDLE_TTL_MILLIS) {
+                break;
+            }
+            cached.wipe();
+            it.remove();
+        }
+        return now;
+    }
+
+    private static final class CachedEntry {
+        private final LocalDateTime updatedAt;
+        private final Decrypted decrypted;
+        private long lastAccessMillis;
+
+        CachedEntry(LocalDateTime updatedAt, Decrypted decrypted, long lastAccessMillis) {
+            this.updatedAt = updatedAt;
+            this.decrypted = decrypted;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+
+        void wipe() {
+            decrypted.getPassword().wipe();
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.passmanager.service.impl;
 
 import com.passmanager.exception.EncryptionException;
+import com.passmanager.service.CipherAlgorithm;
 import com.passmanager.service.EncryptionService;
+import com.passmanager.service.GcmNonceSequence;
+import com.passmanager.service.NonceService;
+import com.passmanager.service.SecretValue;
+import com.passmanager.service.VaultSession;
+import com.passmanager.service.VaultSessionService;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
@@ -14,21 +20,45 @@ import javax.crypto.spec.SecretKeySpec;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.security.SecureRandom;
 import java.security.spec.KeySpec;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Jerarquía de claves triple derivada de PBKDF2 (768 bits):
  *
  *   Key A [0:32]  — Autenticación: hash almacenado = SHA-256(Key A).
- *   Key B [32:64] — Cifrado AES-256-GCM de contraseñas.
- *   Key C [64:96] — Firma HMAC-SHA256 de integridad por entrada.
+ *   Key B [32:64] — Cifrado AEAD de contraseñas (AES-256-GCM o ChaCha20-Poly1305).
+ *   Key C [64:96] — Firma HMAC-SHA256 de integridad por entrada; de ella salen las
+ *                   subclaves de huellas de contraseña y del índice ciego de búsqueda.
  *
  * Propiedad de PBKDF2: los primeros 256 bits de una salida de 768 bits son
  * idénticos a una salida de 256 bits con los mismos parámetros, por lo que
  * Key A es compatible con los hashes legacy (v1).
+ *
+ * Clave de bóveda (v3): Key B + Key C se envuelven con AES-GCM bajo
+ * HMAC-SHA256(Key A, contexto). Para abrir la sesión basta con Key A (un bloque
+ * de PBKDF2). Los usuarios v2 conservan como clave de bóveda sus Key B y Key C
+ * derivadas, así que pasar a v3 no re-cifra ningún dato.
+ *
+ * Las claves de la sesión viven en {@link VaultSession}: cada operación toma la del
+ * hilo o un préstamo de la vigente, de modo que bloquear la aplicación durante un
+ * cifrado no borra las claves a mitad de la operación.
+ *
+ * Algoritmo por bóveda ({@link CipherAlgorithm}): AES-GCM usa Key B y
+ * ChaCha20-Poly1305 la subclave HMAC-SHA256(Key B, contexto), para no usar nunca la
+ * misma clave con los dos. Los valores nuevos llevan cabecera con la versión del
+ * formato y el algoritmo ({@code "$" + Base64(2 | alg | nonce | cifrado)}, cabecera
+ * autenticada como AAD); los anteriores, sin cabecera, se leen como AES-GCM con Key B
+ * (o Key A, v1). Se descifra siempre con el algoritmo de la cabecera, así que una
+ * bóveda a medio re-cifrar se lee entera.
+ *
+ * Nonces: los cifrados con Key B usan la {@link GcmNonceSequence} de su contexto
+ * (prefijo aleatorio + contador), sin consultar el generador aleatorio en cada
+ * llamada. El resto (sales, clave de bóveda, envoltorio) sale del DRBG compartido
+ * de {@link NonceService}.
  */
 @Service
 public class EncryptionServiceImpl implements EncryptionService {
@@ -40,10 +70,24 @@ public class EncryptionServiceImpl implements EncryptionService {
     private static final int    GCM_TAG_BITS   = 128;
     private static final int    ITERATIONS     = 100_000;
     private static final int    SALT_LENGTH    = 16;
-
-    private SecretKey keyA;
-    private SecretKey keyB;
-    private SecretKey keyC;
+    private static final String FINGERPRINT_CONTEXT = "keyguard-password-fingerprint-v1";
+    private static final String VAULT_KEY_WRAP_CONTEXT = "keyguard-vault-key-wrap-v1";
+    private static final String CHACHA_KEY_CONTEXT = "keyguard-chacha20-poly1305-v1";
+    private static final String BLIND_INDEX_CONTEXT = "keyguard-blind-index-v1";
+    private static final int    BLIND_INDEX_BYTES   = 16;
+
+    // Formato versionado: "$" + Base64(versión | id de algoritmo | nonce | cifrado + etiqueta)
+    private static final String VERSIONED_PREFIX = "$";   // Fuera del alfabeto Base64
+    private static final byte   FORMAT_VERSION   = 2;
+    private static final int    HEADER_LENGTH    = 2;
+
+    private final VaultSessionService vaultSessionService;
+    private final NonceService nonceService;
+
+    public EncryptionServiceImpl(VaultSessionService vaultSessionService, NonceService nonceService) {
+        this.vaultSessionService = vaultSessionService;
+        this.nonceService = nonceService;
+    }
 
     // ---------------------------------------------------------------
     // Salt
@@ -51,9 +95,7 @@ public class EncryptionServiceImpl implements EncryptionService {
 
     @Override
     public String generateSalt() {
-        byte[] salt = new byte[SALT_LENGTH];
-        new SecureRandom().nextBytes(salt);
-        return Base64.getEncoder().encodeToString(salt);
+        return Base64.getEncoder().encodeToString(nonceService.randomBytes(SALT_LENGTH));
     }
 
     // ---------------------------------------------------------------
@@ -61,21 +103,62 @@ public class EncryptionServiceImpl implements EncryptionService {
     // ---------------------------------------------------------------
 
     @Override
-    public void deriveKey(String masterPassword, String salt) {
+    public KeyContext unlockVault(String masterPassword, String salt, String wrappedVaultKey) {
+        byte[] keyABytes = deriveKeyABytes(masterPassword, salt);
+        byte[] vaultKey;
         try {
-            byte[] saltBytes = Base64.getDecoder().decode(salt);
-            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-            KeySpec spec = new PBEKeySpec(masterPassword.toCharArray(), saltBytes, ITERATIONS, TOTAL_KEY_BITS);
-            byte[] raw = factory.generateSecret(spec).getEncoded();
+            vaultKey = Base64.getDecoder().decode(decryptWithKey(wrappedVaultKey, wrappingKey(keyABytes)));
+        } catch (RuntimeException e) {
+            Arrays.fill(keyABytes, (byte) 0);
+            throw e;
+        }
+        try {
+            return fromVaultKey(keyABytes, vaultKey);
+        } finally {
+            Arrays.fill(keyABytes, (byte) 0);
+            Arrays.fill(vaultKey, (byte) 0);
+        }
+    }
 
-            this.keyA = new SecretKeySpec(Arrays.copyOfRange(raw, 0,            KEY_BYTES), "AES");
-            this.keyB = new SecretKeySpec(Arrays.copyOfRange(raw, KEY_BYTES,    2 * KEY_BYTES), "AES");
-            this.keyC = new SecretKeySpec(Arrays.copyOfRange(raw, 2 * KEY_BYTES, 3 * KEY_BYTES), "AES");
-        } catch (Exception e) {
-            throw new EncryptionException("Error al derivar las claves", e);
+    @Override
+    public KeyContext generateVaultKey(String masterPassword, String salt) {
+        byte[] keyABytes = deriveKeyABytes(masterPassword, salt);
+        byte[] vaultKey = nonceService.randomBytes(2 * KEY_BYTES);
+        try {
+            return fromVaultKey(keyABytes, vaultKey);
+        } finally {
+            Arrays.fill(keyABytes, (byte) 0);
+            Arrays.fill(vaultKey, (byte) 0);
+        }
+    }
+
+    @Override
+    public String wrapVaultKey(KeyContext keys, String masterPassword, String salt) {
+        DerivedKeys source = (DerivedKeys) keys;
+        byte[] keyABytes = deriveKeyABytes(masterPassword, salt);
+        byte[] vaultKey = new byte[2 * KEY_BYTES];
+        source.copyVaultKey(vaultKey);
+        try {
+            return encryptWithKey(Base64.getEncoder().encodeToString(vaultKey), wrappingKey(keyABytes),
+                    nonceService.randomBytes(IV_LENGTH));
+        } finally {
+            Arrays.fill(keyABytes, (byte) 0);
+            Arrays.fill(vaultKey, (byte) 0);
         }
     }
 
+    @Override
+    public KeyContext deriveContext(String masterPassword, String salt) {
+        return derive(masterPassword, salt);
+    }
+
+    @Override
+    public KeyContext currentContext() {
+        return VaultSession.boundLease()
+                .map(VaultSession.Lease::getKeys)
+                .orElseThrow(() -> new EncryptionException("El hilo actual no tiene la sesión prestada"));
+    }
+
     @Override
     public String hashPassword(String password, String salt) {
         byte[] keyABytes = deriveKeyABytes(password, salt);
@@ -102,43 +185,33 @@ public class EncryptionServiceImpl implements EncryptionService {
         );
     }
 
-    @Override
-    public void clearKey() {
-        this.keyA = null;
-        this.keyB = null;
-        this.keyC = null;
-    }
-
-    @Override
-    public boolean isKeyDerived() {
-        return this.keyB != null;
-    }
-
     // ---------------------------------------------------------------
     // Cifrado / Descifrado
     // ---------------------------------------------------------------
 
     @Override
     public String encrypt(String plainText) {
-        requireKey(keyB, "Key B");
-        return encryptWithKey(plainText, keyB);
+        return withKeys(keys -> keys.encrypt(plainText));
     }
 
     @Override
     public String decrypt(String encryptedText) {
-        requireKey(keyB, "Key B");
-        return decryptWithKey(encryptedText, keyB);
+        return withKeys(keys -> keys.decrypt(encryptedText));
+    }
+
+    @Override
+    public SecretValue decryptSecret(String encryptedText) {
+        return withKeys(keys -> keys.decryptSecret(encryptedText));
     }
 
     @Override
     public String decryptLegacy(String encryptedText) {
-        requireKey(keyA, "Key A");
-        return decryptWithKey(encryptedText, keyA);
+        return withKeys(keys -> keys.decryptLegacy(encryptedText));
     }
 
     @Override
     public String migrateEncrypted(String legacyCiphertext) {
-        return encrypt(decryptLegacy(legacyCiphertext));
+        return withKeys(keys -> keys.encrypt(keys.decryptLegacy(legacyCiphertext)));
     }
 
     // ---------------------------------------------------------------
@@ -147,29 +220,40 @@ public class EncryptionServiceImpl implements EncryptionService {
 
     @Override
     public String sign(String data) {
-        requireKey(keyC, "Key C");
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(keyC);
-            return Base64.getEncoder().encodeToString(
-                    mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
-        } catch (Exception e) {
-            throw new EncryptionException("Error al firmar datos", e);
-        }
+        return withKeys(keys -> keys.sign(data));
     }
 
     @Override
     public boolean verifySignature(String data, String signature) {
-        requireKey(keyC, "Key C");
+        String computed = withKeys(keys -> keys.sign(data));
+        byte[] expected = Base64.getDecoder().decode(computed);
+        byte[] actual;
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(keyC);
-            byte[] expected = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            byte[] actual   = Base64.getDecoder().decode(signature);
-            return MessageDigest.isEqual(expected, actual);
-        } catch (Exception e) {
+            actual = Base64.getDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
             throw new EncryptionException("Error al verificar firma", e);
         }
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @Override
+    public String fingerprint(String plainText) {
+        return withKeys(keys -> keys.fingerprint(plainText));
+    }
+
+    @Override
+    public String fingerprint(SecretValue plainText) {
+        byte[] utf8 = plainText.toUtf8();
+        try {
+            return withKeys(keys -> keys.fingerprint(utf8));
+        } finally {
+            Arrays.fill(utf8, (byte) 0);
+        }
+    }
+
+    @Override
+    public String blindIndex(String token) {
+        return withKeys(keys -> keys.blindIndex(token));
     }
 
     // ---------------------------------------------------------------
@@ -192,6 +276,20 @@ public class EncryptionServiceImpl implements EncryptionService {
         }
     }
 
+    private static byte[] hmac(SecretKey key, String data) {
+        return hmac(key, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] hmac(SecretKey key, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (Exception e) {
+            throw new EncryptionException("Error HMAC-SHA256", e);
+        }
+    }
+
     private static byte[] sha256(byte[] input) {
         try {
             return MessageDigest.getInstance("SHA-256").digest(input);
@@ -200,17 +298,94 @@ public class EncryptionServiceImpl implements EncryptionService {
         }
     }
 
-    private static void requireKey(SecretKey key, String name) {
-        if (key == null) {
-            throw new EncryptionException(name + " no ha sido derivada. Inicie sesión primero.");
+    /**
+     * Ejecuta una operación con las claves de la sesión: las del préstamo del hilo o,
+     * si no hay, un préstamo de la sesión vigente que dura lo que la operación.
+     */
+    private <T> T withKeys(Function<DerivedKeys, T> operation) {
+        Optional<VaultSession.Lease> bound = VaultSession.boundLease();
+        if (bound.isPresent()) {
+            return operation.apply((DerivedKeys) bound.get().getKeys());
+        }
+
+        VaultSession session = vaultSessionService.current()
+                .orElseThrow(() -> new EncryptionException("Las claves no han sido derivadas. Inicie sesión primero."));
+        try (VaultSession.Lease lease = session.acquire()) {
+            return operation.apply((DerivedKeys) lease.getKeys());
         }
     }
 
-    private static String encryptWithKey(String plainText, SecretKey key) {
+    /** Clave que envuelve la clave de bóveda: independiente del hash almacenado (SHA-256 de Key A). */
+    private static SecretKey wrappingKey(byte[] keyABytes) {
+        return new SecretKeySpec(hmac(new SecretKeySpec(keyABytes, "HmacSHA256"), VAULT_KEY_WRAP_CONTEXT), "AES");
+    }
+
+    private DerivedKeys fromVaultKey(byte[] keyABytes, byte[] vaultKey) {
+        return newKeys(
+                keyABytes.clone(),
+                Arrays.copyOfRange(vaultKey, 0, KEY_BYTES),
+                Arrays.copyOfRange(vaultKey, KEY_BYTES, 2 * KEY_BYTES));
+    }
+
+    private DerivedKeys derive(String masterPassword, String salt) {
         try {
-            byte[] iv = new byte[IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
+            byte[] saltBytes = Base64.getDecoder().decode(salt);
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            KeySpec spec = new PBEKeySpec(masterPassword.toCharArray(), saltBytes, ITERATIONS, TOTAL_KEY_BITS);
+            byte[] raw = factory.generateSecret(spec).getEncoded();
+
+            DerivedKeys keys = newKeys(
+                    Arrays.copyOfRange(raw, 0,             KEY_BYTES),
+                    Arrays.copyOfRange(raw, KEY_BYTES,     2 * KEY_BYTES),
+                    Arrays.copyOfRange(raw, 2 * KEY_BYTES, 3 * KEY_BYTES));
+            Arrays.fill(raw, (byte) 0);
+            return keys;
+        } catch (EncryptionException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new EncryptionException("Error al derivar las claves", e);
+        }
+    }
+
+    /**
+     * Contexto con las subclaves derivadas de Key B y Key C y una secuencia de nonces
+     * por clave de datos. Cifra con AES-GCM hasta que se elige el algoritmo de la bóveda.
+     */
+    private DerivedKeys newKeys(byte[] keyA, byte[] keyB, byte[] keyC) {
+        KeyMaterial material = new KeyMaterial(keyA, keyB, keyC,
+                hmac(new SecretKeySpec(keyC, "HmacSHA256"), FINGERPRINT_CONTEXT),
+                hmac(new SecretKeySpec(keyC, "HmacSHA256"), BLIND_INDEX_CONTEXT),
+                hmac(new SecretKeySpec(keyB, "HmacSHA256"), CHACHA_KEY_CONTEXT),
+                nonceService.newGcmSequence(),
+                nonceService.newGcmSequence());
+        return new DerivedKeys(material, CipherAlgorithm.AES_GCM);
+    }
+
+    private static boolean isVersioned(String encryptedText) {
+        return encryptedText.startsWith(VERSIONED_PREFIX);
+    }
+
+    /**
+     * Algoritmo con el que se cifró un valor. Los valores sin cabecera (anteriores al
+     * formato versionado) son AES-GCM.
+     */
+    private static CipherAlgorithm algorithmOf(String encryptedText) {
+        if (!isVersioned(encryptedText)) {
+            return CipherAlgorithm.AES_GCM;
+        }
+        byte[] header;
+        try {
+            // Los 4 primeros caracteres Base64 bastan para los 2 bytes de la cabecera
+            header = Base64.getDecoder().decode(encryptedText.substring(
+                    VERSIONED_PREFIX.length(), VERSIONED_PREFIX.length() + 4));
+        } catch (RuntimeException e) {
+            throw new EncryptionException("Formato de cifrado no soportado", e);
+        }
+        return CipherAlgorithm.fromId(header[1]);
+    }
 
+    private static String encryptWithKey(String plainText, SecretKey key, byte[] iv) {
+        try {
             Cipher cipher = Cipher.getInstance(AES_GCM);
             cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
             byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
@@ -225,6 +400,10 @@ public class EncryptionServiceImpl implements EncryptionService {
     }
 
     private static String decryptWithKey(String encryptedText, SecretKey key) {
+        return new String(decryptBytesWithKey(encryptedText, key), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] decryptBytesWithKey(String encryptedText, SecretKey key) {
         try {
             byte[] decoded = Base64.getDecoder().decode(encryptedText);
             ByteBuffer buf = ByteBuffer.wrap(decoded);
@@ -236,9 +415,194 @@ public class EncryptionServiceImpl implements EncryptionService {
 
             Cipher cipher = Cipher.getInstance(AES_GCM);
             cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
-            return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
+            return cipher.doFinal(cipherText);
         } catch (Exception e) {
             throw new EncryptionException("Error al desencriptar", e);
         }
     }
+
+    /**
+     * Bytes de las claves de una sesión y sus secuencias de nonces, compartidos por
+     * todas las vistas ({@link DerivedKeys}) de esas claves.
+     *
+     * <p>Guarda los bytes (no {@link SecretKey}, que no se puede borrar) para que
+     * {@link #destroy()} los sobrescriba; cada operación crea su {@link SecretKeySpec}.</p>
+     */
+    private static final class KeyMaterial {
+        private final byte[] keyA;
+        private final byte[] keyB;
+        private final byte[] keyC;
+        private final byte[] keyF;        // Subclave de Key C para huellas de contraseña
+        private final byte[] keyS;        // Subclave de Key C para el índice ciego de búsqueda
+        private final byte[] keyChaCha;   // Subclave de Key B para ChaCha20-Poly1305
+        private final GcmNonceSequence aesNonces;
+        private final GcmNonceSequence chachaNonces;
+        private volatile boolean destroyed;
+
+        KeyMaterial(byte[] keyA, byte[] keyB, byte[] keyC, byte[] keyF, byte[] keyS, byte[] keyChaCha,
+                    GcmNonceSequence aesNonces, GcmNonceSequence chachaNonces) {
+            this.keyA = keyA;
+            this.keyB = keyB;
+            this.keyC = keyC;
+            this.keyF = keyF;
+            this.keyS = keyS;
+            this.keyChaCha = keyChaCha;
+            this.aesNonces = aesNonces;
+            this.chachaNonces = chachaNonces;
+        }
+
+        /** Clave de datos para {@code algorithm}: nunca se usa la misma con los dos. */
+        byte[] dataKey(CipherAlgorithm algorithm) {
+            requireLive();
+            return algorithm == CipherAlgorithm.AES_GCM ? keyB : keyChaCha;
+        }
+
+        GcmNonceSequence nonces(CipherAlgorithm algorithm) {
+            return algorithm == CipherAlgorithm.AES_GCM ? aesNonces : chachaNonces;
+        }
+
+        SecretKey key(byte[] bytes, String algorithm) {
+            requireLive();
+            return new SecretKeySpec(bytes, algorithm);
+        }
+
+        void destroy() {
+            destroyed = true;
+            Arrays.fill(keyA, (byte) 0);
+            Arrays.fill(keyB, (byte) 0);
+            Arrays.fill(keyC, (byte) 0);
+            Arrays.fill(keyF, (byte) 0);
+            Arrays.fill(keyS, (byte) 0);
+            Arrays.fill(keyChaCha, (byte) 0);
+        }
+
+        void requireLive() {
+            if (destroyed) {
+                throw new EncryptionException("Las claves de la sesión ya se borraron");
+            }
+        }
+    }
+
+    /**
+     * Claves derivadas de una contraseña con el algoritmo de cifrado de la bóveda.
+     * Inmutable: cambiar de sesión sustituye la instancia entera, así que un contexto
+     * obtenido antes sigue siendo coherente. {@link #withAlgorithm} devuelve otra vista
+     * de las mismas claves.
+     */
+    private static final class DerivedKeys implements KeyContext {
+        private final KeyMaterial material;
+        private final CipherAlgorithm algorithm;
+
+        DerivedKeys(KeyMaterial material, CipherAlgorithm algorithm) {
+            this.material = material;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public String encrypt(String plainText) {
+            byte[] header = { FORMAT_VERSION, (byte) algorithm.getId() };
+            byte[] nonce = material.nonces(algorithm).next();
+            byte[] cipherText = algorithm.encrypt(material.dataKey(algorithm), nonce, header,
+                    plainText.getBytes(StandardCharsets.UTF_8));
+
+            ByteBuffer buf = ByteBuffer.allocate(HEADER_LENGTH + IV_LENGTH + cipherText.length);
+            buf.put(header);
+            buf.put(nonce);
+            buf.put(cipherText);
+            return VERSIONED_PREFIX + Base64.getEncoder().encodeToString(buf.array());
+        }
+
+        @Override
+        public String decrypt(String encryptedText) {
+            return new String(decryptBytes(encryptedText), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public SecretValue decryptSecret(String encryptedText) {
+            return SecretValue.fromUtf8(decryptBytes(encryptedText));
+        }
+
+        private byte[] decryptBytes(String encryptedText) {
+            if (isVersioned(encryptedText)) {
+                return decryptVersioned(encryptedText);
+            }
+            try {
+                return decryptBytesWithKey(encryptedText, material.key(material.keyB, "AES"));
+            } catch (EncryptionException e) {
+                // Valor v1 que la migración en segundo plano aún no ha re-cifrado: GCM
+                // rechaza la Key B, así que el fallo identifica el formato sin ambigüedad
+                return decryptBytesWithKey(encryptedText, material.key(material.keyA, "AES"));
+            }
+        }
+
+        String decryptLegacy(String encryptedText) {
+            return decryptWithKey(encryptedText, material.key(material.keyA, "AES"));
+        }
+
+        private byte[] decryptVersioned(String encryptedText) {
+            byte[] decoded;
+            try {
+                decoded = Base64.getDecoder().decode(encryptedText.substring(VERSIONED_PREFIX.length()));
+            } catch (IllegalArgumentException e) {
+                throw new EncryptionException("Error al desencriptar", e);
+            }
+            if (decoded.length < HEADER_LENGTH + IV_LENGTH || decoded[0] != FORMAT_VERSION) {
+                throw new EncryptionException("Formato de cifrado no soportado");
+            }
+            CipherAlgorithm valueAlgorithm = CipherAlgorithm.fromId(decoded[1]);
+            return valueAlgorithm.decrypt(
+                    material.dataKey(valueAlgorithm),
+                    Arrays.copyOfRange(decoded, HEADER_LENGTH, HEADER_LENGTH + IV_LENGTH),
+                    Arrays.copyOfRange(decoded, 0, HEADER_LENGTH),
+                    Arrays.copyOfRange(decoded, HEADER_LENGTH + IV_LENGTH, decoded.length));
+        }
+
+        @Override
+        public String sign(String data) {
+            return Base64.getEncoder().encodeToString(hmac(material.key(material.keyC, "HmacSHA256"), data));
+        }
+
+        @Override
+        public String fingerprint(String plainText) {
+            return Base64.getEncoder().encodeToString(hmac(material.key(material.keyF, "HmacSHA256"), plainText));
+        }
+
+        String fingerprint(byte[] utf8) {
+            return Base64.getEncoder().encodeToString(hmac(material.key(material.keyF, "HmacSHA256"), utf8));
+        }
+
+        @Override
+        public String blindIndex(String token) {
+            byte[] mac = hmac(material.key(material.keyS, "HmacSHA256"), token);
+            return Base64.getEncoder().encodeToString(Arrays.copyOf(mac, BLIND_INDEX_BYTES));
+        }
+
+        @Override
+        public CipherAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        @Override
+        public KeyContext withAlgorithm(CipherAlgorithm algorithm) {
+            CipherAlgorithm target = CipherAlgorithm.orDefault(algorithm);
+            return target == this.algorithm ? this : new DerivedKeys(material, target);
+        }
+
+        @Override
+        public boolean needsReencryption(String encryptedText) {
+            return algorithmOf(encryptedText) != algorithm;
+        }
+
+        /** Copia Key B + Key C (la clave de bóveda) en {@code target}. */
+        void copyVaultKey(byte[] target) {
+            material.requireLive();
+            System.arraycopy(material.keyB, 0, target, 0,         KEY_BYTES);
+            System.arraycopy(material.keyC, 0, target, KEY_BYTES, KEY_BYTES);
+        }
+
+        @Override
+        public void destroy() {
+            material.destroy();
+        }
+    }
 }
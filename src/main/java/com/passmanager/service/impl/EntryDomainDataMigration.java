@@ -0,0 +1,79 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.exception.EncryptionException;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.service.DataMigration;
+import com.passmanager.service.EntryDomainService;
+import com.passmanager.service.EntryMetadataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Construye el índice de dominios de las entradas anteriores a él. Se programa una
+ * vez por usuario al iniciar sesión; después lo mantienen las escrituras.
+ *
+ * <p>La unidad de trabajo es una entrada. Es idempotente: indexar una entrada que ya
+ * tiene su dominio no cambia nada. Mientras tanto la búsqueda por dominio no encuentra
+ * las entradas que faltan.</p>
+ */
+@Component
+public class EntryDomainDataMigration implements DataMigration {
+
+    public static final String ID = "entry-domain-index";
+
+    private static final Logger log = LoggerFactory.getLogger(EntryDomainDataMigration.class);
+
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final EntryMetadataService entryMetadataService;
+    private final EntryDomainService entryDomainService;
+
+    public EntryDomainDataMigration(PasswordEntryRepository passwordEntryRepository,
+                                    EntryMetadataService entryMetadataService,
+                                    EntryDomainService entryDomainService) {
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.entryMetadataService = entryMetadataService;
+        this.entryDomainService = entryDomainService;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Indexando los sitios de las entradas";
+    }
+
+    @Override
+    public long countUnits(User user) {
+        return passwordEntryRepository.countByUser(user);
+    }
+
+    @Override
+    public List<Long> findUnitsAfter(User user, long afterId, int limit) {
+        return passwordEntryRepository.findIdsByUserAfter(user, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void migrateUnits(User user, List<Long> unitIds) {
+        List<PasswordEntry> entries = passwordEntryRepository.findAllById(unitIds).stream()
+                .filter(entry -> Objects.equals(entry.getUser().getId(), user.getId()))
+                .toList();
+        for (PasswordEntry entry : entries) {
+            try {
+                entryDomainService.index(entry, entryMetadataService.read(entry).getUrl());
+            } catch (EncryptionException e) {
+                log.warn("URL ilegible en entrada id={}; se deja sin indexar", entry.getId());
+            }
+        }
+        passwordEntryRepository.saveAll(entries);
+    }
+}
@@ -0,0 +1,67 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.model.entity.EntryDomain;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.EntryDomainRepository;
+import com.passmanager.service.EncryptionService;
+import com.passmanager.service.EntryDomainService;
+import com.passmanager.util.UrlNormalizer;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Índice de dominios sobre {@code entry_domains}.
+ *
+ * <p>El dominio lo calcula {@link UrlNormalizer} y se guarda como token de índice ciego
+ * con el prefijo {@value #DOMAIN_TOKEN}, que lo separa de los tokens de los metadatos
+ * aunque compartan subclave.</p>
+ */
+@Service
+public class EntryDomainServiceImpl implements EntryDomainService {
+
+    private static final String DOMAIN_TOKEN = "d:";
+
+    private final EntryDomainRepository entryDomainRepository;
+    private final EncryptionService encryptionService;
+    private final UrlNormalizer urlNormalizer;
+
+    public EntryDomainServiceImpl(EntryDomainRepository entryDomainRepository,
+                                  EncryptionService encryptionService,
+                                  UrlNormalizer urlNormalizer) {
+        this.entryDomainRepository = entryDomainRepository;
+        this.encryptionService = encryptionService;
+        this.urlNormalizer = urlNormalizer;
+    }
+
+    @Override
+    public void index(PasswordEntry entry, String url) {
+        Set<String> wanted = new HashSet<>();
+        token(url).ifPresent(wanted::add);
+
+        entry.getDomains().removeIf(domain -> !wanted.remove(domain.getDomainToken()));
+        for (String token : wanted) {
+            entry.getDomains().add(EntryDomain.builder()
+                    .user(entry.getUser())
+                    .passwordEntry(entry)
+                    .domainToken(token)
+                    .build());
+        }
+    }
+
+    @Override
+    public List<Long> findEntryIds(User user, String hostOrUrl) {
+        return token(hostOrUrl)
+                .map(token -> entryDomainRepository.findEntryIds(user, token))
+                .orElse(List.of());
+    }
+
+    private Optional<String> token(String url) {
+        return urlNormalizer.registrableDomainOf(url)
+                .map(domain -> encryptionService.blindIndex(DOMAIN_TOKEN + domain));
+    }
+}
@@ -0,0 +1,316 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.Tag;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.service.EntryFacetIndex;
+import com.passmanager.util.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Índice de facetas con un {@link RoaringBitmap} por tag y por categoría, más el de
+ * favoritas y el de todas las entradas.
+ *
+ * <ul>
+ *   <li>Los ids se guardan como enteros de 32 bits sin signo; los de SQLite son
+ *       secuenciales y no llegan a ese límite</li>
+ *   <li>Un filtro es una cadena de {@code and}/{@code or}/{@code andNot} entre bitmaps;
+ *       los recuentos son un {@code andCardinality} por faceta sobre el resultado</li>
+ *   <li>Las escrituras se aplican tras el commit: una transacción revertida no deja el
+ *       índice desalineado con la base de datos</li>
+ *   <li>Un monitor protege el estado; las consultas para reconstruir se hacen fuera de él</li>
+ * </ul>
+ */
+@Service
+public class EntryFacetIndexImpl implements EntryFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EntryFacetIndexImpl.class);
+
+    private static final long MAX_ID = 0xFFFF_FFFFL;
+
+    private final PasswordEntryRepository passwordEntryRepository;
+
+    /** Usuario del índice, o null si está vacío. */
+    private Long userId;
+    private RoaringBitmap all = new RoaringBitmap();
+    private RoaringBitmap favorites = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byTag = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+
+    public EntryFacetIndexImpl(PasswordEntryRepository passwordEntryRepository) {
+        this.passwordEntryRepository = passwordEntryRepository;
+    }
+
+    @Override
+    public void rebuild(User user) {
+        long start = System.nanoTime();
+        RoaringBitmap newAll = new RoaringBitmap();
+        RoaringBitmap newFavorites = new RoaringBitmap();
+        Map<Long, RoaringBitmap> newByCategory = new HashMap<>();
+        Map<Long, RoaringBitmap> newByTag = new HashMap<>();
+
+        for (Object[] row : passwordEntryRepository.findFacetRowsByUser(user)) {
+            int id = toIndex((Long) row[0]);
+            newAll.add(id);
+            if (row[1] != null) {
+                newByCategory.computeIfAbsent((Long) row[1], key -> new RoaringBitmap()).add(id);
+            }
+            if (Boolean.TRUE.equals(row[2])) {
+                newFavorites.add(id);
+            }
+        }
+        for (Object[] row : passwordEntryRepository.findTagAssignmentsByUser(user)) {
+            newByTag.computeIfAbsent((Long) row[1], key -> new RoaringBitmap()).add(toIndex((Long) row[0]));
+        }
+
+        synchronized (this) {
+            userId = user.getId();
+            all = newAll;
+            favorites = newFavorites;
+            byCategory.clear();
+            byCategory.putAll(newByCategory);
+            byTag.clear();
+            byTag.putAll(newByTag);
+        }
+        log.debug("Índice de facetas: {} entradas, {} tags, {} categorías en {} ms",
+                newAll.cardinality(), newByTag.size(), newByCategory.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public synchronized void clear() {
+        userId = null;
+        all = new RoaringBitmap();
+        favorites = new RoaringBitmap();
+        byTag.clear();
+        byCategory.clear();
+    }
+
+    @Override
+    public List<Long> findIds(User user, Filter filter) {
+        ensureBuilt(user);
+        RoaringBitmap matched;
+        synchronized (this) {
+            matched = match(filter);
+        }
+        List<Long> ids = new ArrayList<>(matched.cardinality());
+        matched.forEach(id -> ids.add(Integer.toUnsignedLong(id)));
+        return ids;
+    }
+
+    @Override
+    public FacetCounts countFacets(User user, Filter filter) {
+        ensureBuilt(user);
+        synchronized (this) {
+            RoaringBitmap matched = match(filter);
+            Map<Long, Integer> tagCounts = new HashMap<>();
+            byTag.forEach((tagId, bitmap) -> putIfPositive(tagCounts, tagId, bitmap.andCardinality(matched)));
+
+            RoaringBitmap withoutCategory = filter.getCategoryId() != null ? match(filter.withoutCategory()) : matched;
+            Map<Long, Integer> categoryCounts = new HashMap<>();
+            byCategory.forEach((categoryId, bitmap) ->
+                    putIfPositive(categoryCounts, categoryId, bitmap.andCardinality(withoutCategory)));
+
+            return new FacetCounts(matched.cardinality(), favorites.andCardinality(matched), tagCounts, categoryCounts);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Mantenimiento
+    // ---------------------------------------------------------------
+
+    @Override
+    public void onEntrySaved(PasswordEntry entry) {
+        // Se lee ahora, dentro de la transacción (tags es LAZY)
+        Long owner = entry.getUser().getId();
+        int id = toIndex(entry.getId());
+        Long categoryId = entry.getCategory() != null ? entry.getCategory().getId() : null;
+        boolean favorite = Boolean.TRUE.equals(entry.getFavorite());
+        List<Long> tagIds = entry.getTags().stream().map(Tag::getId).toList();
+
+        afterCommit(() -> {
+            synchronized (this) {
+                if (!Objects.equals(userId, owner)) {
+                    return;
+                }
+                all.add(id);
+                setMember(favorites, id, favorite);
+                removeFromAll(byCategory, id);
+                if (categoryId != null) {
+                    byCategory.computeIfAbsent(categoryId, key -> new RoaringBitmap()).add(id);
+                }
+                removeFromAll(byTag, id);
+                for (Long tagId : tagIds) {
+                    byTag.computeIfAbsent(tagId, key -> new RoaringBitmap()).add(id);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onEntryDeleted(Long entryId) {
+        int id = toIndex(entryId);
+        afterCommit(() -> {
+            synchronized (this) {
+                all.remove(id);
+                favorites.remove(id);
+                removeFromAll(byCategory, id);
+                removeFromAll(byTag, id);
+            }
+        });
+    }
+
+    @Override
+    public void onTagAdded(Long entryId, Long tagId) {
+        int id = toIndex(entryId);
+        afterCommit(() -> {
+            synchronized (this) {
+                if (all.contains(id)) {
+                    byTag.computeIfAbsent(tagId, key -> new RoaringBitmap()).add(id);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onTagRemoved(Long entryId, Long tagId) {
+        int id = toIndex(entryId);
+        afterCommit(() -> {
+            synchronized (this) {
+                RoaringBitmap bitmap = byTag.get(tagId);
+                if (bitmap != null) {
+                    bitmap.remove(id);
+                    if (bitmap.isEmpty()) {
+                        byTag.remove(tagId);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onTagDeleted(Long tagId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                byTag.remove(tagId);
+            }
+        });
+    }
+
+    @Override
+    public void onCategoryDeleted(Long categoryId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                byCategory.remove(categoryId);
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------
+    // Helpers privados
+    // ---------------------------------------------------------------
+
+    private void ensureBuilt(User user) {
+        boolean built;
+        synchronized (this) {
+            built = Objects.equals(userId, user.getId());
+        }
+        if (!built) {
+            rebuild(user);
+        }
+    }
+
+    /**
+     * Evalúa el filtro; el llamante tiene el monitor.
+     */
+    private RoaringBitmap match(Filter filter) {
+        RoaringBitmap result = all;
+        if (filter.getCategoryId() != null) {
+            result = result.and(bitmapOf(byCategory, filter.getCategoryId()));
+        }
+        if (filter.isFavoritesOnly()) {
+            result = result.and(favorites);
+        }
+        if (!filter.getTagIds().isEmpty()) {
+            if (filter.isMatchAllTags()) {
+                for (Long tagId : filter.getTagIds()) {
+                    result = result.and(bitmapOf(byTag, tagId));
+                }
+            } else {
+                RoaringBitmap anyTag = new RoaringBitmap();
+                for (Long tagId : filter.getTagIds()) {
+                    anyTag = anyTag.or(bitmapOf(byTag, tagId));
+                }
+                result = result.and(anyTag);
+            }
+        }
+        result = exclude(result, byTag, filter.getExcludedTagIds());
+        result = exclude(result, byCategory, filter.getExcludedCategoryIds());
+        // Sin ningún criterio el resultado es el propio bitmap del índice: se copia
+        return result == all ? all.copy() : result;
+    }
+
+    private static RoaringBitmap exclude(RoaringBitmap result, Map<Long, RoaringBitmap> bitmaps, Set<Long> ids) {
+        for (Long id : ids) {
+            RoaringBitmap bitmap = bitmaps.get(id);
+            if (bitmap != null) {
+                result = result.andNot(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private static RoaringBitmap bitmapOf(Map<Long, RoaringBitmap> bitmaps, Long id) {
+        RoaringBitmap bitmap = bitmaps.get(id);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    private static void removeFromAll(Map<Long, RoaringBitmap> bitmaps, int id) {
+        bitmaps.values().removeIf(bitmap -> bitmap.remove(id) && bitmap.isEmpty());
+    }
+
+    private static void setMember(RoaringBitmap bitmap, int id, boolean member) {
+        if (member) {
+            bitmap.add(id);
+        } else {
+            bitmap.remove(id);
+        }
+    }
+
+    private static void putIfPositive(Map<Long, Integer> counts, Long id, int count) {
+        if (count > 0) {
+            counts.put(id, count);
+        }
+    }
+
+    private static int toIndex(Long id) {
+        if (id == null || id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Id de entrada fuera del rango del índice: " + id);
+        }
+        return (int) id.longValue();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
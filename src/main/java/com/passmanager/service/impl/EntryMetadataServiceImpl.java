@@ -0,0 +1,222 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.model.entity.EntrySearchToken;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.EntrySearchTokenRepository;
+import com.passmanager.service.EncryptionService;
+import com.passmanager.service.EntryMetadataService;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Índice ciego de los metadatos cifrados.
+ *
+ * <ul>
+ *   <li>Normalización: NFKD sin diacríticos y en minúsculas ("Café" = "cafe"); las
+ *       palabras se separan por cualquier carácter que no sea letra o dígito</li>
+ *   <li>Tokens por entrada: el valor completo de cada campo ({@code v:}) y los prefijos
+ *       de 1 a {@value #MAX_PREFIX} caracteres de cada palabra ({@code p:}), sin repetir</li>
+ *   <li>Consulta: un token {@code p:} por palabra (truncado a {@value #MAX_PREFIX}); una
+ *       entrada es candidata si los tiene todos, o si tiene el {@code v:} de la consulta entera</li>
+ * </ul>
+ *
+ * <p>Al editar una entrada solo se insertan y borran los tokens que cambian.</p>
+ */
+@Service
+public class EntryMetadataServiceImpl implements EntryMetadataService {
+
+    private static final int MAX_PREFIX = 10;
+    private static final String VALUE_TOKEN = "v:";
+    private static final String PREFIX_TOKEN = "p:";
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EncryptionService encryptionService;
+    private final EntrySearchTokenRepository searchTokenRepository;
+
+    public EntryMetadataServiceImpl(EncryptionService encryptionService,
+                                    EntrySearchTokenRepository searchTokenRepository) {
+        this.encryptionService = encryptionService;
+        this.searchTokenRepository = searchTokenRepository;
+    }
+
+    @Override
+    public boolean isEncryptionEnabled(User user) {
+        return Boolean.TRUE.equals(user.getMetadataEncryption());
+    }
+
+    @Override
+    public Metadata read(PasswordEntry entry) {
+        if (!Boolean.TRUE.equals(entry.getMetadataEncrypted())) {
+            return new Metadata(entry.getTitle(), entry.getUsername(), entry.getEmail(),
+                    entry.getUrl(), entry.getNotes());
+        }
+        return new Metadata(
+                decrypt(entry.getTitle()),
+                decrypt(entry.getUsername()),
+                decrypt(entry.getEmail()),
+                decrypt(entry.getUrl()),
+                decrypt(entry.getNotes()));
+    }
+
+    @Override
+    public void write(PasswordEntry entry, Metadata metadata) {
+        apply(entry, metadata, isEncryptionEnabled(entry.getUser()));
+    }
+
+    @Override
+    public boolean convert(PasswordEntry entry, boolean encrypted) {
+        if (Boolean.TRUE.equals(entry.getMetadataEncrypted()) == encrypted) {
+            return false;
+        }
+        apply(entry, read(entry), encrypted);
+        return true;
+    }
+
+    @Override
+    public List<Long> findEncryptedCandidates(User user, String query) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String word : words(query)) {
+            tokens.add(encryptionService.blindIndex(PREFIX_TOKEN + truncate(word)));
+        }
+
+        Set<Long> ids = new LinkedHashSet<>();
+        if (!tokens.isEmpty()) {
+            ids.addAll(searchTokenRepository.findEntryIdsWithAllTokens(user, tokens, tokens.size()));
+        }
+        String value = normalizeValue(query);
+        if (!value.isEmpty()) {
+            ids.addAll(searchTokenRepository.findEntryIdsWithAllTokens(
+                    user, List.of(encryptionService.blindIndex(VALUE_TOKEN + value)), 1));
+        }
+        return new ArrayList<>(ids);
+    }
+
+    @Override
+    public boolean matches(PasswordEntryDTO entry, String query) {
+        Metadata metadata = Metadata.of(entry);
+        String value = normalizeValue(query);
+        List<String> entryWords = new ArrayList<>();
+        for (String field : metadata.values()) {
+            if (field == null) {
+                continue;
+            }
+            if (!value.isEmpty() && normalizeValue(field).equals(value)) {
+                return true;
+            }
+            entryWords.addAll(words(field));
+        }
+
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty()) {
+            return false;
+        }
+        return queryWords.stream()
+                .allMatch(queryWord -> entryWords.stream().anyMatch(word -> word.startsWith(queryWord)));
+    }
+
+    // ---------------------------------------------------------------
+    // Helpers privados
+    // ---------------------------------------------------------------
+
+    private void apply(PasswordEntry entry, Metadata metadata, boolean encrypted) {
+        if (!encrypted) {
+            entry.setTitle(metadata.getTitle());
+            entry.setUsername(metadata.getUsername());
+            entry.setEmail(metadata.getEmail());
+            entry.setUrl(metadata.getUrl());
+            entry.setNotes(metadata.getNotes());
+            entry.setMetadataEncrypted(false);
+            entry.getSearchTokens().clear();
+            return;
+        }
+
+        entry.setTitle(encrypt(metadata.getTitle()));
+        entry.setUsername(encrypt(metadata.getUsername()));
+        entry.setEmail(encrypt(metadata.getEmail()));
+        entry.setUrl(encrypt(metadata.getUrl()));
+        entry.setNotes(encrypt(metadata.getNotes()));
+        entry.setMetadataEncrypted(true);
+        syncTokens(entry, tokens(metadata));
+    }
+
+    /**
+     * Deja en la entrada exactamente los tokens indicados, conservando las filas que no cambian.
+     */
+    private void syncTokens(PasswordEntry entry, Set<String> wanted) {
+        entry.getSearchTokens().removeIf(token -> !wanted.remove(token.getToken()));
+        for (String token : wanted) {
+            entry.getSearchTokens().add(EntrySearchToken.builder()
+                    .user(entry.getUser())
+                    .passwordEntry(entry)
+                    .token(token)
+                    .build());
+        }
+    }
+
+    private Set<String> tokens(Metadata metadata) {
+        Set<String> plain = new LinkedHashSet<>();
+        for (String field : metadata.values()) {
+            if (field == null) {
+                continue;
+            }
+            String value = normalizeValue(field);
+            if (!value.isEmpty()) {
+                plain.add(VALUE_TOKEN + value);
+            }
+            for (String word : words(field)) {
+                for (int length = 1; length <= Math.min(word.length(), MAX_PREFIX); length++) {
+                    plain.add(PREFIX_TOKEN + word.substring(0, length));
+                }
+            }
+        }
+
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : plain) {
+            tokens.add(encryptionService.blindIndex(token));
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeValue(String text) {
+        return WHITESPACE.matcher(normalize(text).trim()).replaceAll(" ");
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String truncate(String word) {
+        return word.length() > MAX_PREFIX ? word.substring(0, MAX_PREFIX) : word;
+    }
+
+    private String encrypt(String value) {
+        return value != null ? encryptionService.encrypt(value) : null;
+    }
+
+    private String decrypt(String value) {
+        return value != null ? encryptionService.decrypt(value) : null;
+    }
+}
@@ -0,0 +1,439 @@
+package com.passmanager.service.impl;
+
+import com.google.gson.Gson;
+import com.passmanager.exception.ResourceNotFoundException;
+import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.model.entity.EntryVersion;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.repository.EntryVersionRepository;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.service.EncryptionService;
+import com.passmanager.service.EntryVersionService;
+import com.passmanager.service.SecretValue;
+import com.passmanager.service.UserService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Implementación del versionado completo de entradas.
+ *
+ * <p>El estado de una entrada se representa como un mapa plano campo → valor. Los
+ * campos personalizados se identifican por su posición ({@code custom:<i>:name},
+ * {@code custom:<i>:value} y {@code custom:<i>:sensitive}), de modo que dos campos
+ * con el mismo nombre no se pisan. Las instantáneas guardan el mapa entero; los
+ * deltas, las claves eliminadas y una edición por clave modificada. Todo el
+ * contenido, incluidos los nombres de campo, va cifrado en {@code payload}.</p>
+ *
+ * <p>Las versiones anteriores a este formato usaban {@code field:<nombre>} y
+ * {@code secret:<nombre>}; se siguen leyendo, y la primera versión que sigue a una
+ * de ellas se guarda como instantánea para no mezclar claves de ambos formatos.</p>
+ *
+ * <p>Los deltas se calculan contra el estado de la entrada antes de guardarla, que
+ * coincide con la última versión porque el contenido solo cambia en
+ * {@code PasswordEntryService.create/update}.</p>
+ */
+@Service
+public class EntryVersionServiceImpl implements EntryVersionService {
+
+    private static final String CUSTOM_PREFIX = "custom:";
+    private static final String CUSTOM_NAME = "name";
+    private static final String CUSTOM_VALUE = "value";
+    private static final String CUSTOM_SENSITIVE = "sensitive";
+
+    // Formato anterior, indexado por nombre
+    private static final String LEGACY_FIELD_PREFIX = "field:";
+    private static final String LEGACY_SECRET_PREFIX = "secret:";
+
+    private static final int PAYLOAD_FORMAT = 2;
+
+    private static final Map<String, String> FIELD_LABELS = Map.of(
+            "title", "Título",
+            "username", "Usuario",
+            "email", "Email",
+            "password", "Contraseña",
+            "url", "URL",
+            "notes", "Notas",
+            "category", "Categoría");
+
+    private final EntryVersionRepository versionRepository;
+    private final PasswordEntryRepository entryRepository;
+    private final UserService userService;
+    private final EncryptionService encryptionService;
+    private final Gson gson = new Gson();
+
+    public EntryVersionServiceImpl(EntryVersionRepository versionRepository,
+                                   PasswordEntryRepository entryRepository,
+                                   UserService userService,
+                                   EncryptionService encryptionService) {
+        this.versionRepository = versionRepository;
+        this.entryRepository = entryRepository;
+        this.userService = userService;
+        this.encryptionService = encryptionService;
+    }
+
+    @Override
+    @Transactional
+    public void recordCreated(PasswordEntry entry, PasswordEntryDTO state) {
+        save(entry, 1, VersionPayload.snapshot(toFields(state)), null);
+    }
+
+    @Override
+    @Transactional
+    public void recordUpdate(PasswordEntry entry, PasswordEntryDTO before, PasswordEntryDTO after) {
+        Map<String, String> previous = toFields(before);
+        Map<String, String> current = toFields(after);
+        if (previous.equals(current)) {
+            return;
+        }
+
+        Optional<EntryVersion> lastVersion = versionRepository.findTopByPasswordEntryOrderByVersionNumberDesc(entry);
+        int last = lastVersion.map(EntryVersion::getVersionNumber).orElse(0);
+        boolean legacyBase = lastVersion.isPresent() && readPayload(lastVersion.get()).isLegacy();
+        if (last == 0) {
+            // Entrada anterior al versionado: su estado actual pasa a ser la versión 1
+            save(entry, 1, VersionPayload.snapshot(previous), before.getUpdatedAt());
+            last = 1;
+        }
+
+        int next = last + 1;
+        VersionPayload payload = (next - 1) % SNAPSHOT_INTERVAL == 0 || legacyBase
+                ? VersionPayload.snapshot(current)
+                : VersionPayload.delta(previous, current);
+        save(entry, next, payload, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VersionSummary> getVersions(Long passwordEntryId) {
+        PasswordEntry entry = findEntry(passwordEntryId);
+
+        // Una sola pasada: cada payload se descifra una vez
+        List<VersionSummary> summaries = new ArrayList<>();
+        Map<String, String> state = Map.of();
+        for (EntryVersion version : versionRepository.findByPasswordEntryOrderByVersionNumberAsc(entry)) {
+            Map<String, String> next = readPayload(version).applyTo(state);
+            List<String> changed = summaries.isEmpty()
+                    ? List.of()
+                    : changedLabels(normalize(state), normalize(next));
+            summaries.add(new VersionSummary(version.getVersionNumber(), version.getCreatedAt(),
+                    version.getSnapshot(), changed));
+            state = next;
+        }
+
+        Collections.reverse(summaries);
+        return summaries;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PasswordEntryDTO getVersion(Long passwordEntryId, int versionNumber) {
+        PasswordEntry entry = findEntry(passwordEntryId);
+
+        EntryVersion base = versionRepository
+                .findTopByPasswordEntryAndSnapshotTrueAndVersionNumberLessThanEqualOrderByVersionNumberDesc(
+                        entry, versionNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("EntryVersion", (long) versionNumber));
+
+        Map<String, String> state = Map.of();
+        EntryVersion target = base;
+        for (EntryVersion version : versionRepository.findByPasswordEntryAndVersionNumberBetweenOrderByVersionNumberAsc(
+                entry, base.getVersionNumber(), versionNumber)) {
+            state = readPayload(version).applyTo(state);
+            target = version;
+        }
+        if (target.getVersionNumber() != versionNumber) {
+            throw new ResourceNotFoundException("EntryVersion", (long) versionNumber);
+        }
+
+        PasswordEntryDTO dto = toDTO(normalize(state));
+        dto.setUpdatedAt(target.getCreatedAt());
+        return dto;
+    }
+
+    // ---------------------------------------------------------------
+    // Persistencia
+    // ---------------------------------------------------------------
+
+    private PasswordEntry findEntry(Long passwordEntryId) {
+        // Verificar que la entrada pertenece al usuario actual (seguridad)
+        return entryRepository.findByIdAndUser(passwordEntryId, userService.getCurrentUser())
+                .orElseThrow(() -> new ResourceNotFoundException("PasswordEntry", passwordEntryId));
+    }
+
+    private void save(PasswordEntry entry, int versionNumber, VersionPayload payload, LocalDateTime createdAt) {
+        versionRepository.save(EntryVersion.builder()
+                .passwordEntry(entry)
+                .versionNumber(versionNumber)
+                .snapshot(payload.fields != null)
+                .payload(encryptionService.encrypt(gson.toJson(payload)))
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private VersionPayload readPayload(EntryVersion version) {
+        return gson.fromJson(encryptionService.decrypt(version.getPayload()), VersionPayload.class);
+    }
+
+    // ---------------------------------------------------------------
+    // Conversión DTO ↔ mapa de campos
+    // ---------------------------------------------------------------
+
+    /**
+     * Contraseña para el payload: la del formulario o, en las entradas leídas de la
+     * bóveda, la del secreto. El payload se guarda como texto cifrado, así que aquí el
+     * {@code String} es inevitable.
+     */
+    private static String passwordOf(PasswordEntryDTO dto) {
+        if (dto.getPassword() != null) {
+            return dto.getPassword();
+        }
+        SecretValue secret = dto.getSecret();
+        return secret != null && !secret.isWiped() ? secret.reveal() : null;
+    }
+
+    private Map<String, String> toFields(PasswordEntryDTO dto) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        putIfPresent(fields, "title", dto.getTitle());
+        putIfPresent(fields, "username", dto.getUsername());
+        putIfPresent(fields, "email", dto.getEmail());
+        putIfPresent(fields, "password", passwordOf(dto));
+        putIfPresent(fields, "url", dto.getUrl());
+        putIfPresent(fields, "notes", dto.getNotes());
+        putIfPresent(fields, "category", dto.getCategoryName());
+        if (dto.getCustomFields() != null) {
+            List<PasswordEntryDTO.CustomFieldDTO> customFields = dto.getCustomFields();
+            for (int i = 0; i < customFields.size(); i++) {
+                PasswordEntryDTO.CustomFieldDTO field = customFields.get(i);
+                putIfPresent(fields, customKey(i, CUSTOM_NAME), field.getFieldName());
+                putIfPresent(fields, customKey(i, CUSTOM_VALUE), field.getFieldValue());
+                if (field.isSensitive()) {
+                    fields.put(customKey(i, CUSTOM_SENSITIVE), "true");
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static String customKey(int position, String attribute) {
+        return CUSTOM_PREFIX + position + ":" + attribute;
+    }
+
+    /**
+     * Posición de una clave de campo personalizado, o -1 si no lo es.
+     */
+    private static int customPosition(String key) {
+        if (!key.startsWith(CUSTOM_PREFIX)) {
+            return -1;
+        }
+        int end = key.indexOf(':', CUSTOM_PREFIX.length());
+        return end > 0 ? Integer.parseInt(key.substring(CUSTOM_PREFIX.length(), end)) : -1;
+    }
+
+    /**
+     * Convierte las claves del formato anterior ({@code field:/secret:<nombre>}) en
+     * claves por posición, a continuación de las que ya lo son.
+     */
+    private Map<String, String> normalize(Map<String, String> fields) {
+        boolean legacy = fields.keySet().stream()
+                .anyMatch(key -> key.startsWith(LEGACY_FIELD_PREFIX) || key.startsWith(LEGACY_SECRET_PREFIX));
+        if (!legacy) {
+            return fields;
+        }
+
+        int next = fields.keySet().stream().mapToInt(EntryVersionServiceImpl::customPosition).max().orElse(-1) + 1;
+        Map<String, String> normalized = new LinkedHashMap<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            boolean sensitive = field.getKey().startsWith(LEGACY_SECRET_PREFIX);
+            if (sensitive || field.getKey().startsWith(LEGACY_FIELD_PREFIX)) {
+                String prefix = sensitive ? LEGACY_SECRET_PREFIX : LEGACY_FIELD_PREFIX;
+                normalized.put(customKey(next, CUSTOM_NAME), field.getKey().substring(prefix.length()));
+                normalized.put(customKey(next, CUSTOM_VALUE), field.getValue());
+                if (sensitive) {
+                    normalized.put(customKey(next, CUSTOM_SENSITIVE), "true");
+                }
+                next++;
+            } else {
+                normalized.put(field.getKey(), field.getValue());
+            }
+        }
+        return normalized;
+    }
+
+    private void putIfPresent(Map<String, String> fields, String key, String value) {
+        if (value != null) {
+            fields.put(key, value);
+        }
+    }
+
+    private PasswordEntryDTO toDTO(Map<String, String> fields) {
+        PasswordEntryDTO dto = PasswordEntryDTO.builder()
+                .title(fields.get("title"))
+                .username(fields.get("username"))
+                .email(fields.get("email"))
+                .password(fields.get("password"))
+                .url(fields.get("url"))
+                .notes(fields.get("notes"))
+                .categoryName(fields.get("category"))
+                .build();
+
+        Map<Integer, PasswordEntryDTO.CustomFieldDTO> customFields = new TreeMap<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            int position = customPosition(field.getKey());
+            if (position < 0) {
+                continue;
+            }
+            PasswordEntryDTO.CustomFieldDTO customField = customFields.computeIfAbsent(position,
+                    k -> new PasswordEntryDTO.CustomFieldDTO());
+            String attribute = field.getKey().substring(field.getKey().lastIndexOf(':') + 1);
+            switch (attribute) {
+                case CUSTOM_NAME -> customField.setFieldName(field.getValue());
+                case CUSTOM_VALUE -> customField.setFieldValue(field.getValue());
+                case CUSTOM_SENSITIVE -> customField.setSensitive(Boolean.parseBoolean(field.getValue()));
+                default -> { }
+            }
+        }
+        dto.getCustomFields().addAll(customFields.values());
+        return dto;
+    }
+
+    private List<String> changedLabels(Map<String, String> previous, Map<String, String> current) {
+        Set<String> keys = new LinkedHashSet<>(previous.keySet());
+        keys.addAll(current.keySet());
+
+        // Varias claves de un mismo campo personalizado dan una sola etiqueta
+        Set<String> labels = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (!Objects.equals(previous.get(key), current.get(key))) {
+                labels.add(label(key, previous, current));
+            }
+        }
+        return new ArrayList<>(labels);
+    }
+
+    private String label(String key, Map<String, String> previous, Map<String, String> current) {
+        int position = customPosition(key);
+        if (position >= 0) {
+            String nameKey = customKey(position, CUSTOM_NAME);
+            String name = current.getOrDefault(nameKey, previous.getOrDefault(nameKey, ""));
+            return "Campo " + (position + 1) + " «" + name + "»";
+        }
+        return FIELD_LABELS.getOrDefault(key, key);
+    }
+
+    // ---------------------------------------------------------------
+    // Formato del payload (JSON)
+    // ---------------------------------------------------------------
+
+    /**
+     * Instantánea ({@code fields}) o delta ({@code edits} + {@code removed}).
+     */
+    private static class VersionPayload {
+        /** Null en las versiones con claves por nombre. */
+        private Integer format;
+        private Map<String, String> fields;
+        private List<FieldEdit> edits;
+        private List<String> removed;
+
+        static VersionPayload snapshot(Map<String, String> fields) {
+            VersionPayload payload = new VersionPayload();
+            payload.format = PAYLOAD_FORMAT;
+            payload.fields = fields;
+            return payload;
+        }
+
+        static VersionPayload delta(Map<String, String> previous, Map<String, String> current) {
+            VersionPayload payload = new VersionPayload();
+            payload.format = PAYLOAD_FORMAT;
+            payload.edits = new ArrayList<>();
+            payload.removed = new ArrayList<>();
+            for (String key : previous.keySet()) {
+                if (!current.containsKey(key)) {
+                    payload.removed.add(key);
+                }
+            }
+            for (Map.Entry<String, String> field : current.entrySet()) {
+                String old = previous.get(field.getKey());
+                if (!field.getValue().equals(old)) {
+                    payload.edits.add(FieldEdit.between(field.getKey(), old != null ? old : "", field.getValue()));
+                }
+            }
+            return payload;
+        }
+
+        boolean isLegacy() {
+            return format == null;
+        }
+
+        Map<String, String> applyTo(Map<String, String> state) {
+            if (fields != null) {
+                return new LinkedHashMap<>(fields);
+            }
+            Map<String, String> result = new LinkedHashMap<>(state);
+            if (removed != null) {
+                removed.forEach(result::remove);
+            }
+            if (edits != null) {
+                for (FieldEdit edit : edits) {
+                    result.put(edit.key, edit.applyTo(result.getOrDefault(edit.key, "")));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Nuevo valor de un campo expresado como: primeros {@code keep} caracteres del
+     * valor anterior + {@code text} + últimos {@code trim} caracteres del valor anterior.
+     */
+    private static class FieldEdit {
+        private String key;
+        private int keep;
+        private int trim;
+        private String text;
+
+        static FieldEdit between(String key, String old, String value) {
+            int max = Math.min(old.length(), value.length());
+
+            int prefix = 0;
+            while (prefix < max && old.charAt(prefix) == value.charAt(prefix)) {
+                prefix++;
+            }
+            // No partir pares suplentes: el fragmento se cifra como UTF-8
+            if (prefix > 0 && Character.isHighSurrogate(old.charAt(prefix - 1))) {
+                prefix--;
+            }
+
+            int suffix = 0;
+            while (suffix < max - prefix
+                    && old.charAt(old.length() - 1 - suffix) == value.charAt(value.length() - 1 - suffix)) {
+                suffix++;
+            }
+            if (suffix > 0 && Character.isLowSurrogate(old.charAt(old.length() - suffix))) {
+                suffix--;
+            }
+
+            FieldEdit edit = new FieldEdit();
+            edit.key = key;
+            edit.keep = prefix;
+            edit.trim = suffix;
+            edit.text = value.substring(prefix, value.length() - suffix);
+            return edit;
+        }
+
+        String applyTo(String old) {
+            return old.substring(0, keep) + text + old.substring(old.length() - trim);
+        }
+    }
+}
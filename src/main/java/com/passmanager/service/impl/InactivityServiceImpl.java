@@ -1,21 +1,25 @@
 package com.passmanager.service.impl;
 
 import com.passmanager.service.InactivityService;
+import com.passmanager.service.SchedulerService;
 import javafx.application.Platform;
 import org.springframework.stereotype.Service;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 @Service
 public class InactivityServiceImpl implements InactivityService {
 
     private static final long INACTIVITY_TIMEOUT_MS = 3 * 60 * 1000; // 3 minutos en milisegundos
 
-    private Timer inactivityTimer;
-    private TimerTask currentTask;
-    private Runnable onInactivityCallback;
-    private boolean isMonitoring;
+    private final SchedulerService schedulerService;
+
+    private SchedulerService.Deadline inactivityDeadline;
+    private volatile Runnable onInactivityCallback;
+    private volatile boolean isMonitoring;
+    private volatile long lastActivityTime;
+
+    public InactivityServiceImpl(SchedulerService schedulerService) {
+        this.schedulerService = schedulerService;
+    }
 
     @Override
     public void startMonitoring(Runnable onInactivity) {
@@ -25,24 +29,20 @@ public class InactivityServiceImpl implements InactivityService {
 
         this.onInactivityCallback = onInactivity;
         this.isMonitoring = true;
-        this.inactivityTimer = new Timer("InactivityTimer", true);
+        this.lastActivityTime = System.currentTimeMillis();
 
-        resetTimer();
+        // Un único plazo que se re-arma solo al vencer; resetTimer no lo reprograma
+        inactivityDeadline = schedulerService.scheduleOnIdle(
+                () -> lastActivityTime, () -> INACTIVITY_TIMEOUT_MS, this::onInactivity);
     }
 
     @Override
     public void stopMonitoring() {
         isMonitoring = false;
 
-        if (currentTask != null) {
-            currentTask.cancel();
-            currentTask = null;
-        }
-
-        if (inactivityTimer != null) {
-            inactivityTimer.cancel();
-            inactivityTimer.purge();
-            inactivityTimer = null;
+        if (inactivityDeadline != null) {
+            inactivityDeadline.cancel();
+            inactivityDeadline = null;
         }
 
         onInactivityCallback = null;
@@ -50,36 +50,22 @@ public class InactivityServiceImpl implements InactivityService {
 
     @Override
     public void resetTimer() {
-        if (!isMonitoring || inactivityTimer == null) {
-            return;
-        }
-
-        // Cancelar la tarea anterior si existe
-        if (currentTask != null) {
-            currentTask.cancel();
-        }
-
-        // Crear nueva tarea
-        currentTask = new TimerTask() {
-            @Override
-            public void run() {
-                if (onInactivityCallback != null) {
-                    // Ejecutar el callback en el hilo de JavaFX
-                    Platform.runLater(() -> {
-                        if (isMonitoring && onInactivityCallback != null) {
-                            onInactivityCallback.run();
-                        }
-                    });
-                }
-            }
-        };
-
-        // Programar la nueva tarea
-        inactivityTimer.schedule(currentTask, INACTIVITY_TIMEOUT_MS);
+        // Se llama con cada evento de ratón/teclado: solo una escritura volatile
+        lastActivityTime = System.currentTimeMillis();
     }
 
     @Override
     public boolean isMonitoring() {
         return isMonitoring;
     }
+
+    private void onInactivity() {
+        // Ejecutar el callback en el hilo de JavaFX
+        Platform.runLater(() -> {
+            Runnable callback = onInactivityCallback;
+            if (isMonitoring && callback != null) {
+                callback.run();
+            }
+        });
+    }
 }
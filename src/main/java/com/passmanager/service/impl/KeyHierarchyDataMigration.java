@@ -0,0 +1,120 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.exception.EncryptionException;
+import com.passmanager.model.entity.CustomField;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.PasswordHistory;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.service.DataMigration;
+import com.passmanager.service.EncryptionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Migración v1 → v2 de los datos de un usuario: re-cifra de Key A a Key B la contraseña,
+ * el historial y los campos sensibles de cada entrada, y calcula hmacTag (Key C) y huellas.
+ *
+ * <p>La unidad de trabajo es una entrada. Es idempotente: los valores que ya están en
+ * Key B (lote repetido, o entrada editada durante la migración) se dejan como están.
+ * Hasta que termina, {@link EncryptionService#decrypt} lee los valores v1 con Key A.</p>
+ */
+@Component
+public class KeyHierarchyDataMigration implements DataMigration {
+
+    public static final String ID = "v2-key-hierarchy";
+
+    private static final Logger log = LoggerFactory.getLogger(KeyHierarchyDataMigration.class);
+
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final EncryptionService encryptionService;
+
+    public KeyHierarchyDataMigration(PasswordEntryRepository passwordEntryRepository,
+                                     EncryptionService encryptionService) {
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.encryptionService = encryptionService;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Actualizando el cifrado de la bóveda";
+    }
+
+    @Override
+    public long countUnits(User user) {
+        return passwordEntryRepository.countByUser(user);
+    }
+
+    @Override
+    public List<Long> findUnitsAfter(User user, long afterId, int limit) {
+        return passwordEntryRepository.findIdsByUserAfter(user, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void migrateUnits(User user, List<Long> unitIds) {
+        unitIds.forEach(unitId -> migrateUnit(user, unitId));
+    }
+
+    private void migrateUnit(User user, Long unitId) {
+        PasswordEntry entry = passwordEntryRepository.findByIdAndUser(unitId, user).orElse(null);
+        if (entry == null) {
+            return; // Eliminada desde que se leyó el lote
+        }
+
+        // Contraseña principal: Key A → Key B, con firma y huella
+        String password = toCurrentFormat(entry.getPassword(), "entrada", entry.getId());
+        if (password != null) {
+            entry.setPassword(password);
+            entry.setHmacTag(encryptionService.sign(password));
+            entry.setPasswordFingerprint(encryptionService.fingerprint(encryptionService.decrypt(password)));
+        }
+
+        // Historial de contraseñas
+        for (PasswordHistory history : entry.getPasswordHistory()) {
+            String historyPassword = toCurrentFormat(history.getPassword(), "historial", history.getId());
+            if (historyPassword != null) {
+                history.setPassword(historyPassword);
+                history.setPasswordFingerprint(encryptionService.fingerprint(encryptionService.decrypt(historyPassword)));
+            }
+        }
+
+        // Campos personalizados sensibles
+        for (CustomField field : entry.getCustomFields()) {
+            if (field.isSensitive()) {
+                String value = toCurrentFormat(field.getFieldValue(), "campo", field.getId());
+                if (value != null) {
+                    field.setFieldValue(value);
+                }
+            }
+        }
+
+        passwordEntryRepository.save(entry);
+    }
+
+    /**
+     * @return El valor cifrado con Key B, o {@code null} si no se puede leer con ninguna
+     *         clave (se deja intacto para no bloquear la migración)
+     */
+    private String toCurrentFormat(String ciphertext, String kind, Long id) {
+        try {
+            return encryptionService.migrateEncrypted(ciphertext);
+        } catch (EncryptionException notLegacy) {
+            try {
+                encryptionService.decrypt(ciphertext);
+                return ciphertext; // Ya estaba en formato v2
+            } catch (EncryptionException e) {
+                log.warn("Valor ilegible en {} id={}; se deja sin migrar", kind, id);
+                return null;
+            }
+        }
+    }
+}
@@ -1,25 +1,23 @@
 package com.passmanager.service.impl;
 
 import com.passmanager.service.LockService;
+import com.passmanager.service.SchedulerService;
 import org.springframework.stereotype.Service;
 
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implementación del servicio de bloqueo automático.
  *
  * <h2>Arquitectura</h2>
- * - Timer de Java para monitoreo de inactividad
+ * - Plazo de inactividad en el {@link SchedulerService} compartido, re-armado de forma perezosa
+ * - La actividad solo escribe una marca de tiempo volatile (sin reprogramar nada)
  * - AtomicBoolean para thread-safety
  * - Callback pattern para notificar al UI
  *
  * <h2>Configuración por defecto</h2>
  * - Timeout de inactividad: 2 minutos
  * - Bloqueo al minimizar: activado
- * - Intervalo de verificación: 1 segundo
  *
  * @author KeyGuard Team
  */
@@ -30,23 +28,27 @@ public class LockServiceImpl implements LockService {
     private static final int DEFAULT_INACTIVITY_MINUTES = 2;
     private static final int MIN_INACTIVITY_MINUTES = 1;
     private static final int MAX_INACTIVITY_MINUTES = 30;
-    private static final long CHECK_INTERVAL_MS = 1000; // 1 segundo
 
     // Estado del servicio
     private final AtomicBoolean isMonitoring = new AtomicBoolean(false);
     private final AtomicBoolean lockOnMinimize = new AtomicBoolean(true);
-    private final AtomicLong lastActivityTime = new AtomicLong(System.currentTimeMillis());
+    private volatile long lastActivityTime = System.currentTimeMillis();
 
     // Configuración
-    private int inactivityTimeoutMinutes = DEFAULT_INACTIVITY_MINUTES;
-    private long inactivityTimeoutMillis = DEFAULT_INACTIVITY_MINUTES * 60 * 1000;
+    private volatile int inactivityTimeoutMinutes = DEFAULT_INACTIVITY_MINUTES;
+    private volatile long inactivityTimeoutMillis = DEFAULT_INACTIVITY_MINUTES * 60 * 1000;
 
-    // Timer y callback
-    private Timer inactivityTimer;
-    private Runnable lockCallback;
+    // Plazo y callback
+    private final SchedulerService schedulerService;
+    private SchedulerService.Deadline inactivityDeadline;
+    private volatile Runnable lockCallback;
+
+    public LockServiceImpl(SchedulerService schedulerService) {
+        this.schedulerService = schedulerService;
+    }
 
     @Override
-    public void startMonitoring(Runnable onLockCallback) {
+    public synchronized void startMonitoring(Runnable onLockCallback) {
         if (isMonitoring.get()) {
             // Ya está monitoreando, solo actualizar callback
             this.lockCallback = onLockCallback;
@@ -55,25 +57,29 @@ public class LockServiceImpl implements LockService {
 
         this.lockCallback = onLockCallback;
         this.isMonitoring.set(true);
-        this.lastActivityTime.set(System.currentTimeMillis());
-
-        // Iniciar timer de verificación
-        inactivityTimer = new Timer("LockService-InactivityTimer", true);
-        inactivityTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                checkInactivity();
-            }
-        }, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS);
+        this.lastActivityTime = System.currentTimeMillis();
+
+        armDeadline();
+    }
+
+    /**
+     * Programa el plazo de inactividad con el timeout actual, sustituyendo al anterior.
+     */
+    private void armDeadline() {
+        if (inactivityDeadline != null) {
+            inactivityDeadline.cancel();
+        }
+        inactivityDeadline = schedulerService.scheduleOnIdle(
+                () -> lastActivityTime, () -> inactivityTimeoutMillis, this::lockNow);
     }
 
     @Override
-    public void stopMonitoring() {
+    public synchronized void stopMonitoring() {
         isMonitoring.set(false);
 
-        if (inactivityTimer != null) {
-            inactivityTimer.cancel();
-            inactivityTimer = null;
+        if (inactivityDeadline != null) {
+            inactivityDeadline.cancel();
+            inactivityDeadline = null;
         }
 
         lockCallback = null;
@@ -81,9 +87,8 @@ public class LockServiceImpl implements LockService {
 
     @Override
     public void resetTimer() {
-        if (isMonitoring.get()) {
-            lastActivityTime.set(System.currentTimeMillis());
-        }
+        // Se llama con cada evento de ratón/teclado: solo una escritura volatile
+        lastActivityTime = System.currentTimeMillis();
     }
 
     @Override
@@ -104,7 +109,7 @@ public class LockServiceImpl implements LockService {
     }
 
     @Override
-    public void setInactivityTimeout(int minutes) {
+    public synchronized void setInactivityTimeout(int minutes) {
         if (minutes < MIN_INACTIVITY_MINUTES || minutes > MAX_INACTIVITY_MINUTES) {
             throw new IllegalArgumentException(
                     "Timeout debe estar entre " + MIN_INACTIVITY_MINUTES +
@@ -114,6 +119,11 @@ public class LockServiceImpl implements LockService {
 
         this.inactivityTimeoutMinutes = minutes;
         this.inactivityTimeoutMillis = minutes * 60 * 1000L;
+
+        // El plazo armado vencería con el timeout anterior: uno más corto debe aplicarse ya
+        if (isMonitoring.get()) {
+            armDeadline();
+        }
     }
 
     @Override
@@ -130,23 +140,4 @@ public class LockServiceImpl implements LockService {
     public boolean isLockOnMinimizeEnabled() {
         return lockOnMinimize.get();
     }
-
-    /**
-     * Verifica si ha pasado el tiempo de inactividad.
-     * Se ejecuta cada segundo por el timer.
-     */
-    private void checkInactivity() {
-        if (!isMonitoring.get()) {
-            return;
-        }
-
-        long currentTime = System.currentTimeMillis();
-        long lastActivity = lastActivityTime.get();
-        long timeSinceLastActivity = currentTime - lastActivity;
-
-        if (timeSinceLastActivity >= inactivityTimeoutMillis) {
-            // Tiempo de inactividad excedido, bloquear
-            lockNow();
-        }
-    }
 }
@@ -1,69 +1,270 @@
 package com.passmanager.service.impl;
 
+import com.passmanager.model.entity.LoginThrottle;
+import com.passmanager.repository.LoginThrottleRepository;
 import com.passmanager.service.LoginAttemptService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+/**
+ * Limitación de intentos de inicio de sesión con ventana deslizante y espera exponencial.
+ *
+ * <ul>
+ *   <li>{@value #MAX_ATTEMPTS} fallos dentro de una ventana deslizante de
+ *       {@value #WINDOW_MINUTES} minutos bloquean el usuario</li>
+ *   <li>Cada bloqueo consecutivo (sin un inicio de sesión correcto entre medias)
+ *       dobla la duración: 15 min, 30 min, 1 h... hasta 24 h</li>
+ *   <li>El estado se escribe en {@code login_throttle} en la transacción del llamador,
+ *       así que los bloqueos sobreviven a un reinicio</li>
+ *   <li>Memoria constante: caché LRU de {@value #CACHE_CAPACITY} usuarios sobre la tabla,
+ *       y cada usuario guarda como mucho {@value #MAX_ATTEMPTS} instantes de fallo.
+ *       La tabla se recorta a {@value #MAX_PERSISTED_ROWS} filas desalojando solo las
+ *       que no tienen bloqueo vigente ni bloqueos consecutivos; las bloqueadas se
+ *       quedan hasta que caducan</li>
+ * </ul>
+ */
 @Service
 public class LoginAttemptServiceImpl implements LoginAttemptService {
 
+    private static final Logger log = LoggerFactory.getLogger(LoginAttemptServiceImpl.class);
+
     private static final int MAX_ATTEMPTS = 5;
-    private static final long BLOCK_DURATION_MINUTES = 15;
+    private static final long WINDOW_MINUTES = 15;
+    private static final long BASE_BLOCK_MINUTES = 15;
+    private static final long MAX_BLOCK_MINUTES = 24 * 60;
 
-    private final Map<String, Integer> attemptsCache = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> blockCache = new ConcurrentHashMap<>();
+    /**
+     * Tras este tiempo sin fallos, el contador de bloqueos consecutivos vuelve a empezar.
+     */
+    private static final long STRIKE_RESET_HOURS = 24;
 
-    @Override
-    public void loginSucceeded(String username) {
-        attemptsCache.remove(username);
-        blockCache.remove(username);
-    }
+    private static final int CACHE_CAPACITY = 256;
+    private static final int MAX_PERSISTED_ROWS = 10_000;
+    private static final int CLEANUP_EVERY_WRITES = 64;
 
-    @Override
-    public void loginFailed(String username) {
-        int attempts = attemptsCache.getOrDefault(username, 0) + 1;
-        attemptsCache.put(username, attempts);
+    private final LoginThrottleRepository throttleRepository;
 
-        if (attempts >= MAX_ATTEMPTS) {
-            blockCache.put(username, LocalDateTime.now().plusMinutes(BLOCK_DURATION_MINUTES));
+    private final Map<String, ThrottleState> cache = new LinkedHashMap<>(CACHE_CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ThrottleState> eldest) {
+            return size() > CACHE_CAPACITY;
         }
+    };
+    private int writesSinceCleanup;
+
+    public LoginAttemptServiceImpl(LoginThrottleRepository throttleRepository) {
+        this.throttleRepository = throttleRepository;
+    }
+
+    @Override
+    @Transactional
+    public synchronized void loginSucceeded(String username) {
+        String key = hash(username);
+        cache.remove(key);
+        throttleRepository.deleteByUsernameHash(key);
     }
 
     @Override
-    public boolean isBlocked(String username) {
-        LocalDateTime blockTime = blockCache.get(username);
-        if (blockTime == null) {
-            return false;
+    @Transactional
+    public synchronized void loginFailed(String username) {
+        String key = hash(username);
+        long now = Instant.now().getEpochSecond();
+
+        ThrottleState state = load(key);
+        if (state == null) {
+            state = new ThrottleState(key);
         }
+        state.recordFailure(now);
 
-        if (LocalDateTime.now().isAfter(blockTime)) {
-            blockCache.remove(username);
-            attemptsCache.remove(username);
-            return false;
+        if (state.failuresInWindow(now) >= MAX_ATTEMPTS) {
+            boolean recentBlock = state.blockedUntil > 0
+                    && now - state.blockedUntil < STRIKE_RESET_HOURS * 3600;
+            state.strikes = recentBlock ? state.strikes + 1 : 1;
+            state.blockedUntil = now + blockDurationMinutes(state.strikes) * 60;
+            state.clearFailures();
+            log.warn("Inicio de sesión bloqueado durante {} minutos tras {} fallos (bloqueo consecutivo {})",
+                    blockDurationMinutes(state.strikes), MAX_ATTEMPTS, state.strikes);
         }
 
-        return true;
+        cache.put(key, state);
+        persist(state, now);
     }
 
     @Override
-    public int getRemainingAttempts(String username) {
-        int attempts = attemptsCache.getOrDefault(username, 0);
-        return Math.max(0, MAX_ATTEMPTS - attempts);
+    @Transactional(readOnly = true)
+    public synchronized boolean isBlocked(String username) {
+        ThrottleState state = load(hash(username));
+        return state != null && state.blockedUntil > Instant.now().getEpochSecond();
     }
 
     @Override
-    public long getBlockTimeRemainingSeconds(String username) {
-        LocalDateTime blockTime = blockCache.get(username);
-        if (blockTime == null) {
+    @Transactional(readOnly = true)
+    public synchronized int getRemainingAttempts(String username) {
+        ThrottleState state = load(hash(username));
+        if (state == null) {
+            return MAX_ATTEMPTS;
+        }
+        return Math.max(0, MAX_ATTEMPTS - state.failuresInWindow(Instant.now().getEpochSecond()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public synchronized long getBlockTimeRemainingSeconds(String username) {
+        ThrottleState state = load(hash(username));
+        if (state == null) {
             return 0;
         }
+        return Math.max(0, state.blockedUntil - Instant.now().getEpochSecond());
+    }
+
+    // ---------------------------------------------------------------
+    // Persistencia
+    // ---------------------------------------------------------------
+
+    /**
+     * Estado desde la caché o la tabla. Los usuarios sin estado no se cachean, para
+     * que consultar nombres arbitrarios no desaloje a los que tienen fallos.
+     */
+    private ThrottleState load(String key) {
+        ThrottleState state = cache.get(key);
+        if (state != null) {
+            return state;
+        }
+        return throttleRepository.findByUsernameHash(key)
+                .map(row -> {
+                    ThrottleState loaded = ThrottleState.from(row);
+                    cache.put(key, loaded);
+                    return loaded;
+                })
+                .orElse(null);
+    }
+
+    private void persist(ThrottleState state, long now) {
+        LoginThrottle row = throttleRepository.findByUsernameHash(state.key)
+                .orElseGet(() -> LoginThrottle.builder().usernameHash(state.key).build());
+        row.setFailureTimes(state.encodeFailures());
+        row.setStrikes(state.strikes);
+        row.setBlockedUntil(state.blockedUntil > 0 ? toDateTime(state.blockedUntil) : null);
+        row.setUpdatedAt(toDateTime(now));
+        throttleRepository.save(row);
+
+        if (++writesSinceCleanup >= CLEANUP_EVERY_WRITES) {
+            writesSinceCleanup = 0;
+            cleanup();
+        }
+    }
+
+    private void cleanup() {
+        // Sin actividad durante el bloqueo máximo más STRIKE_RESET_HOURS, la fila ya no
+        // tiene fallos en ventana, bloqueo vigente ni bloqueos consecutivos que contar
+        throttleRepository.deleteStale(LocalDateTime.now()
+                .minusMinutes(MAX_BLOCK_MINUTES)
+                .minusHours(STRIKE_RESET_HOURS));
+
+        long excess = throttleRepository.count() - MAX_PERSISTED_ROWS;
+        if (excess > 0) {
+            List<Long> oldest = throttleRepository.findEvictableIds(
+                    LocalDateTime.now(), PageRequest.of(0, (int) excess));
+            if (!oldest.isEmpty()) {
+                throttleRepository.deleteAllByIdInBatch(oldest);
+                // Solo se borran filas sin bloqueos: se descartan sus estados cacheados
+                cache.values().removeIf(state -> state.strikes == 0);
+            }
+        }
+    }
+
+    private long blockDurationMinutes(int strikes) {
+        int doublings = Math.min(strikes - 1, 16);
+        return Math.min(BASE_BLOCK_MINUTES << doublings, MAX_BLOCK_MINUTES);
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
 
-        long remaining = ChronoUnit.SECONDS.between(LocalDateTime.now(), blockTime);
-        return Math.max(0, remaining);
+    private static String hash(String username) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(username.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 
+    /**
+     * Estado en memoria de un usuario: como mucho {@value #MAX_ATTEMPTS} instantes de
+     * fallo (epoch en segundos, en orden creciente).
+     */
+    private static class ThrottleState {
+        private final String key;
+        private final long[] failures = new long[MAX_ATTEMPTS];
+        private int failureCount;
+        private int strikes;
+        private long blockedUntil;
+
+        ThrottleState(String key) {
+            this.key = key;
+        }
+
+        static ThrottleState from(LoginThrottle row) {
+            ThrottleState state = new ThrottleState(row.getUsernameHash());
+            state.strikes = row.getStrikes() != null ? row.getStrikes() : 0;
+            state.blockedUntil = row.getBlockedUntil() != null ? toEpochSecond(row.getBlockedUntil()) : 0;
+            if (row.getFailureTimes() != null && !row.getFailureTimes().isEmpty()) {
+                for (String time : row.getFailureTimes().split(",")) {
+                    state.recordFailure(Long.parseLong(time));
+                }
+            }
+            return state;
+        }
+
+        void recordFailure(long epochSecond) {
+            if (failureCount == failures.length) {
+                System.arraycopy(failures, 1, failures, 0, failures.length - 1);
+                failureCount--;
+            }
+            failures[failureCount++] = epochSecond;
+        }
+
+        int failuresInWindow(long now) {
+            long windowStart = now - WINDOW_MINUTES * 60;
+            int count = 0;
+            for (int i = 0; i < failureCount; i++) {
+                if (failures[i] > windowStart) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        void clearFailures() {
+            failureCount = 0;
+        }
+
+        String encodeFailures() {
+            return Arrays.stream(failures, 0, failureCount)
+                    .mapToObj(Long::toString)
+                    .collect(Collectors.joining(","));
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.exception.EncryptionException;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.service.DataMigration;
+import com.passmanager.service.EntryMetadataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lleva los metadatos de las entradas al formato que indica {@code User.metadataEncryption}:
+ * los cifra y crea su índice ciego, o los descifra y borra el índice.
+ *
+ * <p>La unidad de trabajo es una entrada. Es idempotente: cada entrada indica su formato
+ * ({@code metadataEncrypted}) y las que ya están en el de destino no se tocan. Mientras
+ * tanto la búsqueda combina las dos vías (LIKE en claro e índice ciego).</p>
+ */
+@Component
+public class MetadataEncryptionDataMigration implements DataMigration {
+
+    public static final String ID = "metadata-encryption";
+
+    private static final Logger log = LoggerFactory.getLogger(MetadataEncryptionDataMigration.class);
+
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final EntryMetadataService entryMetadataService;
+
+    public MetadataEncryptionDataMigration(PasswordEntryRepository passwordEntryRepository,
+                                           EntryMetadataService entryMetadataService) {
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.entryMetadataService = entryMetadataService;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Actualizando el cifrado de los datos de las entradas";
+    }
+
+    @Override
+    public long countUnits(User user) {
+        return passwordEntryRepository.countByUser(user);
+    }
+
+    @Override
+    public List<Long> findUnitsAfter(User user, long afterId, int limit) {
+        return passwordEntryRepository.findIdsByUserAfter(user, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void migrateUnits(User user, List<Long> unitIds) {
+        boolean encrypted = entryMetadataService.isEncryptionEnabled(user);
+
+        List<PasswordEntry> entries = passwordEntryRepository.findAllById(unitIds).stream()
+                .filter(entry -> Objects.equals(entry.getUser().getId(), user.getId()))
+                .toList();
+        for (PasswordEntry entry : entries) {
+            try {
+                entryMetadataService.convert(entry, encrypted);
+            } catch (EncryptionException e) {
+                log.warn("Metadatos ilegibles en entrada id={}; se deja sin convertir", entry.getId());
+            }
+        }
+        passwordEntryRepository.saveAll(entries);
+    }
+}
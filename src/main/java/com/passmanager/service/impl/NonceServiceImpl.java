@@ -0,0 +1,66 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.service.GcmNonceSequence;
+import com.passmanager.service.NonceService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * DRBG de NIST SP 800-90A (Hash_DRBG/HMAC_DRBG/CTR_DRBG según la configuración del JDK)
+ * con seguridad de 256 bits y resiembra automática. {@code SecureRandom} es seguro
+ * entre hilos, así que una única instancia sirve a toda la aplicación.
+ */
+@Service
+public class NonceServiceImpl implements NonceService {
+
+    private static final Logger log = LoggerFactory.getLogger(NonceServiceImpl.class);
+
+    private static final int SECURITY_STRENGTH = 256;
+    private static final byte[] PERSONALIZATION = "keyguard-drbg-v1".getBytes(StandardCharsets.UTF_8);
+
+    private final SecureRandom random = createDrbg();
+
+    /**
+     * Siembra el generador al arrancar: la primera petición (inicio de sesión,
+     * creación de usuario) no paga la lectura de entropía del sistema.
+     */
+    @PostConstruct
+    public void seed() {
+        random.nextBytes(new byte[1]);
+        log.debug("Generador aleatorio sembrado: {}", random.getAlgorithm());
+    }
+
+    @Override
+    public SecureRandom getRandom() {
+        return random;
+    }
+
+    @Override
+    public byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    @Override
+    public GcmNonceSequence newGcmSequence() {
+        return new GcmNonceSequence(random);
+    }
+
+    private static SecureRandom createDrbg() {
+        try {
+            return SecureRandom.getInstance("DRBG", DrbgParameters.instantiation(
+                    SECURITY_STRENGTH, DrbgParameters.Capability.RESEED_ONLY, PERSONALIZATION));
+        } catch (NoSuchAlgorithmException e) {
+            log.warn("DRBG no disponible, se usa el SecureRandom por defecto: {}", e.getMessage());
+            return new SecureRandom();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.passmanager.service.impl;
 
 import com.passmanager.service.PasswordBreachService;
+import com.passmanager.service.SecretValue;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -12,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.Arrays;
 
 /**
  * Implementación del servicio de verificación de contraseñas filtradas usando Have I Been Pwned API.
@@ -83,7 +85,21 @@ public class PasswordBreachServiceImpl implements PasswordBreachService {
         if (password == null || password.isEmpty()) {
             throw new PasswordBreachCheckException("La contraseña no puede estar vacía");
         }
+        return checkUtf8(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public BreachCheckResult checkPassword(SecretValue password) throws PasswordBreachCheckException {
+        if (password == null || password.isEmpty()) {
+            throw new PasswordBreachCheckException("La contraseña no puede estar vacía");
+        }
+        return checkUtf8(password.toUtf8());
+    }
 
+    /**
+     * Consulta la API con la contraseña en UTF-8 y pone el array a cero al terminar.
+     */
+    private BreachCheckResult checkUtf8(byte[] password) throws PasswordBreachCheckException {
         try {
             // PASO 1: Calcular el hash SHA-1 de la contraseña
             String sha1Hash = calculateSHA1(password);
@@ -116,6 +132,8 @@ public class PasswordBreachServiceImpl implements PasswordBreachService {
             throw new PasswordBreachCheckException(
                     "No se pudo conectar con el servicio de verificación. " +
                     "Por favor, verifica tu conexión a internet.", e);
+        } finally {
+            Arrays.fill(password, (byte) 0);
         }
     }
 
@@ -126,15 +144,13 @@ public class PasswordBreachServiceImpl implements PasswordBreachService {
      * - La API de HIBP trabaja con hashes en mayúsculas
      * - Es case-insensitive pero por convención se usa uppercase
      *
-     * @param password Contraseña en texto plano
+     * @param password Contraseña en texto plano, en UTF-8
      * @return Hash SHA-1 en formato hexadecimal mayúsculas (40 caracteres)
      * @throws NoSuchAlgorithmException Si SHA-1 no está disponible (nunca debería pasar)
      */
-    private String calculateSHA1(String password) throws NoSuchAlgorithmException {
+    private String calculateSHA1(byte[] password) throws NoSuchAlgorithmException {
         MessageDigest digest = MessageDigest.getInstance("SHA-1");
-
-        // Convertir la contraseña a bytes UTF-8 y calcular el hash
-        byte[] hashBytes = digest.digest(password.getBytes(StandardCharsets.UTF_8));
+        byte[] hashBytes = digest.digest(password);
 
         // Convertir los bytes a hexadecimal
         // Ejemplo: [0x48, 0x2C, 0x81] -> "482C81"
@@ -8,42 +8,80 @@ import com.passmanager.model.entity.Tag;
 import com.passmanager.model.entity.User;
 import com.passmanager.repository.PasswordEntryRepository;
 import com.passmanager.repository.TagRepository;
+import com.passmanager.repository.UserRepository;
+import com.passmanager.service.DataMigrationService;
+import com.passmanager.service.DecryptedEntryCache;
 import com.passmanager.service.EncryptionService;
+import com.passmanager.service.EntryDomainService;
+import com.passmanager.service.EntryFacetIndex;
+import com.passmanager.service.EntryMetadataService;
+import com.passmanager.service.EntryVersionService;
 import com.passmanager.service.PasswordEntryService;
 import com.passmanager.service.PasswordHistoryService;
 import com.passmanager.service.UserService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class PasswordEntryServiceImpl implements PasswordEntryService {
 
+    /** Ids por consulta IN; SQLite admite 999 parámetros en versiones antiguas. */
+    private static final int ID_BATCH_SIZE = 500;
+
     private final PasswordEntryRepository passwordEntryRepository;
     private final PasswordEntryMapper passwordEntryMapper;
     private final UserService userService;
     private final PasswordHistoryService passwordHistoryService;
+    private final EntryVersionService entryVersionService;
     private final EncryptionService encryptionService;
     private final TagRepository tagRepository;
     private final com.passmanager.service.AuditLogService auditLogService;
+    private final EntryMetadataService entryMetadataService;
+    private final DataMigrationService dataMigrationService;
+    private final UserRepository userRepository;
+    private final DecryptedEntryCache decryptedEntryCache;
+    private final EntryDomainService entryDomainService;
+    private final EntryFacetIndex entryFacetIndex;
 
     public PasswordEntryServiceImpl(PasswordEntryRepository passwordEntryRepository,
                                     PasswordEntryMapper passwordEntryMapper,
                                     UserService userService,
                                     PasswordHistoryService passwordHistoryService,
+                                    EntryVersionService entryVersionService,
                                     EncryptionService encryptionService,
                                     TagRepository tagRepository,
-                                    com.passmanager.service.AuditLogService auditLogService) {
+                                    com.passmanager.service.AuditLogService auditLogService,
+                                    EntryMetadataService entryMetadataService,
+                                    DataMigrationService dataMigrationService,
+                                    UserRepository userRepository,
+                                    DecryptedEntryCache decryptedEntryCache,
+                                    EntryDomainService entryDomainService,
+                                    EntryFacetIndex entryFacetIndex) {
         this.passwordEntryRepository = passwordEntryRepository;
         this.passwordEntryMapper = passwordEntryMapper;
         this.userService = userService;
         this.passwordHistoryService = passwordHistoryService;
+        this.entryVersionService = entryVersionService;
         this.encryptionService = encryptionService;
         this.tagRepository = tagRepository;
         this.auditLogService = auditLogService;
+        this.entryMetadataService = entryMetadataService;
+        this.dataMigrationService = dataMigrationService;
+        this.userRepository = userRepository;
+        this.decryptedEntryCache = decryptedEntryCache;
+        this.entryDomainService = entryDomainService;
+        this.entryFacetIndex = entryFacetIndex;
     }
 
     private User getCurrentUser() {
@@ -53,9 +91,26 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
     @Override
     @Transactional(readOnly = true)
     public List<PasswordEntryDTO> findAll() {
-        return passwordEntryRepository.findByUserOrderByTitleAsc(getCurrentUser()).stream()
-                .map(passwordEntryMapper::toDTO)
-                .toList();
+        return sortedByTitle(passwordEntryRepository.findByUserOrderByTitleAsc(getCurrentUser()).stream()
+                .map(passwordEntryMapper::toDTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return passwordEntryRepository.countByUser(getCurrentUser());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findIdsAfter(long afterId, int limit) {
+        return passwordEntryRepository.findIdsByUserAfter(getCurrentUser(), afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PasswordEntryDTO> findByIds(List<Long> ids) {
+        return loadByIds(getCurrentUser(), ids);
     }
 
     @Override
@@ -72,8 +127,11 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
         if (query == null || query.trim().isEmpty()) {
             return findAll();
         }
-        return passwordEntryRepository.searchByUser(getCurrentUser(), query.trim()).stream()
-                .map(passwordEntryMapper::toDTO)
+        User user = getCurrentUser();
+        String trimmed = query.trim();
+        return Stream.concat(
+                        passwordEntryRepository.searchByUser(user, trimmed).stream().map(passwordEntryMapper::toDTO),
+                        searchEncrypted(user, trimmed, null))
                 .toList();
     }
 
@@ -83,8 +141,12 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
         if (query == null || query.trim().isEmpty()) {
             return findByCategory(categoryId);
         }
-        return passwordEntryRepository.searchByUserAndCategory(getCurrentUser(), categoryId, query.trim()).stream()
-                .map(passwordEntryMapper::toDTO)
+        User user = getCurrentUser();
+        String trimmed = query.trim();
+        return Stream.concat(
+                        passwordEntryRepository.searchByUserAndCategory(user, categoryId, trimmed).stream()
+                                .map(passwordEntryMapper::toDTO),
+                        searchEncrypted(user, trimmed, categoryId))
                 .toList();
     }
 
@@ -101,16 +163,23 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
         PasswordEntry entry = new PasswordEntry();
         entry.setUser(getCurrentUser());
         passwordEntryMapper.updateEntityFromDTO(entry, dto);
+        entryDomainService.index(entry, dto.getUrl());
         PasswordEntry saved = passwordEntryRepository.save(entry);
+        // SQLite puede reutilizar el id de una entrada eliminada
+        decryptedEntryCache.invalidate(saved.getId());
+        entryFacetIndex.onEntrySaved(saved);
+
+        PasswordEntryDTO created = passwordEntryMapper.toDTO(saved, true);
+        entryVersionService.recordCreated(saved, created);
 
         // Registrar creación
         auditLogService.log(getCurrentUser(),
                 com.passmanager.model.entity.AuditLog.ActionType.CREATE_ENTRY,
-                "Creada contraseña: " + dto.getTitle(),
+                "Creada contraseña: " + auditTitle(saved, dto.getTitle()),
                 saved.getId(),
                 com.passmanager.model.entity.AuditLog.ResultType.SUCCESS);
 
-        return passwordEntryMapper.toDTO(saved);
+        return created;
     }
 
     @Override
@@ -119,6 +188,9 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
         PasswordEntry entry = passwordEntryRepository.findByIdAndUser(id, getCurrentUser())
                 .orElseThrow(() -> new ResourceNotFoundException("PasswordEntry", id));
 
+        // Estado anterior completo para el historial de versiones
+        PasswordEntryDTO before = passwordEntryMapper.toDTO(entry, true);
+
         // Guardar contraseña antigua en historial si cambió
         String oldPassword = encryptionService.decrypt(entry.getPassword());
         String newPassword = dto.getPassword();
@@ -129,17 +201,25 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
 
         entry.getCustomFields().clear();
         passwordEntryMapper.updateEntityFromDTO(entry, dto);
+        entryDomainService.index(entry, dto.getUrl());
 
-        PasswordEntry updated = passwordEntryRepository.save(entry);
+        // Flush para que @PreUpdate fije el nuevo updatedAt antes de leerla: la caché de
+        // descifrados la guarda con él, y si la transacción se revierte no coincidirá
+        PasswordEntry updated = passwordEntryRepository.saveAndFlush(entry);
+        decryptedEntryCache.invalidate(id);
+        entryFacetIndex.onEntrySaved(updated);
+
+        PasswordEntryDTO after = passwordEntryMapper.toDTO(updated, true);
+        entryVersionService.recordUpdate(updated, before, after);
 
         // Registrar actualización
         auditLogService.log(getCurrentUser(),
                 com.passmanager.model.entity.AuditLog.ActionType.UPDATE_ENTRY,
-                "Actualizada contraseña: " + dto.getTitle(),
+                "Actualizada contraseña: " + auditTitle(updated, dto.getTitle()),
                 id,
                 com.passmanager.model.entity.AuditLog.ResultType.SUCCESS);
 
-        return passwordEntryMapper.toDTO(updated);
+        return after;
     }
 
     @Override
@@ -149,8 +229,10 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
         PasswordEntry entry = passwordEntryRepository.findByIdAndUser(id, getCurrentUser())
                 .orElseThrow(() -> new ResourceNotFoundException("PasswordEntry", id));
 
-        String title = entry.getTitle();
+        String title = auditTitle(entry);
         passwordEntryRepository.deleteByIdAndUser(id, getCurrentUser());
+        decryptedEntryCache.invalidate(id);
+        entryFacetIndex.onEntryDeleted(id);
 
         // Registrar eliminación
         auditLogService.log(getCurrentUser(),
@@ -163,9 +245,8 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
     @Override
     @Transactional(readOnly = true)
     public List<PasswordEntryDTO> findFavorites() {
-        return passwordEntryRepository.findByUserAndFavoriteTrueOrderByTitleAsc(getCurrentUser()).stream()
-                .map(passwordEntryMapper::toDTO)
-                .toList();
+        return sortedByTitle(passwordEntryRepository.findByUserAndFavoriteTrueOrderByTitleAsc(getCurrentUser()).stream()
+                .map(passwordEntryMapper::toDTO));
     }
 
     @Override
@@ -176,17 +257,17 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
 
         entry.setFavorite(!Boolean.TRUE.equals(entry.getFavorite()));
         passwordEntryRepository.save(entry);
+        entryFacetIndex.onEntrySaved(entry);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PasswordEntryDTO> findByTag(Long tagId) {
-        Tag tag = tagRepository.findById(tagId)
+        User user = getCurrentUser();
+        tagRepository.findByIdAndUser(tagId, user)
                 .orElseThrow(() -> new ResourceNotFoundException("Tag", tagId));
 
-        return passwordEntryRepository.findByUserAndTag(getCurrentUser(), tag).stream()
-                .map(passwordEntryMapper::toDTO)
-                .toList();
+        return loadByIds(user, entryFacetIndex.findIds(user, EntryFacetIndex.Filter.tag(tagId)));
     }
 
     @Override
@@ -195,12 +276,13 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
         PasswordEntry entry = passwordEntryRepository.findByIdAndUser(entryId, getCurrentUser())
                 .orElseThrow(() -> new ResourceNotFoundException("PasswordEntry", entryId));
 
-        Tag tag = tagRepository.findById(tagId)
+        Tag tag = tagRepository.findByIdAndUser(tagId, getCurrentUser())
                 .orElseThrow(() -> new ResourceNotFoundException("Tag", tagId));
 
         if (!entry.getTags().contains(tag)) {
             entry.getTags().add(tag);
             passwordEntryRepository.save(entry);
+            entryFacetIndex.onTagAdded(entryId, tagId);
         }
     }
 
@@ -210,11 +292,42 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
         PasswordEntry entry = passwordEntryRepository.findByIdAndUser(entryId, getCurrentUser())
                 .orElseThrow(() -> new ResourceNotFoundException("PasswordEntry", entryId));
 
-        Tag tag = tagRepository.findById(tagId)
+        Tag tag = tagRepository.findByIdAndUser(tagId, getCurrentUser())
                 .orElseThrow(() -> new ResourceNotFoundException("Tag", tagId));
 
         entry.getTags().remove(tag);
         passwordEntryRepository.save(entry);
+        entryFacetIndex.onTagRemoved(entryId, tagId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PasswordEntryDTO> findByDomain(String host) {
+        User user = getCurrentUser();
+        return loadByIds(user, entryDomainService.findEntryIds(user, host));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PasswordEntryDTO> findByFilter(EntryFacetIndex.Filter filter, String query) {
+        User user = getCurrentUser();
+        List<Long> ids = entryFacetIndex.findIds(user, filter);
+        if (query == null || query.trim().isEmpty()) {
+            return loadByIds(user, ids);
+        }
+        // La búsqueda de texto ya sabe tratar los metadatos cifrados: se cruza con el índice
+        Set<Long> matching = new HashSet<>(ids);
+        List<PasswordEntryDTO> found = filter.getCategoryId() != null
+                ? searchByCategory(filter.getCategoryId(), query)
+                : search(query);
+        return found.stream()
+                .filter(dto -> matching.contains(dto.getId()))
+                .toList();
+    }
+
+    @Override
+    public EntryFacetIndex.FacetCounts countFacets(EntryFacetIndex.Filter filter) {
+        return entryFacetIndex.countFacets(getCurrentUser(), filter);
     }
 
     @Override
@@ -225,4 +338,78 @@ public class PasswordEntryServiceImpl implements PasswordEntryService {
                 .map(passwordEntryMapper::toDTO)
                 .toList();
     }
+
+    @Override
+    public boolean isMetadataEncryptionEnabled() {
+        return entryMetadataService.isEncryptionEnabled(getCurrentUser());
+    }
+
+    @Override
+    public void setMetadataEncryption(boolean enabled) {
+        User user = getCurrentUser();
+        if (entryMetadataService.isEncryptionEnabled(user) == enabled) {
+            return;
+        }
+        user.setMetadataEncryption(enabled);
+        userRepository.save(user);
+
+        dataMigrationService.restart(MetadataEncryptionDataMigration.ID, user);
+        dataMigrationService.resume();
+    }
+
+    /**
+     * Entradas con metadatos cifrados que coinciden con la consulta: candidatas del
+     * índice ciego, comprobadas ya descifradas.
+     *
+     * @param categoryId Categoría a la que limitar la búsqueda, o null
+     */
+    private Stream<PasswordEntryDTO> searchEncrypted(User user, String query, Long categoryId) {
+        List<Long> candidates = entryMetadataService.findEncryptedCandidates(user, query);
+        if (candidates.isEmpty()) {
+            return Stream.empty();
+        }
+        return passwordEntryRepository.findByUserAndIdIn(user, candidates).stream()
+                .filter(entry -> categoryId == null
+                        || (entry.getCategory() != null && Objects.equals(entry.getCategory().getId(), categoryId)))
+                .map(passwordEntryMapper::toDTO)
+                .filter(dto -> entryMetadataService.matches(dto, query));
+    }
+
+    /**
+     * Entradas del usuario con esos ids, por lotes para no pasar del límite de
+     * parámetros de SQLite, ordenadas por título.
+     */
+    private List<PasswordEntryDTO> loadByIds(User user, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<PasswordEntry> entries = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            entries.addAll(passwordEntryRepository.findByUserAndIdIn(user, batch));
+        }
+        return sortedByTitle(entries.stream().map(passwordEntryMapper::toDTO));
+    }
+
+    /**
+     * La base de datos no puede ordenar títulos cifrados: se ordena ya descifrado. Con
+     * los metadatos en claro la lista ya llega ordenada y esto no la cambia.
+     */
+    private static List<PasswordEntryDTO> sortedByTitle(Stream<PasswordEntryDTO> entries) {
+        List<PasswordEntryDTO> sorted = new ArrayList<>(entries.toList());
+        sorted.sort(Comparator.comparing(PasswordEntryDTO::getTitle, Comparator.nullsLast(Comparator.naturalOrder())));
+        return sorted;
+    }
+
+    /**
+     * Título para el registro de auditoría, que no se cifra: si la entrada guarda los
+     * metadatos cifrados no se escribe.
+     */
+    private String auditTitle(PasswordEntry entry, String title) {
+        return Boolean.TRUE.equals(entry.getMetadataEncrypted()) ? "(título cifrado) id=" + entry.getId() : title;
+    }
+
+    private String auditTitle(PasswordEntry entry) {
+        return auditTitle(entry, entry.getTitle());
+    }
 }
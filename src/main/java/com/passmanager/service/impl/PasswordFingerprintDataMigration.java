@@ -0,0 +1,97 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.PasswordHistory;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.service.DataMigration;
+import com.passmanager.service.EncryptionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Calcula la huella de contraseña de las entradas y del historial anteriores a la
+ * columna. Se programa una vez por usuario al iniciar sesión; después la calculan las
+ * escrituras.
+ *
+ * <p>La unidad de trabajo es una entrada con su historial. Es idempotente: solo
+ * rellena las huellas que faltan. Una contraseña que no se puede descifrar se deja sin
+ * huella y no se reintenta en cada inicio de sesión, porque la migración termina.</p>
+ */
+@Component
+public class PasswordFingerprintDataMigration implements DataMigration {
+
+    public static final String ID = "password-fingerprint-backfill";
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordFingerprintDataMigration.class);
+
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final EncryptionService encryptionService;
+
+    public PasswordFingerprintDataMigration(PasswordEntryRepository passwordEntryRepository,
+                                            EncryptionService encryptionService) {
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.encryptionService = encryptionService;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Calculando huellas de contraseña";
+    }
+
+    @Override
+    public long countUnits(User user) {
+        return passwordEntryRepository.countByUser(user);
+    }
+
+    @Override
+    public List<Long> findUnitsAfter(User user, long afterId, int limit) {
+        return passwordEntryRepository.findIdsByUserAfter(user, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void migrateUnits(User user, List<Long> unitIds) {
+        List<PasswordEntry> entries = passwordEntryRepository.findAllById(unitIds).stream()
+                .filter(entry -> Objects.equals(entry.getUser().getId(), user.getId()))
+                .toList();
+        int updated = 0;
+        for (PasswordEntry entry : entries) {
+            if (entry.getPasswordFingerprint() == null) {
+                try {
+                    entry.setPasswordFingerprint(encryptionService.fingerprint(
+                            encryptionService.decrypt(entry.getPassword())));
+                    updated++;
+                } catch (Exception e) {
+                    log.warn("No se pudo calcular la huella de la entrada id={}: {}", entry.getId(), e.getMessage());
+                }
+            }
+            for (PasswordHistory history : entry.getPasswordHistory()) {
+                if (history.getPasswordFingerprint() != null) {
+                    continue;
+                }
+                try {
+                    history.setPasswordFingerprint(encryptionService.fingerprint(
+                            encryptionService.decrypt(history.getPassword())));
+                    updated++;
+                } catch (Exception e) {
+                    log.warn("No se pudo calcular la huella del historial id={}: {}", history.getId(), e.getMessage());
+                }
+            }
+        }
+        passwordEntryRepository.saveAll(entries);
+
+        if (updated > 0) {
+            log.debug("Huellas de contraseña calculadas para {} registro(s)", updated);
+        }
+    }
+}
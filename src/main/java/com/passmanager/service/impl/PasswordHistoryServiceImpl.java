@@ -5,24 +5,36 @@ import com.passmanager.mapper.PasswordHistoryMapper;
 import com.passmanager.model.dto.PasswordHistoryDTO;
 import com.passmanager.model.entity.PasswordEntry;
 import com.passmanager.model.entity.PasswordHistory;
+import com.passmanager.model.entity.User;
 import com.passmanager.repository.PasswordEntryRepository;
 import com.passmanager.repository.PasswordHistoryRepository;
+import com.passmanager.repository.UserRepository;
 import com.passmanager.service.EncryptionService;
 import com.passmanager.service.PasswordHistoryService;
+import com.passmanager.service.SchedulerService;
 import com.passmanager.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementación del servicio de historial de contraseñas.
  *
  * Características:
- * - Guarda automáticamente hasta 10 versiones anteriores
+ * - Guarda automáticamente las versiones anteriores (por defecto hasta 10)
  * - Cifrado AES-256-GCM de todas las contraseñas históricas
- * - Limpieza automática de versiones antiguas
+ * - Limpieza de versiones antiguas con un único DELETE por entrada
+ * - Poda diaria de toda la bóveda en lotes de {@value #PRUNE_BATCH_SIZE} (una transacción por lote),
+ *   programada en el {@link SchedulerService} compartido y ejecutada en un hilo propio
  * - Aislamiento por usuario (seguridad)
  */
 @Service
@@ -33,23 +45,63 @@ public class PasswordHistoryServiceImpl implements PasswordHistoryService {
      * Después de este límite, se eliminan las versiones más antiguas.
      */
     private static final int MAX_HISTORY_VERSIONS = 10;
+    private static final int MAX_CONFIGURABLE_VERSIONS = 100;
+
+    /**
+     * Fecha de corte usada cuando el usuario no limita por antigüedad.
+     */
+    private static final LocalDateTime NO_AGE_LIMIT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final int PRUNE_BATCH_SIZE = 500;
+    private static final long PAUSE_BETWEEN_BATCHES_MS = 50;
+    private static final long INITIAL_DELAY_MINUTES = 2;
+    private static final long PRUNE_INTERVAL_HOURS = 24;
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHistoryServiceImpl.class);
 
     private final PasswordHistoryRepository historyRepository;
     private final PasswordEntryRepository entryRepository;
+    private final UserRepository userRepository;
     private final PasswordHistoryMapper historyMapper;
     private final UserService userService;
     private final EncryptionService encryptionService;
+    private final SchedulerService schedulerService;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean running;
+    private volatile SchedulerService.Deadline nextRun;
 
     public PasswordHistoryServiceImpl(PasswordHistoryRepository historyRepository,
                                       PasswordEntryRepository entryRepository,
+                                      UserRepository userRepository,
                                       PasswordHistoryMapper historyMapper,
                                       UserService userService,
-                                      EncryptionService encryptionService) {
+                                      EncryptionService encryptionService,
+                                      SchedulerService schedulerService,
+                                      PlatformTransactionManager transactionManager) {
         this.historyRepository = historyRepository;
         this.entryRepository = entryRepository;
+        this.userRepository = userRepository;
         this.historyMapper = historyMapper;
         this.userService = userService;
         this.encryptionService = encryptionService;
+        this.schedulerService = schedulerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        scheduleNextPrune(TimeUnit.MINUTES.toMillis(INITIAL_DELAY_MINUTES));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        SchedulerService.Deadline deadline = nextRun;
+        if (deadline != null) {
+            deadline.cancel();
+        }
     }
 
     @Override
@@ -59,12 +111,13 @@ public class PasswordHistoryServiceImpl implements PasswordHistoryService {
         PasswordHistory history = PasswordHistory.builder()
                 .passwordEntry(entry)
                 .password(encryptionService.encrypt(oldPassword))
+                .passwordFingerprint(encryptionService.fingerprint(oldPassword))
                 .build();
 
         historyRepository.save(history);
 
-        // Limpiar versiones antiguas si se excede el límite
-        cleanupOldHistory(entry, MAX_HISTORY_VERSIONS);
+        // Limpiar versiones que exceden la política del usuario
+        cleanupOldHistory(entry);
     }
 
     @Override
@@ -81,22 +134,96 @@ public class PasswordHistoryServiceImpl implements PasswordHistoryService {
                 .toList();
     }
 
+    @Override
     @Transactional
-    private void cleanupOldHistory(PasswordEntry entry, int maxVersions) {
-        long count = historyRepository.countByPasswordEntry(entry);
-
-        // Eliminar versiones más antiguas mientras se exceda el límite
-        while (count > maxVersions) {
-            Optional<PasswordHistory> oldest = historyRepository
-                    .findTopByPasswordEntryOrderByChangedAtAsc(entry);
-
-            if (oldest.isPresent()) {
-                historyRepository.delete(oldest.get());
-                count--;
-            } else {
-                break;  // No hay más registros para eliminar
-            }
+    public void setRetentionPolicy(Integer maxVersions, Integer maxAgeDays) {
+        if (maxVersions != null && (maxVersions < 1 || maxVersions > MAX_CONFIGURABLE_VERSIONS)) {
+            throw new IllegalArgumentException(
+                    "Las versiones deben estar entre 1 y " + MAX_CONFIGURABLE_VERSIONS);
+        }
+        if (maxAgeDays != null && maxAgeDays < 1) {
+            throw new IllegalArgumentException("La antigüedad máxima debe ser de al menos 1 día");
+        }
+
+        User user = userService.getCurrentUser();
+        user.setHistoryMaxVersions(maxVersions);
+        user.setHistoryMaxAgeDays(maxAgeDays);
+        userRepository.save(user);
+    }
+
+    @Override
+    public int getMaxVersions() {
+        return maxVersions(userService.getCurrentUser());
+    }
+
+    @Override
+    public Integer getMaxAgeDays() {
+        return userService.getCurrentUser().getHistoryMaxAgeDays();
+    }
+
+    @Override
+    public int pruneAll() {
+        int deleted = 0;
+        for (User user : userRepository.findAll()) {
+            int keep = maxVersions(user);
+            LocalDateTime cutoff = cutoff(user);
+
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status ->
+                        historyRepository.pruneUserBatch(user.getId(), keep, cutoff, PRUNE_BATCH_SIZE));
+                deleted += batch;
+                pause();
+            } while (batch == PRUNE_BATCH_SIZE);
+        }
+        if (deleted > 0) {
+            log.info("Historial de contraseñas podado: {} versiones eliminadas", deleted);
+        }
+        return deleted;
+    }
+
+    private void cleanupOldHistory(PasswordEntry entry) {
+        User owner = entry.getUser();
+        historyRepository.pruneEntry(entry.getId(), maxVersions(owner), cutoff(owner));
+    }
+
+    private void scheduleNextPrune(long delayMillis) {
+        if (!running) {
+            return;
         }
+        // La acción del planificador debe ser breve: la poda va en su propio hilo
+        nextRun = schedulerService.schedule(delayMillis, () -> {
+            Thread worker = new Thread(this::runScheduledPrune, "history-pruner");
+            worker.setDaemon(true);
+            worker.start();
+        });
+    }
+
+    private void runScheduledPrune() {
+        try {
+            pruneAll();
+        } catch (RuntimeException e) {
+            log.error("Error podando el historial de contraseñas: {}", e.getMessage());
+        } finally {
+            scheduleNextPrune(TimeUnit.HOURS.toMillis(PRUNE_INTERVAL_HOURS));
+        }
+    }
+
+    private static int maxVersions(User user) {
+        return user.getHistoryMaxVersions() != null ? user.getHistoryMaxVersions() : MAX_HISTORY_VERSIONS;
+    }
+
+    private static LocalDateTime cutoff(User user) {
+        return user.getHistoryMaxAgeDays() != null
+                ? LocalDateTime.now().minusDays(user.getHistoryMaxAgeDays())
+                : NO_AGE_LIMIT;
     }
 
+    private void pause() {
+        try {
+            Thread.sleep(PAUSE_BETWEEN_BATCHES_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.model.entity.PasswordEntry;
+import com.passmanager.model.entity.PasswordHistory;
+import com.passmanager.model.entity.User;
+import com.passmanager.repository.PasswordEntryRepository;
+import com.passmanager.repository.PasswordHistoryRepository;
+import com.passmanager.service.EntryMetadataService;
+import com.passmanager.service.PasswordReuseService;
+import com.passmanager.service.UserService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementación de la detección de reutilización por huellas indexadas.
+ *
+ * <p>Las huellas nunca salen de este servicio: los grupos devueltos solo
+ * contienen título, usuario y email de cada entrada.</p>
+ */
+@Service
+public class PasswordReuseServiceImpl implements PasswordReuseService {
+
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final PasswordHistoryRepository passwordHistoryRepository;
+    private final UserService userService;
+    private final EntryMetadataService entryMetadataService;
+
+    public PasswordReuseServiceImpl(PasswordEntryRepository passwordEntryRepository,
+                                    PasswordHistoryRepository passwordHistoryRepository,
+                                    UserService userService,
+                                    EntryMetadataService entryMetadataService) {
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.passwordHistoryRepository = passwordHistoryRepository;
+        this.userService = userService;
+        this.entryMetadataService = entryMetadataService;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReuseGroup> findReuseGroups() {
+        User user = userService.getCurrentUser();
+
+        // Huellas compartidas entre entradas actuales o con el historial (consultas indexadas)
+        Set<String> fingerprints = new LinkedHashSet<>(passwordEntryRepository.findDuplicateFingerprints(user));
+        fingerprints.addAll(passwordEntryRepository.findFingerprintsReusedFromHistory(user));
+        if (fingerprints.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<PasswordEntryDTO>> current = new LinkedHashMap<>();
+        for (PasswordEntry entry : passwordEntryRepository.findByUserAndPasswordFingerprintInOrderByTitleAsc(user, fingerprints)) {
+            current.computeIfAbsent(entry.getPasswordFingerprint(), k -> new ArrayList<>()).add(toSummary(entry));
+        }
+
+        Map<String, Map<Long, PasswordEntryDTO>> previous = new LinkedHashMap<>();
+        for (PasswordHistory history : passwordHistoryRepository.findByUserAndFingerprintIn(user, fingerprints)) {
+            PasswordEntry entry = history.getPasswordEntry();
+            previous.computeIfAbsent(history.getPasswordFingerprint(), k -> new LinkedHashMap<>())
+                    .putIfAbsent(entry.getId(), toSummary(entry));
+        }
+
+        List<ReuseGroup> groups = new ArrayList<>();
+        for (Map.Entry<String, List<PasswordEntryDTO>> group : current.entrySet()) {
+            // Una entrada que vuelve a una contraseña suya anterior no se reutiliza a sí misma
+            Map<Long, PasswordEntryDTO> fromHistory = new LinkedHashMap<>(previous.getOrDefault(group.getKey(), Map.of()));
+            group.getValue().forEach(entry -> fromHistory.remove(entry.getId()));
+            if (group.getValue().size() > 1 || !fromHistory.isEmpty()) {
+                groups.add(new ReuseGroup(group.getValue(), new ArrayList<>(fromHistory.values())));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * DTO de presentación sin contraseña: solo se descifran los metadatos, si están cifrados.
+     */
+    private PasswordEntryDTO toSummary(PasswordEntry entry) {
+        EntryMetadataService.Metadata metadata = entryMetadataService.read(entry);
+        return PasswordEntryDTO.builder()
+                .id(entry.getId())
+                .title(metadata.getTitle())
+                .username(metadata.getUsername())
+                .email(metadata.getEmail())
+                .build();
+    }
+}
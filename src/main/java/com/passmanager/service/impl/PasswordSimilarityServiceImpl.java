@@ -0,0 +1,229 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.model.dto.PasswordEntryDTO;
+import com.passmanager.service.PasswordSimilarityService;
+import com.passmanager.service.SecretValue;
+import org.springframework.stereotype.Service;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Implementación MinHash + LSH de la detección de contraseñas similares.
+ *
+ * <p>Las firmas tienen {@link #NUM_HASHES} componentes. El número de filas por banda
+ * se elige según el umbral: con {@code b} bandas de {@code r} filas, un par con
+ * similitud {@code s} cae en alguna cubeta común con probabilidad
+ * {@code 1 - (1 - s^r)^b}, cuyo punto de inflexión es {@code (1/b)^(1/r)}. Se toma
+ * la {@code r} más alta cuyo punto de inflexión no supera el umbral, y cada par
+ * candidato se confirma con la similitud estimada por la firma completa.</p>
+ */
+@Service
+public class PasswordSimilarityServiceImpl implements PasswordSimilarityService {
+
+    private static final int NUM_HASHES = 64;
+    private static final int[] HASH_SEEDS = new int[NUM_HASHES];
+
+    static {
+        // Semilla fija: las firmas solo viven durante un análisis, no necesitan ser secretas
+        SplittableRandom random = new SplittableRandom(0x5EED_1234L);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            HASH_SEEDS[i] = random.nextInt();
+        }
+    }
+
+    @Override
+    public List<SimilarityCluster> findSimilarClusters(List<PasswordEntryDTO> entries, double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("El umbral de similitud debe estar entre 0 y 1");
+        }
+
+        List<PasswordEntryDTO> candidates = entries.stream()
+                .filter(e -> e.getSecret() != null && !e.getSecret().isEmpty())
+                .toList();
+        int n = candidates.size();
+        if (n < 2) {
+            return List.of();
+        }
+
+        int[][] signatures = new int[n][];
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        try {
+            for (int i = 0; i < n; i++) {
+                signatures[i] = signature(candidates.get(i).getSecret());
+            }
+
+            int[] parent = new int[n];
+            double[] bestSimilarity = new double[n];
+            for (int i = 0; i < n; i++) {
+                parent[i] = i;
+            }
+
+            int rows = rowsPerBand(threshold);
+            for (int band = 0; band < NUM_HASHES / rows; band++) {
+                buckets.clear();
+                for (int i = 0; i < n; i++) {
+                    buckets.computeIfAbsent(bandKey(signatures[i], band, rows), k -> new ArrayList<>()).add(i);
+                }
+                for (List<Integer> bucket : buckets.values()) {
+                    for (int a = 0; a < bucket.size(); a++) {
+                        for (int b = a + 1; b < bucket.size(); b++) {
+                            int i = bucket.get(a);
+                            int j = bucket.get(b);
+                            double similarity = estimate(signatures[i], signatures[j]);
+                            if (similarity >= threshold) {
+                                union(parent, i, j);
+                                bestSimilarity[i] = Math.max(bestSimilarity[i], similarity);
+                                bestSimilarity[j] = Math.max(bestSimilarity[j], similarity);
+                            }
+                        }
+                    }
+                }
+            }
+
+            return buildClusters(candidates, parent, bestSimilarity);
+        } finally {
+            for (int[] signature : signatures) {
+                if (signature != null) {
+                    Arrays.fill(signature, 0);
+                }
+            }
+            buckets.clear();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Helpers privados
+    // ---------------------------------------------------------------
+
+    /**
+     * Firma MinHash sobre los bigramas de la contraseña (o el carácter único si mide 1).
+     */
+    private int[] signature(SecretValue password) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        char[] chars = password.toCharArray();
+        try {
+            int grams = Math.max(1, chars.length - 1);
+            for (int g = 0; g < grams; g++) {
+                int code = chars.length == 1 ? chars[0] : (chars[g] << 16) | chars[g + 1];
+                int base = mix(code);
+                for (int h = 0; h < NUM_HASHES; h++) {
+                    int value = mix(base ^ HASH_SEEDS[h]);
+                    if (value < signature[h]) {
+                        signature[h] = value;
+                    }
+                }
+            }
+        } finally {
+            Arrays.fill(chars, '\0');
+        }
+        return signature;
+    }
+
+    private static int rowsPerBand(double threshold) {
+        int rows = 1;
+        for (int r = 2; r <= NUM_HASHES; r *= 2) {
+            int bands = NUM_HASHES / r;
+            if (Math.pow(1.0 / bands, 1.0 / r) <= threshold) {
+                rows = r;
+            }
+        }
+        return rows;
+    }
+
+    private static long bandKey(int[] signature, int band, int rows) {
+        long key = 0;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[r];
+        }
+        return key;
+    }
+
+    private static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int h = 0; h < NUM_HASHES; h++) {
+            if (a[h] == b[h]) equal++;
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /**
+     * Finalizador de MurmurHash3 (32 bits).
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int i, int j) {
+        int rootI = find(parent, i);
+        int rootJ = find(parent, j);
+        if (rootI != rootJ) {
+            parent[rootJ] = rootI;
+        }
+    }
+
+    /**
+     * Agrupa por raíz y descarta los grupos cuyas contraseñas son todas idénticas
+     * (ya aparecen como duplicadas).
+     */
+    private List<SimilarityCluster> buildClusters(List<PasswordEntryDTO> candidates,
+                                                  int[] parent, double[] bestSimilarity) {
+        Map<Integer, List<Integer>> members = new LinkedHashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            members.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(i);
+        }
+
+        List<SimilarityCluster> clusters = new ArrayList<>();
+        for (List<Integer> group : members.values()) {
+            if (group.size() < 2) continue;
+
+            char[] first = candidates.get(group.get(0)).getSecret().toCharArray();
+            boolean allEqual;
+            try {
+                allEqual = group.stream().allMatch(i -> candidates.get(i).getSecret().contentEquals(CharBuffer.wrap(first)));
+            } finally {
+                Arrays.fill(first, '\0');
+            }
+            if (allEqual) continue;
+
+            List<PasswordEntryDTO> summaries = new ArrayList<>();
+            double similarity = 0;
+            for (int i : group) {
+                PasswordEntryDTO entry = candidates.get(i);
+                summaries.add(PasswordEntryDTO.builder()
+                        .id(entry.getId())
+                        .title(entry.getTitle())
+                        .username(entry.getUsername())
+                        .email(entry.getEmail())
+                        .build());
+                similarity = Math.max(similarity, bestSimilarity[i]);
+            }
+            clusters.add(new SimilarityCluster(summaries, similarity));
+        }
+
+        clusters.sort(Comparator.comparingDouble(SimilarityCluster::getSimilarity).reversed());
+        return clusters;
+    }
+}
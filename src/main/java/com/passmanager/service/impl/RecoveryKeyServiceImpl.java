@@ -1,6 +1,7 @@
 package com.passmanager.service.impl;
 
 import com.passmanager.exception.EncryptionException;
+import com.passmanager.service.NonceService;
 import com.passmanager.service.RecoveryKeyService;
 import org.springframework.stereotype.Service;
 
@@ -12,7 +13,6 @@ import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.security.SecureRandom;
 import java.security.spec.KeySpec;
 import java.util.Base64;
 
@@ -26,9 +26,14 @@ public class RecoveryKeyServiceImpl implements RecoveryKeyService {
     private static final int GCM_IV_LENGTH = 12;
     private static final int GCM_TAG_LENGTH = 128;
 
+    private final NonceService nonceService;
+
+    public RecoveryKeyServiceImpl(NonceService nonceService) {
+        this.nonceService = nonceService;
+    }
+
     @Override
     public String generateRecoveryKey() {
-        SecureRandom random = new SecureRandom();
         StringBuilder recoveryKey = new StringBuilder();
 
         for (int i = 0; i < RECOVERY_KEY_LENGTH; i++) {
@@ -36,7 +41,7 @@ public class RecoveryKeyServiceImpl implements RecoveryKeyService {
             if (i > 0 && i % 4 == 0) {
                 recoveryKey.append('-');
             }
-            int index = random.nextInt(RECOVERY_KEY_CHARS.length());
+            int index = nonceService.getRandom().nextInt(RECOVERY_KEY_CHARS.length());
             recoveryKey.append(RECOVERY_KEY_CHARS.charAt(index));
         }
 
@@ -79,8 +84,7 @@ public class RecoveryKeyServiceImpl implements RecoveryKeyService {
             SecretKey key = deriveKeyFromRecoveryKey(recoveryKey);
 
             // Generar IV aleatorio
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
+            byte[] iv = nonceService.randomBytes(GCM_IV_LENGTH);
 
             // Configurar cifrado AES-GCM
             Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
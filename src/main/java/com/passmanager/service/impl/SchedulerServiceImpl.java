@@ -0,0 +1,269 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.service.SchedulerService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementación del planificador con una rueda de tiempo de {@value #WHEEL_SIZE}
+ * ranuras de {@value SchedulerService#TICK_MILLIS} ms (51,2 s por vuelta).
+ *
+ * <p>Cada plazo se guarda en la ranura de su tick de vencimiento; los que están a
+ * más de una vuelta permanecen en la ranura hasta que llega su tick absoluto. La
+ * cancelación solo marca el plazo, que se descarta la próxima vez que se visita
+ * su ranura.</p>
+ *
+ * <p>No hay un tick periódico: los ticks se cuentan desde un origen de
+ * {@link System#nanoTime()} y el hilo solo despierta, con una tarea de un solo
+ * disparo, en el vencimiento más próximo. Al despertar procesa las ranuras de los
+ * ticks transcurridos y se vuelve a armar; sin plazos pendientes no despierta.</p>
+ */
+@Service
+public class SchedulerServiceImpl implements SchedulerService {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerServiceImpl.class);
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+
+    private final List<List<TimerEntry>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final List<TimerEntry> expired = new ArrayList<>();
+    private final Object lock = new Object();
+
+    private final long originNanos = System.nanoTime();
+
+    /** Último tick procesado. */
+    private long currentTick;
+    private int pending;
+
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> wakeup;
+    /** Tick para el que está armado {@link #wakeup}, o {@link Long#MAX_VALUE}. */
+    private long armedTick = Long.MAX_VALUE;
+
+    public SchedulerServiceImpl() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadline-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Deadline schedule(long delayMillis, Runnable action) {
+        TimerEntry entry = new TimerEntry(action, null, null);
+        insert(entry, delayMillis);
+        return entry;
+    }
+
+    @Override
+    public Deadline scheduleOnIdle(LongSupplier lastActivityMillis, LongSupplier idleMillis, Runnable action) {
+        TimerEntry entry = new TimerEntry(action, lastActivityMillis, idleMillis);
+        insert(entry, remainingIdleMillis(entry));
+        return entry;
+    }
+
+    // ---------------------------------------------------------------
+    // Rueda de tiempo
+    // ---------------------------------------------------------------
+
+    private void insert(TimerEntry entry, long delayMillis) {
+        synchronized (lock) {
+            // Redondeo hacia arriba: un plazo nunca vence antes de su retardo
+            long elapsedNanos = System.nanoTime() - originNanos;
+            long dueNanos = elapsedNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+            entry.deadlineTick = Math.max(elapsedNanos / TICK_NANOS + 1, (dueNanos + TICK_NANOS - 1) / TICK_NANOS);
+            wheel.get((int) (entry.deadlineTick & WHEEL_MASK)).add(entry);
+            pending++;
+            if (entry.deadlineTick < armedTick) {
+                arm(entry.deadlineTick);
+            }
+        }
+    }
+
+    /**
+     * Procesa las ranuras de los ticks transcurridos desde la última vez y vuelve a
+     * armar el despertar. Solo lo ejecuta el hilo del planificador, así que
+     * {@link #expired} se reutiliza sin reservar memoria.
+     */
+    private void advance() {
+        synchronized (lock) {
+            wakeup = null;
+            armedTick = Long.MAX_VALUE;
+
+            long now = elapsedTicks();
+            // Tras una pausa larga basta con visitar cada ranura una vez
+            long first = Math.max(currentTick + 1, now - WHEEL_SIZE + 1);
+            for (long tick = first; tick <= now; tick++) {
+                collectExpired(wheel.get((int) (tick & WHEEL_MASK)), now);
+            }
+            currentTick = now;
+        }
+
+        // Fuera del cerrojo: las acciones pueden volver a programar plazos
+        for (TimerEntry entry : expired) {
+            expire(entry);
+        }
+        expired.clear();
+
+        synchronized (lock) {
+            long nearest = nearestDeadlineTick();
+            if (nearest < armedTick) {
+                arm(nearest);
+            }
+        }
+    }
+
+    private void collectExpired(List<TimerEntry> slot, long now) {
+        for (int i = slot.size() - 1; i >= 0; i--) {
+            TimerEntry entry = slot.get(i);
+            if (entry.cancelled || entry.deadlineTick <= now) {
+                removeAt(slot, i);
+                if (!entry.cancelled) {
+                    expired.add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vencimiento más próximo de los plazos pendientes; descarta los cancelados.
+     * Se llama con el cerrojo tomado.
+     *
+     * @return Tick absoluto, o {@link Long#MAX_VALUE} si no queda ninguno
+     */
+    private long nearestDeadlineTick() {
+        long nearest = Long.MAX_VALUE;
+        for (int index = 0; index < WHEEL_SIZE && pending > 0; index++) {
+            List<TimerEntry> slot = wheel.get(index);
+            for (int i = slot.size() - 1; i >= 0; i--) {
+                TimerEntry entry = slot.get(i);
+                if (entry.cancelled) {
+                    removeAt(slot, i);
+                } else {
+                    nearest = Math.min(nearest, entry.deadlineTick);
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Programa un único despertar para el tick indicado, sustituyendo al anterior.
+     * Se llama con el cerrojo tomado.
+     */
+    private void arm(long deadlineTick) {
+        if (deadlineTick == Long.MAX_VALUE) {
+            return;
+        }
+        if (wakeup != null) {
+            wakeup.cancel(false);
+        }
+        long delayNanos = Math.max(0, deadlineTick * TICK_NANOS - (System.nanoTime() - originNanos));
+        wakeup = executor.schedule(this::advance, delayNanos, TimeUnit.NANOSECONDS);
+        armedTick = deadlineTick;
+    }
+
+    /**
+     * Borrado O(1): el orden dentro de la ranura no importa.
+     */
+    private void removeAt(List<TimerEntry> slot, int index) {
+        slot.set(index, slot.get(slot.size() - 1));
+        slot.remove(slot.size() - 1);
+        pending--;
+    }
+
+    private long elapsedTicks() {
+        return (System.nanoTime() - originNanos) / TICK_NANOS;
+    }
+
+    private void expire(TimerEntry entry) {
+        if (entry.lastActivity == null) {
+            run(entry);
+            return;
+        }
+
+        long remaining = remainingIdleMillis(entry);
+        if (remaining > 0) {
+            // Hubo actividad desde que se armó: se re-arma hasta el nuevo vencimiento
+            insert(entry, remaining);
+            return;
+        }
+
+        long lastActivity = entry.lastActivity.getAsLong();
+        if (lastActivity != entry.firedForActivity) {
+            entry.firedForActivity = lastActivity;
+            run(entry);
+        }
+        if (!entry.cancelled) {
+            insert(entry, entry.idleMillis.getAsLong());
+        }
+    }
+
+    private long remainingIdleMillis(TimerEntry entry) {
+        return entry.lastActivity.getAsLong() + entry.idleMillis.getAsLong() - System.currentTimeMillis();
+    }
+
+    private void run(TimerEntry entry) {
+        if (entry.cancelled) {
+            return;
+        }
+        try {
+            entry.action.run();
+        } catch (RuntimeException e) {
+            log.error("Error ejecutando una tarea programada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Plazo en la rueda. {@code deadlineTick} solo se modifica con el cerrojo tomado.
+     */
+    private static class TimerEntry implements Deadline {
+        private final Runnable action;
+        private final LongSupplier lastActivity;
+        private final LongSupplier idleMillis;
+        private long deadlineTick;
+        private long firedForActivity = Long.MIN_VALUE;
+        private volatile boolean cancelled;
+
+        TimerEntry(Runnable action, LongSupplier lastActivity, LongSupplier idleMillis) {
+            this.action = action;
+            this.lastActivity = lastActivity;
+            this.idleMillis = idleMillis;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
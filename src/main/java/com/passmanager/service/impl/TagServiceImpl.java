@@ -4,6 +4,7 @@ import com.passmanager.exception.ResourceNotFoundException;
 import com.passmanager.model.entity.Tag;
 import com.passmanager.model.entity.User;
 import com.passmanager.repository.TagRepository;
+import com.passmanager.service.EntryFacetIndex;
 import com.passmanager.service.TagService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,9 +16,11 @@ import java.util.Optional;
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final EntryFacetIndex entryFacetIndex;
 
-    public TagServiceImpl(TagRepository tagRepository) {
+    public TagServiceImpl(TagRepository tagRepository, EntryFacetIndex entryFacetIndex) {
         this.tagRepository = tagRepository;
+        this.entryFacetIndex = entryFacetIndex;
     }
 
     @Override
@@ -71,6 +74,7 @@ public class TagServiceImpl implements TagService {
             throw new ResourceNotFoundException("Tag", id);
         }
         tagRepository.deleteById(id);
+        entryFacetIndex.onTagDeleted(id);
     }
 
     @Override
@@ -4,6 +4,8 @@ import com.passmanager.model.dto.UserDTO;
 import com.passmanager.model.entity.User;
 import com.passmanager.repository.UserRepository;
 import com.passmanager.service.UserService;
+import com.passmanager.service.VaultSession;
+import com.passmanager.service.VaultSessionService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,10 +15,11 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private User currentUser;
+    private final VaultSessionService vaultSessionService;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, VaultSessionService vaultSessionService) {
         this.userRepository = userRepository;
+        this.vaultSessionService = vaultSessionService;
     }
 
     @Override
@@ -33,25 +36,14 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getCurrentUser() {
-        if (currentUser == null) {
-            throw new IllegalStateException("No hay usuario autenticado");
-        }
-        return currentUser;
-    }
-
-    @Override
-    public void setCurrentUser(User user) {
-        this.currentUser = user;
-    }
-
-    @Override
-    public void clearCurrentUser() {
-        this.currentUser = null;
+        return vaultSessionService.current()
+                .map(VaultSession::getUser)
+                .orElseThrow(() -> new IllegalStateException("No hay usuario autenticado"));
     }
 
     @Override
     public boolean hasCurrentUser() {
-        return currentUser != null;
+        return vaultSessionService.current().isPresent();
     }
 
     private UserDTO toDTO(User user) {
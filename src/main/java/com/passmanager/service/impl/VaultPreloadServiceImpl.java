@@ -0,0 +1,121 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.service.CategoryService;
+import com.passmanager.service.PasswordEntryService;
+import com.passmanager.service.VaultPreloadService;
+import com.passmanager.service.VaultSession;
+import com.passmanager.service.VaultSessionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class VaultPreloadServiceImpl implements VaultPreloadService {
+
+    private static final Logger log = LoggerFactory.getLogger(VaultPreloadServiceImpl.class);
+
+    private final PasswordEntryService passwordEntryService;
+    private final CategoryService categoryService;
+    private final VaultSessionService vaultSessionService;
+
+    private ExecutorService executor;
+    private volatile CompletableFuture<VaultSnapshot> pending;
+
+    public VaultPreloadServiceImpl(PasswordEntryService passwordEntryService,
+                                   CategoryService categoryService,
+                                   VaultSessionService vaultSessionService) {
+        this.passwordEntryService = passwordEntryService;
+        this.categoryService = categoryService;
+        this.vaultSessionService = vaultSessionService;
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vault-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * La precarga trabaja con un préstamo de la sesión tomado aquí: aunque la sesión se
+     * cierre mientras tanto, no mezcla datos de otra ni usa claves ya borradas.
+     */
+    @Override
+    public void start() {
+        clear();
+        VaultSession.Lease lease = vaultSessionService.acquire();
+        CompletableFuture<VaultSnapshot> future = new CompletableFuture<>();
+        pending = future;
+        executor.execute(() -> {
+            // El préstamo se devuelve aunque la precarga se haya descartado sin empezar
+            try (VaultSession.Lease bound = lease.bind()) {
+                if (!future.isDone()) {
+                    future.complete(new VaultSnapshot(categoryService.findAll(), passwordEntryService.findAll()));
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+    }
+
+    @Override
+    public boolean isStarted() {
+        return pending != null;
+    }
+
+    @Override
+    public void awaitCompletion(long timeoutMillis) {
+        CompletableFuture<VaultSnapshot> future = pending;
+        if (future == null) {
+            return;
+        }
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Error precargando la bóveda: {}", e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            log.debug("La precarga de la bóveda no terminó a tiempo");
+        }
+    }
+
+    @Override
+    public Optional<VaultSnapshot> take() {
+        CompletableFuture<VaultSnapshot> future = pending;
+        pending = null;
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            if (future != null) {
+                future.cancel(false);
+            }
+            return Optional.empty();
+        }
+        return Optional.of(future.join());
+    }
+
+    @Override
+    public void clear() {
+        CompletableFuture<VaultSnapshot> future = pending;
+        pending = null;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+}
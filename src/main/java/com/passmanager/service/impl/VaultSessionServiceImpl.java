@@ -0,0 +1,66 @@
+package com.passmanager.service.impl;
+
+import com.passmanager.model.entity.User;
+import com.passmanager.service.EncryptionService.KeyContext;
+import com.passmanager.service.VaultSession;
+import com.passmanager.service.VaultSessionService;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class VaultSessionServiceImpl implements VaultSessionService {
+
+    private final AtomicReference<VaultSession> session = new AtomicReference<>();
+
+    @Override
+    public VaultSession open(User user, KeyContext keys) {
+        VaultSession opened = new VaultSession(user, keys);
+        VaultSession previous = session.getAndSet(opened);
+        if (previous != null) {
+            previous.invalidate();
+        }
+        return opened;
+    }
+
+    @Override
+    public boolean replace(VaultSession expected, User user, KeyContext keys) {
+        VaultSession replacement = new VaultSession(user, keys);
+        if (!session.compareAndSet(expected, replacement)) {
+            replacement.invalidate();
+            return false;
+        }
+        expected.invalidate();
+        return true;
+    }
+
+    @Override
+    public Optional<VaultSession> current() {
+        Optional<VaultSession.Lease> bound = VaultSession.boundLease();
+        if (bound.isPresent()) {
+            return Optional.of(bound.get().getSession());
+        }
+        return Optional.ofNullable(session.get());
+    }
+
+    @Override
+    public VaultSession.Lease acquire() {
+        return current()
+                .orElseThrow(() -> new IllegalStateException("No hay una sesión abierta"))
+                .acquire();
+    }
+
+    @Override
+    public void invalidate() {
+        VaultSession previous = session.getAndSet(null);
+        if (previous != null) {
+            previous.invalidate();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session.get() != null;
+    }
+}
@@ -1,28 +1,26 @@
 package com.passmanager.util;
 
+import com.passmanager.service.SchedulerService;
+import com.passmanager.service.SecretValue;
 import javafx.application.Platform;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
 @Component
 public class ClipboardUtil {
 
     private static final int CLIPBOARD_CLEAR_DELAY_SECONDS = 30;
 
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "clipboard-cleaner");
-        t.setDaemon(true);
-        return t;
-    });
+    private final SchedulerService schedulerService;
+
+    private SchedulerService.Deadline pendingClear;
+    /** Copia propia de lo copiado, para no borrar el portapapeles si el usuario copió otra cosa. */
+    private SecretValue lastCopied;
 
-    private ScheduledFuture<?> pendingClear;
-    private String lastCopiedText;
+    public ClipboardUtil(SchedulerService schedulerService) {
+        this.schedulerService = schedulerService;
+    }
 
     public void copyToClipboard(String text) {
         Clipboard clipboard = Clipboard.getSystemClipboard();
@@ -33,31 +31,58 @@ public class ClipboardUtil {
 
     public void copyToClipboardWithAutoClear(String text) {
         copyToClipboard(text);
-        lastCopiedText = text;
+        remember(SecretValue.of(text));
+        scheduleClear();
+    }
+
+    /**
+     * Copia un secreto: el texto en claro solo existe durante la copia.
+     */
+    public void copyToClipboardWithAutoClear(SecretValue secret) {
+        copyToClipboard(secret.reveal());
+        remember(secret.copy());
         scheduleClear();
     }
 
+    private void remember(SecretValue copied) {
+        if (lastCopied != null) {
+            lastCopied.wipe();
+        }
+        lastCopied = copied;
+    }
+
     private void scheduleClear() {
-        if (pendingClear != null && !pendingClear.isDone()) {
-            pendingClear.cancel(false);
+        if (pendingClear != null) {
+            pendingClear.cancel();
         }
 
-        pendingClear = scheduler.schedule(() -> {
-            Platform.runLater(this::clearIfUnchanged);
-        }, CLIPBOARD_CLEAR_DELAY_SECONDS, TimeUnit.SECONDS);
+        pendingClear = schedulerService.schedule(CLIPBOARD_CLEAR_DELAY_SECONDS * 1000L,
+                () -> Platform.runLater(this::clearIfUnchanged));
     }
 
     private void clearIfUnchanged() {
         Clipboard clipboard = Clipboard.getSystemClipboard();
         if (clipboard.hasString()) {
             String currentContent = clipboard.getString();
-            if (currentContent != null && currentContent.equals(lastCopiedText)) {
+            if (lastCopied != null && lastCopied.contentEquals(currentContent)) {
                 ClipboardContent empty = new ClipboardContent();
                 empty.putString("");
                 clipboard.setContent(empty);
             }
         }
-        lastCopiedText = null;
+        remember(null);
+    }
+
+    /**
+     * Borra ya lo copiado con auto-borrado, sin esperar al plazo (al bloquear la bóveda).
+     * Debe llamarse desde el hilo de JavaFX.
+     */
+    public void clearNow() {
+        if (pendingClear != null) {
+            pendingClear.cancel();
+            pendingClear = null;
+        }
+        clearIfUnchanged();
     }
 
     public int getClearDelaySeconds() {
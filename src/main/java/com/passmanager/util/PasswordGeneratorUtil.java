@@ -14,6 +14,11 @@ public class PasswordGeneratorUtil {
     private static final String AMBIGUOUS = "0O1lI";
 
     private final SecureRandom random = new SecureRandom();
+    private final PasswordStrengthAnalyzer strengthAnalyzer;
+
+    public PasswordGeneratorUtil(PasswordStrengthAnalyzer strengthAnalyzer) {
+        this.strengthAnalyzer = strengthAnalyzer;
+    }
 
     public String generate(int length, boolean includeLowercase, boolean includeUppercase,
                           boolean includeDigits, boolean includeSymbols, boolean excludeAmbiguous) {
@@ -87,36 +92,11 @@ public class PasswordGeneratorUtil {
         return new String(chars);
     }
 
-    public PasswordStrength evaluateStrength(String password) {
-        if (password == null || password.isEmpty()) {
-            return PasswordStrength.VERY_WEAK;
-        }
-
-        int score = 0;
-        int length = password.length();
-
-        // Puntuación por longitud
-        if (length >= 8) score++;
-        if (length >= 12) score++;
-        if (length >= 16) score++;
-        if (length >= 20) score++;
-
-        // Puntuación por tipos de caracteres
-        if (password.matches(".*[a-z].*")) score++;
-        if (password.matches(".*[A-Z].*")) score++;
-        if (password.matches(".*[0-9].*")) score++;
-        if (password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{}|;:,.<>?].*")) score++;
-
-        // Penalización por patrones comunes
-        if (password.matches(".*(.)\\1{2,}.*")) score--; // Caracteres repetidos
-        if (password.matches(".*(?:012|123|234|345|456|567|678|789|890).*")) score--; // Secuencias numéricas
-        if (password.matches(".*(?:abc|bcd|cde|def|efg|fgh|ghi|hij|ijk|jkl|klm|lmn|mno|nop|opq|pqr|qrs|rst|stu|tuv|uvw|vwx|wxy|xyz).*")) score--; // Secuencias alfabéticas
-
-        if (score <= 2) return PasswordStrength.VERY_WEAK;
-        if (score <= 4) return PasswordStrength.WEAK;
-        if (score <= 6) return PasswordStrength.MEDIUM;
-        if (score <= 8) return PasswordStrength.STRONG;
-        return PasswordStrength.VERY_STRONG;
+    /**
+     * Evalúa la fortaleza por entropía estimada; ver {@link PasswordStrengthAnalyzer}.
+     */
+    public PasswordStrength evaluateStrength(CharSequence password) {
+        return strengthAnalyzer.evaluateStrength(password);
     }
 
     public enum PasswordStrength {
@@ -0,0 +1,354 @@
+package com.passmanager.util;
+
+import com.passmanager.util.PasswordGeneratorUtil.PasswordStrength;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Analizador de fortaleza de contraseñas basado en estimación de entropía.
+ *
+ * <p>Recorre la contraseña una sola vez, sin expresiones regulares, y detecta:</p>
+ * <ul>
+ *   <li>Clases de caracteres usadas (tamaño del alfabeto)</li>
+ *   <li>Repeticiones ({@code aaa})</li>
+ *   <li>Secuencias ascendentes/descendentes ({@code abc}, {@code 987})</li>
+ *   <li>Recorridos de teclado QWERTY ({@code qwer}, {@code asdf})</li>
+ * </ul>
+ * <p>Después busca palabras de diccionario (con sustituciones tipo {@code p@ssw0rd})
+ * en un trie compacto embebido.</p>
+ *
+ * <p>Cada carácter libre aporta {@code log2(alfabeto)} bits; los que forman parte de
+ * un patrón aportan {@link #PATTERN_CHAR_BITS} y cada palabra de diccionario aporta
+ * {@link #DICTIONARY_WORD_BITS} en total. Es stateless y thread-safe, por lo que
+ * puede usarse en paralelo sobre toda la bóveda.</p>
+ */
+@Component
+public class PasswordStrengthAnalyzer {
+
+    private static final double PATTERN_CHAR_BITS    = 1.0;
+    private static final double DICTIONARY_WORD_BITS = 10.0;   // ~1000 palabras comunes
+    private static final int    MIN_PATTERN_LENGTH   = 3;
+    private static final int    MIN_WORD_LENGTH      = 4;
+
+    // Umbrales de entropía (bits) para cada nivel
+    private static final double WEAK_BITS        = 28;
+    private static final double MEDIUM_BITS      = 36;
+    private static final double STRONG_BITS      = 60;
+    private static final double VERY_STRONG_BITS = 80;
+
+    /** Entropía a la que la puntuación 0-100 llega a 100. */
+    private static final double FULL_SCORE_BITS = 90;
+
+    private static final int POOL_LOWER  = 26;
+    private static final int POOL_UPPER  = 26;
+    private static final int POOL_DIGIT  = 10;
+    private static final int POOL_SYMBOL = 33;
+    private static final int POOL_OTHER  = 100;
+
+    private static final String[] KEYBOARD_ROWS = {
+        "1234567890-=", "qwertyuiop[]", "asdfghjkl;'", "zxcvbnm,./"
+    };
+
+    private static final String[] DICTIONARY = {
+        "password", "passw", "pass", "qwerty", "admin", "administrator", "welcome", "letmein",
+        "login", "master", "dragon", "monkey", "football", "baseball", "soccer", "iloveyou",
+        "love", "sunshine", "princess", "shadow", "superman", "batman", "trustno", "secret",
+        "summer", "winter", "spring", "autumn", "january", "february", "december",
+        "hello", "freedom", "whatever", "starwars", "pokemon", "computer", "internet",
+        "google", "facebook", "twitter", "linkedin", "microsoft", "apple", "samsung",
+        "charlie", "michael", "jordan", "jennifer", "thomas", "daniel", "andrew", "hunter",
+        "ranger", "buster", "tigger", "cookie", "cheese", "orange", "banana", "chocolate",
+        "flower", "purple", "silver", "golden", "killer", "access", "default", "guest",
+        "user", "root", "test", "changeme", "temp", "demo", "abcd", "qazwsx", "zxcv", "asdf",
+        "clave", "contrasena", "secreto", "usuario", "hola", "amor", "teamo", "bienvenido",
+        "familia", "futbol", "verano", "invierno", "primavera", "otono", "mexico", "espana",
+        "argentina", "colombia", "peru", "chile", "madrid", "barcelona", "perro", "gato",
+        "princesa", "angel", "estrella", "corazon", "maria", "jose", "juan", "carlos",
+        "keyguard"
+    };
+
+    private static final int[] KEY_ROW = new int[128];
+    private static final int[] KEY_COL = new int[128];
+    private static final char[] LEET = new char[128];
+    private static final Trie TRIE = new Trie(DICTIONARY);
+
+    static {
+        Arrays.fill(KEY_ROW, -1);
+        for (int row = 0; row < KEYBOARD_ROWS.length; row++) {
+            String keys = KEYBOARD_ROWS[row];
+            for (int col = 0; col < keys.length(); col++) {
+                KEY_ROW[keys.charAt(col)] = row;
+                KEY_COL[keys.charAt(col)] = col;
+            }
+        }
+
+        for (char c = 'a'; c <= 'z'; c++) {
+            LEET[c] = c;
+            LEET[Character.toUpperCase(c)] = c;
+        }
+        LEET['0'] = 'o';
+        LEET['1'] = 'i';
+        LEET['3'] = 'e';
+        LEET['4'] = 'a';
+        LEET['5'] = 's';
+        LEET['7'] = 't';
+        LEET['@'] = 'a';
+        LEET['$'] = 's';
+        LEET['!'] = 'i';
+    }
+
+    /**
+     * Analiza una contraseña y estima su entropía efectiva. Acepta cualquier
+     * {@link CharSequence}: una contraseña de la bóveda se analiza sobre un
+     * {@code CharBuffer} sin crear un {@code String}.
+     */
+    public Analysis analyze(CharSequence password) {
+        if (password == null || password.isEmpty()) {
+            return new Analysis(0, false, false, false, false);
+        }
+
+        int length = password.length();
+        boolean[] patterned = new boolean[length];
+        boolean lower = false, upper = false, digit = false, symbol = false, other = false;
+        boolean repeats = false, sequence = false, keyboardWalk = false;
+
+        int repeatRun = 1, seqRun = 1, walkRun = 1;
+        int seqDelta = 0, walkDelta = 0;
+        char prev = 0;
+
+        // Pasada única: clases de caracteres + repeticiones, secuencias y recorridos de teclado
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (c >= 'a' && c <= 'z')      lower = true;
+            else if (c >= 'A' && c <= 'Z') upper = true;
+            else if (c >= '0' && c <= '9') digit = true;
+            else if (c < 128)              symbol = true;
+            else                           other = true;
+
+            if (i > 0) {
+                repeatRun = (c == prev) ? repeatRun + 1 : 1;
+                if (repeatRun >= MIN_PATTERN_LENGTH) {
+                    repeats = true;
+                    markRun(patterned, i, repeatRun);
+                }
+
+                int delta = sequenceDelta(prev, c);
+                seqRun = (delta != 0 && (seqRun == 1 || delta == seqDelta)) ? seqRun + 1 : (delta != 0 ? 2 : 1);
+                seqDelta = delta;
+                if (seqRun >= MIN_PATTERN_LENGTH) {
+                    sequence = true;
+                    markRun(patterned, i, seqRun);
+                }
+
+                int step = keyboardStep(prev, c);
+                walkRun = (step != 0 && (walkRun == 1 || step == walkDelta)) ? walkRun + 1 : (step != 0 ? 2 : 1);
+                walkDelta = step;
+                if (walkRun >= MIN_PATTERN_LENGTH) {
+                    keyboardWalk = true;
+                    markRun(patterned, i, walkRun);
+                }
+            }
+            prev = c;
+        }
+
+        // Palabras de diccionario (coincidencia más larga desde cada posición)
+        int words = 0;
+        int i = 0;
+        while (i < length) {
+            int match = TRIE.longestMatch(password, i);
+            if (match >= MIN_WORD_LENGTH) {
+                words++;
+                Arrays.fill(patterned, i, i + match, true);
+                i += match;
+            } else {
+                i++;
+            }
+        }
+
+        int pool = (lower ? POOL_LOWER : 0) + (upper ? POOL_UPPER : 0) + (digit ? POOL_DIGIT : 0)
+                + (symbol ? POOL_SYMBOL : 0) + (other ? POOL_OTHER : 0);
+        double bitsPerChar = Math.log(Math.max(pool, 2)) / Math.log(2);
+
+        int free = 0;
+        for (boolean p : patterned) {
+            if (!p) free++;
+        }
+        int inPatterns = length - free;
+
+        double entropy = free * bitsPerChar + inPatterns * PATTERN_CHAR_BITS + words * DICTIONARY_WORD_BITS;
+        return new Analysis(entropy, repeats, sequence, keyboardWalk, words > 0);
+    }
+
+    /**
+     * Nivel de fortaleza a partir de la entropía estimada.
+     */
+    public PasswordStrength evaluateStrength(CharSequence password) {
+        return analyze(password).getStrength();
+    }
+
+    /**
+     * Puntuación 0-100 proporcional a la entropía estimada.
+     */
+    public int score(CharSequence password) {
+        return analyze(password).getScore();
+    }
+
+    // ---------------------------------------------------------------
+    // Helpers privados
+    // ---------------------------------------------------------------
+
+    private static void markRun(boolean[] patterned, int end, int runLength) {
+        Arrays.fill(patterned, end - runLength + 1, end + 1, true);
+    }
+
+    /**
+     * +1/-1 si {@code b} sigue o precede a {@code a} dentro de la misma clase
+     * (letras sin distinguir mayúsculas, o dígitos); 0 en otro caso.
+     */
+    private static int sequenceDelta(char a, char b) {
+        boolean letters = Character.isLetter(a) && Character.isLetter(b) && a < 128 && b < 128;
+        boolean digits = a >= '0' && a <= '9' && b >= '0' && b <= '9';
+        if (!letters && !digits) {
+            return 0;
+        }
+        int diff = Character.toLowerCase(b) - Character.toLowerCase(a);
+        return (diff == 1 || diff == -1) ? diff : 0;
+    }
+
+    /**
+     * +1/-1 si {@code b} es la tecla contigua a {@code a} en la misma fila QWERTY; 0 en otro caso.
+     */
+    private static int keyboardStep(char a, char b) {
+        a = Character.toLowerCase(a);
+        b = Character.toLowerCase(b);
+        if (a >= 128 || b >= 128 || KEY_ROW[a] < 0 || KEY_ROW[a] != KEY_ROW[b]) {
+            return 0;
+        }
+        int diff = KEY_COL[b] - KEY_COL[a];
+        return (diff == 1 || diff == -1) ? diff : 0;
+    }
+
+    /**
+     * Resultado del análisis.
+     */
+    public static class Analysis {
+        private final double entropyBits;
+        private final boolean repeats;
+        private final boolean sequence;
+        private final boolean keyboardWalk;
+        private final boolean dictionaryWord;
+
+        public Analysis(double entropyBits, boolean repeats, boolean sequence,
+                        boolean keyboardWalk, boolean dictionaryWord) {
+            this.entropyBits = entropyBits;
+            this.repeats = repeats;
+            this.sequence = sequence;
+            this.keyboardWalk = keyboardWalk;
+            this.dictionaryWord = dictionaryWord;
+        }
+
+        public double getEntropyBits()    { return entropyBits; }
+        public boolean hasRepeats()       { return repeats; }
+        public boolean hasSequence()      { return sequence; }
+        public boolean hasKeyboardWalk()  { return keyboardWalk; }
+        public boolean hasDictionaryWord() { return dictionaryWord; }
+
+        public PasswordStrength getStrength() {
+            if (entropyBits < WEAK_BITS)        return PasswordStrength.VERY_WEAK;
+            if (entropyBits < MEDIUM_BITS)      return PasswordStrength.WEAK;
+            if (entropyBits < STRONG_BITS)      return PasswordStrength.MEDIUM;
+            if (entropyBits < VERY_STRONG_BITS) return PasswordStrength.STRONG;
+            return PasswordStrength.VERY_STRONG;
+        }
+
+        public int getScore() {
+            return (int) Math.min(100, Math.round(entropyBits * 100 / FULL_SCORE_BITS));
+        }
+    }
+
+    /**
+     * Trie compacto en arrays (primer hijo / siguiente hermano) sobre a-z.
+     * Los caracteres se normalizan con {@link #LEET} antes de recorrerlo.
+     */
+    private static final class Trie {
+        private char[] label = new char[256];
+        private int[] firstChild = new int[256];
+        private int[] nextSibling = new int[256];
+        private boolean[] terminal = new boolean[256];
+        private int size = 1;   // nodo 0 = raíz
+
+        Trie(String[] words) {
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+            for (String word : words) {
+                insert(word);
+            }
+            label = Arrays.copyOf(label, size);
+            firstChild = Arrays.copyOf(firstChild, size);
+            nextSibling = Arrays.copyOf(nextSibling, size);
+            terminal = Arrays.copyOf(terminal, size);
+        }
+
+        private void insert(String word) {
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                int child = child(node, c);
+                if (child < 0) {
+                    child = newNode(c);
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                }
+                node = child;
+            }
+            terminal[node] = true;
+        }
+
+        private int newNode(char c) {
+            if (size == label.length) {
+                int capacity = size * 2;
+                label = Arrays.copyOf(label, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                terminal = Arrays.copyOf(terminal, capacity);
+                Arrays.fill(firstChild, size, capacity, -1);
+                Arrays.fill(nextSibling, size, capacity, -1);
+            }
+            label[size] = c;
+            return size++;
+        }
+
+        private int child(int node, char c) {
+            for (int n = firstChild[node]; n >= 0; n = nextSibling[n]) {
+                if (label[n] == c) {
+                    return n;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Longitud de la palabra más larga que empieza en {@code start}, o 0.
+         */
+        int longestMatch(CharSequence text, int start) {
+            int node = 0;
+            int longest = 0;
+            for (int i = start; i < text.length(); i++) {
+                char c = text.charAt(i);
+                char normalized = c < 128 ? LEET[c] : 0;
+                if (normalized == 0) {
+                    break;
+                }
+                node = child(node, normalized);
+                if (node < 0) {
+                    break;
+                }
+                if (terminal[node]) {
+                    longest = i - start + 1;
+                }
+            }
+            return longest;
+        }
+    }
+}
@@ -0,0 +1,582 @@
+package com.passmanager.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto comprimido de enteros de 32 bits sin signo al estilo Roaring
+ * (Lemire et al., "Better bitmap performance with Roaring bitmaps").
+ *
+ * <p>Los valores se reparten en bloques de 65536 según sus 16 bits altos, y cada
+ * bloque usa el contenedor que ocupa menos:</p>
+ * <ul>
+ *   <li>Array: los 16 bits bajos ordenados en un {@code char[]}, hasta
+ *       {@value #ARRAY_MAX_CARDINALITY} valores (8 KB como mucho)</li>
+ *   <li>Bitmap: 1024 {@code long} (8 KB fijos), a partir de ahí</li>
+ * </ul>
+ *
+ * <p>Las operaciones de conjunto van bloque a bloque y, dentro de cada uno, por
+ * intersección de arrays ordenados, consultas al bitmap o palabra a palabra.
+ * {@link #andCardinality} cuenta la intersección sin construirla.</p>
+ *
+ * <p>No es thread-safe: quien la comparta debe sincronizar. Las operaciones binarias
+ * devuelven un conjunto nuevo y no modifican los operandos.</p>
+ */
+public final class RoaringBitmap {
+
+    private static final int ARRAY_MAX_CARDINALITY = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    /** 16 bits altos de cada bloque, ordenados. */
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public RoaringBitmap() {
+        this(4);
+    }
+
+    private RoaringBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Container[capacity];
+    }
+
+    public static RoaringBitmap of(int... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public void add(int value) {
+        char key = highBits(value);
+        int index = indexOf(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add(lowBits(value));
+        } else {
+            insertAt(-index - 1, key, new ArrayContainer().add(lowBits(value)));
+        }
+    }
+
+    /**
+     * @return true si el valor estaba
+     */
+    public boolean remove(int value) {
+        int index = indexOf(highBits(value));
+        if (index < 0 || !containers[index].contains(lowBits(value))) {
+            return false;
+        }
+        Container container = containers[index].remove(lowBits(value));
+        if (container.cardinality() == 0) {
+            removeAt(index);
+        } else {
+            containers[index] = container;
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int index = indexOf(highBits(value));
+        return index >= 0 && containers[index].contains(lowBits(value));
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public RoaringBitmap and(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap(Math.max(1, Math.min(size, other.size)));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public RoaringBitmap or(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap(Math.max(1, size + other.size));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i >= size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Los valores de este conjunto que no están en {@code other}
+     */
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap(Math.max(1, size));
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.append(keys[i], andNot(containers[i], other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tamaño de la intersección, sin construirla.
+     */
+    public int andCardinality(RoaringBitmap other) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += andCardinality(containers[i], other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    public RoaringBitmap copy() {
+        RoaringBitmap copy = new RoaringBitmap(Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            copy.append(keys[i], containers[i].copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Recorre los valores en orden creciente (sin signo).
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] position = {0};
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "RoaringBitmap[" + cardinality() + " valores, " + size + " bloques]";
+    }
+
+    // ---------------------------------------------------------------
+    // Bloques
+    // ---------------------------------------------------------------
+
+    private static char highBits(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char lowBits(int value) {
+        return (char) value;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertAt(int index, char key, Container container) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    /**
+     * Añade un bloque detrás de los existentes (las claves llegan ordenadas); los vacíos se omiten.
+     */
+    private void append(char key, Container container) {
+        if (container.cardinality() == 0) {
+            return;
+        }
+        ensureCapacity(size + 1);
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newCapacity = Math.max(capacity, keys.length * 2);
+            keys = Arrays.copyOf(keys, newCapacity);
+            containers = Arrays.copyOf(containers, newCapacity);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Operaciones entre contenedores
+    // ---------------------------------------------------------------
+
+    private static Container and(Container a, Container b) {
+        if (a instanceof ArrayContainer x && b instanceof ArrayContainer y) {
+            char[] out = new char[Math.min(x.cardinality, y.cardinality)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.cardinality && j < y.cardinality) {
+                if (x.values[i] < y.values[j]) {
+                    i++;
+                } else if (x.values[i] > y.values[j]) {
+                    j++;
+                } else {
+                    out[n++] = x.values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+        if (a instanceof ArrayContainer x) {
+            return filter(x, (BitmapContainer) b, true);
+        }
+        if (b instanceof ArrayContainer y) {
+            return filter(y, (BitmapContainer) a, true);
+        }
+        long[] x = ((BitmapContainer) a).words;
+        long[] y = ((BitmapContainer) b).words;
+        long[] out = new long[BITMAP_WORDS];
+        for (int k = 0; k < BITMAP_WORDS; k++) {
+            out[k] = x[k] & y[k];
+        }
+        return BitmapContainer.of(out).shrink();
+    }
+
+    private static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer x && b instanceof ArrayContainer y) {
+            char[] out = new char[x.cardinality + y.cardinality];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.cardinality || j < y.cardinality) {
+                if (j >= y.cardinality || (i < x.cardinality && x.values[i] < y.values[j])) {
+                    out[n++] = x.values[i++];
+                } else if (i >= x.cardinality || x.values[i] > y.values[j]) {
+                    out[n++] = y.values[j++];
+                } else {
+                    out[n++] = x.values[i];
+                    i++;
+                    j++;
+                }
+            }
+            ArrayContainer merged = new ArrayContainer(out, n);
+            return n > ARRAY_MAX_CARDINALITY ? merged.toBitmap() : merged;
+        }
+        if (a instanceof BitmapContainer x && b instanceof BitmapContainer y) {
+            long[] out = new long[BITMAP_WORDS];
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                out[k] = x.words[k] | y.words[k];
+            }
+            return BitmapContainer.of(out);
+        }
+        ArrayContainer array = a instanceof ArrayContainer x ? x : (ArrayContainer) b;
+        BitmapContainer bitmap = (BitmapContainer) (a instanceof BitmapContainer ? a : b);
+        long[] out = bitmap.words.clone();
+        for (int i = 0; i < array.cardinality; i++) {
+            out[array.values[i] >>> 6] |= 1L << array.values[i];
+        }
+        return BitmapContainer.of(out);
+    }
+
+    private static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer x && b instanceof ArrayContainer y) {
+            char[] out = new char[x.cardinality];
+            int n = 0;
+            int j = 0;
+            for (int i = 0; i < x.cardinality; i++) {
+                while (j < y.cardinality && y.values[j] < x.values[i]) {
+                    j++;
+                }
+                if (j >= y.cardinality || y.values[j] != x.values[i]) {
+                    out[n++] = x.values[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+        if (a instanceof ArrayContainer x) {
+            return filter(x, (BitmapContainer) b, false);
+        }
+        long[] out = ((BitmapContainer) a).words.clone();
+        if (b instanceof ArrayContainer y) {
+            for (int i = 0; i < y.cardinality; i++) {
+                out[y.values[i] >>> 6] &= ~(1L << y.values[i]);
+            }
+        } else {
+            long[] y = ((BitmapContainer) b).words;
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                out[k] &= ~y[k];
+            }
+        }
+        return BitmapContainer.of(out).shrink();
+    }
+
+    private static int andCardinality(Container a, Container b) {
+        if (a instanceof BitmapContainer x && b instanceof BitmapContainer y) {
+            int cardinality = 0;
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                cardinality += Long.bitCount(x.words[k] & y.words[k]);
+            }
+            return cardinality;
+        }
+        if (a instanceof ArrayContainer x && b instanceof ArrayContainer y) {
+            int cardinality = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.cardinality && j < y.cardinality) {
+                if (x.values[i] < y.values[j]) {
+                    i++;
+                } else if (x.values[i] > y.values[j]) {
+                    j++;
+                } else {
+                    cardinality++;
+                    i++;
+                    j++;
+                }
+            }
+            return cardinality;
+        }
+        ArrayContainer array = a instanceof ArrayContainer x ? x : (ArrayContainer) b;
+        BitmapContainer bitmap = (BitmapContainer) (a instanceof BitmapContainer ? a : b);
+        int cardinality = 0;
+        for (int i = 0; i < array.cardinality; i++) {
+            if (bitmap.contains(array.values[i])) {
+                cardinality++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Valores del array que están ({@code keep = true}) o no están en el bitmap.
+     */
+    private static ArrayContainer filter(ArrayContainer array, BitmapContainer bitmap, boolean keep) {
+        char[] out = new char[array.cardinality];
+        int n = 0;
+        for (int i = 0; i < array.cardinality; i++) {
+            if (bitmap.contains(array.values[i]) == keep) {
+                out[n++] = array.values[i];
+            }
+        }
+        return new ArrayContainer(out, n);
+    }
+
+    // ---------------------------------------------------------------
+    // Contenedores
+    // ---------------------------------------------------------------
+
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        /** Puede devolver otro contenedor si cambia de representación. */
+        abstract Container add(char value);
+
+        /** Puede devolver otro contenedor si cambia de representación. */
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container copy();
+
+        abstract void forEach(int high, IntConsumer action);
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality >= ARRAY_MAX_CARDINALITY) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_CARDINALITY, values.length * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(1, cardinality)), cardinality);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static BitmapContainer of(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+            }
+            return shrink();
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                long word = words[k];
+                while (word != 0) {
+                    action.accept(high | (k << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        /**
+         * Pasa a array si ya cabe en uno.
+         */
+        Container shrink() {
+            if (cardinality > ARRAY_MAX_CARDINALITY) {
+                return this;
+            }
+            char[] values = new char[Math.max(1, cardinality)];
+            int[] position = {0};
+            forEach(0, value -> values[position[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.passmanager.util;
+
+import org.springframework.stereotype.Component;
+
+import java.net.IDN;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizador de URLs: esquema, host y dominio registrable.
+ *
+ * <p>El dominio registrable es el sufijo público más una etiqueta
+ * ({@code accounts.google.co.uk} → {@code google.co.uk}). Los sufijos salen de una
+ * tabla embebida con el formato de la Public Suffix List (reglas normales, comodines
+ * {@code *.} y excepciones {@code !}); sin regla, el sufijo es la última etiqueta.
+ * Incluye los sufijos privados de alojamientos compartidos ({@code github.io},
+ * {@code herokuapp.com}...), donde cada subdominio es de un dueño distinto.</p>
+ *
+ * <p>Acepta URLs sin esquema ({@code example.com/login}), con usuario, puerto o
+ * dominios internacionales (se pasan a ASCII). Las IPs y los hosts de una etiqueta
+ * ({@code localhost}) son su propio dominio. Es stateless y thread-safe.</p>
+ */
+@Component
+public class UrlNormalizer {
+
+    private static final Pattern SCHEME = Pattern.compile("^([a-zA-Z][a-zA-Z0-9+.-]*)://");
+    private static final Pattern IPV4 = Pattern.compile("^\\d{1,3}(\\.\\d{1,3}){3}$");
+    private static final Pattern DIGITS = Pattern.compile("^\\d*$");
+
+    /**
+     * Subconjunto de la Public Suffix List (https://publicsuffix.org/list/): los
+     * sufijos de varias etiquetas más habituales. Los de una etiqueta no hace falta
+     * listarlos (regla por defecto).
+     */
+    private static final String[] PUBLIC_SUFFIX_RULES = {
+        // Reino Unido, Irlanda
+        "co.uk", "org.uk", "me.uk", "ltd.uk", "plc.uk", "net.uk", "ac.uk", "gov.uk", "sch.uk", "nhs.uk", "police.uk",
+        "gov.ie",
+        // Europa
+        "com.es", "org.es", "nom.es", "gob.es", "edu.es",
+        "com.pt", "org.pt", "gov.pt", "edu.pt",
+        "co.at", "or.at", "gv.at", "ac.at",
+        "com.pl", "net.pl", "org.pl", "gov.pl",
+        "com.tr", "net.tr", "org.tr", "gov.tr", "edu.tr",
+        "com.ua", "gov.ua", "org.ua",
+        "com.gr", "gov.gr", "edu.gr",
+        "com.cy",
+        // América
+        "com.mx", "org.mx", "gob.mx", "edu.mx", "net.mx",
+        "com.ar", "org.ar", "gob.ar", "gov.ar", "edu.ar", "net.ar",
+        "com.br", "net.br", "org.br", "gov.br", "edu.br",
+        "com.co", "org.co", "gov.co", "edu.co", "net.co",
+        "gob.cl", "gov.cl",
+        "com.pe", "org.pe", "gob.pe", "edu.pe", "net.pe",
+        "com.ve", "co.ve", "gob.ve", "org.ve",
+        "com.uy", "org.uy", "gub.uy", "edu.uy",
+        "com.ec", "gob.ec", "org.ec",
+        "com.bo", "gob.bo", "com.py", "gov.py", "com.do", "gob.do",
+        "com.gt", "gob.gt", "com.pa", "gob.pa", "com.sv", "gob.sv",
+        "com.hn", "gob.hn", "com.ni", "gob.ni", "co.cr", "go.cr", "com.cu",
+        "com.pr",
+        // Asia y Oceanía
+        "com.au", "net.au", "org.au", "edu.au", "gov.au", "asn.au", "id.au",
+        "co.nz", "net.nz", "org.nz", "govt.nz", "ac.nz",
+        "co.jp", "ne.jp", "or.jp", "ac.jp", "go.jp", "gr.jp", "ad.jp", "ed.jp", "lg.jp",
+        "*.kawasaki.jp", "!city.kawasaki.jp",
+        "co.kr", "or.kr", "go.kr", "ac.kr", "ne.kr",
+        "com.cn", "net.cn", "org.cn", "gov.cn", "edu.cn",
+        "com.hk", "net.hk", "org.hk", "gov.hk", "edu.hk",
+        "com.tw", "net.tw", "org.tw", "gov.tw", "edu.tw",
+        "com.sg", "net.sg", "org.sg", "gov.sg", "edu.sg",
+        "com.my", "net.my", "org.my", "gov.my",
+        "co.in", "net.in", "org.in", "gov.in", "ac.in", "firm.in", "gen.in", "ind.in",
+        "co.id", "or.id", "go.id", "ac.id",
+        "co.th", "or.th", "go.th", "ac.th", "in.th",
+        "com.ph", "gov.ph", "com.vn", "gov.vn", "com.pk", "gov.pk",
+        "co.il", "org.il", "gov.il", "ac.il",
+        "com.sa", "gov.sa", "com.eg", "gov.eg",
+        "*.bd", "*.ck", "!www.ck",
+        // África
+        "co.za", "org.za", "gov.za", "ac.za", "web.za",
+        "co.ke", "or.ke", "com.ng", "gov.ng",
+        // Sufijos privados: alojamientos donde cada subdominio es de otro dueño
+        "github.io", "gitlab.io", "bitbucket.io", "readthedocs.io", "ngrok.io",
+        "herokuapp.com", "appspot.com", "blogspot.com", "firebaseapp.com", "web.app",
+        "netlify.app", "vercel.app", "pages.dev", "workers.dev", "fly.dev", "ngrok-free.app",
+        "azurewebsites.net", "azurestaticapps.net", "cloudapp.net", "cloudfront.net",
+        "s3.amazonaws.com", "elasticbeanstalk.com",
+        "onrender.com", "myshopify.com", "glitch.me", "surge.sh", "duckdns.org",
+    };
+
+    private final Set<String> rules = new HashSet<>();
+    private final Set<String> wildcardRules = new HashSet<>();
+    private final Set<String> exceptionRules = new HashSet<>();
+
+    public UrlNormalizer() {
+        for (String rule : PUBLIC_SUFFIX_RULES) {
+            if (rule.startsWith("!")) {
+                exceptionRules.add(rule.substring(1));
+            } else if (rule.startsWith("*.")) {
+                wildcardRules.add(rule.substring(2));
+            } else {
+                rules.add(rule);
+            }
+        }
+    }
+
+    /**
+     * @param url URL o host, con o sin esquema
+     * @return Sus partes, o vacío si no tiene un host reconocible
+     */
+    public Optional<NormalizedUrl> normalize(String url) {
+        if (url == null || url.isBlank()) {
+            return Optional.empty();
+        }
+        String rest = url.trim();
+
+        String scheme = null;
+        Matcher matcher = SCHEME.matcher(rest);
+        if (matcher.find()) {
+            scheme = matcher.group(1).toLowerCase(Locale.ROOT);
+            rest = rest.substring(matcher.end());
+        }
+
+        String host = extractHost(rest);
+        if (host == null) {
+            return Optional.empty();
+        }
+
+        String domain = registrableDomain(host);
+        String subdomain = host.length() > domain.length()
+                ? host.substring(0, host.length() - domain.length() - 1)
+                : null;
+        return Optional.of(new NormalizedUrl(scheme, host, subdomain, domain));
+    }
+
+    /**
+     * @return El dominio registrable de una URL o host, o vacío si no tiene host
+     */
+    public Optional<String> registrableDomainOf(String url) {
+        return normalize(url).map(NormalizedUrl::getRegistrableDomain);
+    }
+
+    // ---------------------------------------------------------------
+    // Helpers privados
+    // ---------------------------------------------------------------
+
+    /**
+     * Host en minúsculas y ASCII, sin usuario, puerto ni punto final.
+     */
+    private static String extractHost(String rest) {
+        int end = rest.length();
+        for (char separator : new char[] {'/', '?', '#'}) {
+            int index = rest.indexOf(separator);
+            if (index >= 0 && index < end) {
+                end = index;
+            }
+        }
+        String authority = rest.substring(0, end);
+        authority = authority.substring(authority.lastIndexOf('@') + 1);
+
+        String host;
+        if (authority.startsWith("[")) {
+            int close = authority.indexOf(']');
+            if (close < 0) {
+                return null;
+            }
+            host = authority.substring(0, close + 1);
+        } else {
+            int colon = authority.lastIndexOf(':');
+            host = colon >= 0 && DIGITS.matcher(authority.substring(colon + 1)).matches()
+                    ? authority.substring(0, colon)
+                    : authority;
+        }
+
+        while (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        if (host.isEmpty() || host.contains(" ")) {
+            return null;
+        }
+        try {
+            host = IDN.toASCII(host, IDN.ALLOW_UNASSIGNED);
+        } catch (IllegalArgumentException e) {
+            // Etiqueta no convertible: se compara tal cual
+        }
+        return host.toLowerCase(Locale.ROOT);
+    }
+
+    private String registrableDomain(String host) {
+        if (host.startsWith("[") || IPV4.matcher(host).matches()) {
+            return host;
+        }
+        String[] labels = host.split("\\.");
+        int suffixStart = publicSuffixStart(labels);
+        // El host es un sufijo público (o de una sola etiqueta): es su propio dominio
+        return suffixStart == 0 ? host : join(labels, suffixStart - 1);
+    }
+
+    /**
+     * Índice de la primera etiqueta del sufijo público más largo que cubre el host.
+     * Se prueba de más largo a más corto; una excepción gana al comodín que anula
+     * porque siempre es una etiqueta más larga.
+     */
+    private int publicSuffixStart(String[] labels) {
+        for (int i = 0; i < labels.length; i++) {
+            String suffix = join(labels, i);
+            if (exceptionRules.contains(suffix)) {
+                return i + 1;
+            }
+            if (rules.contains(suffix)) {
+                return i;
+            }
+            if (i + 1 < labels.length && wildcardRules.contains(join(labels, i + 1))) {
+                return i;
+            }
+        }
+        return labels.length - 1;
+    }
+
+    private static String join(String[] labels, int from) {
+        return String.join(".", Arrays.copyOfRange(labels, from, labels.length));
+    }
+
+    /**
+     * Partes de una URL normalizada.
+     */
+    public static final class NormalizedUrl {
+        private final String scheme;
+        private final String host;
+        private final String subdomain;
+        private final String registrableDomain;
+
+        public NormalizedUrl(String scheme, String host, String subdomain, String registrableDomain) {
+            this.scheme = scheme;
+            this.host = host;
+            this.subdomain = subdomain;
+            this.registrableDomain = registrableDomain;
+        }
+
+        /** Esquema en minúsculas, o null si la URL no lo indica. */
+        public String getScheme()            { return scheme; }
+        public String getHost()              { return host; }
+        /** Etiquetas delante del dominio registrable ({@code www}), o null. */
+        public String getSubdomain()         { return subdomain; }
+        public String getRegistrableDomain() { return registrableDomain; }
+    }
+}